@@ -0,0 +1,24 @@
+package com.modsen.benchmark;
+
+import java.lang.reflect.Field;
+
+public final class MapperInjection {
+
+  private MapperInjection() {}
+
+  public static <T> T inject(T mapper, Object usedMapper) {
+    for (Field field : mapper.getClass().getDeclaredFields()) {
+      if (field.getType().isInstance(usedMapper)) {
+        try {
+          field.setAccessible(true);
+          field.set(mapper, usedMapper);
+          return mapper;
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException("Could not inject " + field, e);
+        }
+      }
+    }
+    throw new IllegalArgumentException(
+        mapper.getClass().getName() + " does not use " + usedMapper.getClass().getName());
+  }
+}
@@ -0,0 +1,103 @@
+package com.modsen.benchmark.driver;
+
+import com.modsen.driverservice.config.matching.MatchingProperties;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import com.modsen.driverservice.matching.DispatchStrategy;
+import com.modsen.driverservice.matching.DispatchStrategyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DispatchStrategyBenchmark {
+
+  public static final double MINSK_LATITUDE = 53.9;
+  public static final double MINSK_LONGITUDE = 27.56;
+  public static final double CITY_RADIUS_DEGREES = 0.15;
+  public static final int RIDES_COUNT = 4_096;
+
+  @Param({"10000", "100000", "1000000"})
+  private int drivers;
+
+  @Param({"RANDOM", "LONGEST_IDLE", "HIGHEST_RATED", "NEAREST"})
+  private DispatchStrategyType strategy;
+
+  private DispatchStrategy dispatchStrategy;
+  private DriverAvailabilityDto[] driverAvailabilities;
+  private RideSearchDto[] rides;
+  private int ride;
+  private long clock;
+
+  @Setup
+  public void setUp() {
+    MatchingProperties matchingProperties = new MatchingProperties();
+    matchingProperties.setCellSizeDegrees(0.01);
+    matchingProperties.setMaxSearchRings(20);
+    dispatchStrategy = strategy.create(matchingProperties);
+
+    Random random = new Random(42);
+    driverAvailabilities = new DriverAvailabilityDto[drivers + 1];
+    for (int id = 1; id <= drivers; id++) {
+      driverAvailabilities[id] =
+          DriverAvailabilityDto.builder()
+              .driverId((long) id)
+              .latitude(MINSK_LATITUDE + randomOffset(random))
+              .longitude(MINSK_LONGITUDE + randomOffset(random))
+              .rating(1.0 + random.nextInt(401) / 100.0)
+              .updatedAt(++clock)
+              .build();
+      dispatchStrategy.put(id, driverAvailabilities[id]);
+    }
+    rides = new RideSearchDto[RIDES_COUNT];
+    for (int i = 0; i < rides.length; i++) {
+      rides[i] =
+          RideSearchDto.builder()
+              .rideId((long) i)
+              .startLatitude(MINSK_LATITUDE + randomOffset(random))
+              .startLongitude(MINSK_LONGITUDE + randomOffset(random))
+              .build();
+    }
+  }
+
+  @Benchmark
+  public Long select() {
+    return dispatchStrategy.select(nextRide());
+  }
+
+  /** Selects a driver, takes it out as a claim would and returns it as a finished ride would. */
+  @Benchmark
+  public Long selectAndClaim() {
+    Long driverId = dispatchStrategy.select(nextRide());
+    dispatchStrategy.remove(driverId);
+    DriverAvailabilityDto driverAvailabilityDto = driverAvailabilities[driverId.intValue()];
+    driverAvailabilityDto.setUpdatedAt(++clock);
+    dispatchStrategy.put(driverId, driverAvailabilityDto);
+    return driverId;
+  }
+
+  private RideSearchDto nextRide() {
+    ride = (ride + 1) & (RIDES_COUNT - 1);
+    return rides[ride];
+  }
+
+  private static double randomOffset(Random random) {
+    return (random.nextDouble() * 2 - 1) * CITY_RADIUS_DEGREES;
+  }
+}
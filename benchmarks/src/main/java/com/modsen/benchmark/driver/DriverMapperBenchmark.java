@@ -0,0 +1,125 @@
+package com.modsen.benchmark.driver;
+
+import com.modsen.benchmark.MapperInjection;
+import com.modsen.driverservice.dto.BankCardDto;
+import com.modsen.driverservice.dto.CarDto;
+import com.modsen.driverservice.dto.DriverDto;
+import com.modsen.driverservice.dto.DriverRideDto;
+import com.modsen.driverservice.mapper.BankCardMapper;
+import com.modsen.driverservice.mapper.BankCardMapperImpl;
+import com.modsen.driverservice.mapper.CarMapper;
+import com.modsen.driverservice.mapper.CarMapperImpl;
+import com.modsen.driverservice.mapper.DriverDtoToDriverRideDtoMapper;
+import com.modsen.driverservice.mapper.DriverDtoToDriverRideDtoMapperImpl;
+import com.modsen.driverservice.mapper.DriverMapper;
+import com.modsen.driverservice.mapper.DriverMapperImpl;
+import com.modsen.driverservice.model.BankCard;
+import com.modsen.driverservice.model.Car;
+import com.modsen.driverservice.model.Driver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DriverMapperBenchmark {
+
+  private DriverMapper driverMapper;
+  private CarMapper carMapper;
+  private BankCardMapper bankCardMapper;
+  private DriverDtoToDriverRideDtoMapper driverRideDtoMapper;
+  private Driver driver;
+  private DriverDto driverDto;
+  private Car car;
+  private CarDto carDto;
+  private BankCard bankCard;
+  private BankCardDto bankCardDto;
+
+  @Setup
+  public void setUp() {
+    carMapper = new CarMapperImpl();
+    driverMapper = MapperInjection.inject(new DriverMapperImpl(), carMapper);
+    bankCardMapper = new BankCardMapperImpl();
+    driverRideDtoMapper = new DriverDtoToDriverRideDtoMapperImpl();
+
+    driver = new Driver();
+    driver.setId(7L);
+    driver.setEmail("ivan@google.com");
+    driver.setPassword("12345");
+    driver.setFirstName("Ivan");
+    driver.setLastName("Ivanou");
+    driver.setRating(4.8);
+    driver.setIsAvailable(true);
+    driver.setLatitude(53.9);
+    driver.setLongitude(27.56);
+
+    car = new Car();
+    car.setId(7L);
+    car.setModel("Lada vesta");
+    car.setColour("green");
+    car.setNumber("1123-AC7");
+    car.setDriver(driver);
+    driver.setCar(car);
+
+    bankCard = new BankCard();
+    bankCard.setId(3L);
+    bankCard.setDriver(driver);
+    bankCard.setCardNumber("1234567812345678");
+    bankCard.setBalance(new BigDecimal("1000.00"));
+    bankCard.setIsDefault(true);
+    driver.getBankCards().add(bankCard);
+
+    driverDto = driverMapper.toDto(driver);
+    carDto = carMapper.toDto(car);
+    bankCardDto = bankCardMapper.toDto(bankCard);
+  }
+
+  @Benchmark
+  public DriverDto driverToDto() {
+    return driverMapper.toDto(driver);
+  }
+
+  @Benchmark
+  public Driver driverToEntity() {
+    return driverMapper.toEntity(driverDto);
+  }
+
+  @Benchmark
+  public CarDto carToDto() {
+    return carMapper.toDto(car);
+  }
+
+  @Benchmark
+  public Car carToEntity() {
+    return carMapper.toEntity(carDto);
+  }
+
+  @Benchmark
+  public BankCardDto bankCardToDto() {
+    return bankCardMapper.toDto(bankCard);
+  }
+
+  @Benchmark
+  public BankCard bankCardToEntity() {
+    return bankCardMapper.toEntity(bankCardDto);
+  }
+
+  @Benchmark
+  public DriverRideDto driverDtoToDriverRideDto() {
+    return driverRideDtoMapper.toDriverRideDto(driverDto);
+  }
+}
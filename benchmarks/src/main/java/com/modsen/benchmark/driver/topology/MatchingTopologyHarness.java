@@ -0,0 +1,402 @@
+package com.modsen.benchmark.driver.topology;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.modsen.benchmark.MapperInjection;
+import com.modsen.driverservice.config.demand.ZoneDemandProperties;
+import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.config.matching.MatchingProperties;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import com.modsen.driverservice.mapper.CarMapperImpl;
+import com.modsen.driverservice.mapper.DriverDtoToDriverRideDtoMapperImpl;
+import com.modsen.driverservice.mapper.DriverMapperImpl;
+import com.modsen.driverservice.matching.DispatchStrategyType;
+import com.modsen.driverservice.matching.DriverAvailabilityChange;
+import com.modsen.driverservice.model.Car;
+import com.modsen.driverservice.model.Driver;
+import com.modsen.driverservice.service.impl.DriverServiceImpl;
+import com.modsen.driverservice.stream.DriverAvailabilityStream;
+import com.modsen.driverservice.stream.ZoneDemandStream;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.test.TestRecord;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class MatchingTopologyHarness {
+
+  public static final String TOPIC_ORDER_NEW_RIDE = "order-new-ride";
+  public static final String TOPIC_AVAILABLE_DRIVER = "available-driver";
+  public static final String TOPIC_NOT_FOUND_DRIVER = "not-found-driver";
+  public static final String TOPIC_ZONE_DEMAND = "zone-demand";
+  public static final String TOPIC_ZONE_DEMAND_OPEN = "zone-demand-open";
+  public static final String TOPIC_DRIVER_AVAILABILITY = "driver-availability";
+  public static final String TOPIC_DRIVER_VIEW = "driver-view";
+  public static final String DEFAULT_RESULT_FILE = "topology-result.json";
+  public static final double MINSK_LATITUDE = 53.9;
+  public static final double MINSK_LONGITUDE = 27.56;
+  public static final double CITY_RADIUS_DEGREES = 0.15;
+  public static final int RIDE_PAYLOADS_COUNT = 10_000;
+  public static final int DRAIN_OUTPUT_EVERY = 1_000;
+  public static final Instant EVENT_TIME_START = Instant.parse("2024-01-01T10:00:00Z");
+  public static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private final Map<String, String> options;
+  private final Random random = new Random(42);
+  private TopologyTestDriver topologyTestDriver;
+  private final Map<Long, DriverAvailabilityDto> driverAvailabilities = new HashMap<>();
+  private final ArrayDeque<DriverAvailabilityDto> busyDriverClaims = new ArrayDeque<>();
+  private int maxBusyDrivers;
+  private TestInputTopic<String, String> rideInputTopic;
+  private TestInputTopic<String, DriverAvailabilityDto> driverAvailabilityInputTopic;
+  private TestOutputTopic<String, DriverAvailabilityDto> driverAvailabilityOutputTopic;
+  private TestOutputTopic<byte[], byte[]> availableDriverOutputTopic;
+  private TestOutputTopic<byte[], byte[]> notFoundDriverOutputTopic;
+  private TestOutputTopic<byte[], byte[]> zoneDemandOutputTopic;
+  private long matched;
+  private long notFound;
+  private long zoneDemandWindows;
+
+  public MatchingTopologyHarness(Map<String, String> options) {
+    this.options = options;
+  }
+
+  public static void main(String[] args) throws IOException {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (String arg : args) {
+      String[] option = arg.replaceFirst("^--", "").split("=", 2);
+      if (option.length != 2) {
+        throw new IllegalArgumentException("Expected --name=value but was " + arg);
+      }
+      options.put(option[0], option[1]);
+    }
+    new MatchingTopologyHarness(options).run();
+  }
+
+  public void run() throws IOException {
+    int rides = intOption("rides", 200_000);
+    int warmupRides = intOption("warmup-rides", 50_000);
+    int ratePerSecond = intOption("rate", 0);
+    int drivers = intOption("drivers", 2_000);
+    int busyDrivers = intOption("busy-drivers", 1_500);
+    String resultFile = options.getOrDefault("result", DEFAULT_RESULT_FILE);
+
+    Path stateDir = Files.createTempDirectory("matching-topology");
+    try {
+      createTopology(drivers, busyDrivers, stateDir);
+      String[] ridePayloads = createRidePayloads();
+
+      pipeRides(warmupRides, ratePerSecond, ridePayloads, 0, null);
+      matched = 0;
+      notFound = 0;
+      zoneDemandWindows = 0;
+      long[] latencyNanos = new long[rides];
+      long start = System.nanoTime();
+      pipeRides(rides, ratePerSecond, ridePayloads, warmupRides, latencyNanos);
+      long elapsedNanos = System.nanoTime() - start;
+
+      Map<String, Object> result =
+          result(
+              rides,
+              ratePerSecond,
+              drivers,
+              busyDrivers,
+              elapsedNanos,
+              latencyNanos,
+              drivers - busyDriverClaims.size());
+      String json =
+          new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(result);
+      System.out.println(json);
+      Files.writeString(Path.of(resultFile), json);
+    } finally {
+      if (topologyTestDriver != null) {
+        topologyTestDriver.close();
+      }
+      deleteRecursively(stateDir.toFile());
+    }
+  }
+
+  private void createTopology(int drivers, int busyDrivers, Path stateDir) {
+    KafkaProperties kafkaProperties = new KafkaProperties();
+    kafkaProperties.setTopicOrderNewRide(TOPIC_ORDER_NEW_RIDE);
+    kafkaProperties.setTopicAvailableDriver(TOPIC_AVAILABLE_DRIVER);
+    kafkaProperties.setTopicNotFoundDriver(TOPIC_NOT_FOUND_DRIVER);
+    kafkaProperties.setTopicZoneDemand(TOPIC_ZONE_DEMAND);
+    kafkaProperties.setTopicZoneDemandOpen(TOPIC_ZONE_DEMAND_OPEN);
+    kafkaProperties.setTopicDriverAvailability(TOPIC_DRIVER_AVAILABILITY);
+    kafkaProperties.setTopicDriverView(TOPIC_DRIVER_VIEW);
+    MatchingProperties matchingProperties = new MatchingProperties();
+    matchingProperties.setCellSizeDegrees(0.01);
+    matchingProperties.setMaxSearchRings(20);
+    matchingProperties.setDispatchStrategy(
+        DispatchStrategyType.valueOf(
+            stringOption("strategy", "nearest").toUpperCase().replace('-', '_')));
+    ZoneDemandProperties zoneDemandProperties = new ZoneDemandProperties();
+    zoneDemandProperties.setZoneSizeDegrees(0.05);
+    zoneDemandProperties.setTumblingWindow(Duration.ofMinutes(1));
+    zoneDemandProperties.setHoppingWindow(Duration.ofMinutes(5));
+    zoneDemandProperties.setHoppingAdvance(Duration.ofMinutes(1));
+    zoneDemandProperties.setGrace(Duration.ofSeconds(10));
+    zoneDemandProperties.setMinRequestsForSurge(5);
+    zoneDemandProperties.setMaxSurgeMultiplier(3.0);
+
+    DriverMapperImpl driverMapper =
+        MapperInjection.inject(new DriverMapperImpl(), new CarMapperImpl());
+    DriverDtoToDriverRideDtoMapperImpl driverRideDtoMapper =
+        new DriverDtoToDriverRideDtoMapperImpl();
+    for (long id = 1; id <= drivers; id++) {
+      Driver driver = createDriver(id);
+      driverAvailabilities.put(
+          id,
+          DriverAvailabilityDto.builder()
+              .driverId(id)
+              .change(DriverAvailabilityChange.AVAILABLE)
+              .latitude(driver.getLatitude())
+              .longitude(driver.getLongitude())
+              .rating(driver.getRating())
+              .driverRideDto(driverRideDtoMapper.toDriverRideDto(driverMapper.toDto(driver)))
+              .build());
+    }
+    maxBusyDrivers = busyDrivers;
+
+    DriverServiceImpl driverService =
+        new DriverServiceImpl(
+            null,
+            null,
+            null,
+            null,
+            driverMapper,
+            new ObjectMapper(),
+            kafkaProperties,
+            null,
+            new DriverAvailabilityStream(kafkaProperties, matchingProperties),
+            new ZoneDemandStream(kafkaProperties, zoneDemandProperties));
+    Topology topology =
+        driverService.getAvailableRandomDriverIfExistAndChangeAvailabilityToFalse(
+            new StreamsBuilder());
+
+    Properties properties = new Properties();
+    properties.put(StreamsConfig.APPLICATION_ID_CONFIG, "matching-topology-harness");
+    properties.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+    properties.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+    topologyTestDriver = new TopologyTestDriver(topology, properties, EVENT_TIME_START);
+    rideInputTopic =
+        topologyTestDriver.createInputTopic(
+            TOPIC_ORDER_NEW_RIDE, new StringSerializer(), new StringSerializer());
+    availableDriverOutputTopic = createOutputTopic(TOPIC_AVAILABLE_DRIVER);
+    notFoundDriverOutputTopic = createOutputTopic(TOPIC_NOT_FOUND_DRIVER);
+    zoneDemandOutputTopic = createOutputTopic(TOPIC_ZONE_DEMAND);
+    driverAvailabilityInputTopic =
+        topologyTestDriver.createInputTopic(
+            TOPIC_DRIVER_AVAILABILITY,
+            new StringSerializer(),
+            new JsonSerializer<DriverAvailabilityDto>().noTypeInfo());
+    driverAvailabilityOutputTopic =
+        topologyTestDriver.createOutputTopic(
+            TOPIC_DRIVER_AVAILABILITY,
+            new StringDeserializer(),
+            new JsonDeserializer<>(DriverAvailabilityDto.class, false));
+    for (DriverAvailabilityDto driverAvailabilityDto : driverAvailabilities.values()) {
+      driverAvailabilityInputTopic.pipeInput(
+          String.valueOf(driverAvailabilityDto.getDriverId()),
+          driverAvailabilityDto,
+          EVENT_TIME_START);
+    }
+  }
+
+  private void pipeRides(
+      int rides, int ratePerSecond, String[] ridePayloads, int offset, long[] latencyNanos) {
+    long intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+    long eventIntervalNanos =
+        intervalNanos > 0 ? intervalNanos : TimeUnit.SECONDS.toNanos(1) / 1_000;
+    long start = System.nanoTime();
+    for (int i = 0; i < rides; i++) {
+      int rideNumber = offset + i;
+      long intendedStart = start + i * intervalNanos;
+      long now = System.nanoTime();
+      while (now < intendedStart) {
+        LockSupport.parkNanos(intendedStart - now);
+        now = System.nanoTime();
+      }
+      Instant eventTime = EVENT_TIME_START.plusNanos(rideNumber * eventIntervalNanos);
+      rideInputTopic.pipeInput(
+          String.valueOf(rideNumber), ridePayloads[rideNumber % ridePayloads.length], eventTime);
+      releaseBusyDrivers(eventTime);
+      long finished = System.nanoTime();
+      if (latencyNanos != null) {
+        latencyNanos[i] = finished - (intervalNanos > 0 ? intendedStart : now);
+      }
+      if ((i + 1) % DRAIN_OUTPUT_EVERY == 0) {
+        drainOutputTopics();
+      }
+    }
+    drainOutputTopics();
+  }
+
+  /**
+   * Keeps at most {@code busy-drivers} drivers on a ride: once a claim exceeds it, the driver that
+   * was claimed first finishes its ride and becomes available again.
+   */
+  private void releaseBusyDrivers(Instant eventTime) {
+    while (!driverAvailabilityOutputTopic.isEmpty()) {
+      TestRecord<String, DriverAvailabilityDto> claim = driverAvailabilityOutputTopic.readRecord();
+      busyDriverClaims.addLast(claim.getValue());
+      if (busyDriverClaims.size() > maxBusyDrivers) {
+        DriverAvailabilityDto finishedClaim = busyDriverClaims.pollFirst();
+        DriverAvailabilityDto released = driverAvailabilities.get(finishedClaim.getDriverId());
+        released.setRideId(finishedClaim.getRideId());
+        driverAvailabilityInputTopic.pipeInput(
+            String.valueOf(released.getDriverId()), released, eventTime);
+      }
+    }
+  }
+
+  private void drainOutputTopics() {
+    matched += drain(availableDriverOutputTopic);
+    notFound += drain(notFoundDriverOutputTopic);
+    zoneDemandWindows += drain(zoneDemandOutputTopic);
+  }
+
+  private long drain(TestOutputTopic<byte[], byte[]> outputTopic) {
+    long records = outputTopic.getQueueSize();
+    while (!outputTopic.isEmpty()) {
+      outputTopic.readRecord();
+    }
+    return records;
+  }
+
+  private Map<String, Object> result(
+      int rides,
+      int ratePerSecond,
+      int drivers,
+      int busyDrivers,
+      long elapsedNanos,
+      long[] latencyNanos,
+      int availableDriversLeft) {
+    Arrays.sort(latencyNanos);
+    Map<String, Object> latencyMicros = new LinkedHashMap<>();
+    for (double percentile : PERCENTILES) {
+      latencyMicros.put(
+          "p" + formatPercentile(percentile), toMicros(percentile(latencyNanos, percentile)));
+    }
+    latencyMicros.put("max", toMicros(latencyNanos[latencyNanos.length - 1]));
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("rides", rides);
+    result.put("targetRatePerSecond", ratePerSecond);
+    result.put("drivers", drivers);
+    result.put("busyDrivers", busyDrivers);
+    result.put("dispatchStrategy", stringOption("strategy", "nearest"));
+    result.put("availableDriversLeft", availableDriversLeft);
+    result.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    result.put(
+        "recordsPerSecond", rides * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1));
+    result.put("matched", matched);
+    result.put("notFound", notFound);
+    result.put("zoneDemandWindows", zoneDemandWindows);
+    result.put("latencyMicros", latencyMicros);
+    return result;
+  }
+
+  private String[] createRidePayloads() throws JsonProcessingException {
+    ObjectMapper objectMapper = new ObjectMapper();
+    String[] ridePayloads = new String[RIDE_PAYLOADS_COUNT];
+    for (int i = 0; i < ridePayloads.length; i++) {
+      RideSearchDto rideSearchDto =
+          RideSearchDto.builder()
+              .rideId((long) i + 1)
+              .startLatitude(MINSK_LATITUDE + randomOffset())
+              .startLongitude(MINSK_LONGITUDE + randomOffset())
+              .build();
+      ridePayloads[i] = objectMapper.writeValueAsString(rideSearchDto);
+    }
+    return ridePayloads;
+  }
+
+  private Driver createDriver(long id) {
+    Driver driver = new Driver();
+    driver.setId(id);
+    driver.setEmail("driver" + id + "@google.com");
+    driver.setFirstName("Driver");
+    driver.setLastName("Number" + id);
+    driver.setRating(4.0 + random.nextDouble());
+    driver.setLatitude(MINSK_LATITUDE + randomOffset());
+    driver.setLongitude(MINSK_LONGITUDE + randomOffset());
+    Car car = new Car();
+    car.setId(id);
+    car.setModel("Lada vesta");
+    car.setColour("green");
+    car.setNumber(id + "-AC7");
+    car.setDriver(driver);
+    driver.setCar(car);
+    return driver;
+  }
+
+  private TestOutputTopic<byte[], byte[]> createOutputTopic(String topic) {
+    return topologyTestDriver.createOutputTopic(
+        topic, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+  }
+
+  private double randomOffset() {
+    return (random.nextDouble() * 2 - 1) * CITY_RADIUS_DEGREES;
+  }
+
+  private int intOption(String name, int defaultValue) {
+    String value = options.getOrDefault(name, System.getProperty("harness." + name));
+    return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+  }
+
+  private String stringOption(String name, String defaultValue) {
+    return options.getOrDefault(name, System.getProperty("harness." + name, defaultValue));
+  }
+
+  private static long percentile(long[] sortedValues, double percentile) {
+    int index = (int) Math.ceil(percentile / 100 * sortedValues.length) - 1;
+    return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+  }
+
+  private static String formatPercentile(double percentile) {
+    return percentile == Math.rint(percentile)
+        ? String.valueOf((long) percentile)
+        : String.valueOf(percentile).replace(".", "");
+  }
+
+  private static double toMicros(long nanos) {
+    return nanos / 1_000.0;
+  }
+
+  private static void deleteRecursively(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    file.delete();
+  }
+}
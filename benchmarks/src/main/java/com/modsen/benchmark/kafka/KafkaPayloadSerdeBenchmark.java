@@ -0,0 +1,131 @@
+package com.modsen.benchmark.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.rideservice.config.kafka.KafkaConsumerConfig;
+import com.modsen.rideservice.dto.RideFinishedDto;
+import com.modsen.rideservice.dto.RideSearchDto;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KafkaPayloadSerdeBenchmark {
+
+  public static final String TOPIC = "benchmark";
+
+  private JsonSerializer<Object> rideServiceSerializer;
+  private ObjectMapper driverServiceObjectMapper;
+  private Serde<String> driverServiceStringSerde;
+  private Serde<com.modsen.driverservice.dto.DriverRideDto> driverServiceDriverRideDtoSerde;
+  private JsonDeserializer<Object> rideServiceDeserializer;
+
+  private RideSearchDto rideSearchDto;
+  private byte[] rideSearchDtoJson;
+  private com.modsen.driverservice.dto.DriverRideDto driverRideDto;
+  private byte[] driverRideDtoJson;
+  private Headers driverRideDtoHeaders;
+
+  @Setup
+  public void setUp() {
+    rideServiceSerializer = new JsonSerializer<>();
+    rideServiceSerializer.configure(
+        Map.of(
+            JsonDeserializer.TYPE_MAPPINGS,
+            "rideSearchDto:"
+                + RideSearchDto.class.getName()
+                + ",rideFinishedDto:"
+                + RideFinishedDto.class.getName()),
+        false);
+    driverServiceObjectMapper = Jackson2ObjectMapperBuilder.json().build();
+    driverServiceStringSerde = Serdes.String();
+    driverServiceDriverRideDtoSerde =
+        Serdes.serdeFrom(
+            new JsonSerializer<>(),
+            new JsonDeserializer<>(com.modsen.driverservice.dto.DriverRideDto.class));
+    rideServiceDeserializer = new JsonDeserializer<>();
+    rideServiceDeserializer.configure(
+        Map.of(
+            JsonDeserializer.TRUSTED_PACKAGES,
+            "*",
+            JsonDeserializer.TYPE_MAPPINGS,
+            KafkaConsumerConfig.FULL_CLASS_NAME_DRIVER_DTO_IN_DRIVER_SERVICE
+                + ":"
+                + com.modsen.rideservice.dto.DriverRideDto.class.getName()),
+        false);
+
+    rideSearchDto =
+        RideSearchDto.builder().rideId(42L).startLatitude(53.9).startLongitude(27.56).build();
+    rideSearchDtoJson =
+        rideServiceSerializer.serialize(TOPIC, new RecordHeaders(), rideSearchDto);
+
+    driverRideDto =
+        com.modsen.driverservice.dto.DriverRideDto.builder()
+            .id(7L)
+            .rideId(42L)
+            .firstName("Ivan")
+            .lastName("Ivanou")
+            .carDto(
+                com.modsen.driverservice.dto.CarDto.builder()
+                    .driverId(7L)
+                    .model("Lada vesta")
+                    .colour("green")
+                    .number("1123-AC7")
+                    .build())
+            .build();
+    driverRideDtoHeaders = new RecordHeaders();
+    driverRideDtoJson =
+        driverServiceDriverRideDtoSerde
+            .serializer()
+            .serialize(TOPIC, driverRideDtoHeaders, driverRideDto);
+  }
+
+  @Benchmark
+  public byte[] serializeRideSearchDtoInRideService() {
+    return rideServiceSerializer.serialize(TOPIC, new RecordHeaders(), rideSearchDto);
+  }
+
+  @Benchmark
+  public com.modsen.driverservice.dto.RideSearchDto deserializeRideSearchDtoInDriverService()
+      throws JsonProcessingException {
+    String rideSearchDtoString =
+        driverServiceStringSerde.deserializer().deserialize(TOPIC, rideSearchDtoJson);
+    return driverServiceObjectMapper.readValue(
+        rideSearchDtoString, com.modsen.driverservice.dto.RideSearchDto.class);
+  }
+
+  @Benchmark
+  public byte[] serializeDriverRideDtoInDriverService() {
+    return driverServiceDriverRideDtoSerde
+        .serializer()
+        .serialize(TOPIC, new RecordHeaders(), driverRideDto);
+  }
+
+  @Benchmark
+  public Object deserializeDriverRideDtoInRideService() {
+    return rideServiceDeserializer.deserialize(
+        TOPIC, new RecordHeaders(driverRideDtoHeaders.toArray()), driverRideDtoJson);
+  }
+}
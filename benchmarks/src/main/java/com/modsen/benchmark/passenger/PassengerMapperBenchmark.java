@@ -0,0 +1,91 @@
+package com.modsen.benchmark.passenger;
+
+import com.modsen.benchmark.MapperInjection;
+import com.modsen.passengerservice.dto.BankCardDto;
+import com.modsen.passengerservice.dto.PassengerDto;
+import com.modsen.passengerservice.mapper.BankCardMapper;
+import com.modsen.passengerservice.mapper.BankCardMapperImpl;
+import com.modsen.passengerservice.mapper.PassengerMapper;
+import com.modsen.passengerservice.mapper.PassengerMapperImpl;
+import com.modsen.passengerservice.model.BankCard;
+import com.modsen.passengerservice.model.Passenger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PassengerMapperBenchmark {
+
+  @Param({"1", "5"})
+  private int bankCardsCount;
+
+  private PassengerMapper passengerMapper;
+  private BankCardMapper bankCardMapper;
+  private Passenger passenger;
+  private PassengerDto passengerDto;
+  private BankCard bankCard;
+  private BankCardDto bankCardDto;
+
+  @Setup
+  public void setUp() {
+    bankCardMapper = new BankCardMapperImpl();
+    passengerMapper = MapperInjection.inject(new PassengerMapperImpl(), bankCardMapper);
+
+    passenger = new Passenger();
+    passenger.setId(5L);
+    passenger.setEmail("petr@google.com");
+    passenger.setPassword("12345");
+    passenger.setFirstName("Petr");
+    passenger.setLastName("Petrov");
+    passenger.setRating(4.9);
+    for (long i = 0; i < bankCardsCount; i++) {
+      BankCard passengerBankCard = new BankCard();
+      passengerBankCard.setId(i);
+      passengerBankCard.setPassenger(passenger);
+      passengerBankCard.setCardNumber("123456781234567" + i % 10);
+      passengerBankCard.setBalance(new BigDecimal("1000.00"));
+      passengerBankCard.setIsDefault(i == 0);
+      passenger.getBankCards().add(passengerBankCard);
+    }
+    bankCard = passenger.getBankCards().get(0);
+
+    passengerDto = passengerMapper.toDto(passenger);
+    bankCardDto = bankCardMapper.toDto(bankCard);
+  }
+
+  @Benchmark
+  public PassengerDto passengerToDto() {
+    return passengerMapper.toDto(passenger);
+  }
+
+  @Benchmark
+  public Passenger passengerToEntity() {
+    return passengerMapper.toEntity(passengerDto);
+  }
+
+  @Benchmark
+  public BankCardDto bankCardToDto() {
+    return bankCardMapper.toDto(bankCard);
+  }
+
+  @Benchmark
+  public BankCard bankCardToEntity() {
+    return bankCardMapper.toEntity(bankCardDto);
+  }
+}
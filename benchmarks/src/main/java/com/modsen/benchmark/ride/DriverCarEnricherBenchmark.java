@@ -0,0 +1,74 @@
+package com.modsen.benchmark.ride;
+
+import com.modsen.rideservice.dto.DriverPageDto;
+import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.enrichment.DriverCarCache;
+import com.modsen.rideservice.enrichment.DriverCarEnricher;
+import com.modsen.rideservice.service.impl.DriverServiceWebClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DriverCarEnricherBenchmark {
+
+  public static final int CACHE_MAX_SIZE = 10_000;
+
+  @Param({"10", "20", "100"})
+  private int pageSize;
+
+  @Param({"warm", "cold"})
+  private String cache;
+
+  private DriverCarEnricher driverCarEnricher;
+  private List<RideDto> ridePage;
+
+  @Setup
+  public void setUp() {
+    int distinctDrivers = Math.max(1, pageSize / 2);
+    ridePage = RideFixtures.ridePage(pageSize, distinctDrivers);
+    Duration ttl = "warm".equals(cache) ? Duration.ofHours(1) : Duration.ZERO;
+    driverCarEnricher =
+        new DriverCarEnricher(
+            new StubDriverServiceWebClient(),
+            new DriverCarCache(ttl, CACHE_MAX_SIZE, System::nanoTime));
+    driverCarEnricher.setCarDtoToRides(ridePage);
+  }
+
+  @Benchmark
+  public List<RideDto> setCarDtoToRides() {
+    driverCarEnricher.setCarDtoToRides(ridePage);
+    return ridePage;
+  }
+
+  private static final class StubDriverServiceWebClient extends DriverServiceWebClient {
+
+    private StubDriverServiceWebClient() {
+      super(null, null);
+    }
+
+    @Override
+    public ResponseEntity<DriverPageDto> getDriverPageDtoByListIdsDriver(
+        List<Long> driversIdList) {
+      return ResponseEntity.ok(RideFixtures.driverPage(driversIdList));
+    }
+  }
+}
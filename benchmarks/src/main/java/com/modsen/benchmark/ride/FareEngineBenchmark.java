@@ -0,0 +1,93 @@
+package com.modsen.benchmark.ride;
+
+import com.modsen.rideservice.config.fare.FareProperties;
+import com.modsen.rideservice.fare.FareEngine;
+import com.modsen.rideservice.fare.Tariff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FareEngineBenchmark {
+
+  public static final BigDecimal MIN_COST_FOR_RIDE = new BigDecimal("10.0");
+  public static final BigDecimal MAX_COST_FOR_RIDE = new BigDecimal("20.0");
+  public static final BigDecimal METERS_IN_KM = BigDecimal.valueOf(1_000);
+  public static final BigDecimal SECONDS_IN_MINUTE = BigDecimal.valueOf(60);
+  public static final BigDecimal PROMO_CODE_DISCOUNT = new BigDecimal("0.7");
+
+  private Tariff tariff;
+  private long distanceMeters;
+  private long durationSeconds;
+  private long discountBasisPoints;
+
+  @Setup
+  public void setUp() {
+    FareProperties.TariffProperties economy = new FareProperties.TariffProperties();
+    economy.setBaseFareCents(250);
+    economy.setPerKmCents(90);
+    economy.setPerMinuteCents(20);
+    economy.setMinimumFareCents(1000);
+    FareProperties fareProperties = new FareProperties();
+    fareProperties.setDefaultTariff("economy");
+    fareProperties.getTariffs().put("economy", economy);
+
+    tariff = new FareEngine(fareProperties).getTariff(null);
+    distanceMeters = 12_345;
+    durationSeconds = 1_234;
+    discountBasisPoints = FareEngine.toBasisPoints(PROMO_CODE_DISCOUNT);
+  }
+
+  @Benchmark
+  public BigDecimal randomBigDecimalCost() {
+    BigDecimal randomFactor = BigDecimal.valueOf(ThreadLocalRandom.current().nextDouble());
+    BigDecimal range = MAX_COST_FOR_RIDE.subtract(MIN_COST_FOR_RIDE);
+    BigDecimal scaled = randomFactor.multiply(range);
+    BigDecimal randomCost = scaled.add(MIN_COST_FOR_RIDE).setScale(2, RoundingMode.HALF_UP);
+    return randomCost.multiply(PROMO_CODE_DISCOUNT);
+  }
+
+  @Benchmark
+  public BigDecimal tariffBigDecimalCost() {
+    BigDecimal fare =
+        BigDecimal.valueOf(tariff.getBaseFareCents(), 2)
+            .add(
+                BigDecimal.valueOf(tariff.getPerKmCents(), 2)
+                    .multiply(BigDecimal.valueOf(distanceMeters))
+                    .divide(METERS_IN_KM, 2, RoundingMode.HALF_UP))
+            .add(
+                BigDecimal.valueOf(tariff.getPerMinuteCents(), 2)
+                    .multiply(BigDecimal.valueOf(durationSeconds))
+                    .divide(SECONDS_IN_MINUTE, 2, RoundingMode.HALF_UP))
+            .max(BigDecimal.valueOf(tariff.getMinimumFareCents(), 2));
+    return fare.multiply(PROMO_CODE_DISCOUNT).setScale(2, RoundingMode.HALF_UP);
+  }
+
+  @Benchmark
+  public long fareEngineCents() {
+    return FareEngine.applyDiscount(
+        FareEngine.fareCents(tariff, distanceMeters, durationSeconds), discountBasisPoints);
+  }
+
+  @Benchmark
+  public BigDecimal fareEngineMoney() {
+    return FareEngine.toMoney(fareEngineCents());
+  }
+}
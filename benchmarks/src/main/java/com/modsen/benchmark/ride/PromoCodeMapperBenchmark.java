@@ -0,0 +1,54 @@
+package com.modsen.benchmark.ride;
+
+import com.modsen.rideservice.dto.PromoCodeDto;
+import com.modsen.rideservice.mapper.PromoCodeMapper;
+import com.modsen.rideservice.mapper.PromoCodeMapperImpl;
+import com.modsen.rideservice.model.PromoCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PromoCodeMapperBenchmark {
+
+  private PromoCodeMapper promoCodeMapper;
+  private PromoCode promoCode;
+  private PromoCodeDto promoCodeDto;
+
+  @Setup
+  public void setUp() {
+    promoCodeMapper = new PromoCodeMapperImpl();
+    promoCode = new PromoCode();
+    promoCode.setId(1L);
+    promoCode.setName("SUPER50");
+    promoCode.setDiscount(new BigDecimal("0.5"));
+    promoCode.setStart(RideFixtures.BOOKING_TIME.minusMonths(1));
+    promoCode.setEnd(RideFixtures.BOOKING_TIME.plusMonths(1));
+    promoCodeDto = promoCodeMapper.toDto(promoCode);
+  }
+
+  @Benchmark
+  public PromoCodeDto toDto() {
+    return promoCodeMapper.toDto(promoCode);
+  }
+
+  @Benchmark
+  public PromoCode toEntity() {
+    return promoCodeMapper.toEntity(promoCodeDto);
+  }
+}
@@ -0,0 +1,103 @@
+package com.modsen.benchmark.ride;
+
+import com.modsen.rideservice.dto.CarDto;
+import com.modsen.rideservice.dto.DriverPageDto;
+import com.modsen.rideservice.dto.DriverRideDto;
+import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.model.PromoCode;
+import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.model.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class RideFixtures {
+
+  static final LocalDateTime BOOKING_TIME = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+  private RideFixtures() {}
+
+  static RideDto rideDto(long id, Long driverId) {
+    return RideDto.builder()
+        .id(id)
+        .startLocation("Minsk, Nezavisimosti 4")
+        .startLatitude(53.8945)
+        .startLongitude(27.5468)
+        .endLocation("Minsk National Airport")
+        .passengerId(id % 1_000)
+        .driverId(driverId)
+        .driverRating(5)
+        .passengerRating(4)
+        .bookingTime(BOOKING_TIME)
+        .approvedTime(BOOKING_TIME.plusMinutes(1))
+        .startTime(BOOKING_TIME.plusMinutes(7))
+        .finishTime(BOOKING_TIME.plusMinutes(42))
+        .passengerBankCardId("3")
+        .promoCodeName("SUPER50")
+        .cost(new BigDecimal("18.79"))
+        .status(Status.FINISHED)
+        .build();
+  }
+
+  static Ride ride(long id, Long driverId) {
+    PromoCode promoCode = new PromoCode();
+    promoCode.setId(1L);
+    promoCode.setName("SUPER50");
+    promoCode.setDiscount(new BigDecimal("0.5"));
+
+    Ride ride = new Ride();
+    ride.setId(id);
+    ride.setStartLocation("Minsk, Nezavisimosti 4");
+    ride.setStartLatitude(53.8945);
+    ride.setStartLongitude(27.5468);
+    ride.setEndLocation("Minsk National Airport");
+    ride.setPassengerId(id % 1_000);
+    ride.setDriverId(driverId);
+    ride.setDriverRating(5);
+    ride.setPassengerRating(4);
+    ride.setBookingTime(BOOKING_TIME);
+    ride.setApprovedTime(BOOKING_TIME.plusMinutes(1));
+    ride.setStartTime(BOOKING_TIME.plusMinutes(7));
+    ride.setFinishTime(BOOKING_TIME.plusMinutes(42));
+    ride.setPassengerBankCardId("3");
+    ride.setPromoCode(promoCode);
+    ride.setCost(new BigDecimal("18.79"));
+    ride.setStatus(Status.FINISHED);
+    return ride;
+  }
+
+  static List<RideDto> ridePage(int pageSize, int distinctDrivers) {
+    List<RideDto> rideDtoList = new ArrayList<>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      rideDtoList.add(rideDto(i, (long) (i % distinctDrivers)));
+    }
+    return rideDtoList;
+  }
+
+  static DriverPageDto driverPage(List<Long> driverIds) {
+    List<DriverRideDto> driverRideDtoList = new ArrayList<>(driverIds.size());
+    for (Long driverId : driverIds) {
+      driverRideDtoList.add(
+          DriverRideDto.builder()
+              .id(driverId)
+              .firstName("Ivan")
+              .lastName("Ivanou")
+              .carDto(carDto(driverId))
+              .build());
+    }
+    DriverPageDto driverPageDto = new DriverPageDto();
+    driverPageDto.setDriverDtoList(driverRideDtoList);
+    return driverPageDto;
+  }
+
+  static CarDto carDto(long driverId) {
+    return CarDto.builder()
+        .driverId(driverId)
+        .colour("green")
+        .model("Lada vesta")
+        .number(driverId + "-AC7")
+        .build();
+  }
+}
@@ -0,0 +1,99 @@
+package com.modsen.benchmark.ride;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.modsen.rideservice.dto.DriverPageDto;
+import com.modsen.rideservice.dto.RideDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RideJsonBenchmark {
+
+  private ObjectWriter rideDtoWriter;
+  private ObjectReader rideDtoReader;
+  private RideDto rideDto;
+  private byte[] rideDtoJson;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    ObjectMapper objectMapper = objectMapper();
+    rideDtoWriter = objectMapper.writerFor(RideDto.class);
+    rideDtoReader = objectMapper.readerFor(RideDto.class);
+    rideDto = RideFixtures.rideDto(1L, 7L);
+    rideDtoJson = rideDtoWriter.writeValueAsBytes(rideDto);
+  }
+
+  @Benchmark
+  public byte[] serializeRideDto() throws JsonProcessingException {
+    return rideDtoWriter.writeValueAsBytes(rideDto);
+  }
+
+  @Benchmark
+  public RideDto deserializeRideDto() throws IOException {
+    return rideDtoReader.readValue(rideDtoJson);
+  }
+
+  @Benchmark
+  public byte[] serializeDriverPageDto(DriverPage driverPage) throws JsonProcessingException {
+    return driverPage.driverPageDtoWriter.writeValueAsBytes(driverPage.driverPageDto);
+  }
+
+  @Benchmark
+  public DriverPageDto deserializeDriverPageDto(DriverPage driverPage) throws IOException {
+    return driverPage.driverPageDtoReader.readValue(driverPage.driverPageDtoJson);
+  }
+
+  private static ObjectMapper objectMapper() {
+    return Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+  }
+
+  @State(Scope.Thread)
+  public static class DriverPage {
+
+    @Param({"20", "100"})
+    private int driverPageSize;
+
+    private ObjectWriter driverPageDtoWriter;
+    private ObjectReader driverPageDtoReader;
+    private DriverPageDto driverPageDto;
+    private byte[] driverPageDtoJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+      ObjectMapper objectMapper = objectMapper();
+      driverPageDtoWriter = objectMapper.writerFor(DriverPageDto.class);
+      driverPageDtoReader = objectMapper.readerFor(DriverPageDto.class);
+      List<Long> driverIds =
+          LongStream.range(0, driverPageSize).boxed().collect(Collectors.toList());
+      driverPageDto = RideFixtures.driverPage(driverIds);
+      driverPageDtoJson = driverPageDtoWriter.writeValueAsBytes(driverPageDto);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.modsen.benchmark.ride;
+
+import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.mapper.RideMapper;
+import com.modsen.rideservice.mapper.RideMapperImpl;
+import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.service.impl.RideServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RideMapperBenchmark {
+
+  private RideMapper rideMapper;
+  private Ride ride;
+  private RideDto rideDto;
+
+  @Setup
+  public void setUp() {
+    rideMapper = new RideMapperImpl();
+    ride = RideFixtures.ride(1L, 7L);
+    rideDto = RideFixtures.rideDto(1L, 7L);
+  }
+
+  @Benchmark
+  public RideDto toDto() {
+    return rideMapper.toDto(ride);
+  }
+
+  @Benchmark
+  public Ride toEntity() {
+    return rideMapper.toEntity(rideDto);
+  }
+
+  @Benchmark
+  public RideDto checkDateOrder() {
+    RideServiceImpl.checkDateOrder(rideDto);
+    return rideDto;
+  }
+}
@@ -1,13 +1,19 @@
 package com.modsen.driverservice;
 
+import com.modsen.driverservice.config.demand.ZoneDemandProperties;
 import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.config.matching.MatchingProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 
 @SpringBootApplication
-@EnableConfigurationProperties(KafkaProperties.class)
+@EnableConfigurationProperties({
+  KafkaProperties.class,
+  MatchingProperties.class,
+  ZoneDemandProperties.class
+})
 @EnableEurekaClient
 public class DriverServiceApplication {
 
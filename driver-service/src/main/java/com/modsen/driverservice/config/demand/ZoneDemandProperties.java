@@ -0,0 +1,23 @@
+package com.modsen.driverservice.config.demand;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "driver.demand")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class ZoneDemandProperties {
+
+  private double zoneSizeDegrees;
+  private Duration tumblingWindow;
+  private Duration hoppingWindow;
+  private Duration hoppingAdvance;
+  private Duration grace;
+  private long minRequestsForSurge;
+  private double maxSurgeMultiplier;
+}
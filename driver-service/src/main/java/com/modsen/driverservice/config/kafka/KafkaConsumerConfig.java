@@ -0,0 +1,166 @@
+package com.modsen.driverservice.config.kafka;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.DriverReleaseDto;
+import com.modsen.driverservice.dto.RideFinishedDto;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@EnableKafka
+@Configuration
+@RequiredArgsConstructor
+public class KafkaConsumerConfig {
+
+  private final KafkaProperties kafkaProperties;
+
+  /**
+   * Driver availability records are written without type headers, and tombstones of removed
+   * drivers are passed to the listener as {@code null}.
+   */
+  @Bean
+  public ConsumerFactory<String, Object> driverAvailabilityConsumerFactory() {
+    return new DefaultKafkaConsumerFactory<>(
+        Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers(),
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+            ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+            ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class,
+            ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class,
+            JsonDeserializer.VALUE_DEFAULT_TYPE, DriverAvailabilityDto.class.getName(),
+            JsonDeserializer.USE_TYPE_INFO_HEADERS, false));
+  }
+
+  @Bean
+  public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, Object>>
+      driverAvailabilityListenerContainerFactory(
+          KafkaTemplate<String, Object> kafkaTemplate,
+          KafkaTemplate<String, byte[]> deadLetterKafkaTemplate) {
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(driverAvailabilityConsumerFactory());
+    factory.setCommonErrorHandler(
+        deadLetterErrorHandler(
+            kafkaTemplate,
+            deadLetterKafkaTemplate,
+            kafkaProperties.getTopicDriverAvailabilityDlt(),
+            new FixedBackOff(
+                kafkaProperties.getDriverAvailabilityRetryIntervalMs(),
+                kafkaProperties.getDriverAvailabilityRetryAttempts())));
+    return factory;
+  }
+
+  /**
+   * Ride finished events are written by ride-service with type headers. Values that cannot be read
+   * are handed to the error handler instead of failing the poll.
+   */
+  @Bean
+  public ConsumerFactory<String, Object> rideFinishedConsumerFactory() {
+    return new DefaultKafkaConsumerFactory<>(
+        Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers(),
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+            ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+            ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class,
+            ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class,
+            JsonDeserializer.VALUE_DEFAULT_TYPE, RideFinishedDto.class.getName(),
+            JsonDeserializer.TRUSTED_PACKAGES, "*",
+            JsonDeserializer.TYPE_MAPPINGS, "rideFinishedDto:" + RideFinishedDto.class.getName()));
+  }
+
+  @Bean
+  public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, Object>>
+      rideFinishedListenerContainerFactory(
+          KafkaTemplate<String, Object> kafkaTemplate,
+          KafkaTemplate<String, byte[]> deadLetterKafkaTemplate) {
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(rideFinishedConsumerFactory());
+    factory.setCommonErrorHandler(
+        deadLetterErrorHandler(
+            kafkaTemplate,
+            deadLetterKafkaTemplate,
+            kafkaProperties.getTopicRideFinishedDlt(),
+            new FixedBackOff(
+                kafkaProperties.getRideFinishedRetryIntervalMs(),
+                kafkaProperties.getRideFinishedRetryAttempts())));
+    return factory;
+  }
+
+  /**
+   * Driver releases are written by ride-service through its outbox with type headers, and are
+   * retried like ride finished events.
+   */
+  @Bean
+  public ConsumerFactory<String, Object> driverReleaseConsumerFactory() {
+    return new DefaultKafkaConsumerFactory<>(
+        Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers(),
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+            ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+            ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class,
+            ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class,
+            JsonDeserializer.VALUE_DEFAULT_TYPE, DriverReleaseDto.class.getName(),
+            JsonDeserializer.TRUSTED_PACKAGES, "*",
+            JsonDeserializer.TYPE_MAPPINGS,
+                "driverReleaseDto:" + DriverReleaseDto.class.getName()));
+  }
+
+  @Bean
+  public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, Object>>
+      driverReleaseListenerContainerFactory(
+          KafkaTemplate<String, Object> kafkaTemplate,
+          KafkaTemplate<String, byte[]> deadLetterKafkaTemplate) {
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(driverReleaseConsumerFactory());
+    factory.setCommonErrorHandler(
+        deadLetterErrorHandler(
+            kafkaTemplate,
+            deadLetterKafkaTemplate,
+            kafkaProperties.getTopicDriverReleaseDlt(),
+            new FixedBackOff(
+                kafkaProperties.getRideFinishedRetryIntervalMs(),
+                kafkaProperties.getRideFinishedRetryAttempts())));
+    return factory;
+  }
+
+  /**
+   * Retries a failed record with the given back off and then publishes it to the dead letter
+   * topic. Records that could not be deserialized are not retried and keep their raw bytes.
+   */
+  private DefaultErrorHandler deadLetterErrorHandler(
+      KafkaTemplate<String, Object> kafkaTemplate,
+      KafkaTemplate<String, byte[]> deadLetterKafkaTemplate,
+      String deadLetterTopic,
+      FixedBackOff backOff) {
+    Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+    templates.put(byte[].class, deadLetterKafkaTemplate);
+    templates.put(Object.class, kafkaTemplate);
+    DeadLetterPublishingRecoverer recoverer =
+        new DeadLetterPublishingRecoverer(
+            templates,
+            (consumerRecord, exception) ->
+                new TopicPartition(deadLetterTopic, consumerRecord.partition()));
+    return new DefaultErrorHandler(recoverer, backOff);
+  }
+}
@@ -16,4 +16,23 @@ public class KafkaProperties {
   private String topicAvailableDriver;
   private String topicNotFoundDriver;
   private String topicOrderNewRide;
+  private String topicRideFinished;
+  private String topicRideFinishedDlt;
+  private String topicDriverRelease;
+  private String topicDriverReleaseDlt;
+  private String topicZoneDemand;
+  private String topicZoneDemandOpen;
+  private String topicDriverAvailability;
+  private String topicDriverAvailabilityDlt;
+  private String topicDriverView;
+  private String consumersGroupIdDriverAvailability;
+  private String consumersGroupIdRideFinished;
+  private String consumersGroupIdDriverRelease;
+  private long rideFinishedRetryIntervalMs = 1000;
+  private long rideFinishedRetryAttempts = 3;
+  private long driverAvailabilityRetryIntervalMs = 1000;
+  private long driverAvailabilityRetryAttempts = 3;
+  private int partitions = 1;
+  private int replicas = 1;
+  private int numStreamThreads = 1;
 }
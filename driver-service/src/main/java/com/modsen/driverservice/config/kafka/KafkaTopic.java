@@ -1,5 +1,6 @@
 package com.modsen.driverservice.config.kafka;
 
+import com.modsen.driverservice.stream.DriverAvailabilityStream;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
@@ -24,18 +25,108 @@ public class KafkaTopic {
     return new KafkaAdmin(configs);
   }
 
+  /**
+   * Ride search partitions only pick candidate drivers from the global driver view in parallel.
+   * Every claim is still made by the single task of {@link DriverAvailabilityStream}, so adding
+   * partitions or instances does not scale matching horizontally.
+   */
   @Bean
   public NewTopic createTopicOrderNewRide() {
-    return TopicBuilder.name(kafkaProperties.getTopicOrderNewRide()).build();
+    return TopicBuilder.name(kafkaProperties.getTopicOrderNewRide())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
   }
 
   @Bean
   public NewTopic createTopicAvailableDriver() {
-    return TopicBuilder.name(kafkaProperties.getTopicAvailableDriver()).build();
+    return TopicBuilder.name(kafkaProperties.getTopicAvailableDriver())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
   }
 
   @Bean
   public NewTopic createTopicNotFoundDriver() {
-    return TopicBuilder.name(kafkaProperties.getTopicNotFoundDriver()).build();
+    return TopicBuilder.name(kafkaProperties.getTopicNotFoundDriver())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicRideFinished() {
+    return TopicBuilder.name(kafkaProperties.getTopicRideFinished())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicRideFinishedDlt() {
+    return TopicBuilder.name(kafkaProperties.getTopicRideFinishedDlt())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicDriverRelease() {
+    return TopicBuilder.name(kafkaProperties.getTopicDriverRelease())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicDriverReleaseDlt() {
+    return TopicBuilder.name(kafkaProperties.getTopicDriverReleaseDlt())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicZoneDemand() {
+    return TopicBuilder.name(kafkaProperties.getTopicZoneDemand())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .compact()
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicZoneDemandOpen() {
+    return TopicBuilder.name(kafkaProperties.getTopicZoneDemandOpen())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .compact()
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicDriverAvailability() {
+    return TopicBuilder.name(kafkaProperties.getTopicDriverAvailability())
+        .partitions(DriverAvailabilityStream.CLAIM_PARTITIONS)
+        .replicas(kafkaProperties.getReplicas())
+        .compact()
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicDriverAvailabilityDlt() {
+    return TopicBuilder.name(kafkaProperties.getTopicDriverAvailabilityDlt())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
+  }
+
+  @Bean
+  public NewTopic createTopicDriverView() {
+    return TopicBuilder.name(kafkaProperties.getTopicDriverView())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .compact()
+        .build();
   }
 }
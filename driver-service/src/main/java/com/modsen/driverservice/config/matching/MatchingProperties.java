@@ -0,0 +1,18 @@
+package com.modsen.driverservice.config.matching;
+
+import com.modsen.driverservice.matching.DispatchStrategyType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@ConfigurationProperties(prefix = "driver.matching")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class MatchingProperties {
+
+  private double cellSizeDegrees;
+  private int maxSearchRings;
+  private DispatchStrategyType dispatchStrategy = DispatchStrategyType.NEAREST;
+}
@@ -0,0 +1,26 @@
+package com.modsen.driverservice.consumer;
+
+import com.modsen.driverservice.dto.DriverReleaseDto;
+import com.modsen.driverservice.service.DriverService;
+import lombok.AllArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Releases the driver of a match that ride-service rejected, because the ride was no longer
+ * pending or was unknown. Failed records are retried and then sent to the dead letter topic.
+ */
+@Component
+@AllArgsConstructor
+public class DriverReleaseConsumer {
+
+  private final DriverService driverService;
+
+  @KafkaListener(
+      topics = "${spring.kafka.topic-driver-release}",
+      groupId = "${spring.kafka.consumers-group-id-driver-release}",
+      containerFactory = "driverReleaseListenerContainerFactory")
+  public void releaseAfterRejectedMatch(DriverReleaseDto driverReleaseDto) {
+    driverService.releaseAfterRejectedMatch(driverReleaseDto);
+  }
+}
@@ -0,0 +1,27 @@
+package com.modsen.driverservice.consumer;
+
+import com.modsen.driverservice.dto.RideFinishedDto;
+import com.modsen.driverservice.service.DriverService;
+import lombok.AllArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Releases the driver of a finished ride. Failed records are retried and then sent to the dead
+ * letter topic by the container error handler, so a database outage or a malformed payload does not
+ * stop matching.
+ */
+@Component
+@AllArgsConstructor
+public class RideFinishedConsumer {
+
+  private final DriverService driverService;
+
+  @KafkaListener(
+      topics = "${spring.kafka.topic-ride-finished}",
+      groupId = "${spring.kafka.consumers-group-id-ride-finished}",
+      containerFactory = "rideFinishedListenerContainerFactory")
+  public void releaseAfterFinishedRide(RideFinishedDto rideFinishedDto) {
+    driverService.releaseAfterFinishedRide(rideFinishedDto);
+  }
+}
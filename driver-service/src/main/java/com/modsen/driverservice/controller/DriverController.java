@@ -1,9 +1,11 @@
 package com.modsen.driverservice.controller;
 
 import com.modsen.driverservice.dto.DriverDto;
+import com.modsen.driverservice.dto.DriverLocationDto;
 import com.modsen.driverservice.dto.DriverPageDto;
 import com.modsen.driverservice.dto.DriverRatingDto;
 import com.modsen.driverservice.dto.IdPageDto;
+import com.modsen.driverservice.pagination.KeysetCursor;
 import com.modsen.driverservice.service.DriverService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -16,9 +18,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import java.util.List;
 
 import static org.springframework.http.HttpStatus.CREATED;
@@ -30,6 +35,7 @@ import static org.springframework.http.HttpStatus.OK;
 @RequestMapping("/api/v1/drivers")
 public class DriverController {
 
+  public static final int MAX_PAGE_LIMIT = 100;
   private final DriverService driverService;
 
   @GetMapping("/{id}")
@@ -44,6 +50,13 @@ public class DriverController {
     return ResponseEntity.ok(driverPageDto);
   }
 
+  @GetMapping(params = "limit")
+  public ResponseEntity<DriverPageDto> getAllAfter(
+      @RequestParam(name = "after", required = false) String after,
+      @RequestParam(name = "limit") @Min(value = 1) @Max(value = MAX_PAGE_LIMIT) int limit) {
+    return ResponseEntity.ok(driverService.getAllAfter(KeysetCursor.decode(after), limit));
+  }
+
   @PostMapping
   public ResponseEntity<DriverDto> save(@RequestBody @Valid DriverDto driverDto) {
     return ResponseEntity.status(CREATED).body(driverService.save(driverDto));
@@ -56,6 +69,12 @@ public class DriverController {
     return ResponseEntity.noContent().build();
   }
 
+  @PutMapping("/{id}/location")
+  public ResponseEntity<DriverDto> updateLocation(
+      @PathVariable("id") long id, @Valid @RequestBody DriverLocationDto driverLocationDto) {
+    return ResponseEntity.ok(driverService.updateLocation(id, driverLocationDto));
+  }
+
   @PutMapping("/{id}/new-rating")
   public ResponseEntity<DriverDto> updateRating(
       @PathVariable("id") long id,
@@ -85,8 +104,9 @@ public class DriverController {
 
   @PutMapping("/{driverId}/available-true")
   public ResponseEntity<Void> updateAvailabilityToTrueAfterFinishedRide(
-      @PathVariable("driverId") long driverId) {
-    driverService.updateAvailabilityToTrueAfterFinishedRide(driverId);
+      @PathVariable("driverId") long driverId,
+      @RequestParam(value = "rideId", required = false) Long rideId) {
+    driverService.updateAvailabilityToTrueAfterFinishedRide(driverId, rideId);
     return ResponseEntity.noContent().build();
   }
 
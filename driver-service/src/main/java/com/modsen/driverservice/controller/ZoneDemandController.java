@@ -0,0 +1,31 @@
+package com.modsen.driverservice.controller;
+
+import com.modsen.driverservice.dto.ZoneDemandDto;
+import com.modsen.driverservice.service.ZoneDemandService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+
+@RestController
+@AllArgsConstructor
+@Validated
+@RequestMapping("/api/v1/zones")
+public class ZoneDemandController {
+
+  private final ZoneDemandService zoneDemandService;
+
+  @GetMapping("/demand")
+  public ResponseEntity<ZoneDemandDto> getCurrentDemand(
+      @RequestParam(name = "latitude") @DecimalMin("-90.0") @DecimalMax("90.0") double latitude,
+      @RequestParam(name = "longitude") @DecimalMin("-180.0") @DecimalMax("180.0")
+          double longitude) {
+    return ResponseEntity.ok(zoneDemandService.getCurrentDemand(latitude, longitude));
+  }
+}
@@ -0,0 +1,17 @@
+package com.modsen.driverservice.demand;
+
+public final class PickupZone {
+
+  public static final String UNKNOWN_ZONE = "unknown";
+
+  private PickupZone() {}
+
+  public static String of(Double latitude, Double longitude, double zoneSizeDegrees) {
+    if (latitude == null || longitude == null) {
+      return UNKNOWN_ZONE;
+    }
+    long row = (long) Math.floor((latitude + 90) / zoneSizeDegrees);
+    long column = (long) Math.floor((longitude + 180) / zoneSizeDegrees);
+    return row + ":" + column;
+  }
+}
@@ -0,0 +1,18 @@
+package com.modsen.driverservice.demand;
+
+import com.modsen.driverservice.dto.DriverRideDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RideMatch {
+
+  private final RideSearchDto rideSearchDto;
+  private final DriverRideDto driverRideDto;
+
+  public boolean isMatched() {
+    return driverRideDto.getId() != null;
+  }
+}
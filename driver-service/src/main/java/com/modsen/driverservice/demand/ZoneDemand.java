@@ -0,0 +1,35 @@
+package com.modsen.driverservice.demand;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ZoneDemand {
+
+  public static final double NO_SURGE_MULTIPLIER = 1.0;
+
+  private long requests;
+  private long matches;
+  private long noDrivers;
+
+  public ZoneDemand add(boolean matched) {
+    requests++;
+    if (matched) {
+      matches++;
+    } else {
+      noDrivers++;
+    }
+    return this;
+  }
+
+  public double surgeMultiplier(long minRequestsForSurge, double maxSurgeMultiplier) {
+    if (requests == 0 || requests < minRequestsForSurge) {
+      return NO_SURGE_MULTIPLIER;
+    }
+    double multiplier = (double) requests / Math.max(matches, 1);
+    return Math.round(Math.min(multiplier, maxSurgeMultiplier) * 100) / 100.0;
+  }
+}
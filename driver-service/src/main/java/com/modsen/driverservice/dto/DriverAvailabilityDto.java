@@ -0,0 +1,27 @@
+package com.modsen.driverservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.modsen.driverservice.matching.DriverAvailabilityChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DriverAvailabilityDto {
+
+  private Long driverId;
+  private DriverAvailabilityChange change;
+  private Double latitude;
+  private Double longitude;
+  private Double rating;
+  private DriverRideDto driverRideDto;
+  private Long rideId;
+  private long updatedAt;
+}
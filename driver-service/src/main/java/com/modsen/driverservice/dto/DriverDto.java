@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
@@ -49,5 +51,13 @@ public class DriverDto {
 
   private boolean isAvailable;
 
+  @DecimalMin(value = "-90.0", message = "{driver.latitude.error}")
+  @DecimalMax(value = "90.0", message = "{driver.latitude.error}")
+  private Double latitude;
+
+  @DecimalMin(value = "-180.0", message = "{driver.longitude.error}")
+  @DecimalMax(value = "180.0", message = "{driver.longitude.error}")
+  private Double longitude;
+
   private CarDto carDto;
 }
@@ -0,0 +1,29 @@
+package com.modsen.driverservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DriverLocationDto {
+
+  @NotNull
+  @DecimalMin(value = "-90.0", message = "{driver.latitude.error}")
+  @DecimalMax(value = "90.0", message = "{driver.latitude.error}")
+  private Double latitude;
+
+  @NotNull
+  @DecimalMin(value = "-180.0", message = "{driver.longitude.error}")
+  @DecimalMax(value = "180.0", message = "{driver.longitude.error}")
+  private Double longitude;
+}
@@ -1,5 +1,6 @@
 package com.modsen.driverservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -18,4 +19,7 @@ import java.util.List;
 public class DriverPageDto {
 
   private List<DriverDto> driverDtoList;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String nextCursor;
 }
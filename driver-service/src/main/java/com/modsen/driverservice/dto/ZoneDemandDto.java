@@ -0,0 +1,26 @@
+package com.modsen.driverservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ZoneDemandDto {
+
+  private String zone;
+  private String window;
+  private Instant windowStart;
+  private Instant windowEnd;
+  private long requests;
+  private long matches;
+  private long noDrivers;
+  private double surgeMultiplier;
+}
@@ -0,0 +1,8 @@
+package com.modsen.driverservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
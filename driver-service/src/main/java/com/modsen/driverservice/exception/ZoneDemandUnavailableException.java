@@ -0,0 +1,8 @@
+package com.modsen.driverservice.exception;
+
+public class ZoneDemandUnavailableException extends RuntimeException {
+
+  public ZoneDemandUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -2,7 +2,9 @@ package com.modsen.driverservice.exception.handler;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.modsen.driverservice.exception.DriverWithoutCarAvailableException;
+import com.modsen.driverservice.exception.InvalidCursorException;
 import com.modsen.driverservice.exception.RideSearchDtoMappingException;
+import com.modsen.driverservice.exception.ZoneDemandUnavailableException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpStatus;
@@ -52,11 +54,20 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
   }
 
-  @ExceptionHandler({DriverWithoutCarAvailableException.class, RideSearchDtoMappingException.class})
+  @ExceptionHandler({
+    DriverWithoutCarAvailableException.class,
+    RideSearchDtoMappingException.class,
+    InvalidCursorException.class
+  })
   public ResponseEntity<Object> handleCustomException(Exception ex) {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
   }
 
+  @ExceptionHandler(ZoneDemandUnavailableException.class)
+  public ResponseEntity<Object> handleZoneDemandUnavailableException(Exception ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+  }
+
   @ExceptionHandler(HttpMessageNotReadableException.class)
   public ResponseEntity<Object> handleHttpMessageNotReadableException(
       HttpMessageNotReadableException ex) {
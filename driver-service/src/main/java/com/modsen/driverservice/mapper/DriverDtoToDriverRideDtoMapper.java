@@ -9,5 +9,6 @@ import org.mapstruct.Mapping;
 public interface DriverDtoToDriverRideDtoMapper {
 
   @Mapping(target = "rideId", ignore = true)
+  @Mapping(target = "rideBookingTime", ignore = true)
   DriverRideDto toDriverRideDto(DriverDto driverDto);
 }
@@ -0,0 +1,134 @@
+package com.modsen.driverservice.matching;
+
+/**
+ * Open-addressing set of available driver ids stored in a plain {@code long[]}, so claims and
+ * releases neither box ids nor allocate. Linear probing with backward-shift deletion keeps probe
+ * chains short without tombstones.
+ *
+ * <p>The pool is written only by the stream task that owns it, so claims and releases need no
+ * locks; the size is volatile to be readable by metrics from other threads.
+ */
+public class AvailableDriverPool {
+
+  public static final long NO_DRIVER = 0;
+  public static final int MIN_CAPACITY = 16;
+  public static final double MAX_LOAD_FACTOR = 0.5;
+
+  private long[] slots;
+  private int mask;
+  private int scanCursor;
+  private volatile int size;
+
+  public AvailableDriverPool(long expectedDrivers) {
+    int capacity = MIN_CAPACITY;
+    while (capacity * MAX_LOAD_FACTOR < expectedDrivers && capacity < 1 << 30) {
+      capacity <<= 1;
+    }
+    slots = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  /** Returns the driver to the pool; {@code false} if it was already there. */
+  public boolean release(long driverId) {
+    checkDriverId(driverId);
+    int slot = indexOf(driverId);
+    while (slots[slot] != NO_DRIVER) {
+      if (slots[slot] == driverId) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = driverId;
+    size++;
+    if (size > slots.length * MAX_LOAD_FACTOR) {
+      resize(slots.length << 1);
+    }
+    return true;
+  }
+
+  /** Takes the driver out of the pool; {@code false} if it was not available. */
+  public boolean claim(long driverId) {
+    checkDriverId(driverId);
+    int slot = indexOf(driverId);
+    while (slots[slot] != driverId) {
+      if (slots[slot] == NO_DRIVER) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    removeAt(slot);
+    return true;
+  }
+
+  /** Takes any available driver out of the pool and returns it, or {@link #NO_DRIVER}. */
+  public long claimAny() {
+    if (size == 0) {
+      return NO_DRIVER;
+    }
+    int slot = scanCursor;
+    while (slots[slot] == NO_DRIVER) {
+      slot = (slot + 1) & mask;
+    }
+    long driverId = slots[slot];
+    scanCursor = slot;
+    removeAt(slot);
+    return driverId;
+  }
+
+  public boolean contains(long driverId) {
+    int slot = indexOf(driverId);
+    while (slots[slot] != NO_DRIVER) {
+      if (slots[slot] == driverId) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void removeAt(int slot) {
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (slots[next] != NO_DRIVER) {
+      int home = indexOf(slots[next]);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        slots[hole] = slots[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    slots[hole] = NO_DRIVER;
+    size--;
+  }
+
+  private void resize(int capacity) {
+    long[] previousSlots = slots;
+    slots = new long[capacity];
+    mask = capacity - 1;
+    scanCursor = 0;
+    for (long driverId : previousSlots) {
+      if (driverId != NO_DRIVER) {
+        int slot = indexOf(driverId);
+        while (slots[slot] != NO_DRIVER) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = driverId;
+      }
+    }
+  }
+
+  private int indexOf(long driverId) {
+    long hash = driverId * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private static void checkDriverId(long driverId) {
+    if (driverId <= NO_DRIVER) {
+      throw new IllegalArgumentException("Driver id should be positive but was " + driverId);
+    }
+  }
+}
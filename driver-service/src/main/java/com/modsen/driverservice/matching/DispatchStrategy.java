@@ -0,0 +1,20 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+
+/**
+ * Chooses which available driver gets a ride. Implementations are owned by a single stream task
+ * and are not thread-safe; they mirror the drivers of the task's availability store.
+ */
+public interface DispatchStrategy {
+
+  void put(long driverId, DriverAvailabilityDto driverAvailabilityDto);
+
+  void remove(long driverId);
+
+  /** Returns the best driver for the ride without removing it, or {@code null} if none fits. */
+  Long select(RideSearchDto rideSearchDto);
+
+  int size();
+}
@@ -0,0 +1,27 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.config.matching.MatchingProperties;
+
+public enum DispatchStrategyType {
+  RANDOM,
+  LONGEST_IDLE,
+  HIGHEST_RATED,
+  NEAREST;
+
+  public DispatchStrategy create(MatchingProperties matchingProperties) {
+    switch (this) {
+      case RANDOM:
+        return new RandomDispatchStrategy();
+      case LONGEST_IDLE:
+        return new LongestIdleDispatchStrategy();
+      case HIGHEST_RATED:
+        return new HighestRatedDispatchStrategy();
+      case NEAREST:
+        return new NearestDispatchStrategy(
+            new DriverLocationIndex(
+                matchingProperties.getCellSizeDegrees(), matchingProperties.getMaxSearchRings()));
+      default:
+        throw new IllegalStateException("Unknown dispatch strategy " + this);
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.modsen.driverservice.matching;
+
+public enum DriverAvailabilityChange {
+  AVAILABLE,
+  UNAVAILABLE,
+  UPDATED,
+  CLAIMED,
+  SNAPSHOT
+}
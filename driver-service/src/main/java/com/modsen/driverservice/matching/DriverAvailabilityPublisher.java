@@ -0,0 +1,88 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.mapper.DriverDtoToDriverRideDtoMapper;
+import com.modsen.driverservice.mapper.DriverMapper;
+import com.modsen.driverservice.model.Driver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class DriverAvailabilityPublisher {
+
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final KafkaProperties kafkaProperties;
+  private final DriverMapper driverMapper;
+  private final DriverDtoToDriverRideDtoMapper driverRideDtoMapper;
+
+  public void publishAvailability(Driver driver) {
+    publish(
+        driver,
+        Boolean.TRUE.equals(driver.getIsAvailable())
+            ? DriverAvailabilityChange.AVAILABLE
+            : DriverAvailabilityChange.UNAVAILABLE);
+  }
+
+  /**
+   * Publishes the driver as available again after the given ride, which releases the claim of that
+   * ride in the matching store whatever order the events were published in.
+   */
+  public void publishRelease(Driver driver, Long rideId) {
+    publish(driver, DriverAvailabilityChange.AVAILABLE, rideId);
+  }
+
+  public void publishUpdate(Driver driver) {
+    publish(driver, DriverAvailabilityChange.UPDATED);
+  }
+
+  public void publishSnapshot(Driver driver) {
+    publish(driver, DriverAvailabilityChange.SNAPSHOT);
+  }
+
+  public void publishRemoved(long driverId) {
+    send(String.valueOf(driverId), null);
+  }
+
+  private void publish(Driver driver, DriverAvailabilityChange change) {
+    publish(driver, change, null);
+  }
+
+  private void publish(Driver driver, DriverAvailabilityChange change, Long rideId) {
+    DriverAvailabilityDto driverAvailabilityDto =
+        DriverAvailabilityDto.builder()
+            .driverId(driver.getId())
+            .change(change)
+            .latitude(driver.getLatitude())
+            .longitude(driver.getLongitude())
+            .rating(driver.getRating())
+            .driverRideDto(driverRideDtoMapper.toDriverRideDto(driverMapper.toDto(driver)))
+            .rideId(rideId)
+            .updatedAt(System.currentTimeMillis())
+            .build();
+    send(String.valueOf(driver.getId()), driverAvailabilityDto);
+  }
+
+  /**
+   * Changes made inside a transaction are published after commit, so the matching store never sees
+   * an availability that was rolled back in the database.
+   */
+  private void send(String driverId, DriverAvailabilityDto driverAvailabilityDto) {
+    String topic = kafkaProperties.getTopicDriverAvailability();
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      kafkaTemplate.send(topic, driverId, driverAvailabilityDto);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            kafkaTemplate.send(topic, driverId, driverAvailabilityDto);
+          }
+        });
+  }
+}
@@ -0,0 +1,46 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.model.Driver;
+import com.modsen.driverservice.repository.DriverRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Publishes available drivers from the database on startup, so the matching store is filled on
+ * the first deployment. Snapshots never override availability already known to the store.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DriverAvailabilitySnapshotPublisher {
+
+  public static final int SNAPSHOT_PAGE_SIZE = 500;
+
+  private final DriverRepository driverRepository;
+  private final DriverAvailabilityPublisher driverAvailabilityPublisher;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void publish() {
+    Pageable pageable = PageRequest.of(0, SNAPSHOT_PAGE_SIZE, Sort.by("id"));
+    Page<Long> ids;
+    long published = 0;
+    do {
+      ids = driverRepository.findAllIdsByAvailable(true, pageable);
+      for (Driver driver : driverRepository.findByIdIn(ids.getContent(), Sort.by("id"))) {
+        driverAvailabilityPublisher.publishSnapshot(driver);
+        published++;
+      }
+      pageable = ids.nextPageable();
+    } while (ids.hasNext());
+    log.info("Driver availability snapshot published for {} available drivers", published);
+  }
+}
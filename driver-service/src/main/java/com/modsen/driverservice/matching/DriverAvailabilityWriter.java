@@ -0,0 +1,59 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.repository.DriverRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies claims and releases to the database in the order of the driver availability topic, with
+ * the same rules as the matching store. The claiming ride is kept in the driver row, so a release
+ * of an earlier ride does not return a driver claimed by a later one, and a claim consumed late is
+ * undone by the release that follows it in the topic.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DriverAvailabilityWriter {
+
+  private final DriverRepository driverRepository;
+
+  @KafkaListener(
+      topics = "${spring.kafka.topic-driver-availability}",
+      groupId = "${spring.kafka.consumers-group-id-driver-availability}",
+      containerFactory = "driverAvailabilityListenerContainerFactory")
+  public void write(@Payload(required = false) DriverAvailabilityDto driverAvailabilityDto) {
+    if (driverAvailabilityDto == null) {
+      return;
+    }
+    long driverId = driverAvailabilityDto.getDriverId();
+    Long rideId = driverAvailabilityDto.getRideId();
+    int updated;
+    switch (driverAvailabilityDto.getChange()) {
+      case CLAIMED:
+        updated = driverRepository.markClaimed(driverId, rideId);
+        break;
+      case AVAILABLE:
+        updated =
+            rideId == null
+                ? driverRepository.updateAvailability(driverId, true)
+                : driverRepository.releaseClaim(driverId, rideId);
+        break;
+      case UNAVAILABLE:
+        updated = driverRepository.updateAvailability(driverId, false);
+        break;
+      default:
+        return;
+    }
+    if (updated == 0) {
+      log.info(
+          "{} change of driver {} for ride {} was not applied",
+          driverAvailabilityDto.getChange(),
+          driverId,
+          rideId);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.modsen.driverservice.matching;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DriverLocationIndex {
+
+  private final double cellSizeDegrees;
+  private final int maxSearchRings;
+  private final int rowCount;
+  private final int columnCount;
+  private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+  private final Map<Long, DriverLocation> locations = new ConcurrentHashMap<>();
+
+  public DriverLocationIndex(double cellSizeDegrees, int maxSearchRings) {
+    if (cellSizeDegrees <= 0 || cellSizeDegrees > 180) {
+      throw new IllegalArgumentException("Cell size should be between 0 and 180 degrees");
+    }
+    this.cellSizeDegrees = cellSizeDegrees;
+    this.maxSearchRings = maxSearchRings;
+    this.rowCount = (int) Math.ceil(180 / cellSizeDegrees);
+    this.columnCount = (int) Math.ceil(360 / cellSizeDegrees);
+  }
+
+  public void put(long driverId, double latitude, double longitude) {
+    long cell = cellOf(rowOf(latitude), columnOf(longitude));
+    DriverLocation previous =
+        locations.put(driverId, new DriverLocation(latitude, longitude, cell));
+    cells.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet()).add(driverId);
+    if (previous != null && previous.cell != cell) {
+      removeFromCell(previous.cell, driverId);
+    }
+  }
+
+  /**
+   * Removes the driver from the index. Only one of several concurrent callers gets {@code true}
+   * for the same driver, so the result can be used as a claim.
+   */
+  public boolean remove(long driverId) {
+    DriverLocation location = locations.remove(driverId);
+    if (location == null) {
+      return false;
+    }
+    removeFromCell(location.cell, driverId);
+    return true;
+  }
+
+  public boolean contains(long driverId) {
+    return locations.containsKey(driverId);
+  }
+
+  public int size() {
+    return locations.size();
+  }
+
+  public void clear() {
+    locations.clear();
+    cells.clear();
+  }
+
+  public List<Long> findNearest(double latitude, double longitude, int limit) {
+    int row = rowOf(latitude);
+    int column = columnOf(longitude);
+    List<Candidate> candidates = new ArrayList<>();
+    int enoughAtRing = -1;
+    for (int ring = 0; ring <= maxSearchRings; ring++) {
+      if (enoughAtRing >= 0 && ring > enoughAtRing + 1) {
+        break;
+      }
+      collectRing(row, column, ring, latitude, longitude, candidates);
+      if (enoughAtRing < 0 && candidates.size() >= limit) {
+        enoughAtRing = ring;
+      }
+    }
+    candidates.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+    List<Long> nearest = new ArrayList<>(Math.min(limit, candidates.size()));
+    for (int i = 0; i < candidates.size() && i < limit; i++) {
+      nearest.add(candidates.get(i).driverId);
+    }
+    return nearest;
+  }
+
+  private void collectRing(
+      int row,
+      int column,
+      int ring,
+      double latitude,
+      double longitude,
+      List<Candidate> candidates) {
+    for (int rowOffset = -ring; rowOffset <= ring; rowOffset++) {
+      int ringRow = row + rowOffset;
+      if (ringRow < 0 || ringRow >= rowCount) {
+        continue;
+      }
+      boolean edgeRow = Math.abs(rowOffset) == ring;
+      int columnStep = edgeRow || ring == 0 ? 1 : 2 * ring;
+      for (int columnOffset = -ring; columnOffset <= ring; columnOffset += columnStep) {
+        int ringColumn = Math.floorMod(column + columnOffset, columnCount);
+        collectCell(cellOf(ringRow, ringColumn), latitude, longitude, candidates);
+      }
+    }
+  }
+
+  private void collectCell(
+      long cell, double latitude, double longitude, List<Candidate> candidates) {
+    Set<Long> driverIds = cells.get(cell);
+    if (driverIds == null) {
+      return;
+    }
+    for (Long driverId : driverIds) {
+      DriverLocation location = locations.get(driverId);
+      if (location != null && location.cell == cell) {
+        candidates.add(
+            new Candidate(
+                driverId,
+                distance(latitude, longitude, location.latitude, location.longitude)));
+      }
+    }
+  }
+
+  private void removeFromCell(long cell, long driverId) {
+    cells.computeIfPresent(
+        cell,
+        (key, driverIds) -> {
+          driverIds.remove(driverId);
+          return driverIds.isEmpty() ? null : driverIds;
+        });
+  }
+
+  private int rowOf(double latitude) {
+    int row = (int) Math.floor((latitude + 90) / cellSizeDegrees);
+    return Math.min(Math.max(row, 0), rowCount - 1);
+  }
+
+  private int columnOf(double longitude) {
+    return Math.floorMod((int) Math.floor((longitude + 180) / cellSizeDegrees), columnCount);
+  }
+
+  private long cellOf(int row, int column) {
+    return (long) row * columnCount + column;
+  }
+
+  private static double distance(
+      double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+    double x =
+        Math.toRadians(toLongitude - fromLongitude)
+            * Math.cos(Math.toRadians((fromLatitude + toLatitude) / 2));
+    double y = Math.toRadians(toLatitude - fromLatitude);
+    return x * x + y * y;
+  }
+
+  private static final class DriverLocation {
+
+    private final double latitude;
+    private final double longitude;
+    private final long cell;
+
+    private DriverLocation(double latitude, double longitude, long cell) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.cell = cell;
+    }
+  }
+
+  private static final class Candidate {
+
+    private final long driverId;
+    private final double distance;
+
+    private Candidate(long driverId, double distance) {
+      this.driverId = driverId;
+      this.distance = distance;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/** Drivers ordered by rating, best first; ties go to the lower id. */
+public class HighestRatedDispatchStrategy implements DispatchStrategy {
+
+  public static final double UNKNOWN_RATING = 0.0;
+
+  private final Map<Long, Double> ratings = new HashMap<>();
+  private final NavigableSet<RatedDriver> ratedDrivers =
+      new TreeSet<>(
+          Comparator.comparingDouble((RatedDriver ratedDriver) -> ratedDriver.rating)
+              .reversed()
+              .thenComparingLong(ratedDriver -> ratedDriver.driverId));
+
+  @Override
+  public void put(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+    double rating =
+        driverAvailabilityDto.getRating() == null
+            ? UNKNOWN_RATING
+            : driverAvailabilityDto.getRating();
+    Double previousRating = ratings.put(driverId, rating);
+    if (previousRating != null) {
+      ratedDrivers.remove(new RatedDriver(driverId, previousRating));
+    }
+    ratedDrivers.add(new RatedDriver(driverId, rating));
+  }
+
+  @Override
+  public void remove(long driverId) {
+    Double rating = ratings.remove(driverId);
+    if (rating != null) {
+      ratedDrivers.remove(new RatedDriver(driverId, rating));
+    }
+  }
+
+  @Override
+  public Long select(RideSearchDto rideSearchDto) {
+    return ratedDrivers.isEmpty() ? null : ratedDrivers.first().driverId;
+  }
+
+  @Override
+  public int size() {
+    return ratings.size();
+  }
+
+  private static final class RatedDriver {
+
+    private final long driverId;
+    private final double rating;
+
+    private RatedDriver(long driverId, double rating) {
+      this.driverId = driverId;
+      this.rating = rating;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap of drivers keyed by the time they became available. Removed drivers are dropped lazily
+ * when they reach the top, and the heap is rebuilt once stale entries outnumber live ones.
+ */
+public class LongestIdleDispatchStrategy implements DispatchStrategy {
+
+  public static final int MIN_STALE_ENTRIES_TO_COMPACT = 1_024;
+
+  private final Map<Long, Long> idleSince = new HashMap<>();
+  private final PriorityQueue<IdleDriver> idleDrivers =
+      new PriorityQueue<>(
+          Comparator.comparingLong((IdleDriver idleDriver) -> idleDriver.idleSince)
+              .thenComparingLong(idleDriver -> idleDriver.driverId));
+
+  @Override
+  public void put(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+    if (idleSince.putIfAbsent(driverId, driverAvailabilityDto.getUpdatedAt()) == null) {
+      idleDrivers.add(new IdleDriver(driverId, driverAvailabilityDto.getUpdatedAt()));
+    }
+  }
+
+  @Override
+  public void remove(long driverId) {
+    if (idleSince.remove(driverId) == null) {
+      return;
+    }
+    int staleEntries = idleDrivers.size() - idleSince.size();
+    if (staleEntries > Math.max(idleSince.size(), MIN_STALE_ENTRIES_TO_COMPACT)) {
+      compact();
+    }
+  }
+
+  @Override
+  public Long select(RideSearchDto rideSearchDto) {
+    IdleDriver longestIdle = idleDrivers.peek();
+    while (longestIdle != null && !isCurrent(longestIdle)) {
+      idleDrivers.poll();
+      longestIdle = idleDrivers.peek();
+    }
+    return longestIdle == null ? null : longestIdle.driverId;
+  }
+
+  @Override
+  public int size() {
+    return idleSince.size();
+  }
+
+  private boolean isCurrent(IdleDriver idleDriver) {
+    Long since = idleSince.get(idleDriver.driverId);
+    return since != null && since == idleDriver.idleSince;
+  }
+
+  private void compact() {
+    idleDrivers.clear();
+    idleSince.forEach((driverId, since) -> idleDrivers.add(new IdleDriver(driverId, since)));
+  }
+
+  private static final class IdleDriver {
+
+    private final long driverId;
+    private final long idleSince;
+
+    private IdleDriver(long driverId, long idleSince) {
+      this.driverId = driverId;
+      this.idleSince = idleSince;
+    }
+  }
+}
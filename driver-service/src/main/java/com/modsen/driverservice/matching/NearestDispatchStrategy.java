@@ -0,0 +1,49 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Picks the driver closest to the pickup point. Drivers or rides without coordinates are not
+ * matched here and are left to the fallback of the caller.
+ */
+@RequiredArgsConstructor
+public class NearestDispatchStrategy implements DispatchStrategy {
+
+  private final DriverLocationIndex driverLocationIndex;
+
+  @Override
+  public void put(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+    if (driverAvailabilityDto.getLatitude() != null
+        && driverAvailabilityDto.getLongitude() != null) {
+      driverLocationIndex.put(
+          driverId, driverAvailabilityDto.getLatitude(), driverAvailabilityDto.getLongitude());
+    } else {
+      driverLocationIndex.remove(driverId);
+    }
+  }
+
+  @Override
+  public void remove(long driverId) {
+    driverLocationIndex.remove(driverId);
+  }
+
+  @Override
+  public Long select(RideSearchDto rideSearchDto) {
+    if (rideSearchDto.getStartLatitude() == null || rideSearchDto.getStartLongitude() == null) {
+      return null;
+    }
+    List<Long> nearestDriverIds =
+        driverLocationIndex.findNearest(
+            rideSearchDto.getStartLatitude(), rideSearchDto.getStartLongitude(), 1);
+    return nearestDriverIds.isEmpty() ? null : nearestDriverIds.get(0);
+  }
+
+  @Override
+  public int size() {
+    return driverLocationIndex.size();
+  }
+}
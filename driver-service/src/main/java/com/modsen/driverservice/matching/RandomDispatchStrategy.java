@@ -0,0 +1,54 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Keeps drivers in a dense array, so both a random pick and a swap-with-last removal are O(1). */
+public class RandomDispatchStrategy implements DispatchStrategy {
+
+  public static final int INITIAL_CAPACITY = 16;
+
+  private final Map<Long, Integer> positions = new HashMap<>();
+  private long[] driverIds = new long[INITIAL_CAPACITY];
+  private int size;
+
+  @Override
+  public void put(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+    if (positions.containsKey(driverId)) {
+      return;
+    }
+    if (size == driverIds.length) {
+      driverIds = Arrays.copyOf(driverIds, size * 2);
+    }
+    driverIds[size] = driverId;
+    positions.put(driverId, size++);
+  }
+
+  @Override
+  public void remove(long driverId) {
+    Integer position = positions.remove(driverId);
+    if (position == null) {
+      return;
+    }
+    long lastDriverId = driverIds[--size];
+    if (position != size) {
+      driverIds[position] = lastDriverId;
+      positions.put(lastDriverId, position);
+    }
+  }
+
+  @Override
+  public Long select(RideSearchDto rideSearchDto) {
+    return size == 0 ? null : driverIds[ThreadLocalRandom.current().nextInt(size)];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+}
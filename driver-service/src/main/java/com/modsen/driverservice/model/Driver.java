@@ -53,6 +53,12 @@ public class Driver implements Serializable {
     @Column(name = "is_available", nullable = false)
     private boolean isAvailable;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @OneToMany(
             mappedBy = "driver",
             cascade = {CascadeType.MERGE, CascadeType.REMOVE},
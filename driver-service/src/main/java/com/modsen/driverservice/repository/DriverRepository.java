@@ -5,9 +5,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
@@ -24,9 +26,30 @@ public interface DriverRepository extends PagingAndSortingRepository<Driver, Lon
     @Query("SELECT d.id FROM Driver d")
     Page<Long> findAllIds(Pageable pageable);
 
+    @Query("SELECT d.id FROM Driver d WHERE d.id > :afterId ORDER BY d.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
     @Query("SELECT d.id FROM Driver d WHERE d.isAvailable=:isAvailable")
     Page<Long> findAllIdsByAvailable(@Param("isAvailable") boolean isAvailable, Pageable pageable);
 
-    @Query(value = "SELECT * FROM drivers WHERE is_available = true ORDER BY RANDOM() LIMIT 1", nativeQuery = true)
-    Optional<Driver> findRandomAvailable();
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE drivers SET is_available = false, claimed_ride_id = :rideId "
+            + "WHERE id = :id",
+            nativeQuery = true)
+    int markClaimed(@Param("id") long id, @Param("rideId") long rideId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE drivers SET is_available = true, claimed_ride_id = NULL "
+            + "WHERE id = :id AND (claimed_ride_id IS NULL OR claimed_ride_id = :rideId)",
+            nativeQuery = true)
+    int releaseClaim(@Param("id") long id, @Param("rideId") long rideId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE drivers SET is_available = :isAvailable, claimed_ride_id = NULL "
+            + "WHERE id = :id",
+            nativeQuery = true)
+    int updateAvailability(@Param("id") long id, @Param("isAvailable") boolean isAvailable);
 }
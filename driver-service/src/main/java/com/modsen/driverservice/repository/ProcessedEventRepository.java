@@ -0,0 +1,15 @@
+package com.modsen.driverservice.repository;
+
+import com.modsen.driverservice.model.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO processed_events (event_id) VALUES (:eventId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int markProcessed(@Param("eventId") String eventId);
+}
@@ -1,7 +1,11 @@
 package com.modsen.driverservice.service;
 
 import com.modsen.driverservice.dto.DriverDto;
+import com.modsen.driverservice.dto.DriverLocationDto;
+import com.modsen.driverservice.dto.DriverPageDto;
 import com.modsen.driverservice.dto.DriverRatingDto;
+import com.modsen.driverservice.dto.DriverReleaseDto;
+import com.modsen.driverservice.dto.RideFinishedDto;
 import com.modsen.driverservice.model.Driver;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.Topology;
@@ -17,19 +21,27 @@ public interface DriverService {
 
     List<DriverDto> getAll(Pageable pageable);
 
+    DriverPageDto getAllAfter(long afterId, int limit);
+
     DriverDto save(DriverDto driverDto);
 
     void deleteById(long id);
 
     void update(long id, DriverDto driverDto);
 
+    DriverDto updateLocation(long id, DriverLocationDto driverLocationDto);
+
     DriverDto updateRating(long id, DriverRatingDto driverRatingDto);
 
     void addBankCardToDriver(long driverId, long bankCardId);
 
     void removeBankCardToDriver(long driverId, long bankCardId);
 
-    DriverDto updateAvailabilityToTrueAfterFinishedRide(long driverId);
+    DriverDto updateAvailabilityToTrueAfterFinishedRide(long driverId, Long rideId);
+
+    void releaseAfterFinishedRide(RideFinishedDto rideFinishedDto);
+
+    void releaseAfterRejectedMatch(DriverReleaseDto driverReleaseDto);
 
     List<DriverDto> getDriversByIds(List<Long> listId);
 
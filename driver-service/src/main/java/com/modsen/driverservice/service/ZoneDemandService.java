@@ -0,0 +1,8 @@
+package com.modsen.driverservice.service;
+
+import com.modsen.driverservice.dto.ZoneDemandDto;
+
+public interface ZoneDemandService {
+
+    ZoneDemandDto getCurrentDemand(double latitude, double longitude);
+}
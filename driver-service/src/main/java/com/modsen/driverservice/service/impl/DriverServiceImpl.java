@@ -3,21 +3,31 @@ package com.modsen.driverservice.service.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.demand.RideMatch;
 import com.modsen.driverservice.dto.DriverDto;
+import com.modsen.driverservice.dto.DriverLocationDto;
+import com.modsen.driverservice.dto.DriverPageDto;
 import com.modsen.driverservice.dto.DriverRatingDto;
+import com.modsen.driverservice.dto.DriverReleaseDto;
 import com.modsen.driverservice.dto.DriverRideDto;
+import com.modsen.driverservice.dto.RideFinishedDto;
 import com.modsen.driverservice.dto.RideSearchDto;
 import com.modsen.driverservice.exception.DriverWithoutCarAvailableException;
 import com.modsen.driverservice.exception.RideSearchDtoMappingException;
 import com.modsen.driverservice.mapper.BankCardMapper;
-import com.modsen.driverservice.mapper.DriverDtoToDriverRideDtoMapper;
 import com.modsen.driverservice.mapper.DriverMapper;
+import com.modsen.driverservice.matching.DriverAvailabilityPublisher;
 import com.modsen.driverservice.model.BankCard;
 import com.modsen.driverservice.model.Driver;
+import com.modsen.driverservice.pagination.KeysetCursor;
 import com.modsen.driverservice.repository.DriverRepository;
+import com.modsen.driverservice.repository.ProcessedEventRepository;
 import com.modsen.driverservice.service.BankCardService;
 import com.modsen.driverservice.service.DriverService;
+import com.modsen.driverservice.stream.DriverAvailabilityStream;
+import com.modsen.driverservice.stream.ZoneDemandStream;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
@@ -28,7 +38,9 @@ import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.Produced;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.stereotype.Service;
@@ -37,9 +49,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DriverServiceImpl implements DriverService {
@@ -48,12 +60,15 @@ public class DriverServiceImpl implements DriverService {
   public static final Double DEFAULT_RATING_NEW_DRIVER = 5.0;
   public static final boolean DEFAULT_AVAILABILITY_NEW_DRIVER = false;
   private final DriverRepository driverRepository;
+  private final ProcessedEventRepository processedEventRepository;
   private final BankCardService bankCardService;
   private final BankCardMapper bankCardMapper;
   private final DriverMapper driverMapper;
-  private final DriverDtoToDriverRideDtoMapper driverRideDtoMapper;
   private final ObjectMapper objectMapper;
   private final KafkaProperties kafkaProperties;
+  private final DriverAvailabilityPublisher driverAvailabilityPublisher;
+  private final DriverAvailabilityStream driverAvailabilityStream;
+  private final ZoneDemandStream zoneDemandStream;
 
   @Override
   @Transactional(readOnly = true)
@@ -83,6 +98,22 @@ public class DriverServiceImpl implements DriverService {
     return getDriverDtos(pageable, ids);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public DriverPageDto getAllAfter(long afterId, int limit) {
+    List<Long> ids = driverRepository.findIdsAfter(afterId, PageRequest.of(0, limit + 1));
+    String nextCursor = null;
+    if (ids.size() > limit) {
+      ids = ids.subList(0, limit);
+      nextCursor = KeysetCursor.encode(ids.get(limit - 1));
+    }
+    List<DriverDto> driverDtoList =
+        driverRepository.findByIdIn(ids, Sort.by("id")).stream()
+            .map(driverMapper::toDto)
+            .collect(Collectors.toList());
+    return DriverPageDto.builder().driverDtoList(driverDtoList).nextCursor(nextCursor).build();
+  }
+
   @Override
   @Transactional
   public DriverDto save(DriverDto driverDto) {
@@ -98,6 +129,7 @@ public class DriverServiceImpl implements DriverService {
   public void deleteById(long id) {
     getDriver(id);
     driverRepository.deleteById(id);
+    driverAvailabilityPublisher.publishRemoved(id);
   }
 
   @Override
@@ -111,6 +143,18 @@ public class DriverServiceImpl implements DriverService {
     driverDto.setId(id);
     Driver driver = driverMapper.toEntity(driverDto);
     driverRepository.save(driver);
+    driverAvailabilityPublisher.publishAvailability(driver);
+  }
+
+  @Override
+  @Transactional
+  public DriverDto updateLocation(long id, DriverLocationDto driverLocationDto) {
+    Driver driver = getDriver(id);
+    driver.setLatitude(driverLocationDto.getLatitude());
+    driver.setLongitude(driverLocationDto.getLongitude());
+    driverRepository.save(driver);
+    driverAvailabilityPublisher.publishUpdate(driver);
+    return driverMapper.toDto(driver);
   }
 
   @Override
@@ -119,6 +163,7 @@ public class DriverServiceImpl implements DriverService {
     Driver driver = getDriver(id);
     driver.setRating(driverRatingDto.getRating());
     DriverDto driverDto = driverMapper.toDto(driverRepository.save(driver));
+    driverAvailabilityPublisher.publishUpdate(driver);
     driverDto.setRating(driverRatingDto.getRating());
     return driverDto;
   }
@@ -163,8 +208,12 @@ public class DriverServiceImpl implements DriverService {
     KStream<String, RideSearchDto> rideSearchDtoKStream =
         stream.mapValues(this::getRideSearchDtoFromString);
 
+    KStream<String, RideMatch> rideMatchKStream =
+        driverAvailabilityStream.match(kStreamBuilder, rideSearchDtoKStream);
+    zoneDemandStream.countByZone(kStreamBuilder, rideMatchKStream);
+
     KStream<String, DriverRideDto> driverRideDtoKStream =
-        rideSearchDtoKStream.mapValues(this::convertRideDtoToDriverRideDto);
+        rideMatchKStream.mapValues(RideMatch::getDriverRideDto);
 
     driverRideDtoKStream
         .split()
@@ -191,20 +240,6 @@ public class DriverServiceImpl implements DriverService {
     return Serdes.serdeFrom(new JsonSerializer<>(), new JsonDeserializer<>(DriverRideDto.class));
   }
 
-  private DriverRideDto convertRideDtoToDriverRideDto(RideSearchDto rideSearchDto) {
-    Optional<Driver> randomAvailableDriver = driverRepository.findRandomAvailable();
-    if (randomAvailableDriver.isPresent()) {
-      Driver driver = randomAvailableDriver.get();
-      driver.setIsAvailable(false);
-      driverRepository.save(driver);
-      DriverDto driverDto = driverMapper.toDto(driver);
-      DriverRideDto driverRideDto = driverRideDtoMapper.toDriverRideDto(driverDto);
-      driverRideDto.setRideId(rideSearchDto.getRideId());
-      return driverRideDto;
-    }
-    return DriverRideDto.builder().rideId(rideSearchDto.getRideId()).build();
-  }
-
   private RideSearchDto getRideSearchDtoFromString(String rideSearchDtoString) {
     try {
       return objectMapper.readValue(rideSearchDtoString, RideSearchDto.class);
@@ -216,13 +251,45 @@ public class DriverServiceImpl implements DriverService {
 
   @Override
   @Transactional
-  public DriverDto updateAvailabilityToTrueAfterFinishedRide(long driverId) {
+  public DriverDto updateAvailabilityToTrueAfterFinishedRide(long driverId, Long rideId) {
     Driver driver = getDriver(driverId);
     driver.setIsAvailable(true);
     driverRepository.save(driver);
+    driverAvailabilityPublisher.publishRelease(driver, rideId);
     return driverMapper.toDto(driver);
   }
 
+  @Override
+  @Transactional
+  public void releaseAfterFinishedRide(RideFinishedDto rideFinishedDto) {
+    release(
+        rideFinishedDto.getEventId(), rideFinishedDto.getDriverId(), rideFinishedDto.getRideId());
+  }
+
+  @Override
+  @Transactional
+  public void releaseAfterRejectedMatch(DriverReleaseDto driverReleaseDto) {
+    release(
+        driverReleaseDto.getEventId(),
+        driverReleaseDto.getDriverId(),
+        driverReleaseDto.getRideId());
+  }
+
+  private void release(String eventId, long driverId, Long rideId) {
+    if (processedEventRepository.markProcessed(eventId) == 0) {
+      log.info("Release event {} was already processed", eventId);
+      return;
+    }
+    driverRepository
+        .findById(driverId)
+        .ifPresentOrElse(
+            driver -> {
+              driver.setIsAvailable(true);
+              driverAvailabilityPublisher.publishRelease(driver, rideId);
+            },
+            () -> log.warn("Driver {} released from ride {} was not found", driverId, rideId));
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<DriverDto> getDriversByIds(List<Long> listId) {
@@ -0,0 +1,70 @@
+package com.modsen.driverservice.service.impl;
+
+import com.modsen.driverservice.config.demand.ZoneDemandProperties;
+import com.modsen.driverservice.demand.PickupZone;
+import com.modsen.driverservice.demand.ZoneDemand;
+import com.modsen.driverservice.dto.ZoneDemandDto;
+import com.modsen.driverservice.exception.ZoneDemandUnavailableException;
+import com.modsen.driverservice.service.ZoneDemandService;
+import com.modsen.driverservice.stream.ZoneDemandStream;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+import static com.modsen.driverservice.stream.ZoneDemandStream.HOPPING_WINDOW;
+import static com.modsen.driverservice.stream.ZoneDemandStream.OPEN_HOPPING_WINDOWS_STORE;
+
+@Service
+@RequiredArgsConstructor
+public class ZoneDemandServiceImpl implements ZoneDemandService {
+
+  private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+  private final ZoneDemandProperties zoneDemandProperties;
+
+  @Override
+  public ZoneDemandDto getCurrentDemand(double latitude, double longitude) {
+    String zone = PickupZone.of(latitude, longitude, zoneDemandProperties.getZoneSizeDegrees());
+    Instant windowStart = currentHoppingWindowStart();
+    ZoneDemandDto zoneDemandDto =
+        openHoppingWindowsStore().get(ZoneDemandStream.openWindowKey(zone, windowStart));
+    if (zoneDemandDto != null) {
+      return zoneDemandDto;
+    }
+    return ZoneDemandDto.builder()
+        .zone(zone)
+        .window(HOPPING_WINDOW)
+        .windowStart(windowStart)
+        .windowEnd(windowStart.plus(zoneDemandProperties.getHoppingWindow()))
+        .surgeMultiplier(ZoneDemand.NO_SURGE_MULTIPLIER)
+        .build();
+  }
+
+  private Instant currentHoppingWindowStart() {
+    long advance = zoneDemandProperties.getHoppingAdvance().toMillis();
+    long size = zoneDemandProperties.getHoppingWindow().toMillis();
+    long latestWindowStart = Math.floorDiv(System.currentTimeMillis(), advance) * advance;
+    return Instant.ofEpochMilli(Math.max(latestWindowStart - size + advance, 0));
+  }
+
+  private ReadOnlyKeyValueStore<String, ZoneDemandDto> openHoppingWindowsStore() {
+    KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+    if (kafkaStreams == null || kafkaStreams.state() != KafkaStreams.State.RUNNING) {
+      throw new ZoneDemandUnavailableException("Zone demand is not available yet, try again later");
+    }
+    try {
+      return kafkaStreams.store(
+          StoreQueryParameters.fromNameAndType(
+              OPEN_HOPPING_WINDOWS_STORE,
+              QueryableStoreTypes.<String, ZoneDemandDto>keyValueStore()));
+    } catch (InvalidStateStoreException exception) {
+      throw new ZoneDemandUnavailableException("Zone demand is not available yet, try again later");
+    }
+  }
+}
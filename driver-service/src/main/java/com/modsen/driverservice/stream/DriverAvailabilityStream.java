@@ -0,0 +1,451 @@
+package com.modsen.driverservice.stream;
+
+import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.config.matching.MatchingProperties;
+import com.modsen.driverservice.demand.RideMatch;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.DriverClaimDto;
+import com.modsen.driverservice.dto.DriverRideDto;
+import com.modsen.driverservice.dto.RideClaimDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import com.modsen.driverservice.matching.DriverAvailabilityChange;
+import com.modsen.driverservice.matching.AvailableDriverPool;
+import com.modsen.driverservice.matching.DispatchStrategy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKey;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.TaskId;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps available drivers in a changelog-backed store fed by the driver availability topic, so
+ * matching claims drivers from local state instead of the database. The driver for a ride is
+ * chosen by the configured {@link DispatchStrategy}, falling back to any available driver. Claims
+ * are published back to the same topic and applied to the database by {@link
+ * com.modsen.driverservice.matching.DriverAvailabilityWriter}.
+ *
+ * <p>Claims go through a single partition: the driver availability topic has one partition and
+ * ride searches are repartitioned into one claim partition, so the task that owns the claims sees
+ * every driver. The owner publishes its available drivers to a compacted view topic, which every
+ * instance reads into a global store. Ride search partitions use that view to pick a candidate in
+ * parallel, and the owner only confirms the candidate or falls back to its own strategy when the
+ * candidate was claimed in the meantime.
+ *
+ * <p>Claim throughput is therefore bounded by one stream task, and horizontal scaling of matching
+ * is out of scope: more ride search partitions, stream threads or instances only spread candidate
+ * selection, which also serializes on the instance-wide driver view index. Scaling claims would
+ * need a claim partition per pickup zone, with driver availability keyed by the driver's zone and
+ * a cross-zone fallback.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DriverAvailabilityStream implements MeterBinder {
+
+  public static final String AVAILABLE_DRIVERS_STORE = "available-drivers";
+  public static final String CLAIMED_DRIVERS_STORE = "claimed-drivers";
+  public static final String DRIVER_VIEW_STORE = "driver-view";
+  public static final String RIDE_CLAIMS_REPARTITION = "ride-claims";
+  public static final int CLAIM_PARTITIONS = 1;
+
+  private final KafkaProperties kafkaProperties;
+  private final MatchingProperties matchingProperties;
+  private final Map<TaskId, TaskMatchingState> matchingStates = new ConcurrentHashMap<>();
+
+  public KStream<String, RideMatch> match(
+      StreamsBuilder streamsBuilder, KStream<String, RideSearchDto> rideSearches) {
+    streamsBuilder
+        .addStateStore(
+            Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(AVAILABLE_DRIVERS_STORE),
+                Serdes.Long(),
+                driverAvailabilityDtoSerde()))
+        .addStateStore(
+            Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(CLAIMED_DRIVERS_STORE),
+                Serdes.Long(),
+                new JsonSerde<>(DriverClaimDto.class).noTypeInfo()));
+
+    DriverViewIndex driverViewIndex =
+        new DriverViewIndex(matchingProperties.getDispatchStrategy().create(matchingProperties));
+    streamsBuilder.addGlobalStore(
+        Stores.keyValueStoreBuilder(
+                Stores.inMemoryKeyValueStore(DRIVER_VIEW_STORE),
+                Serdes.String(),
+                driverAvailabilityDtoSerde())
+            .withLoggingDisabled(),
+        kafkaProperties.getTopicDriverView(),
+        Consumed.with(Serdes.String(), driverAvailabilityDtoSerde()),
+        () -> new DriverViewUpdater(driverViewIndex));
+
+    streamsBuilder
+        .stream(
+            kafkaProperties.getTopicDriverAvailability(),
+            Consumed.with(Serdes.String(), driverAvailabilityDtoSerde()))
+        .transformValues(
+            DriverAvailabilityUpdater::new, AVAILABLE_DRIVERS_STORE, CLAIMED_DRIVERS_STORE)
+        .to(
+            kafkaProperties.getTopicDriverView(),
+            Produced.with(Serdes.String(), driverAvailabilityDtoSerde()));
+
+    KStream<String, RideMatch> rideMatches =
+        rideSearches
+            .mapValues(
+                rideSearchDto ->
+                    RideClaimDto.builder()
+                        .rideSearchDto(rideSearchDto)
+                        .candidateDriverId(driverViewIndex.select(rideSearchDto))
+                        .build())
+            .repartition(
+                Repartitioned.with(Serdes.String(), rideClaimDtoSerde())
+                    .withName(RIDE_CLAIMS_REPARTITION)
+                    .withNumberOfPartitions(CLAIM_PARTITIONS))
+            .transformValues(DriverClaimer::new, AVAILABLE_DRIVERS_STORE, CLAIMED_DRIVERS_STORE);
+    rideMatches
+        .filter((rideId, rideMatch) -> rideMatch.isMatched())
+        .map(
+            (rideId, rideMatch) ->
+                KeyValue.pair(
+                    String.valueOf(rideMatch.getDriverRideDto().getId()),
+                    DriverAvailabilityDto.builder()
+                        .driverId(rideMatch.getDriverRideDto().getId())
+                        .change(DriverAvailabilityChange.CLAIMED)
+                        .rideId(rideMatch.getRideSearchDto().getRideId())
+                        .build()))
+        .to(
+            kafkaProperties.getTopicDriverAvailability(),
+            Produced.with(Serdes.String(), driverAvailabilityDtoSerde()));
+    return rideMatches;
+  }
+
+  private Serde<DriverAvailabilityDto> driverAvailabilityDtoSerde() {
+    return new JsonSerde<>(DriverAvailabilityDto.class).noTypeInfo();
+  }
+
+  private Serde<RideClaimDto> rideClaimDtoSerde() {
+    return new JsonSerde<>(RideClaimDto.class).noTypeInfo();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(
+            "driver.available.count", matchingStates, DriverAvailabilityStream::countAvailable)
+        .description("Drivers available for matching in the local stream tasks")
+        .register(registry);
+  }
+
+  private static int countAvailable(Map<TaskId, TaskMatchingState> matchingStates) {
+    return matchingStates.values().stream()
+        .mapToInt(matchingState -> matchingState.availableDriverPool.size())
+        .sum();
+  }
+
+  /**
+   * Rebuilds the in-memory pool and dispatch strategy of a task from its local store, which Kafka
+   * Streams restores from the changelog before the task starts, so a restart does not touch the
+   * database.
+   */
+  private TaskMatchingState matchingState(
+      TaskId taskId, KeyValueStore<Long, DriverAvailabilityDto> availableDrivers) {
+    return matchingStates.computeIfAbsent(
+        taskId,
+        key -> {
+          long start = System.nanoTime();
+          TaskMatchingState matchingState =
+              new TaskMatchingState(
+                  new AvailableDriverPool(availableDrivers.approximateNumEntries()),
+                  matchingProperties.getDispatchStrategy().create(matchingProperties));
+          try (KeyValueIterator<Long, DriverAvailabilityDto> drivers = availableDrivers.all()) {
+            drivers.forEachRemaining(driver -> matchingState.put(driver.key, driver.value));
+          }
+          log.info(
+              "Matching state of task {} rebuilt with {} available drivers in {} ms",
+              taskId,
+              matchingState.availableDriverPool.size(),
+              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+          return matchingState;
+        });
+  }
+
+  /**
+   * Applies availability changes to the store. A claimed driver is released only by a change for
+   * the claiming ride, or by a change without a ride that follows the claim in the topic, so the
+   * order is decided by the log and not by the clocks of the publishers. Returns the resulting
+   * entry of the driver view, {@code null} when the driver is not available.
+   */
+  private class DriverAvailabilityUpdater
+      implements ValueTransformerWithKey<String, DriverAvailabilityDto, DriverAvailabilityDto> {
+
+    private TaskId taskId;
+    private KeyValueStore<Long, DriverAvailabilityDto> availableDrivers;
+    private KeyValueStore<Long, DriverClaimDto> claimedDrivers;
+    private TaskMatchingState matchingState;
+
+    @Override
+    public void init(ProcessorContext context) {
+      taskId = context.taskId();
+      availableDrivers = context.getStateStore(AVAILABLE_DRIVERS_STORE);
+      claimedDrivers = context.getStateStore(CLAIMED_DRIVERS_STORE);
+      matchingState = matchingState(taskId, availableDrivers);
+    }
+
+    @Override
+    public DriverAvailabilityDto transform(
+        String driverIdKey, DriverAvailabilityDto driverAvailabilityDto) {
+      long driverId = Long.parseLong(driverIdKey);
+      if (driverAvailabilityDto == null) {
+        remove(driverId);
+        claimedDrivers.delete(driverId);
+        return null;
+      }
+      apply(driverId, driverAvailabilityDto);
+      return availableDrivers.get(driverId);
+    }
+
+    private void apply(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+      DriverClaimDto claim = claimedDrivers.get(driverId);
+      switch (driverAvailabilityDto.getChange()) {
+        case AVAILABLE:
+          if (isAfterClaim(claim, driverAvailabilityDto)) {
+            claimedDrivers.delete(driverId);
+            put(driverId, driverAvailabilityDto);
+          }
+          break;
+        case UNAVAILABLE:
+          remove(driverId);
+          if (isAfterClaim(claim, driverAvailabilityDto)) {
+            claimedDrivers.delete(driverId);
+          }
+          break;
+        case UPDATED:
+          if (matchingState.availableDriverPool.contains(driverId)) {
+            put(driverId, driverAvailabilityDto);
+          }
+          break;
+        case SNAPSHOT:
+          if (!matchingState.availableDriverPool.contains(driverId) && claim == null) {
+            put(driverId, driverAvailabilityDto);
+          }
+          break;
+        case CLAIMED:
+          if (isForClaimingRide(claim, driverAvailabilityDto)) {
+            claim.setLogged(true);
+            claimedDrivers.put(driverId, claim);
+          }
+          break;
+        default:
+          break;
+      }
+    }
+
+    @Override
+    public void close() {
+      matchingStates.remove(taskId);
+    }
+
+    /**
+     * Changes written before the claim reached the topic are stale, unless they release the
+     * claiming ride itself.
+     */
+    private boolean isAfterClaim(
+        DriverClaimDto claim, DriverAvailabilityDto driverAvailabilityDto) {
+      return claim == null
+          || isForClaimingRide(claim, driverAvailabilityDto)
+          || (claim.isLogged() && driverAvailabilityDto.getRideId() == null);
+    }
+
+    private boolean isForClaimingRide(
+        DriverClaimDto claim, DriverAvailabilityDto driverAvailabilityDto) {
+      return claim != null && Objects.equals(claim.getRideId(), driverAvailabilityDto.getRideId());
+    }
+
+    private void put(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+      availableDrivers.put(driverId, driverAvailabilityDto);
+      matchingState.put(driverId, driverAvailabilityDto);
+    }
+
+    private void remove(long driverId) {
+      availableDrivers.delete(driverId);
+      matchingState.remove(driverId);
+    }
+  }
+
+  /**
+   * Claims the candidate picked from the driver view if the owner still has it, otherwise selects
+   * from the owner's own strategy, which is always up to date.
+   */
+  private class DriverClaimer implements ValueTransformerWithKey<String, RideClaimDto, RideMatch> {
+
+    private KeyValueStore<Long, DriverAvailabilityDto> availableDrivers;
+    private KeyValueStore<Long, DriverClaimDto> claimedDrivers;
+    private TaskMatchingState matchingState;
+
+    @Override
+    public void init(ProcessorContext context) {
+      availableDrivers = context.getStateStore(AVAILABLE_DRIVERS_STORE);
+      claimedDrivers = context.getStateStore(CLAIMED_DRIVERS_STORE);
+      matchingState = matchingState(context.taskId(), availableDrivers);
+    }
+
+    @Override
+    public RideMatch transform(String rideId, RideClaimDto rideClaimDto) {
+      RideSearchDto rideSearchDto = rideClaimDto.getRideSearchDto();
+      DriverAvailabilityDto claimedDriver = claimCandidate(rideClaimDto);
+      if (claimedDriver == null) {
+        claimedDriver = claimSelected(rideSearchDto);
+      }
+      if (claimedDriver == null) {
+        claimedDriver = claimAny(rideSearchDto);
+      }
+      DriverRideDto driverRideDto =
+          claimedDriver == null ? new DriverRideDto() : claimedDriver.getDriverRideDto();
+      driverRideDto.setRideId(rideSearchDto.getRideId());
+      driverRideDto.setRideBookingTime(rideSearchDto.getBookingTime());
+      return new RideMatch(rideSearchDto, driverRideDto);
+    }
+
+    @Override
+    public void close() {}
+
+    private DriverAvailabilityDto claimCandidate(RideClaimDto rideClaimDto) {
+      Long driverId = rideClaimDto.getCandidateDriverId();
+      if (driverId != null && matchingState.remove(driverId)) {
+        return claim(driverId, rideClaimDto.getRideSearchDto());
+      }
+      return null;
+    }
+
+    private DriverAvailabilityDto claimSelected(RideSearchDto rideSearchDto) {
+      Long driverId = matchingState.dispatchStrategy.select(rideSearchDto);
+      while (driverId != null) {
+        if (matchingState.remove(driverId)) {
+          return claim(driverId, rideSearchDto);
+        }
+        driverId = matchingState.dispatchStrategy.select(rideSearchDto);
+      }
+      return null;
+    }
+
+    private DriverAvailabilityDto claimAny(RideSearchDto rideSearchDto) {
+      long driverId = matchingState.availableDriverPool.claimAny();
+      if (driverId == AvailableDriverPool.NO_DRIVER) {
+        return null;
+      }
+      matchingState.dispatchStrategy.remove(driverId);
+      return claim(driverId, rideSearchDto);
+    }
+
+    private DriverAvailabilityDto claim(long driverId, RideSearchDto rideSearchDto) {
+      DriverAvailabilityDto driver = availableDrivers.delete(driverId);
+      claimedDrivers.put(
+          driverId, DriverClaimDto.builder().rideId(rideSearchDto.getRideId()).build());
+      return driver;
+    }
+  }
+
+  /**
+   * Mirrors the driver view topic into the global store and the instance-wide candidate index. The
+   * global store is restored without this processor, so the index is rebuilt from it on start.
+   */
+  private static class DriverViewUpdater
+      implements Processor<String, DriverAvailabilityDto, Void, Void> {
+
+    private final DriverViewIndex driverViewIndex;
+    private KeyValueStore<String, DriverAvailabilityDto> driverView;
+
+    private DriverViewUpdater(DriverViewIndex driverViewIndex) {
+      this.driverViewIndex = driverViewIndex;
+    }
+
+    @Override
+    public void init(org.apache.kafka.streams.processor.api.ProcessorContext<Void, Void> context) {
+      driverView = context.getStateStore(DRIVER_VIEW_STORE);
+      try (KeyValueIterator<String, DriverAvailabilityDto> drivers = driverView.all()) {
+        drivers.forEachRemaining(
+            driver -> driverViewIndex.put(Long.parseLong(driver.key), driver.value));
+      }
+    }
+
+    @Override
+    public void process(Record<String, DriverAvailabilityDto> driverViewRecord) {
+      long driverId = Long.parseLong(driverViewRecord.key());
+      if (driverViewRecord.value() == null) {
+        driverView.delete(driverViewRecord.key());
+        driverViewIndex.remove(driverId);
+      } else {
+        driverView.put(driverViewRecord.key(), driverViewRecord.value());
+        driverViewIndex.put(driverId, driverViewRecord.value());
+      }
+    }
+  }
+
+  /**
+   * Dispatch strategy over the driver view, written by the global thread and read by every stream
+   * thread of the instance, so access is serialized.
+   */
+  private static final class DriverViewIndex {
+
+    private final DispatchStrategy dispatchStrategy;
+
+    private DriverViewIndex(DispatchStrategy dispatchStrategy) {
+      this.dispatchStrategy = dispatchStrategy;
+    }
+
+    private synchronized void put(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+      dispatchStrategy.put(driverId, driverAvailabilityDto);
+    }
+
+    private synchronized void remove(long driverId) {
+      dispatchStrategy.remove(driverId);
+    }
+
+    private synchronized Long select(RideSearchDto rideSearchDto) {
+      return dispatchStrategy.select(rideSearchDto);
+    }
+  }
+
+  private static final class TaskMatchingState {
+
+    private final AvailableDriverPool availableDriverPool;
+    private final DispatchStrategy dispatchStrategy;
+
+    private TaskMatchingState(
+        AvailableDriverPool availableDriverPool, DispatchStrategy dispatchStrategy) {
+      this.availableDriverPool = availableDriverPool;
+      this.dispatchStrategy = dispatchStrategy;
+    }
+
+    private void put(long driverId, DriverAvailabilityDto driverAvailabilityDto) {
+      availableDriverPool.release(driverId);
+      dispatchStrategy.put(driverId, driverAvailabilityDto);
+    }
+
+    private boolean remove(long driverId) {
+      dispatchStrategy.remove(driverId);
+      return availableDriverPool.claim(driverId);
+    }
+  }
+}
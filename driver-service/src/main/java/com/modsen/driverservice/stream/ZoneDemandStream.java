@@ -0,0 +1,169 @@
+package com.modsen.driverservice.stream;
+
+import com.modsen.driverservice.config.demand.ZoneDemandProperties;
+import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.demand.PickupZone;
+import com.modsen.driverservice.demand.RideMatch;
+import com.modsen.driverservice.demand.ZoneDemand;
+import com.modsen.driverservice.dto.ZoneDemandDto;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Counts ride requests and matching outcomes per pickup zone in tumbling and hopping windows.
+ * Closed windows are published to the compacted zone demand topic.
+ *
+ * <p>The hopping window stores are partitioned by zone, so an instance only holds the zones of its
+ * own partitions. Open hopping windows are therefore also published to a compacted open windows
+ * topic, keyed by zone and window start, which every instance reads into a global table. A window
+ * is removed from that topic with a tombstone once it closes, so the table only keeps open ones.
+ */
+@Component
+@RequiredArgsConstructor
+public class ZoneDemandStream {
+
+  public static final String TUMBLING_WINDOW = "tumbling";
+  public static final String HOPPING_WINDOW = "hopping";
+  public static final String TUMBLING_STORE = "zone-demand-tumbling";
+  public static final String HOPPING_STORE = "zone-demand-hopping";
+  public static final String OPEN_HOPPING_WINDOWS_STORE = "zone-demand-open-hopping";
+  public static final String MATCHED = "MATCHED";
+  public static final String NO_DRIVER = "NO_DRIVER";
+
+  private final KafkaProperties kafkaProperties;
+  private final ZoneDemandProperties zoneDemandProperties;
+
+  public void countByZone(
+      StreamsBuilder streamsBuilder, KStream<String, RideMatch> rideMatches) {
+    KGroupedStream<String, String> outcomesByZone =
+        rideMatches
+            .map(
+                (rideId, rideMatch) ->
+                    KeyValue.pair(
+                        PickupZone.of(
+                            rideMatch.getRideSearchDto().getStartLatitude(),
+                            rideMatch.getRideSearchDto().getStartLongitude(),
+                            zoneDemandProperties.getZoneSizeDegrees()),
+                        rideMatch.isMatched() ? MATCHED : NO_DRIVER))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.String()));
+
+    publish(
+        TUMBLING_WINDOW,
+        outcomesByZone
+            .windowedBy(
+                TimeWindows.ofSizeAndGrace(
+                    zoneDemandProperties.getTumblingWindow(), zoneDemandProperties.getGrace()))
+            .aggregate(
+                ZoneDemand::new,
+                (zone, outcome, zoneDemand) -> zoneDemand.add(MATCHED.equals(outcome)),
+                materializedAs(TUMBLING_STORE)));
+
+    KTable<Windowed<String>, ZoneDemand> hoppingZoneDemandTable =
+        outcomesByZone
+            .windowedBy(
+                TimeWindows.ofSizeAndGrace(
+                        zoneDemandProperties.getHoppingWindow(), zoneDemandProperties.getGrace())
+                    .advanceBy(zoneDemandProperties.getHoppingAdvance()))
+            .aggregate(
+                ZoneDemand::new,
+                (zone, outcome, zoneDemand) -> zoneDemand.add(MATCHED.equals(outcome)),
+                materializedAs(HOPPING_STORE));
+    hoppingZoneDemandTable
+        .toStream()
+        .map(
+            (windowedZone, zoneDemand) ->
+                KeyValue.pair(
+                    openWindowKey(windowedZone.key(), windowedZone.window().startTime()),
+                    toZoneDemandDto(HOPPING_WINDOW, windowedZone, zoneDemand)))
+        .to(
+            kafkaProperties.getTopicZoneDemandOpen(),
+            Produced.with(Serdes.String(), zoneDemandDtoSerde()));
+    publish(HOPPING_WINDOW, hoppingZoneDemandTable)
+        .map(
+            (windowedZone, zoneDemand) ->
+                KeyValue.pair(
+                    openWindowKey(windowedZone.key(), windowedZone.window().startTime()),
+                    (ZoneDemandDto) null))
+        .to(
+            kafkaProperties.getTopicZoneDemandOpen(),
+            Produced.with(Serdes.String(), zoneDemandDtoSerde()));
+
+    streamsBuilder.globalTable(
+        kafkaProperties.getTopicZoneDemandOpen(),
+        Consumed.with(Serdes.String(), zoneDemandDtoSerde()),
+        Materialized.<String, ZoneDemandDto, KeyValueStore<Bytes, byte[]>>as(
+                OPEN_HOPPING_WINDOWS_STORE)
+            .withKeySerde(Serdes.String())
+            .withValueSerde(zoneDemandDtoSerde()));
+  }
+
+  public static String openWindowKey(String zone, Instant windowStart) {
+    return zone + "/" + windowStart.toEpochMilli();
+  }
+
+  public ZoneDemandDto toZoneDemandDto(
+      String window, Windowed<String> windowedZone, ZoneDemand zoneDemand) {
+    return ZoneDemandDto.builder()
+        .zone(windowedZone.key())
+        .window(window)
+        .windowStart(windowedZone.window().startTime())
+        .windowEnd(windowedZone.window().endTime())
+        .requests(zoneDemand.getRequests())
+        .matches(zoneDemand.getMatches())
+        .noDrivers(zoneDemand.getNoDrivers())
+        .surgeMultiplier(
+            zoneDemand.surgeMultiplier(
+                zoneDemandProperties.getMinRequestsForSurge(),
+                zoneDemandProperties.getMaxSurgeMultiplier()))
+        .build();
+  }
+
+  private KStream<Windowed<String>, ZoneDemand> publish(
+      String window, KTable<Windowed<String>, ZoneDemand> zoneDemandTable) {
+    KStream<Windowed<String>, ZoneDemand> closedWindows =
+        zoneDemandTable
+            .suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded()))
+            .toStream();
+    closedWindows
+        .map(
+            (windowedZone, zoneDemand) ->
+                KeyValue.pair(
+                    windowedZone.key() + "/" + window,
+                    toZoneDemandDto(window, windowedZone, zoneDemand)))
+        .to(
+            kafkaProperties.getTopicZoneDemand(),
+            Produced.with(Serdes.String(), zoneDemandDtoSerde()));
+    return closedWindows;
+  }
+
+  private Materialized<String, ZoneDemand, WindowStore<Bytes, byte[]>> materializedAs(
+      String storeName) {
+    return Materialized.<String, ZoneDemand, WindowStore<Bytes, byte[]>>as(storeName)
+        .withKeySerde(Serdes.String())
+        .withValueSerde(new JsonSerde<>(ZoneDemand.class).noTypeInfo());
+  }
+
+  private Serde<ZoneDemandDto> zoneDemandDtoSerde() {
+    return new JsonSerde<>(ZoneDemandDto.class).noTypeInfo();
+  }
+}
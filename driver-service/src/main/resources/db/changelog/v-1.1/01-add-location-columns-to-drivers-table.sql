@@ -0,0 +1,3 @@
+ALTER TABLE drivers
+    ADD COLUMN latitude  DOUBLE PRECISION,
+    ADD COLUMN longitude DOUBLE PRECISION;
\ No newline at end of file
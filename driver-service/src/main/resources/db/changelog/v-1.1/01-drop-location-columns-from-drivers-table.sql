@@ -0,0 +1,3 @@
+ALTER TABLE drivers
+    DROP COLUMN latitude,
+    DROP COLUMN longitude;
\ No newline at end of file
@@ -0,0 +1,5 @@
+CREATE TABLE processed_events
+(
+    event_id     VARCHAR(64) PRIMARY KEY,
+    processed_at TIMESTAMP NOT NULL DEFAULT now()
+);
\ No newline at end of file
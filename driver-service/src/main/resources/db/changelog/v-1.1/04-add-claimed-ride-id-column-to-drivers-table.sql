@@ -0,0 +1,2 @@
+ALTER TABLE drivers
+    ADD COLUMN claimed_ride_id BIGINT;
\ No newline at end of file
@@ -0,0 +1,2 @@
+ALTER TABLE drivers
+    DROP COLUMN claimed_ride_id;
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.modsen.driverservice.integration.service;
+
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.integration.testbase.IntegrationTestBase;
+import com.modsen.driverservice.matching.DriverAvailabilityChange;
+import com.modsen.driverservice.matching.DriverAvailabilityWriter;
+import com.modsen.driverservice.repository.DriverRepository;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RequiredArgsConstructor
+class DriverAvailabilityWriterIT extends IntegrationTestBase {
+
+  public static final Long AVAILABLE_DRIVER_ID = 22L;
+  public static final Long UNAVAILABLE_DRIVER_ID = 66L;
+  public static final Long FIRST_RIDE_ID = 1L;
+  public static final Long SECOND_RIDE_ID = 2L;
+
+  private final DriverAvailabilityWriter driverAvailabilityWriter;
+  private final DriverRepository driverRepository;
+
+  @Test
+  void lateClaimIsUndoneByReleaseOfClaimingRide() {
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.CLAIMED, FIRST_RIDE_ID));
+
+    assertFalse(isAvailable(AVAILABLE_DRIVER_ID));
+
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, FIRST_RIDE_ID));
+
+    assertTrue(isAvailable(AVAILABLE_DRIVER_ID));
+  }
+
+  @Test
+  void releaseOfEarlierRideDoesNotReturnDriverClaimedByLaterRide() {
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.CLAIMED, FIRST_RIDE_ID));
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, FIRST_RIDE_ID));
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.CLAIMED, SECOND_RIDE_ID));
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, FIRST_RIDE_ID));
+
+    assertFalse(isAvailable(AVAILABLE_DRIVER_ID));
+
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, SECOND_RIDE_ID));
+
+    assertTrue(isAvailable(AVAILABLE_DRIVER_ID));
+  }
+
+  @Test
+  void availabilityChangeWithoutRideOverridesClaim() {
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.CLAIMED, FIRST_RIDE_ID));
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, null));
+
+    assertTrue(isAvailable(AVAILABLE_DRIVER_ID));
+
+    driverAvailabilityWriter.write(
+        availability(AVAILABLE_DRIVER_ID, DriverAvailabilityChange.UNAVAILABLE, null));
+
+    assertFalse(isAvailable(AVAILABLE_DRIVER_ID));
+  }
+
+  @Test
+  void snapshotsUpdatesAndTombstonesDoNotChangeAvailability() {
+    driverAvailabilityWriter.write(
+        availability(UNAVAILABLE_DRIVER_ID, DriverAvailabilityChange.SNAPSHOT, null));
+    driverAvailabilityWriter.write(
+        availability(UNAVAILABLE_DRIVER_ID, DriverAvailabilityChange.UPDATED, null));
+    driverAvailabilityWriter.write(null);
+
+    assertFalse(isAvailable(UNAVAILABLE_DRIVER_ID));
+  }
+
+  private boolean isAvailable(long driverId) {
+    return driverRepository.findById(driverId).orElseThrow().getIsAvailable();
+  }
+
+  private DriverAvailabilityDto availability(
+      Long driverId, DriverAvailabilityChange change, Long rideId) {
+    return DriverAvailabilityDto.builder().driverId(driverId).change(change).rideId(rideId).build();
+  }
+}
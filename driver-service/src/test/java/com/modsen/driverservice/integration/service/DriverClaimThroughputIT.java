@@ -0,0 +1,172 @@
+package com.modsen.driverservice.integration.service;
+
+import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.DriverRideDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import com.modsen.driverservice.integration.testbase.IntegrationTestBase;
+import com.modsen.driverservice.matching.DriverAvailabilityChange;
+import com.modsen.driverservice.model.Driver;
+import com.modsen.driverservice.repository.DriverRepository;
+import com.modsen.driverservice.service.DriverService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares claims from the matching store with the atomic database claim that matching used
+ * before, over the same drivers. Both must never assign a driver twice.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class DriverClaimThroughputIT extends IntegrationTestBase {
+
+  public static final int AVAILABLE_DRIVERS_COUNT = 200;
+  public static final int CLAIMERS_COUNT = 16;
+  public static final String DATABASE_CLAIM_QUERY =
+      "UPDATE drivers SET is_available = false WHERE id = (SELECT id FROM drivers "
+          + "WHERE is_available = true LIMIT 1 FOR UPDATE SKIP LOCKED) RETURNING id";
+
+  private final KafkaProperties kafkaProperties;
+  private final DriverService driverService;
+  private final DriverRepository driverRepository;
+  private final JdbcTemplate jdbcTemplate;
+
+  @Test
+  void storeClaimThroughputComparedWithDatabaseClaim() throws InterruptedException {
+    List<Driver> drivers = saveAvailableDrivers();
+    Integer availableDriversCount =
+        jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM drivers WHERE is_available = true", Integer.class);
+
+    long databaseClaimStart = System.nanoTime();
+    List<Long> databaseClaimedDriverIds = claimFromDatabaseConcurrently();
+    long databaseClaimNanos = System.nanoTime() - databaseClaimStart;
+
+    List<Long> storeClaimedDriverIds = new ArrayList<>();
+    long storeClaimNanos;
+    try (TopologyTestDriver topologyTestDriver =
+        new TopologyTestDriver(
+            driverService.getAvailableRandomDriverIfExistAndChangeAvailabilityToFalse(
+                new StreamsBuilder()))) {
+      TestInputTopic<String, DriverAvailabilityDto> driverAvailabilityInputTopic =
+          topologyTestDriver.createInputTopic(
+              kafkaProperties.getTopicDriverAvailability(),
+              Serdes.String().serializer(),
+              new JsonSerializer<DriverAvailabilityDto>().noTypeInfo());
+      TestInputTopic<String, RideSearchDto> orderNewRideInputTopic =
+          topologyTestDriver.createInputTopic(
+              kafkaProperties.getTopicOrderNewRide(),
+              Serdes.String().serializer(),
+              new JsonSerializer<RideSearchDto>().noTypeInfo());
+      TestOutputTopic<String, DriverRideDto> availableDriverOutputTopic =
+          topologyTestDriver.createOutputTopic(
+              kafkaProperties.getTopicAvailableDriver(),
+              Serdes.String().deserializer(),
+              new JsonDeserializer<>(DriverRideDto.class, false));
+      for (Driver driver : drivers) {
+        driverAvailabilityInputTopic.pipeInput(
+            String.valueOf(driver.getId()),
+            DriverAvailabilityDto.builder()
+                .driverId(driver.getId())
+                .change(DriverAvailabilityChange.SNAPSHOT)
+                .driverRideDto(DriverRideDto.builder().id(driver.getId()).build())
+                .build());
+      }
+
+      long storeClaimStart = System.nanoTime();
+      for (long rideId = 1; rideId <= AVAILABLE_DRIVERS_COUNT + 1; rideId++) {
+        orderNewRideInputTopic.pipeInput(
+            String.valueOf(rideId), RideSearchDto.builder().rideId(rideId).build());
+      }
+      storeClaimNanos = System.nanoTime() - storeClaimStart;
+      availableDriverOutputTopic
+          .readValuesToList()
+          .forEach(driverRideDto -> storeClaimedDriverIds.add(driverRideDto.getId()));
+    }
+
+    log.info(
+        "Atomic database claim: {} claims/s, {} double assignments",
+        claimsPerSecond(databaseClaimedDriverIds.size(), databaseClaimNanos),
+        doubleAssignments(databaseClaimedDriverIds));
+    log.info(
+        "Matching store claim: {} claims/s, {} double assignments",
+        claimsPerSecond(storeClaimedDriverIds.size(), storeClaimNanos),
+        doubleAssignments(storeClaimedDriverIds));
+    assertEquals(availableDriversCount, databaseClaimedDriverIds.size());
+    assertEquals(0, doubleAssignments(databaseClaimedDriverIds));
+    assertEquals(AVAILABLE_DRIVERS_COUNT, storeClaimedDriverIds.size());
+    assertEquals(0, doubleAssignments(storeClaimedDriverIds));
+  }
+
+  private List<Long> claimFromDatabaseConcurrently() throws InterruptedException {
+    Queue<Long> claimedDriverIds = new ConcurrentLinkedQueue<>();
+    ExecutorService executorService = Executors.newFixedThreadPool(CLAIMERS_COUNT);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int i = 0; i < CLAIMERS_COUNT; i++) {
+      executorService.execute(
+          () -> {
+            try {
+              start.await();
+              List<Long> driverIds = jdbcTemplate.queryForList(DATABASE_CLAIM_QUERY, Long.class);
+              while (!driverIds.isEmpty()) {
+                claimedDriverIds.addAll(driverIds);
+                driverIds = jdbcTemplate.queryForList(DATABASE_CLAIM_QUERY, Long.class);
+              }
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+    }
+    start.countDown();
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+    return new ArrayList<>(claimedDriverIds);
+  }
+
+  private List<Driver> saveAvailableDrivers() {
+    List<Driver> drivers = new ArrayList<>();
+    for (int i = 0; i < AVAILABLE_DRIVERS_COUNT; i++) {
+      Driver driver = new Driver();
+      driver.setEmail("driver" + i + "@google.com");
+      driver.setPassword("12345");
+      driver.setFirstName("Driver");
+      driver.setLastName("Number" + i);
+      driver.setRating(5.0);
+      driver.setIsAvailable(true);
+      drivers.add(driver);
+    }
+    List<Driver> savedDrivers = new ArrayList<>();
+    driverRepository.saveAll(drivers).forEach(savedDrivers::add);
+    return savedDrivers;
+  }
+
+  private int doubleAssignments(List<Long> claimedDriverIds) {
+    return claimedDriverIds.size() - new HashSet<>(claimedDriverIds).size();
+  }
+
+  private long claimsPerSecond(int claims, long nanos) {
+    return claims * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+  }
+}
@@ -3,10 +3,16 @@ package com.modsen.driverservice.integration.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
 import com.modsen.driverservice.dto.DriverRideDto;
 import com.modsen.driverservice.dto.RideSearchDto;
 import com.modsen.driverservice.exception.RideSearchDtoMappingException;
 import com.modsen.driverservice.integration.testbase.IntegrationTestBase;
+import com.modsen.driverservice.mapper.DriverDtoToDriverRideDtoMapper;
+import com.modsen.driverservice.mapper.DriverMapper;
+import com.modsen.driverservice.matching.DriverAvailabilityChange;
+import com.modsen.driverservice.model.Driver;
+import com.modsen.driverservice.repository.DriverRepository;
 import com.modsen.driverservice.service.DriverService;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -19,8 +25,10 @@ import org.apache.kafka.streams.TopologyTestDriver;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.context.jdbc.Sql;
-import org.springframework.test.context.jdbc.SqlMergeMode;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -35,20 +43,23 @@ class DriverServiceIT extends IntegrationTestBase {
 
   private final KafkaProperties kafkaProperties;
   private final DriverService driverService;
-  private final StreamsBuilder streamsBuilder;
+  private final DriverRepository driverRepository;
+  private final DriverMapper driverMapper;
+  private final DriverDtoToDriverRideDtoMapper driverRideDtoMapper;
   private TopologyTestDriver topologyTestDriver;
   private ObjectMapper objectMapper;
+  private TestInputTopic<String, String> orderNewRideInputTopic;
+  private TestInputTopic<String, DriverAvailabilityDto> driverAvailabilityInputTopic;
   private TestOutputTopic<String, String> availableDriverOutputTopic;
   private TestOutputTopic<String, String> notFoundDriverOutputTopic;
+  private TestOutputTopic<String, DriverAvailabilityDto> driverAvailabilityOutputTopic;
 
   @BeforeEach
   protected void setUp() {
     topologyTestDriver =
         new TopologyTestDriver(
             driverService.getAvailableRandomDriverIfExistAndChangeAvailabilityToFalse(
-                streamsBuilder));
-
-    RideSearchDto rideSearchDto = RideSearchDto.builder().rideId(RANDOM_RIDE_ID).build();
+                new StreamsBuilder()));
     objectMapper = new ObjectMapper();
 
     Serializer<String> keySerializer = Serdes.String().serializer();
@@ -56,22 +67,25 @@ class DriverServiceIT extends IntegrationTestBase {
     Deserializer<String> keyDeserializer = Serdes.String().deserializer();
     Deserializer<String> valueDeserializer = Serdes.String().deserializer();
 
-    TestInputTopic<String, String> orderNewRideInputTopic =
-        topologyTestDriver.createInputTopic(kafkaProperties.getTopicOrderNewRide(), keySerializer, valueSerializer);
-
-    try {
-      orderNewRideInputTopic.pipeInput(objectMapper.writeValueAsString(rideSearchDto));
-    } catch (JsonProcessingException exception) {
-      throw new RideSearchDtoMappingException(
-          "Error processing while converting rideSearchDto to String");
-    }
-
+    orderNewRideInputTopic =
+        topologyTestDriver.createInputTopic(
+            kafkaProperties.getTopicOrderNewRide(), keySerializer, valueSerializer);
+    driverAvailabilityInputTopic =
+        topologyTestDriver.createInputTopic(
+            kafkaProperties.getTopicDriverAvailability(),
+            keySerializer,
+            new JsonSerializer<DriverAvailabilityDto>().noTypeInfo());
     availableDriverOutputTopic =
         topologyTestDriver.createOutputTopic(
             kafkaProperties.getTopicAvailableDriver(), keyDeserializer, valueDeserializer);
     notFoundDriverOutputTopic =
         topologyTestDriver.createOutputTopic(
             kafkaProperties.getTopicNotFoundDriver(), keyDeserializer, valueDeserializer);
+    driverAvailabilityOutputTopic =
+        topologyTestDriver.createOutputTopic(
+            kafkaProperties.getTopicDriverAvailability(),
+            keyDeserializer,
+            new JsonDeserializer<>(DriverAvailabilityDto.class, false));
   }
 
   @AfterEach
@@ -82,20 +96,35 @@ class DriverServiceIT extends IntegrationTestBase {
   @Test
   void whenFoundAvailableDriverThanPutMessageInAvailableTopicKafka()
       throws JsonProcessingException {
+    pipeDriverAvailability(DriverAvailabilityChange.SNAPSHOT);
+    driverAvailabilityOutputTopic.readValuesToList();
+
+    pipeRideSearch();
+
     String driverRideDtoAsStringFromAvailableKafkaTopic = availableDriverOutputTopic.readValue();
     DriverRideDto availableDriverRideDto =
         objectMapper.readValue(driverRideDtoAsStringFromAvailableKafkaTopic, DriverRideDto.class);
+    List<DriverAvailabilityDto> claims = driverAvailabilityOutputTopic.readValuesToList();
 
     assertEquals(EXIST_DRIVER_ID, availableDriverRideDto.getId());
     assertEquals(EXIST_DRIVER_NAME, availableDriverRideDto.getFirstName());
     assertEquals(RANDOM_RIDE_ID, availableDriverRideDto.getRideId());
+    assertEquals(1, claims.size());
+    assertEquals(DriverAvailabilityChange.CLAIMED, claims.get(0).getChange());
+    assertEquals(EXIST_DRIVER_ID, claims.get(0).getDriverId());
+    assertEquals(RANDOM_RIDE_ID, claims.get(0).getRideId());
+    assertTrue(notFoundDriverOutputTopic.isEmpty());
   }
 
   @Test
-  @Sql("classpath:db/change-driver-availability-to-false.sql")
-  @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
   void whenNotFoundAvailableDriverThanPutMessageInNotFoundTopicKafka()
       throws JsonProcessingException {
+    pipeDriverAvailability(DriverAvailabilityChange.AVAILABLE);
+    pipeDriverAvailability(DriverAvailabilityChange.UNAVAILABLE);
+    driverAvailabilityOutputTopic.readValuesToList();
+
+    pipeRideSearch();
+
     String driverRideDtoAsStringFromNotFoundKafkaTopic = notFoundDriverOutputTopic.readValue();
     DriverRideDto notFoundDriverRideDto =
         objectMapper.readValue(driverRideDtoAsStringFromNotFoundKafkaTopic, DriverRideDto.class);
@@ -104,5 +133,32 @@ class DriverServiceIT extends IntegrationTestBase {
     assertNull(notFoundDriverRideDto.getFirstName());
     assertEquals(RANDOM_RIDE_ID, notFoundDriverRideDto.getRideId());
     assertTrue(availableDriverOutputTopic.isEmpty());
+    assertTrue(driverAvailabilityOutputTopic.isEmpty());
+  }
+
+  private void pipeDriverAvailability(DriverAvailabilityChange change) {
+    Driver driver = driverRepository.findById(EXIST_DRIVER_ID).orElseThrow();
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(EXIST_DRIVER_ID),
+        DriverAvailabilityDto.builder()
+            .driverId(EXIST_DRIVER_ID)
+            .change(change)
+            .latitude(driver.getLatitude())
+            .longitude(driver.getLongitude())
+            .rating(driver.getRating())
+            .driverRideDto(driverRideDtoMapper.toDriverRideDto(driverMapper.toDto(driver)))
+            .updatedAt(System.currentTimeMillis())
+            .build());
+  }
+
+  private void pipeRideSearch() {
+    RideSearchDto rideSearchDto = RideSearchDto.builder().rideId(RANDOM_RIDE_ID).build();
+    try {
+      orderNewRideInputTopic.pipeInput(
+          String.valueOf(RANDOM_RIDE_ID), objectMapper.writeValueAsString(rideSearchDto));
+    } catch (JsonProcessingException exception) {
+      throw new RideSearchDtoMappingException(
+          "Error processing while converting rideSearchDto to String");
+    }
   }
 }
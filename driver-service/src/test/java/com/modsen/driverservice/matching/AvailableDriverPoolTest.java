@@ -0,0 +1,75 @@
+package com.modsen.driverservice.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailableDriverPoolTest {
+
+  public static final int OPERATIONS_COUNT = 200_000;
+  public static final int DRIVER_IDS_COUNT = 5_000;
+
+  @Test
+  void claimSucceedsOnlyOnceForReleasedDriver() {
+    AvailableDriverPool availableDriverPool = new AvailableDriverPool(0);
+
+    assertTrue(availableDriverPool.release(7L));
+    assertFalse(availableDriverPool.release(7L));
+    assertTrue(availableDriverPool.claim(7L));
+    assertFalse(availableDriverPool.claim(7L));
+    assertEquals(0, availableDriverPool.size());
+  }
+
+  @Test
+  void claimAnyTakesEveryDriverOnceAndThenReturnsNoDriver() {
+    AvailableDriverPool availableDriverPool = new AvailableDriverPool(0);
+    for (long driverId = 1; driverId <= 100; driverId++) {
+      availableDriverPool.release(driverId);
+    }
+
+    Set<Long> claimedDriverIds = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      claimedDriverIds.add(availableDriverPool.claimAny());
+    }
+
+    assertEquals(100, claimedDriverIds.size());
+    assertEquals(AvailableDriverPool.NO_DRIVER, availableDriverPool.claimAny());
+  }
+
+  @Test
+  void randomClaimsAndReleasesMatchHashSet() {
+    AvailableDriverPool availableDriverPool = new AvailableDriverPool(16);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < OPERATIONS_COUNT; i++) {
+      long driverId = 1 + random.nextInt(DRIVER_IDS_COUNT);
+      if (random.nextBoolean()) {
+        assertEquals(expected.add(driverId), availableDriverPool.release(driverId));
+      } else {
+        assertEquals(expected.remove(driverId), availableDriverPool.claim(driverId));
+      }
+    }
+
+    assertEquals(expected.size(), availableDriverPool.size());
+    for (long driverId = 1; driverId <= DRIVER_IDS_COUNT; driverId++) {
+      assertEquals(expected.contains(driverId), availableDriverPool.contains(driverId));
+    }
+  }
+
+  @Test
+  void releaseIfDriverIdIsNotPositiveThanThrowIllegalArgumentException() {
+    AvailableDriverPool availableDriverPool = new AvailableDriverPool(0);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> availableDriverPool.release(AvailableDriverPool.NO_DRIVER));
+  }
+}
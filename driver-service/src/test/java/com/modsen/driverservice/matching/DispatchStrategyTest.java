@@ -0,0 +1,109 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.config.matching.MatchingProperties;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DispatchStrategyTest {
+
+  public static final RideSearchDto MINSK_CENTER_RIDE =
+      RideSearchDto.builder().rideId(1L).startLatitude(53.9010).startLongitude(27.5610).build();
+
+  @Test
+  void randomSelectsOnlyPutDrivers() {
+    DispatchStrategy dispatchStrategy = create(DispatchStrategyType.RANDOM);
+    putDrivers(dispatchStrategy);
+    dispatchStrategy.remove(2L);
+
+    Set<Long> selected = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      selected.add(dispatchStrategy.select(MINSK_CENTER_RIDE));
+    }
+
+    assertEquals(Set.of(1L, 3L), selected);
+    assertEquals(2, dispatchStrategy.size());
+  }
+
+  @Test
+  void longestIdleSelectsDriverAvailableForLongestTime() {
+    DispatchStrategy dispatchStrategy = create(DispatchStrategyType.LONGEST_IDLE);
+    putDrivers(dispatchStrategy);
+
+    assertEquals(3L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+    dispatchStrategy.put(3L, driver(53.9000, 27.5600, 4.0, 1_000));
+    assertEquals(3L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+
+    dispatchStrategy.remove(3L);
+    assertEquals(1L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+  }
+
+  @Test
+  void highestRatedSelectsBestRatingAndFollowsRatingChanges() {
+    DispatchStrategy dispatchStrategy = create(DispatchStrategyType.HIGHEST_RATED);
+    putDrivers(dispatchStrategy);
+
+    assertEquals(2L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+    dispatchStrategy.put(1L, driver(53.9000, 27.5600, 5.0, 20));
+    assertEquals(1L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+
+    dispatchStrategy.remove(1L);
+    dispatchStrategy.remove(2L);
+    assertEquals(3L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+    assertEquals(1, dispatchStrategy.size());
+  }
+
+  @Test
+  void nearestSelectsClosestDriverToPickup() {
+    DispatchStrategy dispatchStrategy = create(DispatchStrategyType.NEAREST);
+    putDrivers(dispatchStrategy);
+
+    assertEquals(1L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+    dispatchStrategy.remove(1L);
+    assertEquals(2L, dispatchStrategy.select(MINSK_CENTER_RIDE));
+    assertNull(dispatchStrategy.select(RideSearchDto.builder().rideId(2L).build()));
+  }
+
+  @Test
+  void selectIfNoDriversThanReturnNull() {
+    for (DispatchStrategyType dispatchStrategyType : DispatchStrategyType.values()) {
+      DispatchStrategy dispatchStrategy = create(dispatchStrategyType);
+      putDrivers(dispatchStrategy);
+      for (long driverId = 1; driverId <= 3; driverId++) {
+        dispatchStrategy.remove(driverId);
+      }
+
+      assertNull(dispatchStrategy.select(MINSK_CENTER_RIDE));
+      assertEquals(0, dispatchStrategy.size(), dispatchStrategyType.name());
+    }
+  }
+
+  private DispatchStrategy create(DispatchStrategyType dispatchStrategyType) {
+    MatchingProperties matchingProperties = new MatchingProperties();
+    matchingProperties.setCellSizeDegrees(0.01);
+    matchingProperties.setMaxSearchRings(20);
+    return dispatchStrategyType.create(matchingProperties);
+  }
+
+  private void putDrivers(DispatchStrategy dispatchStrategy) {
+    dispatchStrategy.put(1L, driver(53.9000, 27.5600, 4.5, 20));
+    dispatchStrategy.put(2L, driver(53.9050, 27.5650, 4.9, 30));
+    dispatchStrategy.put(3L, driver(53.9500, 27.6500, 4.0, 10));
+  }
+
+  private DriverAvailabilityDto driver(
+      double latitude, double longitude, double rating, long updatedAt) {
+    return DriverAvailabilityDto.builder()
+        .latitude(latitude)
+        .longitude(longitude)
+        .rating(rating)
+        .updatedAt(updatedAt)
+        .build();
+  }
+}
@@ -0,0 +1,75 @@
+package com.modsen.driverservice.matching;
+
+import com.modsen.driverservice.model.Driver;
+import com.modsen.driverservice.repository.DriverRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static com.modsen.driverservice.matching.DriverAvailabilitySnapshotPublisher.SNAPSHOT_PAGE_SIZE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DriverAvailabilitySnapshotPublisherTest {
+
+  public static final Long FIRST_DRIVER_ID = 1L;
+  public static final Long SECOND_DRIVER_ID = 2L;
+
+  @Mock private DriverRepository driverRepository;
+  @Mock private DriverAvailabilityPublisher driverAvailabilityPublisher;
+  @InjectMocks private DriverAvailabilitySnapshotPublisher driverAvailabilitySnapshotPublisher;
+
+  @Test
+  void publishPagesThroughAvailableDriversInIdOrder() {
+    Pageable firstPage = PageRequest.of(0, SNAPSHOT_PAGE_SIZE, Sort.by("id"));
+    Pageable secondPage = firstPage.next();
+    Driver firstDriver = driver(FIRST_DRIVER_ID);
+    Driver secondDriver = driver(SECOND_DRIVER_ID);
+    when(driverRepository.findAllIdsByAvailable(true, firstPage))
+        .thenReturn(new PageImpl<>(List.of(FIRST_DRIVER_ID), firstPage, SNAPSHOT_PAGE_SIZE + 1));
+    when(driverRepository.findAllIdsByAvailable(true, secondPage))
+        .thenReturn(new PageImpl<>(List.of(SECOND_DRIVER_ID), secondPage, SNAPSHOT_PAGE_SIZE + 1));
+    when(driverRepository.findByIdIn(List.of(FIRST_DRIVER_ID), Sort.by("id")))
+        .thenReturn(List.of(firstDriver));
+    when(driverRepository.findByIdIn(List.of(SECOND_DRIVER_ID), Sort.by("id")))
+        .thenReturn(List.of(secondDriver));
+
+    driverAvailabilitySnapshotPublisher.publish();
+
+    InOrder publishOrder = inOrder(driverAvailabilityPublisher);
+    publishOrder.verify(driverAvailabilityPublisher).publishSnapshot(firstDriver);
+    publishOrder.verify(driverAvailabilityPublisher).publishSnapshot(secondDriver);
+    publishOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  void publishWithoutAvailableDriversPublishesNothing() {
+    Pageable firstPage = PageRequest.of(0, SNAPSHOT_PAGE_SIZE, Sort.by("id"));
+    when(driverRepository.findAllIdsByAvailable(true, firstPage))
+        .thenReturn(new PageImpl<>(List.of(), firstPage, 0));
+    when(driverRepository.findByIdIn(List.of(), Sort.by("id"))).thenReturn(List.of());
+
+    driverAvailabilitySnapshotPublisher.publish();
+
+    verify(driverAvailabilityPublisher, never()).publishSnapshot(any(Driver.class));
+  }
+
+  private Driver driver(Long id) {
+    Driver driver = new Driver();
+    driver.setId(id);
+    return driver;
+  }
+}
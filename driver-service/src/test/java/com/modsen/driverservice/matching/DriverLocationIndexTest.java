@@ -0,0 +1,55 @@
+package com.modsen.driverservice.matching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DriverLocationIndexTest {
+
+  private DriverLocationIndex driverLocationIndex;
+
+  @BeforeEach
+  void setUp() {
+    driverLocationIndex = new DriverLocationIndex(0.01, 20);
+    driverLocationIndex.put(1L, 53.9000, 27.5600);
+    driverLocationIndex.put(2L, 53.9050, 27.5650);
+    driverLocationIndex.put(3L, 53.9500, 27.6500);
+    driverLocationIndex.put(4L, 55.7500, 37.6200);
+  }
+
+  @Test
+  void findNearestReturnsDriversOrderedByDistance() {
+    List<Long> actual = driverLocationIndex.findNearest(53.9010, 27.5610, 3);
+
+    assertEquals(List.of(1L, 2L, 3L), actual);
+  }
+
+  @Test
+  void findNearestDoesNotSearchBeyondMaxRings() {
+    List<Long> actual = driverLocationIndex.findNearest(53.9010, 27.5610, 10);
+
+    assertFalse(actual.contains(4L));
+  }
+
+  @Test
+  void putMovesDriverToNewCell() {
+    driverLocationIndex.put(3L, 53.9011, 27.5611);
+
+    List<Long> actual = driverLocationIndex.findNearest(53.9010, 27.5610, 1);
+
+    assertEquals(List.of(3L), actual);
+    assertEquals(4, driverLocationIndex.size());
+  }
+
+  @Test
+  void removeClaimsDriverOnlyOnce() {
+    assertTrue(driverLocationIndex.remove(1L));
+    assertFalse(driverLocationIndex.remove(1L));
+    assertFalse(driverLocationIndex.findNearest(53.9000, 27.5600, 4).contains(1L));
+  }
+}
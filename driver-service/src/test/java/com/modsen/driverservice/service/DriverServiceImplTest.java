@@ -1,11 +1,18 @@
 package com.modsen.driverservice.service;
 
 import com.modsen.driverservice.dto.DriverDto;
+import com.modsen.driverservice.dto.DriverLocationDto;
+import com.modsen.driverservice.dto.DriverPageDto;
 import com.modsen.driverservice.dto.DriverRatingDto;
+import com.modsen.driverservice.dto.DriverReleaseDto;
+import com.modsen.driverservice.dto.RideFinishedDto;
 import com.modsen.driverservice.exception.DriverWithoutCarAvailableException;
 import com.modsen.driverservice.mapper.DriverMapper;
+import com.modsen.driverservice.matching.DriverAvailabilityPublisher;
 import com.modsen.driverservice.model.Driver;
+import com.modsen.driverservice.pagination.KeysetCursor;
 import com.modsen.driverservice.repository.DriverRepository;
+import com.modsen.driverservice.repository.ProcessedEventRepository;
 import com.modsen.driverservice.service.impl.DriverServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,13 +46,19 @@ class DriverServiceImplTest {
   public static final Long EXIST_ID = 1L;
   public static final Double UPDATED_RATING = 3.0;
   public static final Long NOT_EXIST_ID = 100L;
+  public static final Double LATITUDE = 53.9;
+  public static final Double LONGITUDE = 27.56;
+  public static final String EVENT_ID = "ride-finished-event";
+  public static final Long RIDE_ID = 10L;
 
   private Driver driver;
   private DriverDto driverDto;
   private DriverRatingDto driverRatingDto;
 
   @Mock private DriverRepository driverRepository;
+  @Mock private ProcessedEventRepository processedEventRepository;
   @Mock private DriverMapper driverMapper;
+  @Mock private DriverAvailabilityPublisher driverAvailabilityPublisher;
   @InjectMocks private DriverServiceImpl driverService;
 
   @BeforeEach
@@ -94,6 +107,19 @@ class DriverServiceImplTest {
     verify(driverMapper).toDto(driver);
   }
 
+  @Test
+  void getAllDriversAfterIfMoreDriversExistThanReturnNextCursor() {
+    when(driverRepository.findIdsAfter(0L, PageRequest.of(0, 2)))
+        .thenReturn(List.of(EXIST_ID, NOT_EXIST_ID));
+    when(driverRepository.findByIdIn(List.of(EXIST_ID), Sort.by("id"))).thenReturn(List.of(driver));
+    when(driverMapper.toDto(driver)).thenReturn(driverDto);
+
+    DriverPageDto actual = driverService.getAllAfter(0L, 1);
+
+    assertEquals(List.of(driverDto), actual.getDriverDtoList());
+    assertEquals(EXIST_ID.longValue(), KeysetCursor.decode(actual.getNextCursor()));
+  }
+
   @Test
   void saveDriver() {
     when(driverMapper.toEntity(driverDto)).thenReturn(driver);
@@ -115,6 +141,7 @@ class DriverServiceImplTest {
     driverService.deleteById(EXIST_ID);
 
     verify(driverRepository).deleteById(EXIST_ID);
+    verify(driverAvailabilityPublisher).publishRemoved(EXIST_ID);
   }
 
   @Test
@@ -135,6 +162,7 @@ class DriverServiceImplTest {
 
     verify(driverRepository).save(driver);
     verify(driverMapper).toEntity(driverDto);
+    verify(driverAvailabilityPublisher).publishAvailability(driver);
   }
 
   @Test
@@ -169,6 +197,7 @@ class DriverServiceImplTest {
     verify(driverRepository).findById(anyLong());
     verify(driverRepository).save(driver);
     verify(driverMapper).toDto(driver);
+    verify(driverAvailabilityPublisher).publishUpdate(driver);
   }
 
   @Test
@@ -187,11 +216,12 @@ class DriverServiceImplTest {
     when(driverRepository.save(any(Driver.class))).thenReturn(driver);
     when(driverMapper.toDto(any(Driver.class))).thenReturn(driverDto);
 
-    driverService.updateAvailabilityToTrueAfterFinishedRide(EXIST_ID);
+    driverService.updateAvailabilityToTrueAfterFinishedRide(EXIST_ID, RIDE_ID);
 
     verify(driverRepository).findById(anyLong());
     verify(driverRepository).save(any(Driver.class));
     verify(driverMapper).toDto(any(Driver.class));
+    verify(driverAvailabilityPublisher).publishRelease(driver, RIDE_ID);
   }
 
   @Test
@@ -200,10 +230,69 @@ class DriverServiceImplTest {
 
     assertThrows(
         NoSuchElementException.class,
-        () -> driverService.updateAvailabilityToTrueAfterFinishedRide(NOT_EXIST_ID));
+        () -> driverService.updateAvailabilityToTrueAfterFinishedRide(NOT_EXIST_ID, RIDE_ID));
     verify(driverRepository, never()).save(driver);
   }
 
+  @Test
+  void releaseAfterFinishedRideChangesAvailabilityToTrue() {
+    when(processedEventRepository.markProcessed(EVENT_ID)).thenReturn(1);
+    when(driverRepository.findById(EXIST_ID)).thenReturn(Optional.of(driver));
+
+    driverService.releaseAfterFinishedRide(
+        RideFinishedDto.builder().eventId(EVENT_ID).rideId(RIDE_ID).driverId(EXIST_ID).build());
+
+    assertTrue(driver.getIsAvailable());
+    verify(driverAvailabilityPublisher).publishRelease(driver, RIDE_ID);
+  }
+
+  @Test
+  void releaseAfterFinishedRideIfEventAlreadyProcessedThanSkipIt() {
+    when(processedEventRepository.markProcessed(EVENT_ID)).thenReturn(0);
+
+    driverService.releaseAfterFinishedRide(
+        RideFinishedDto.builder().eventId(EVENT_ID).driverId(EXIST_ID).build());
+
+    verify(driverRepository, never()).findById(anyLong());
+    verify(driverAvailabilityPublisher, never()).publishRelease(any(Driver.class), any());
+  }
+
+  @Test
+  void releaseAfterRejectedMatchChangesAvailabilityToTrue() {
+    when(processedEventRepository.markProcessed(EVENT_ID)).thenReturn(1);
+    when(driverRepository.findById(EXIST_ID)).thenReturn(Optional.of(driver));
+
+    driverService.releaseAfterRejectedMatch(
+        DriverReleaseDto.builder().eventId(EVENT_ID).rideId(RIDE_ID).driverId(EXIST_ID).build());
+
+    assertTrue(driver.getIsAvailable());
+    verify(driverAvailabilityPublisher).publishRelease(driver, RIDE_ID);
+  }
+
+  @Test
+  void releaseAfterRejectedMatchIfEventAlreadyProcessedThanSkipIt() {
+    when(processedEventRepository.markProcessed(EVENT_ID)).thenReturn(0);
+
+    driverService.releaseAfterRejectedMatch(
+        DriverReleaseDto.builder().eventId(EVENT_ID).rideId(RIDE_ID).driverId(EXIST_ID).build());
+
+    verify(driverRepository, never()).findById(anyLong());
+    verify(driverAvailabilityPublisher, never()).publishRelease(any(Driver.class), any());
+  }
+
+  @Test
+  void updateLocationPublishesDriverLocation() {
+    when(driverRepository.findById(EXIST_ID)).thenReturn(Optional.of(driver));
+    when(driverMapper.toDto(driver)).thenReturn(driverDto);
+
+    driverService.updateLocation(EXIST_ID, new DriverLocationDto(LATITUDE, LONGITUDE));
+
+    assertEquals(LATITUDE, driver.getLatitude());
+    assertEquals(LONGITUDE, driver.getLongitude());
+    verify(driverRepository).save(driver);
+    verify(driverAvailabilityPublisher).publishUpdate(driver);
+  }
+
   @Test
   void getDriversByIds() {
     when(driverRepository.findByIdIn(List.of(EXIST_ID), null)).thenReturn(List.of(driver));
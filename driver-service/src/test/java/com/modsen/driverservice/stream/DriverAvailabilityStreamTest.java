@@ -0,0 +1,374 @@
+package com.modsen.driverservice.stream;
+
+import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.config.matching.MatchingProperties;
+import com.modsen.driverservice.demand.RideMatch;
+import com.modsen.driverservice.dto.DriverAvailabilityDto;
+import com.modsen.driverservice.dto.DriverClaimDto;
+import com.modsen.driverservice.dto.DriverRideDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import com.modsen.driverservice.matching.DispatchStrategyType;
+import com.modsen.driverservice.matching.DriverAvailabilityChange;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyDescription;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.modsen.driverservice.stream.DriverAvailabilityStream.AVAILABLE_DRIVERS_STORE;
+import static com.modsen.driverservice.stream.DriverAvailabilityStream.CLAIMED_DRIVERS_STORE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DriverAvailabilityStreamTest {
+
+  public static final String RIDE_SEARCHES_TOPIC = "order-new-ride";
+  public static final String RIDE_DRIVERS_TOPIC = "ride-drivers";
+  public static final String DRIVER_AVAILABILITY_TOPIC = "driver-availability";
+  public static final String DRIVER_VIEW_TOPIC = "driver-view";
+  public static final String RIDE_CLAIMS_TOPIC = "ride-claims-repartition";
+  public static final int MATCHING_PARTITIONS = 2;
+  public static final Long CENTER_DRIVER_ID = 1L;
+  public static final Long AIRPORT_DRIVER_ID = 2L;
+  public static final Long RIDE_ID = 10L;
+  public static final LocalDateTime RIDE_BOOKING_TIME = LocalDateTime.of(2024, 1, 1, 10, 0);
+  public static final double MINSK_CENTER_LATITUDE = 53.9;
+  public static final double MINSK_CENTER_LONGITUDE = 27.56;
+  public static final double MINSK_AIRPORT_LATITUDE = 53.8825;
+  public static final double MINSK_AIRPORT_LONGITUDE = 28.03;
+  public static final int CONTENDED_DRIVERS_COUNT = 40;
+  public static final int CONTENDING_RIDES_COUNT = 100;
+
+  private Topology topology;
+  private TopologyTestDriver topologyTestDriver;
+  private TestInputTopic<String, RideSearchDto> rideSearchesInputTopic;
+  private TestInputTopic<String, DriverAvailabilityDto> driverAvailabilityInputTopic;
+  private TestOutputTopic<String, DriverRideDto> rideDriversOutputTopic;
+  private TestOutputTopic<String, DriverAvailabilityDto> driverAvailabilityOutputTopic;
+  private KeyValueStore<Long, DriverAvailabilityDto> availableDrivers;
+  private KeyValueStore<Long, DriverClaimDto> claimedDrivers;
+
+  @BeforeEach
+  void setUp() {
+    KafkaProperties kafkaProperties = new KafkaProperties();
+    kafkaProperties.setTopicDriverAvailability(DRIVER_AVAILABILITY_TOPIC);
+    kafkaProperties.setTopicDriverView(DRIVER_VIEW_TOPIC);
+    kafkaProperties.setMatchingPartitions(MATCHING_PARTITIONS);
+    MatchingProperties matchingProperties = new MatchingProperties();
+    matchingProperties.setCellSizeDegrees(0.01);
+    matchingProperties.setMaxSearchRings(50);
+    matchingProperties.setDispatchStrategy(DispatchStrategyType.NEAREST);
+
+    StreamsBuilder streamsBuilder = new StreamsBuilder();
+    KStream<String, RideSearchDto> rideSearches =
+        streamsBuilder.stream(
+            RIDE_SEARCHES_TOPIC,
+            Consumed.with(Serdes.String(), new JsonSerde<>(RideSearchDto.class).noTypeInfo()));
+    new DriverAvailabilityStream(kafkaProperties, matchingProperties)
+        .match(streamsBuilder, rideSearches)
+        .mapValues(RideMatch::getDriverRideDto)
+        .to(
+            RIDE_DRIVERS_TOPIC,
+            Produced.with(Serdes.String(), new JsonSerde<>(DriverRideDto.class).noTypeInfo()));
+    topology = streamsBuilder.build();
+    topologyTestDriver = new TopologyTestDriver(topology);
+
+    rideSearchesInputTopic =
+        topologyTestDriver.createInputTopic(
+            RIDE_SEARCHES_TOPIC,
+            Serdes.String().serializer(),
+            new JsonSerializer<RideSearchDto>().noTypeInfo());
+    driverAvailabilityInputTopic =
+        topologyTestDriver.createInputTopic(
+            DRIVER_AVAILABILITY_TOPIC,
+            Serdes.String().serializer(),
+            new JsonSerializer<DriverAvailabilityDto>().noTypeInfo());
+    rideDriversOutputTopic =
+        topologyTestDriver.createOutputTopic(
+            RIDE_DRIVERS_TOPIC,
+            Serdes.String().deserializer(),
+            new JsonDeserializer<>(DriverRideDto.class, false));
+    driverAvailabilityOutputTopic =
+        topologyTestDriver.createOutputTopic(
+            DRIVER_AVAILABILITY_TOPIC,
+            Serdes.String().deserializer(),
+            new JsonDeserializer<>(DriverAvailabilityDto.class, false));
+    availableDrivers = topologyTestDriver.getKeyValueStore(AVAILABLE_DRIVERS_STORE);
+    claimedDrivers = topologyTestDriver.getKeyValueStore(CLAIMED_DRIVERS_STORE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    topologyTestDriver.close();
+  }
+
+  @Test
+  void matchClaimsNearestAvailableDriverAndPublishesClaim() {
+    pipeAvailableDrivers();
+
+    pipeRideSearch(RIDE_ID, MINSK_CENTER_LATITUDE, MINSK_CENTER_LONGITUDE);
+
+    DriverRideDto driverRideDto = rideDriversOutputTopic.readValue();
+    DriverAvailabilityDto claim = driverAvailabilityOutputTopic.readValue();
+    assertEquals(CENTER_DRIVER_ID, driverRideDto.getId());
+    assertEquals(RIDE_ID, driverRideDto.getRideId());
+    assertEquals(RIDE_BOOKING_TIME, driverRideDto.getRideBookingTime());
+    assertEquals(DriverAvailabilityChange.CLAIMED, claim.getChange());
+    assertEquals(CENTER_DRIVER_ID, claim.getDriverId());
+    assertEquals(RIDE_ID, claim.getRideId());
+    assertNull(availableDrivers.get(CENTER_DRIVER_ID));
+    assertNotNull(availableDrivers.get(AIRPORT_DRIVER_ID));
+    assertEquals(RIDE_ID, claimedDrivers.get(CENTER_DRIVER_ID).getRideId());
+    assertTrue(claimedDrivers.get(CENTER_DRIVER_ID).isLogged());
+  }
+
+  @Test
+  void rideClaimsDriverKeyedToAnotherMatchingPartition() {
+    long rideId = RIDE_ID;
+    while (matchingPartition(String.valueOf(rideId))
+        == matchingPartition(String.valueOf(CENTER_DRIVER_ID))) {
+      rideId++;
+    }
+    pipeAvailableDrivers();
+
+    pipeRideSearch(rideId, MINSK_CENTER_LATITUDE, MINSK_CENTER_LONGITUDE);
+
+    assertEquals(CENTER_DRIVER_ID, rideDriversOutputTopic.readValue().getId());
+    assertEquals(
+        Set.of(DRIVER_AVAILABILITY_TOPIC, RIDE_CLAIMS_TOPIC),
+        sourceTopicsOfSubtopologyReading(DRIVER_AVAILABILITY_TOPIC));
+  }
+
+  @Test
+  void matchWithoutPickupCoordinatesClaimsAnyAvailableDriver() {
+    pipeAvailableDrivers();
+
+    pipeRideSearch(RIDE_ID, null, null);
+    pipeRideSearch(RIDE_ID + 1, null, null);
+    pipeRideSearch(RIDE_ID + 2, null, null);
+
+    List<DriverRideDto> driverRideDtos = rideDriversOutputTopic.readValuesToList();
+    assertNotNull(driverRideDtos.get(0).getId());
+    assertNotNull(driverRideDtos.get(1).getId());
+    assertNull(driverRideDtos.get(2).getId());
+    assertEquals(RIDE_ID + 2, driverRideDtos.get(2).getRideId());
+  }
+
+  @Test
+  void matchNeverClaimsSameDriverTwiceAndLeavesSurplusRidesWithoutDriver() {
+    Random random = new Random(42);
+    for (long driverId = 1; driverId <= CONTENDED_DRIVERS_COUNT; driverId++) {
+      DriverAvailabilityDto driver =
+          driverAvailability(
+              driverId,
+              DriverAvailabilityChange.AVAILABLE,
+              MINSK_CENTER_LATITUDE + random.nextDouble() * 0.1,
+              0);
+      driver.setLongitude(MINSK_CENTER_LONGITUDE + random.nextDouble() * 0.1);
+      driverAvailabilityInputTopic.pipeInput(String.valueOf(driverId), driver);
+    }
+    driverAvailabilityOutputTopic.readValuesToList();
+
+    for (long rideId = RIDE_ID; rideId < RIDE_ID + CONTENDING_RIDES_COUNT; rideId++) {
+      if (rideId % 3 == 0) {
+        pipeRideSearch(rideId, null, null);
+      } else {
+        pipeRideSearch(
+            rideId,
+            MINSK_CENTER_LATITUDE + random.nextDouble() * 0.1,
+            MINSK_CENTER_LONGITUDE + random.nextDouble() * 0.1);
+      }
+    }
+
+    List<DriverRideDto> driverRideDtos = rideDriversOutputTopic.readValuesToList();
+    List<Long> matchedDriverIds =
+        driverRideDtos.stream()
+            .map(DriverRideDto::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    List<Long> claimedDriverIds =
+        driverAvailabilityOutputTopic.readValuesToList().stream()
+            .filter(claim -> claim.getChange() == DriverAvailabilityChange.CLAIMED)
+            .map(DriverAvailabilityDto::getDriverId)
+            .collect(Collectors.toList());
+    assertEquals(CONTENDING_RIDES_COUNT, driverRideDtos.size());
+    assertEquals(CONTENDED_DRIVERS_COUNT, matchedDriverIds.size());
+    assertEquals(CONTENDED_DRIVERS_COUNT, new HashSet<>(matchedDriverIds).size());
+    assertEquals(matchedDriverIds, claimedDriverIds);
+    assertEquals(
+        CONTENDING_RIDES_COUNT - CONTENDED_DRIVERS_COUNT,
+        driverRideDtos.stream().filter(driverRideDto -> driverRideDto.getId() == null).count());
+  }
+
+  @Test
+  void releaseOfClaimingRideReturnsDriverToPoolWhateverItsTimestamp() {
+    Instant claimedAt = Instant.now();
+    pipeAvailableDrivers();
+    rideSearchesInputTopic.pipeInput(
+        String.valueOf(RIDE_ID),
+        RideSearchDto.builder()
+            .rideId(RIDE_ID)
+            .startLatitude(MINSK_CENTER_LATITUDE)
+            .startLongitude(MINSK_CENTER_LONGITUDE)
+            .build(),
+        claimedAt);
+
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(CENTER_DRIVER_ID),
+        release(CENTER_DRIVER_ID, RIDE_ID),
+        claimedAt.minusSeconds(60));
+
+    assertNotNull(availableDrivers.get(CENTER_DRIVER_ID));
+    assertNull(claimedDrivers.get(CENTER_DRIVER_ID));
+  }
+
+  @Test
+  void releaseOfPreviousRideDoesNotReturnClaimedDriverToPool() {
+    pipeAvailableDrivers();
+    pipeRideSearch(RIDE_ID, MINSK_CENTER_LATITUDE, MINSK_CENTER_LONGITUDE);
+
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(CENTER_DRIVER_ID), release(CENTER_DRIVER_ID, RIDE_ID - 1));
+    assertNull(availableDrivers.get(CENTER_DRIVER_ID));
+    assertEquals(RIDE_ID, claimedDrivers.get(CENTER_DRIVER_ID).getRideId());
+
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(CENTER_DRIVER_ID),
+        driverAvailability(
+            CENTER_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, MINSK_CENTER_LATITUDE, 0));
+    assertNotNull(availableDrivers.get(CENTER_DRIVER_ID));
+    assertNull(claimedDrivers.get(CENTER_DRIVER_ID));
+  }
+
+  @Test
+  void snapshotDoesNotOverrideClaimedDriverAndTombstoneRemovesDriver() {
+    pipeAvailableDrivers();
+    pipeRideSearch(RIDE_ID, MINSK_CENTER_LATITUDE, MINSK_CENTER_LONGITUDE);
+
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(CENTER_DRIVER_ID),
+        driverAvailability(
+            CENTER_DRIVER_ID,
+            DriverAvailabilityChange.SNAPSHOT,
+            MINSK_CENTER_LATITUDE,
+            System.currentTimeMillis() + 1));
+    driverAvailabilityInputTopic.pipeInput(String.valueOf(AIRPORT_DRIVER_ID), null);
+    pipeRideSearch(RIDE_ID + 1, MINSK_CENTER_LATITUDE, MINSK_CENTER_LONGITUDE);
+
+    assertNull(availableDrivers.get(CENTER_DRIVER_ID));
+    assertNull(availableDrivers.get(AIRPORT_DRIVER_ID));
+    assertNull(rideDriversOutputTopic.readValuesToList().get(1).getId());
+  }
+
+  @Test
+  void locationChangeMovesOnlyAvailableDriver() {
+    pipeAvailableDrivers();
+    pipeRideSearch(RIDE_ID, MINSK_CENTER_LATITUDE, MINSK_CENTER_LONGITUDE);
+
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(CENTER_DRIVER_ID),
+        driverAvailability(
+            CENTER_DRIVER_ID,
+            DriverAvailabilityChange.UPDATED,
+            MINSK_AIRPORT_LATITUDE,
+            System.currentTimeMillis() + 1));
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(AIRPORT_DRIVER_ID),
+        driverAvailability(
+            AIRPORT_DRIVER_ID,
+            DriverAvailabilityChange.UPDATED,
+            MINSK_CENTER_LATITUDE,
+            System.currentTimeMillis() + 1));
+
+    assertNull(availableDrivers.get(CENTER_DRIVER_ID));
+    assertEquals(MINSK_CENTER_LATITUDE, availableDrivers.get(AIRPORT_DRIVER_ID).getLatitude());
+  }
+
+  private void pipeAvailableDrivers() {
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(CENTER_DRIVER_ID),
+        driverAvailability(
+            CENTER_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, MINSK_CENTER_LATITUDE, 0));
+    driverAvailabilityInputTopic.pipeInput(
+        String.valueOf(AIRPORT_DRIVER_ID),
+        driverAvailability(
+            AIRPORT_DRIVER_ID, DriverAvailabilityChange.AVAILABLE, MINSK_AIRPORT_LATITUDE, 0));
+  }
+
+  private DriverAvailabilityDto driverAvailability(
+      Long driverId, DriverAvailabilityChange change, double latitude, long updatedAt) {
+    return DriverAvailabilityDto.builder()
+        .driverId(driverId)
+        .change(change)
+        .latitude(latitude)
+        .longitude(
+            latitude == MINSK_CENTER_LATITUDE ? MINSK_CENTER_LONGITUDE : MINSK_AIRPORT_LONGITUDE)
+        .driverRideDto(DriverRideDto.builder().id(driverId).firstName("Driver").build())
+        .updatedAt(updatedAt)
+        .build();
+  }
+
+  private int matchingPartition(String key) {
+    return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8)))
+        % MATCHING_PARTITIONS;
+  }
+
+  private Set<String> sourceTopicsOfSubtopologyReading(String topic) {
+    Set<String> sourceTopics = new HashSet<>();
+    for (TopologyDescription.Subtopology subtopology : topology.describe().subtopologies()) {
+      Set<String> subtopologySourceTopics = new HashSet<>();
+      for (TopologyDescription.Node node : subtopology.nodes()) {
+        if (node instanceof TopologyDescription.Source) {
+          subtopologySourceTopics.addAll(((TopologyDescription.Source) node).topicSet());
+        }
+      }
+      if (subtopologySourceTopics.contains(topic)) {
+        sourceTopics.addAll(subtopologySourceTopics);
+      }
+    }
+    return sourceTopics;
+  }
+
+  private DriverAvailabilityDto release(Long driverId, Long rideId) {
+    DriverAvailabilityDto release =
+        driverAvailability(driverId, DriverAvailabilityChange.AVAILABLE, MINSK_CENTER_LATITUDE, 0);
+    release.setRideId(rideId);
+    return release;
+  }
+
+  private void pipeRideSearch(long rideId, Double latitude, Double longitude) {
+    rideSearchesInputTopic.pipeInput(
+        String.valueOf(rideId),
+        RideSearchDto.builder()
+            .rideId(rideId)
+            .startLatitude(latitude)
+            .startLongitude(longitude)
+            .bookingTime(RIDE_BOOKING_TIME)
+            .build());
+  }
+}
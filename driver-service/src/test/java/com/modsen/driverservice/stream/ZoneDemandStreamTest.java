@@ -0,0 +1,205 @@
+package com.modsen.driverservice.stream;
+
+import com.modsen.driverservice.config.demand.ZoneDemandProperties;
+import com.modsen.driverservice.config.kafka.KafkaProperties;
+import com.modsen.driverservice.demand.PickupZone;
+import com.modsen.driverservice.demand.RideMatch;
+import com.modsen.driverservice.demand.ZoneDemand;
+import com.modsen.driverservice.dto.DriverRideDto;
+import com.modsen.driverservice.dto.RideSearchDto;
+import com.modsen.driverservice.dto.ZoneDemandDto;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.modsen.driverservice.stream.ZoneDemandStream.HOPPING_STORE;
+import static com.modsen.driverservice.stream.ZoneDemandStream.HOPPING_WINDOW;
+import static com.modsen.driverservice.stream.ZoneDemandStream.OPEN_HOPPING_WINDOWS_STORE;
+import static com.modsen.driverservice.stream.ZoneDemandStream.TUMBLING_STORE;
+import static com.modsen.driverservice.stream.ZoneDemandStream.TUMBLING_WINDOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ZoneDemandStreamTest {
+
+  public static final String RIDE_MATCHES_TOPIC = "ride-matches";
+  public static final String ZONE_DEMAND_TOPIC = "zone-demand";
+  public static final String ZONE_DEMAND_OPEN_TOPIC = "zone-demand-open";
+  public static final double ZONE_SIZE_DEGREES = 0.05;
+  public static final Instant RIDE_REQUEST_TIME = Instant.parse("2024-01-01T10:00:10Z");
+  public static final Instant TUMBLING_WINDOW_START = Instant.parse("2024-01-01T10:00:00Z");
+  public static final Instant TRAILING_HOPPING_WINDOW_START =
+      Instant.parse("2024-01-01T09:56:00Z");
+  public static final Instant LEADING_HOPPING_WINDOW_START = Instant.parse("2024-01-01T10:00:00Z");
+  public static final String MINSK_CENTER = "53.9000,27.5600";
+  public static final String MINSK_AIRPORT = "53.8825,28.0300";
+
+  private TopologyTestDriver topologyTestDriver;
+  private TestInputTopic<String, String> rideMatchesInputTopic;
+  private TestOutputTopic<String, ZoneDemandDto> zoneDemandOutputTopic;
+  private String minskCenterZone;
+
+  @BeforeEach
+  void setUp() {
+    KafkaProperties kafkaProperties = new KafkaProperties();
+    kafkaProperties.setTopicZoneDemand(ZONE_DEMAND_TOPIC);
+    kafkaProperties.setTopicZoneDemandOpen(ZONE_DEMAND_OPEN_TOPIC);
+    ZoneDemandProperties zoneDemandProperties = new ZoneDemandProperties();
+    zoneDemandProperties.setZoneSizeDegrees(ZONE_SIZE_DEGREES);
+    zoneDemandProperties.setTumblingWindow(Duration.ofMinutes(1));
+    zoneDemandProperties.setHoppingWindow(Duration.ofMinutes(5));
+    zoneDemandProperties.setHoppingAdvance(Duration.ofMinutes(1));
+    zoneDemandProperties.setGrace(Duration.ofSeconds(10));
+    zoneDemandProperties.setMinRequestsForSurge(3);
+    zoneDemandProperties.setMaxSurgeMultiplier(3.0);
+
+    StreamsBuilder streamsBuilder = new StreamsBuilder();
+    KStream<String, RideMatch> rideMatches =
+        streamsBuilder
+            .stream(RIDE_MATCHES_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+            .mapValues(this::toRideMatch);
+    new ZoneDemandStream(kafkaProperties, zoneDemandProperties)
+        .countByZone(streamsBuilder, rideMatches);
+    topologyTestDriver = new TopologyTestDriver(streamsBuilder.build());
+
+    rideMatchesInputTopic =
+        topologyTestDriver.createInputTopic(
+            RIDE_MATCHES_TOPIC, Serdes.String().serializer(), Serdes.String().serializer());
+    zoneDemandOutputTopic =
+        topologyTestDriver.createOutputTopic(
+            ZONE_DEMAND_TOPIC,
+            Serdes.String().deserializer(),
+            new JsonDeserializer<>(ZoneDemandDto.class, false));
+    minskCenterZone = PickupZone.of(53.9, 27.56, ZONE_SIZE_DEGREES);
+  }
+
+  @AfterEach
+  void tearDown() {
+    topologyTestDriver.close();
+  }
+
+  @Test
+  void countByZoneKeepsRequestsMatchesAndNoDriversPerZoneInWindowStores() {
+    pipeRideMatches();
+
+    WindowStore<String, ZoneDemand> tumblingStore =
+        topologyTestDriver.getWindowStore(TUMBLING_STORE);
+    WindowStore<String, ZoneDemand> hoppingStore = topologyTestDriver.getWindowStore(HOPPING_STORE);
+    ZoneDemand tumblingDemand =
+        tumblingStore.fetch(minskCenterZone, TUMBLING_WINDOW_START.toEpochMilli());
+    ZoneDemand hoppingDemand =
+        hoppingStore.fetch(minskCenterZone, TRAILING_HOPPING_WINDOW_START.toEpochMilli());
+
+    assertEquals(4, tumblingDemand.getRequests());
+    assertEquals(1, tumblingDemand.getMatches());
+    assertEquals(3, tumblingDemand.getNoDrivers());
+    assertEquals(4, hoppingDemand.getRequests());
+    assertEquals(
+        1,
+        hoppingStore
+            .fetch(
+                PickupZone.of(53.8825, 28.03, ZONE_SIZE_DEGREES),
+                TRAILING_HOPPING_WINDOW_START.toEpochMilli())
+            .getRequests());
+  }
+
+  @Test
+  void countByZonePublishesClosedWindowsWithSurgeMultiplier() {
+    pipeRideMatches();
+    assertEquals(0, zoneDemandOutputTopic.getQueueSize());
+
+    rideMatchesInputTopic.pipeInput(
+        "100", MINSK_AIRPORT + ",7", RIDE_REQUEST_TIME.plus(Duration.ofSeconds(61)));
+    Map<String, ZoneDemandDto> zoneDemandByKey =
+        zoneDemandOutputTopic.readKeyValuesToList().stream()
+            .collect(Collectors.toMap(keyValue -> keyValue.key, keyValue -> keyValue.value));
+
+    ZoneDemandDto tumblingDemand = zoneDemandByKey.get(minskCenterZone + "/" + TUMBLING_WINDOW);
+    ZoneDemandDto hoppingDemand = zoneDemandByKey.get(minskCenterZone + "/" + HOPPING_WINDOW);
+    assertEquals(TUMBLING_WINDOW_START, tumblingDemand.getWindowStart());
+    assertEquals(4, tumblingDemand.getRequests());
+    assertEquals(3.0, tumblingDemand.getSurgeMultiplier());
+    assertEquals(TRAILING_HOPPING_WINDOW_START, hoppingDemand.getWindowStart());
+    assertEquals(3, hoppingDemand.getNoDrivers());
+  }
+
+  @Test
+  void countByZoneKeepsOnlyOpenHoppingWindowsInGlobalTable() {
+    pipeRideMatches();
+    KeyValueStore<String, ZoneDemandDto> openHoppingWindowsStore =
+        topologyTestDriver.getKeyValueStore(OPEN_HOPPING_WINDOWS_STORE);
+
+    ZoneDemandDto trailingDemand =
+        openHoppingWindowsStore.get(
+            ZoneDemandStream.openWindowKey(minskCenterZone, TRAILING_HOPPING_WINDOW_START));
+    assertEquals(4, trailingDemand.getRequests());
+    assertEquals(3.0, trailingDemand.getSurgeMultiplier());
+
+    rideMatchesInputTopic.pipeInput(
+        "100", MINSK_AIRPORT + ",7", RIDE_REQUEST_TIME.plus(Duration.ofSeconds(61)));
+
+    assertNull(
+        openHoppingWindowsStore.get(
+            ZoneDemandStream.openWindowKey(minskCenterZone, TRAILING_HOPPING_WINDOW_START)));
+    assertEquals(
+        4,
+        openHoppingWindowsStore
+            .get(ZoneDemandStream.openWindowKey(minskCenterZone, LEADING_HOPPING_WINDOW_START))
+            .getRequests());
+  }
+
+  @Test
+  void surgeMultiplierGrowsWithUnmatchedRequestsUpToMaximum() {
+    ZoneDemand zoneDemand = new ZoneDemand().add(false).add(false);
+
+    assertEquals(ZoneDemand.NO_SURGE_MULTIPLIER, zoneDemand.surgeMultiplier(3, 3.0));
+    assertEquals(2.0, zoneDemand.add(true).add(true).surgeMultiplier(3, 3.0));
+    assertEquals(3.0, new ZoneDemand().add(false).add(false).add(false).surgeMultiplier(3, 3.0));
+  }
+
+  @Test
+  void pickupZoneIfCoordinatesAreAbsentThanUnknownZone() {
+    assertEquals(PickupZone.UNKNOWN_ZONE, PickupZone.of(null, 27.56, ZONE_SIZE_DEGREES));
+  }
+
+  private void pipeRideMatches() {
+    rideMatchesInputTopic.pipeKeyValueList(
+        List.of(
+            KeyValue.pair("1", MINSK_CENTER + ",1"),
+            KeyValue.pair("2", MINSK_CENTER + ","),
+            KeyValue.pair("3", MINSK_CENTER + ","),
+            KeyValue.pair("4", MINSK_CENTER + ","),
+            KeyValue.pair("5", MINSK_AIRPORT + ",2")),
+        RIDE_REQUEST_TIME,
+        Duration.ZERO);
+  }
+
+  private RideMatch toRideMatch(String rideMatch) {
+    String[] values = rideMatch.split(",", -1);
+    RideSearchDto rideSearchDto =
+        RideSearchDto.builder()
+            .startLatitude(Double.valueOf(values[0]))
+            .startLongitude(Double.valueOf(values[1]))
+            .build();
+    DriverRideDto driverRideDto =
+        DriverRideDto.builder().id(values[2].isEmpty() ? null : Long.valueOf(values[2])).build();
+    return new RideMatch(rideSearchDto, driverRideDto);
+  }
+}
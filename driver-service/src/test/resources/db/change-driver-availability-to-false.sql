@@ -1,3 +0,0 @@
-UPDATE drivers
-SET is_available = false
-WHERE id = 22;
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.modsen.passengerservice;
 
+import com.modsen.passengerservice.config.kafka.KafkaProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 
 @SpringBootApplication
+@EnableConfigurationProperties(KafkaProperties.class)
 @EnableEurekaClient
 public class PassengerServiceApplication {
 
@@ -0,0 +1,82 @@
+package com.modsen.passengerservice.config.kafka;
+
+import com.modsen.passengerservice.dto.RideFinishedDto;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@EnableKafka
+@Configuration
+@RequiredArgsConstructor
+public class KafkaConsumerConfig {
+
+  private final KafkaProperties kafkaProperties;
+
+  /**
+   * Ride finished events are written by ride-service with type headers. Values that cannot be read
+   * are handed to the error handler instead of failing the poll.
+   */
+  @Bean
+  public ConsumerFactory<String, Object> rideFinishedConsumerFactory() {
+    return new DefaultKafkaConsumerFactory<>(
+        Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapAddress(),
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+            ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+            ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class,
+            ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class,
+            JsonDeserializer.VALUE_DEFAULT_TYPE, RideFinishedDto.class.getName(),
+            JsonDeserializer.TRUSTED_PACKAGES, "*",
+            JsonDeserializer.TYPE_MAPPINGS, "rideFinishedDto:" + RideFinishedDto.class.getName()));
+  }
+
+  /**
+   * Retries a failed ride finished event with a fixed back off and then publishes it to the dead
+   * letter topic, so a card is neither charged by a half applied event nor blocks later events.
+   * Records that could not be deserialized are not retried and keep their raw bytes.
+   */
+  @Bean
+  public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, Object>>
+      rideFinishedListenerContainerFactory(
+          KafkaTemplate<String, Object> kafkaTemplate,
+          KafkaTemplate<String, byte[]> deadLetterKafkaTemplate) {
+    Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+    templates.put(byte[].class, deadLetterKafkaTemplate);
+    templates.put(Object.class, kafkaTemplate);
+    DeadLetterPublishingRecoverer recoverer =
+        new DeadLetterPublishingRecoverer(
+            templates,
+            (consumerRecord, exception) ->
+                new TopicPartition(
+                    kafkaProperties.getTopicRideFinishedDlt(), consumerRecord.partition()));
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(rideFinishedConsumerFactory());
+    factory.setCommonErrorHandler(
+        new DefaultErrorHandler(
+            recoverer,
+            new FixedBackOff(
+                kafkaProperties.getRideFinishedRetryIntervalMs(),
+                kafkaProperties.getRideFinishedRetryAttempts())));
+    return factory;
+  }
+}
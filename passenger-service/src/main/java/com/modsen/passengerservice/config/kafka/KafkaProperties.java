@@ -0,0 +1,22 @@
+package com.modsen.passengerservice.config.kafka;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@ConfigurationProperties(prefix = "spring.kafka")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class KafkaProperties {
+
+  private String bootstrapAddress;
+  private Integer partitions;
+  private Integer replicas;
+  private String topicRideFinished;
+  private String topicRideFinishedDlt;
+  private String consumersGroupIdRideFinished;
+  private Long rideFinishedRetryIntervalMs;
+  private Long rideFinishedRetryAttempts;
+}
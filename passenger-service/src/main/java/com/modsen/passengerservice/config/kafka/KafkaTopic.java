@@ -0,0 +1,38 @@
+package com.modsen.passengerservice.config.kafka;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@RequiredArgsConstructor
+public class KafkaTopic {
+
+  private final KafkaProperties kafkaProperties;
+
+  @Bean
+  public KafkaAdmin kafkaAdmin() {
+    Map<String, Object> configs = new HashMap<>();
+    configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapAddress());
+    return new KafkaAdmin(configs);
+  }
+
+  /**
+   * Has as many partitions as the ride finished topic created by driver-service, so a failed
+   * record keeps its partition.
+   */
+  @Bean
+  public NewTopic createTopicRideFinishedDlt() {
+    return TopicBuilder.name(kafkaProperties.getTopicRideFinishedDlt())
+        .partitions(kafkaProperties.getPartitions())
+        .replicas(kafkaProperties.getReplicas())
+        .build();
+  }
+}
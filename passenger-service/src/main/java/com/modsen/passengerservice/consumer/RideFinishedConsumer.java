@@ -0,0 +1,23 @@
+package com.modsen.passengerservice.consumer;
+
+import com.modsen.passengerservice.dto.RideFinishedDto;
+import com.modsen.passengerservice.service.PassengerService;
+import lombok.AllArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@AllArgsConstructor
+public class RideFinishedConsumer {
+
+  private final PassengerService passengerService;
+
+  @KafkaListener(
+      topics = "${spring.kafka.topic-ride-finished}",
+      groupId = "${spring.kafka.consumers-group-id-ride-finished}",
+      containerFactory = "rideFinishedListenerContainerFactory",
+      autoStartup = "${spring.kafka.listener-auto-startup}")
+  public void settleFinishedRide(RideFinishedDto rideFinishedDto) {
+    passengerService.settleFinishedRide(rideFinishedDto);
+  }
+}
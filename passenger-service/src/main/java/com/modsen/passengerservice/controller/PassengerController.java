@@ -2,6 +2,8 @@ package com.modsen.passengerservice.controller;
 
 import com.modsen.passengerservice.dto.PassengerAfterRideDto;
 import com.modsen.passengerservice.dto.PassengerDto;
+import com.modsen.passengerservice.dto.PassengerPageDto;
+import com.modsen.passengerservice.pagination.KeysetCursor;
 import com.modsen.passengerservice.service.PassengerService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -14,11 +16,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import java.util.List;
 
 import static org.springframework.http.HttpStatus.CREATED;
@@ -30,6 +35,7 @@ import static org.springframework.http.HttpStatus.OK;
 @RequestMapping("/api/v1/passengers")
 public class PassengerController {
 
+  public static final int MAX_PAGE_LIMIT = 100;
   private final PassengerService passengerService;
 
   @GetMapping("/{id}")
@@ -43,6 +49,13 @@ public class PassengerController {
     return ResponseEntity.ok(passengers);
   }
 
+  @GetMapping(params = "limit")
+  public ResponseEntity<PassengerPageDto> getAllAfter(
+      @RequestParam(name = "after", required = false) String after,
+      @RequestParam(name = "limit") @Min(value = 1) @Max(value = MAX_PAGE_LIMIT) int limit) {
+    return ResponseEntity.ok(passengerService.getAllAfter(KeysetCursor.decode(after), limit));
+  }
+
   @PostMapping
   public ResponseEntity<PassengerDto> save(@RequestBody @Valid PassengerDto passengerDto) {
     return ResponseEntity.status(CREATED).body(passengerService.save(passengerDto));
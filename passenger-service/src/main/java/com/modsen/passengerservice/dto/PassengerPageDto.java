@@ -0,0 +1,25 @@
+package com.modsen.passengerservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class PassengerPageDto {
+
+  private List<PassengerDto> passengerDtoList;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.modsen.passengerservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RideFinishedDto {
+
+  private String eventId;
+  private Long rideId;
+  private Long passengerId;
+  private Long passengerBankCardId;
+  private BigDecimal rideCost;
+  private Double passengerRating;
+}
@@ -0,0 +1,8 @@
+package com.modsen.passengerservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
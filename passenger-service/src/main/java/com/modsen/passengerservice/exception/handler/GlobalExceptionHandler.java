@@ -1,6 +1,7 @@
 package com.modsen.passengerservice.exception.handler;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.modsen.passengerservice.exception.InvalidCursorException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpStatus;
@@ -50,6 +51,11 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
   }
 
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<Object> handleInvalidCursorException(Exception ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+  }
+
   @ExceptionHandler(HttpMessageNotReadableException.class)
   public ResponseEntity<Object> handleHttpMessageNotReadableException(
       HttpMessageNotReadableException ex) {
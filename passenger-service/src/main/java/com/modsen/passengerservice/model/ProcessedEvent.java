@@ -0,0 +1,28 @@
+package com.modsen.passengerservice.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "processed_events")
+public class ProcessedEvent {
+
+  @Id
+  @Column(name = "event_id")
+  private String eventId;
+
+  @Column(name = "processed_at", nullable = false)
+  private LocalDateTime processedAt;
+}
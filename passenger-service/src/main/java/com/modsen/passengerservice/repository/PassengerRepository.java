@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigInteger;
 import java.util.Collection;
@@ -20,6 +21,12 @@ public interface PassengerRepository extends PagingAndSortingRepository<Passenge
   @EntityGraph(attributePaths = "bankCards")
   List<Passenger> findByIdIn(Collection<Long> id);
 
+  @EntityGraph(attributePaths = "bankCards")
+  List<Passenger> findByIdInOrderById(Collection<Long> id);
+
   @Query(value = "SELECT id FROM passengers", nativeQuery = true)
   Page<BigInteger> findAllIds(Pageable pageable);
+
+  @Query("SELECT p.id FROM Passenger p WHERE p.id > :afterId ORDER BY p.id")
+  List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -2,6 +2,8 @@ package com.modsen.passengerservice.service;
 
 import com.modsen.passengerservice.dto.PassengerAfterRideDto;
 import com.modsen.passengerservice.dto.PassengerDto;
+import com.modsen.passengerservice.dto.PassengerPageDto;
+import com.modsen.passengerservice.dto.RideFinishedDto;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -12,6 +14,8 @@ public interface PassengerService {
 
   List<PassengerDto> getAll(Pageable pageable);
 
+  PassengerPageDto getAllAfter(long afterId, int limit);
+
   PassengerDto save(PassengerDto passengerDto);
 
   void deleteById(long id);
@@ -25,4 +29,6 @@ public interface PassengerService {
   void removeBankCardToPassenger(long passengerId, long bankCardId);
 
   void updateAfterRide(Long passengerId, PassengerAfterRideDto passengerAfterRideDto);
+
+  void settleFinishedRide(RideFinishedDto rideFinishedDto);
 }
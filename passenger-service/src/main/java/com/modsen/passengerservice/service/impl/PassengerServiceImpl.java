@@ -2,24 +2,32 @@ package com.modsen.passengerservice.service.impl;
 
 import com.modsen.passengerservice.dto.PassengerAfterRideDto;
 import com.modsen.passengerservice.dto.PassengerDto;
+import com.modsen.passengerservice.dto.PassengerPageDto;
+import com.modsen.passengerservice.dto.RideFinishedDto;
 import com.modsen.passengerservice.mapper.BankCardMapper;
 import com.modsen.passengerservice.mapper.PassengerMapper;
 import com.modsen.passengerservice.model.BankCard;
 import com.modsen.passengerservice.model.Passenger;
+import com.modsen.passengerservice.pagination.KeysetCursor;
 import com.modsen.passengerservice.repository.PassengerRepository;
+import com.modsen.passengerservice.repository.ProcessedEventRepository;
 import com.modsen.passengerservice.service.BankCardService;
 import com.modsen.passengerservice.service.PassengerService;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @AllArgsConstructor
 public class PassengerServiceImpl implements PassengerService {
@@ -28,6 +36,7 @@ public class PassengerServiceImpl implements PassengerService {
       "Passenger was not found by id = ";
   private static final Double DEFAULT_RATING_NEW_PASSENGER = 5.0;
   private final PassengerRepository passengerRepository;
+  private final ProcessedEventRepository processedEventRepository;
   private final BankCardService bankCardService;
   private final BankCardMapper bankCardMapper;
   private final PassengerMapper passengerMapper;
@@ -57,6 +66,25 @@ public class PassengerServiceImpl implements PassengerService {
     return passengers;
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public PassengerPageDto getAllAfter(long afterId, int limit) {
+    List<Long> ids = passengerRepository.findIdsAfter(afterId, PageRequest.of(0, limit + 1));
+    String nextCursor = null;
+    if (ids.size() > limit) {
+      ids = ids.subList(0, limit);
+      nextCursor = KeysetCursor.encode(ids.get(limit - 1));
+    }
+    List<PassengerDto> passengerDtoList =
+        passengerRepository.findByIdInOrderById(ids).stream()
+            .map(passengerMapper::toDto)
+            .collect(Collectors.toList());
+    return PassengerPageDto.builder()
+        .passengerDtoList(passengerDtoList)
+        .nextCursor(nextCursor)
+        .build();
+  }
+
   @Override
   @Transactional
   public PassengerDto save(PassengerDto passengerDto) {
@@ -108,11 +136,34 @@ public class PassengerServiceImpl implements PassengerService {
   @Override
   @Transactional
   public void updateAfterRide(Long passengerId, PassengerAfterRideDto passengerAfterRideDto) {
+    applyRideResult(
+        passengerId,
+        passengerAfterRideDto.getPassengerRating(),
+        passengerAfterRideDto.getPassengerBankCardId(),
+        passengerAfterRideDto.getRideCost());
+  }
+
+  @Override
+  @Transactional
+  public void settleFinishedRide(RideFinishedDto rideFinishedDto) {
+    if (processedEventRepository.markProcessed(rideFinishedDto.getEventId()) == 0) {
+      log.info("RideFinished event {} was already processed", rideFinishedDto.getEventId());
+      return;
+    }
+    applyRideResult(
+        rideFinishedDto.getPassengerId(),
+        rideFinishedDto.getPassengerRating(),
+        rideFinishedDto.getPassengerBankCardId(),
+        rideFinishedDto.getRideCost());
+  }
+
+  private void applyRideResult(
+      Long passengerId, Double passengerRating, Long passengerBankCardId, BigDecimal rideCost) {
     Passenger passenger = getPassenger(passengerId);
-    passenger.setRating(passengerAfterRideDto.getPassengerRating());
-    if (passengerAfterRideDto.getPassengerBankCardId()!=null) {
-      BankCard bankCard = bankCardService.getEntityById(passengerAfterRideDto.getPassengerBankCardId());
-      bankCard.setBalance(bankCard.getBalance().subtract(passengerAfterRideDto.getRideCost()));
+    passenger.setRating(passengerRating);
+    if (passengerBankCardId != null) {
+      BankCard bankCard = bankCardService.getEntityById(passengerBankCardId);
+      bankCard.setBalance(bankCard.getBalance().subtract(rideCost));
     }
   }
 }
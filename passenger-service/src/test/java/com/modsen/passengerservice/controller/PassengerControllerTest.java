@@ -7,6 +7,8 @@ import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.modsen.passengerservice.dto.BankCardDto;
 import com.modsen.passengerservice.dto.PassengerAfterRideDto;
 import com.modsen.passengerservice.dto.PassengerDto;
+import com.modsen.passengerservice.dto.PassengerPageDto;
+import com.modsen.passengerservice.pagination.KeysetCursor;
 import com.modsen.passengerservice.service.PassengerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -144,6 +146,24 @@ class PassengerControllerTest {
     verify(passengerService).getAll(any(Pageable.class));
   }
 
+  @Test
+  void getAllPassengersAfterCursorIfLimitIsPresent() throws Exception {
+    String after = KeysetCursor.encode(1L);
+    when(passengerService.getAllAfter(1L, 10))
+        .thenReturn(
+            PassengerPageDto.builder()
+                .passengerDtoList(List.of(passengerDto))
+                .nextCursor(after)
+                .build());
+
+    mvc.perform(get(PASSENGER_URL).param("after", after).param("limit", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.passengerDtoList", hasSize(1)))
+        .andExpect(jsonPath("$.nextCursor").value(after));
+
+    verify(passengerService).getAllAfter(1L, 10);
+  }
+
   @Test
   void savePassenger() throws Exception {
     when(passengerService.save(passengerDto)).thenReturn(passengerDto);
@@ -0,0 +1,195 @@
+package com.modsen.passengerservice.integration.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.passengerservice.config.kafka.KafkaProperties;
+import com.modsen.passengerservice.dto.RideFinishedDto;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.context.TestConstructor.AutowireMode.ALL;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+/**
+ * Runs the ride finished listener against a real broker. The test is not transactional, so the
+ * listener thread sees the test data and the data is removed after every test.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(
+    properties = {
+      "spring.kafka.listener-auto-startup=true",
+      "spring.kafka.partitions=1",
+      "spring.kafka.ride-finished-retry-interval-ms=100",
+      "spring.kafka.ride-finished-retry-attempts=2"
+    })
+@TestConstructor(autowireMode = ALL)
+@Sql({"classpath:db/delete-data.sql", "classpath:db/data.sql"})
+@Sql(scripts = "classpath:db/delete-data.sql", executionPhase = AFTER_TEST_METHOD)
+@RequiredArgsConstructor
+class RideFinishedConsumerIT {
+
+  public static final Long FIRST_PASSENGER_ID = 22L;
+  public static final Long SECOND_PASSENGER_ID = 66L;
+  public static final Long THIRD_PASSENGER_ID = 100L;
+  public static final Long NOT_EXISTED_PASSENGER_ID = 404L;
+  public static final Long FIRST_BANK_CARD_ID = 1L;
+  public static final Long SECOND_BANK_CARD_ID = 2L;
+  public static final Long THIRD_BANK_CARD_ID = 3L;
+  public static final BigDecimal RIDE_COST = BigDecimal.TEN;
+  public static final String MALFORMED_EVENT = "not a ride finished event";
+  public static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:13.1-alpine");
+  private static final KafkaContainer kafka =
+      new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.3.3"));
+
+  private final KafkaProperties kafkaProperties;
+  private final ObjectMapper objectMapper;
+  private final JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void runContainers() {
+    postgres.start();
+    kafka.start();
+  }
+
+  @DynamicPropertySource
+  static void containerProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.kafka.bootstrap-address", kafka::getBootstrapServers);
+  }
+
+  @Test
+  void duplicateRideFinishedEventChargesBankCardOnce() throws Exception {
+    RideFinishedDto rideFinishedDto =
+        rideFinished("duplicate-event", FIRST_PASSENGER_ID, FIRST_BANK_CARD_ID);
+
+    send("1", objectMapper.writeValueAsString(rideFinishedDto));
+    send("1", objectMapper.writeValueAsString(rideFinishedDto));
+    send(
+        "1",
+        objectMapper.writeValueAsString(
+            rideFinished("next-event", SECOND_PASSENGER_ID, SECOND_BANK_CARD_ID)));
+
+    awaitBalance(SECOND_BANK_CARD_ID, new BigDecimal("990"));
+    assertEquals(0, new BigDecimal("90").compareTo(balance(FIRST_BANK_CARD_ID)));
+  }
+
+  @Test
+  void failedRideFinishedEventsArePublishedToDeadLetterTopicAndNextEventIsApplied()
+      throws Exception {
+    send("2", MALFORMED_EVENT);
+    send(
+        "2",
+        objectMapper.writeValueAsString(
+            rideFinished("unknown-passenger-event", NOT_EXISTED_PASSENGER_ID, null)));
+    send(
+        "2",
+        objectMapper.writeValueAsString(
+            rideFinished("applied-event", THIRD_PASSENGER_ID, THIRD_BANK_CARD_ID)));
+
+    awaitBalance(THIRD_BANK_CARD_ID, new BigDecimal("40"));
+    List<String> deadLetters = readDeadLetters(2);
+    assertEquals(MALFORMED_EVENT, deadLetters.get(0));
+    assertTrue(deadLetters.get(1).contains("unknown-passenger-event"));
+    assertFalse(isProcessed("unknown-passenger-event"));
+  }
+
+  private RideFinishedDto rideFinished(String eventId, Long passengerId, Long bankCardId) {
+    return RideFinishedDto.builder()
+        .eventId(eventId)
+        .rideId(1L)
+        .passengerId(passengerId)
+        .passengerBankCardId(bankCardId)
+        .rideCost(RIDE_COST)
+        .passengerRating(4.0)
+        .build();
+  }
+
+  private void send(String key, String value) throws ExecutionException, InterruptedException {
+    try (KafkaProducer<String, String> producer =
+        new KafkaProducer<>(
+            Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class))) {
+      producer.send(new ProducerRecord<>(kafkaProperties.getTopicRideFinished(), key, value)).get();
+    }
+  }
+
+  private List<String> readDeadLetters(int count) {
+    List<String> deadLetters = new ArrayList<>();
+    try (KafkaConsumer<String, String> consumer =
+        new KafkaConsumer<>(
+            Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, "ride-finished-dlt-test-consumers",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class))) {
+      consumer.subscribe(List.of(kafkaProperties.getTopicRideFinishedDlt()));
+      long deadline = System.nanoTime() + TIMEOUT.toNanos();
+      while (deadLetters.size() < count && System.nanoTime() < deadline) {
+        for (ConsumerRecord<String, String> consumerRecord :
+            consumer.poll(Duration.ofMillis(500))) {
+          deadLetters.add(consumerRecord.value());
+        }
+      }
+    }
+    assertEquals(count, deadLetters.size());
+    return deadLetters;
+  }
+
+  private void awaitBalance(Long bankCardId, BigDecimal expectedBalance)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (expectedBalance.compareTo(balance(bankCardId)) != 0) {
+      if (System.nanoTime() > deadline) {
+        fail("Balance of bank card " + bankCardId + " is not " + expectedBalance);
+      }
+      Thread.sleep(200);
+    }
+  }
+
+  private BigDecimal balance(Long bankCardId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT balance FROM bank_cards WHERE id = ?", BigDecimal.class, bankCardId);
+  }
+
+  private boolean isProcessed(String eventId) {
+    Integer count =
+        jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM processed_events WHERE event_id = ?", Integer.class, eventId);
+    return count != null && count > 0;
+  }
+}
@@ -3,11 +3,14 @@ package com.modsen.passengerservice.service.impl;
 import com.modsen.passengerservice.dto.BankCardDto;
 import com.modsen.passengerservice.dto.PassengerAfterRideDto;
 import com.modsen.passengerservice.dto.PassengerDto;
+import com.modsen.passengerservice.dto.PassengerPageDto;
+import com.modsen.passengerservice.dto.RideFinishedDto;
 import com.modsen.passengerservice.mapper.BankCardMapper;
 import com.modsen.passengerservice.mapper.PassengerMapper;
 import com.modsen.passengerservice.model.BankCard;
 import com.modsen.passengerservice.model.Passenger;
 import com.modsen.passengerservice.repository.PassengerRepository;
+import com.modsen.passengerservice.repository.ProcessedEventRepository;
 import com.modsen.passengerservice.service.BankCardService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,11 +29,13 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +44,7 @@ class PassengerServiceImplTest {
 
   public static final Long EXIST_ID = 1L;
   public static final Double UPDATED_RATING = 3.0;
+  public static final String EVENT_ID = "ride-finished-event";
 
   private Passenger passenger;
   private PassengerDto passengerDto;
@@ -46,6 +52,7 @@ class PassengerServiceImplTest {
   private BankCard bankCard;
   private PassengerAfterRideDto passengerAfterRideDto;
   @Mock private PassengerRepository passengerRepository;
+  @Mock private ProcessedEventRepository processedEventRepository;
   @Mock private PassengerMapper passengerMapper;
   @Mock private BankCardService bankCardService;
   @Mock private BankCardMapper bankCardMapper;
@@ -96,6 +103,18 @@ class PassengerServiceImplTest {
     verify(passengerMapper).toDto(passenger);
   }
 
+  @Test
+  void getAllPassengersAfterIfLastPageThanReturnNullNextCursor() {
+    when(passengerRepository.findIdsAfter(0L, PageRequest.of(0, 11))).thenReturn(List.of(EXIST_ID));
+    when(passengerRepository.findByIdInOrderById(List.of(EXIST_ID))).thenReturn(List.of(passenger));
+    when(passengerMapper.toDto(passenger)).thenReturn(passengerDto);
+
+    PassengerPageDto actual = passengerService.getAllAfter(0L, 10);
+
+    assertEquals(List.of(passengerDto), actual.getPassengerDtoList());
+    assertNull(actual.getNextCursor());
+  }
+
   @Test
   void savePassenger() {
     when(passengerMapper.toEntity(passengerDto)).thenReturn(passenger);
@@ -183,4 +202,34 @@ class PassengerServiceImplTest {
     verify(passengerRepository).findById(anyLong());
     verify(bankCardService).getEntityById(anyLong());
   }
+
+  @Test
+  void settleFinishedRideChargesBankCardAndUpdatesRating() {
+    when(processedEventRepository.markProcessed(EVENT_ID)).thenReturn(1);
+    when(passengerRepository.findById(EXIST_ID)).thenReturn(Optional.of(passenger));
+    when(bankCardService.getEntityById(EXIST_ID)).thenReturn(bankCard);
+
+    passengerService.settleFinishedRide(
+        RideFinishedDto.builder()
+            .eventId(EVENT_ID)
+            .passengerId(EXIST_ID)
+            .passengerBankCardId(EXIST_ID)
+            .rideCost(BigDecimal.ONE)
+            .passengerRating(UPDATED_RATING)
+            .build());
+
+    assertEquals(BigDecimal.valueOf(9), bankCard.getBalance());
+    assertEquals(UPDATED_RATING, passenger.getRating());
+  }
+
+  @Test
+  void settleFinishedRideIfEventAlreadyProcessedThanSkipIt() {
+    when(processedEventRepository.markProcessed(EVENT_ID)).thenReturn(0);
+
+    passengerService.settleFinishedRide(
+        RideFinishedDto.builder().eventId(EVENT_ID).passengerId(EXIST_ID).build());
+
+    verify(passengerRepository, never()).findById(anyLong());
+    verify(bankCardService, never()).getEntityById(anyLong());
+  }
 }
@@ -0,0 +1,3 @@
+DELETE FROM processed_events;
+DELETE FROM bank_cards;
+DELETE FROM passengers;
@@ -1,16 +1,30 @@
 package com.modsen.rideservice;
 
+import com.modsen.rideservice.config.enrichment.DriverCarCacheProperties;
+import com.modsen.rideservice.config.export.RideExportProperties;
+import com.modsen.rideservice.config.fare.FareProperties;
 import com.modsen.rideservice.config.kafka.KafkaProperties;
+import com.modsen.rideservice.config.outbox.OutboxProperties;
+import com.modsen.rideservice.config.partition.RidePartitionProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(KafkaProperties.class)
+@EnableConfigurationProperties({
+  KafkaProperties.class,
+  OutboxProperties.class,
+  DriverCarCacheProperties.class,
+  RideExportProperties.class,
+  RidePartitionProperties.class,
+  FareProperties.class
+})
 @EnableEurekaClient
 @EnableFeignClients
+@EnableScheduling
 public class RideServiceApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package com.modsen.rideservice.config.enrichment;
+
+import com.modsen.rideservice.enrichment.DriverCarCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class DriverCarCacheConfig {
+
+  private final DriverCarCacheProperties driverCarCacheProperties;
+
+  @Bean
+  public DriverCarCache driverCarCache() {
+    return new DriverCarCache(
+        driverCarCacheProperties.getTtl(), driverCarCacheProperties.getMaxSize(), System::nanoTime);
+  }
+}
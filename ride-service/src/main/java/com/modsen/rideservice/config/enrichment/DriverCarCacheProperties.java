@@ -0,0 +1,18 @@
+package com.modsen.rideservice.config.enrichment;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "driver.car-cache")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class DriverCarCacheProperties {
+
+  private Duration ttl;
+  private int maxSize;
+}
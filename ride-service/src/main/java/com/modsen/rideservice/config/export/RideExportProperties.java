@@ -0,0 +1,15 @@
+package com.modsen.rideservice.config.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@ConfigurationProperties(prefix = "ride.export")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class RideExportProperties {
+
+  private int fetchSize;
+}
@@ -0,0 +1,29 @@
+package com.modsen.rideservice.config.fare;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "ride.fare")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class FareProperties {
+
+  private String defaultTariff;
+  private Map<String, TariffProperties> tariffs = new HashMap<>();
+
+  @Getter
+  @Setter
+  public static class TariffProperties {
+
+    private long baseFareCents;
+    private long perKmCents;
+    private long perMinuteCents;
+    private long minimumFareCents;
+  }
+}
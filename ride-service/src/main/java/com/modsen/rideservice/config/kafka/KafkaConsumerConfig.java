@@ -1,6 +1,7 @@
 package com.modsen.rideservice.config.kafka;
 
 import com.modsen.rideservice.dto.DriverRideDto;
+import com.modsen.rideservice.metrics.RideLifecycleMetrics;
 import com.modsen.rideservice.service.RideService;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -11,16 +12,18 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.integration.dsl.IntegrationFlow;
 import org.springframework.integration.dsl.IntegrationFlows;
 import org.springframework.integration.kafka.dsl.Kafka;
+import org.springframework.integration.kafka.inbound.KafkaMessageDrivenChannelAdapter.ListenerMode;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.KafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.listener.KafkaMessageListenerContainer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Configuration
 @RequiredArgsConstructor
@@ -29,42 +32,95 @@ public class KafkaConsumerConfig {
   public static final String FULL_CLASS_NAME_DRIVER_DTO_IN_DRIVER_SERVICE =
       "com.modsen.driverservice.dto.DriverRideDto";
   private final RideService rideService;
+  private final RideLifecycleMetrics rideLifecycleMetrics;
   private final KafkaProperties kafkaProperties;
 
   @Bean
   public IntegrationFlow listenerAvailableDriver() {
+    if (kafkaProperties.isConsumerBatchListener()) {
+      return batchListener(
+          listenerContainerGetAvailableDriver(), rideService::getAvailableDrivers);
+    }
     return IntegrationFlows.from(
             Kafka.messageDrivenChannelAdapter(listenerContainerGetAvailableDriver()))
-        .handle(rideService, "getAvailableDriver")
+        .handle(
+            DriverRideDto.class,
+            (driverRideDto, headers) -> {
+              rideLifecycleMetrics.recordConsumed(
+                  headers, () -> rideService.getAvailableDriver(driverRideDto));
+              return null;
+            })
         .get();
   }
 
   @Bean
   public IntegrationFlow listenerNotFoundDriver() {
+    if (kafkaProperties.isConsumerBatchListener()) {
+      return batchListener(
+          listenerContainerGetNotAvailableDriver(), rideService::getNotFoundDrivers);
+    }
     return IntegrationFlows.from(
             Kafka.messageDrivenChannelAdapter(listenerContainerGetNotAvailableDriver()))
-        .handle(rideService, "getNotFoundDriver")
+        .handle(
+            DriverRideDto.class,
+            (driverRideDto, headers) -> {
+              rideLifecycleMetrics.recordConsumed(
+                  headers, () -> rideService.getNotFoundDriver(driverRideDto));
+              return null;
+            })
         .get();
   }
 
+  /**
+   * Hands a poll's worth of match results to the handler at once, so they are applied in one
+   * transaction. Results of a ride share its partition, so their order within the batch holds.
+   */
+  private IntegrationFlow batchListener(
+      ConcurrentMessageListenerContainer<String, String> listenerContainer,
+      Consumer<List<DriverRideDto>> handler) {
+    return IntegrationFlows.from(
+            Kafka.messageDrivenChannelAdapter(listenerContainer, ListenerMode.batch))
+        .handle(
+            List.class,
+            (driverRideDtos, headers) -> {
+              rideLifecycleMetrics.recordConsumedBatch(
+                  headers, () -> handler.accept(toDriverRideDtos(driverRideDtos)));
+              return null;
+            })
+        .get();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<DriverRideDto> toDriverRideDtos(List<?> payload) {
+    return (List<DriverRideDto>) payload;
+  }
+
   @Bean
-  public KafkaMessageListenerContainer<String, String> listenerContainerGetAvailableDriver() {
+  public ConcurrentMessageListenerContainer<String, String>
+      listenerContainerGetAvailableDriver() {
     ContainerProperties containerPropertiesAvailableDriver =
         new ContainerProperties(kafkaProperties.getTopicAvailableDriver());
     containerPropertiesAvailableDriver.setGroupId(
         kafkaProperties.getConsumersGroupIdAvailableDriver());
-    return new KafkaMessageListenerContainer<>(
-        consumerFactory(), containerPropertiesAvailableDriver);
+    ConcurrentMessageListenerContainer<String, String> listenerContainer =
+        new ConcurrentMessageListenerContainer<>(
+            consumerFactory(), containerPropertiesAvailableDriver);
+    listenerContainer.setConcurrency(kafkaProperties.getConsumerConcurrency());
+    return listenerContainer;
   }
 
   @Bean
-  public KafkaMessageListenerContainer<String, String> listenerContainerGetNotAvailableDriver() {
+  public ConcurrentMessageListenerContainer<String, String>
+      listenerContainerGetNotAvailableDriver() {
     ContainerProperties containerPropertiesGetNotAvailableDriver =
         new ContainerProperties(kafkaProperties.getTopicNotFoundDriver());
     containerPropertiesGetNotAvailableDriver.setGroupId(
         kafkaProperties.getConsumersGroupIdNotFoundAvailableDriver());
-    return new KafkaMessageListenerContainer<>(
-        consumerFactory(), containerPropertiesGetNotAvailableDriver);
+    ConcurrentMessageListenerContainer<String, String> listenerContainer =
+        new ConcurrentMessageListenerContainer<>(
+            consumerFactory(), containerPropertiesGetNotAvailableDriver);
+    listenerContainer.setConcurrency(kafkaProperties.getConsumerConcurrency());
+    return listenerContainer;
   }
 
   @Bean
@@ -72,6 +128,7 @@ public class KafkaConsumerConfig {
   public Map<String, Object> consumerConfig() {
     return Map.of(
         ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapAddress(),
+        ConsumerConfig.MAX_POLL_RECORDS_CONFIG, kafkaProperties.getConsumerMaxPollRecords(),
         ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
         ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class,
         JsonDeserializer.TRUSTED_PACKAGES, "*",
@@ -1,5 +1,7 @@
 package com.modsen.rideservice.config.kafka;
 
+import com.modsen.rideservice.dto.DriverReleaseDto;
+import com.modsen.rideservice.dto.RideFinishedDto;
 import com.modsen.rideservice.dto.RideSearchDto;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -7,16 +9,11 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.integration.channel.DirectChannel;
-import org.springframework.integration.dsl.IntegrationFlow;
-import org.springframework.integration.dsl.IntegrationFlows;
-import org.springframework.integration.kafka.dsl.Kafka;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
-import org.springframework.messaging.MessageChannel;
 
 import java.util.Map;
 
@@ -26,18 +23,6 @@ public class KafkaProducerConfig {
 
   private final KafkaProperties kafkaProperties;
 
-  @Bean
-  public IntegrationFlow kafkaIntegrationFlow(KafkaTemplate<String, Object> kafkaTemplate) {
-    return IntegrationFlows.from("toKafkaChannel")
-            .handle(Kafka.outboundChannelAdapter(kafkaTemplate))
-            .get();
-  }
-
-  @Bean
-  public MessageChannel toKafkaChannel() {
-    return new DirectChannel();
-  }
-
   @Bean
   @Profile("!test")
   public Map<String, Object> producerConfig() {
@@ -45,7 +30,13 @@ public class KafkaProducerConfig {
             ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapAddress(),
             ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
             ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
-            JsonDeserializer.TYPE_MAPPINGS, "rideSearchDto:" + RideSearchDto.class.getName());
+            JsonDeserializer.TYPE_MAPPINGS,
+                "rideSearchDto:"
+                    + RideSearchDto.class.getName()
+                    + ",rideFinishedDto:"
+                    + RideFinishedDto.class.getName()
+                    + ",driverReleaseDto:"
+                    + DriverReleaseDto.class.getName());
   }
 
   @Bean
@@ -16,4 +16,7 @@ public class KafkaProperties {
   private String topicNotFoundDriver;
   private String consumersGroupIdAvailableDriver;
   private String consumersGroupIdNotFoundAvailableDriver;
+  private int consumerConcurrency = 1;
+  private boolean consumerBatchListener;
+  private int consumerMaxPollRecords = 500;
 }
@@ -0,0 +1,19 @@
+package com.modsen.rideservice.config.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "outbox")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class OutboxProperties {
+
+  private int batchSize;
+  private Duration linger;
+  private Duration sendTimeout;
+}
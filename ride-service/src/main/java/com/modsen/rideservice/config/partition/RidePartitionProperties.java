@@ -0,0 +1,16 @@
+package com.modsen.rideservice.config.partition;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@ConfigurationProperties(prefix = "ride.partition")
+@ConfigurationPropertiesScan
+@Getter
+@Setter
+public class RidePartitionProperties {
+
+  private int monthsAhead;
+  private int retentionMonths;
+}
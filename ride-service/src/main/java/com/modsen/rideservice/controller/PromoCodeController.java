@@ -2,6 +2,7 @@ package com.modsen.rideservice.controller;
 
 import com.modsen.rideservice.dto.PromoCodeDto;
 import com.modsen.rideservice.dto.PromoCodePageDto;
+import com.modsen.rideservice.pagination.KeysetCursor;
 import com.modsen.rideservice.service.PromoCodeService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -14,10 +15,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.security.RolesAllowed;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import java.util.List;
 
 import static org.springframework.http.HttpStatus.CREATED;
@@ -29,6 +33,7 @@ import static org.springframework.http.HttpStatus.CREATED;
 @RolesAllowed("ADMIN")
 public class PromoCodeController {
 
+  public static final int MAX_PAGE_LIMIT = 100;
   private final PromoCodeService promoCodeService;
 
   @GetMapping("/{id}")
@@ -44,6 +49,13 @@ public class PromoCodeController {
     return ResponseEntity.ok(promoCodePageDto);
   }
 
+  @GetMapping(params = "limit")
+  public ResponseEntity<PromoCodePageDto> getAllAfter(
+      @RequestParam(name = "after", required = false) String after,
+      @RequestParam(name = "limit") @Min(value = 1) @Max(value = MAX_PAGE_LIMIT) int limit) {
+    return ResponseEntity.ok(promoCodeService.getAllAfter(KeysetCursor.decode(after), limit));
+  }
+
   @PostMapping
   public ResponseEntity<PromoCodeDto> save(@RequestBody @Valid PromoCodeDto promoCodeDto) {
     PromoCodeDto savedPromoCode = promoCodeService.save(promoCodeDto);
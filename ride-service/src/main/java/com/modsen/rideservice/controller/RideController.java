@@ -1,11 +1,17 @@
 package com.modsen.rideservice.controller;
 
 import com.modsen.rideservice.dto.PassengerRatingFinishDto;
+import com.modsen.rideservice.dto.RideBatchDto;
+import com.modsen.rideservice.dto.RideBatchResultDto;
 import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.dto.RideExportFilterDto;
 import com.modsen.rideservice.dto.RidePageDto;
+import com.modsen.rideservice.pagination.KeysetCursor;
+import com.modsen.rideservice.service.RideExportService;
 import com.modsen.rideservice.service.RideService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,7 +21,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.annotation.security.RolesAllowed;
 import javax.validation.Valid;
@@ -24,6 +32,7 @@ import javax.validation.constraints.Min;
 import java.util.List;
 
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.MULTI_STATUS;
 
 @RestController
 @AllArgsConstructor
@@ -31,7 +40,9 @@ import static org.springframework.http.HttpStatus.CREATED;
 @RequestMapping("/api/v1/rides")
 public class RideController {
 
+  public static final int MAX_PAGE_LIMIT = 100;
   private final RideService rideService;
+  private final RideExportService rideExportService;
 
   @PostMapping
   @RolesAllowed({"PASSENGER", "ADMIN"})
@@ -39,6 +50,15 @@ public class RideController {
     return ResponseEntity.status(CREATED).body(rideService.order(rideDto));
   }
 
+  @PostMapping("/batch")
+  @RolesAllowed({"PASSENGER", "ADMIN"})
+  public ResponseEntity<RideBatchResultDto> orderBatch(
+      @RequestBody @Valid RideBatchDto rideBatchDto) {
+    RideBatchResultDto rideBatchResultDto = rideService.orderBatch(rideBatchDto);
+    return ResponseEntity.status(rideBatchResultDto.getRejected() == 0 ? CREATED : MULTI_STATUS)
+        .body(rideBatchResultDto);
+  }
+
   @PutMapping("{rideId}/finish")
   @RolesAllowed({"DRIVER", "ADMIN"})
   public ResponseEntity<Void> finishByDriver(
@@ -76,6 +96,22 @@ public class RideController {
     return ResponseEntity.ok(ridePageDto);
   }
 
+  @GetMapping(params = "limit")
+  public ResponseEntity<RidePageDto> getAllAfter(
+      @RequestParam(name = "after", required = false) String after,
+      @RequestParam(name = "limit") @Min(value = 1) @Max(value = MAX_PAGE_LIMIT) int limit) {
+    return ResponseEntity.ok(rideService.getAllAfter(KeysetCursor.decode(after), limit));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @RolesAllowed("ADMIN")
+  public ResponseEntity<StreamingResponseBody> export(
+      @Valid RideExportFilterDto rideExportFilterDto) {
+    StreamingResponseBody responseBody =
+        outputStream -> rideExportService.export(rideExportFilterDto, outputStream);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> delete(@PathVariable("id") long id) {
     rideService.deleteById(id);
@@ -7,6 +7,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,4 +22,5 @@ public class DriverRideDto {
   private String firstName;
   private String lastName;
   private CarDto carDto;
+  private LocalDateTime rideBookingTime;
 }
@@ -0,0 +1,26 @@
+package com.modsen.rideservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RideBatchDto {
+
+  public static final int MAX_BATCH_SIZE = 100;
+
+  @NotEmpty
+  @Size(max = MAX_BATCH_SIZE)
+  private List<@NotNull RideDto> rideDtoList;
+}
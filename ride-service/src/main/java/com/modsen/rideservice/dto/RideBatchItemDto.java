@@ -0,0 +1,23 @@
+package com.modsen.rideservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.modsen.rideservice.model.RideBatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RideBatchItemDto {
+
+  private int index;
+  private RideBatchItemStatus status;
+  private RideDto rideDto;
+  private String error;
+}
@@ -0,0 +1,21 @@
+package com.modsen.rideservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RideBatchResultDto {
+
+  private int created;
+  private int rejected;
+  private List<RideBatchItemDto> items;
+}
@@ -10,8 +10,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -27,6 +30,12 @@ public class RideDto {
   private Long id;
   @NotBlank
   private String startLocation;
+  @DecimalMin(value = "-90.0", message = "{ride.latitude.error}")
+  @DecimalMax(value = "90.0", message = "{ride.latitude.error}")
+  private Double startLatitude;
+  @DecimalMin(value = "-180.0", message = "{ride.longitude.error}")
+  @DecimalMax(value = "180.0", message = "{ride.longitude.error}")
+  private Double startLongitude;
   @NotBlank
   private String endLocation;
   @NotNull
@@ -40,6 +49,11 @@ public class RideDto {
   private LocalDateTime finishTime;
   private String passengerBankCardId;
   private String promoCodeName;
+  private String tariff;
+  @PositiveOrZero
+  private Long distanceMeters;
+  @PositiveOrZero
+  private Long durationSeconds;
   private BigDecimal cost;
   private Status status;
   private CarDto carDto;
@@ -0,0 +1,33 @@
+package com.modsen.rideservice.dto;
+
+import com.modsen.rideservice.model.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class RideExportFilterDto {
+
+  @NotNull private LocalDateTime from;
+
+  @NotNull private LocalDateTime to;
+
+  private Status status;
+
+  @AssertTrue(message = "Date from can't be after the date to")
+  public boolean isFromBeforeTo() {
+    return from == null || to == null || !from.isAfter(to);
+  }
+}
@@ -0,0 +1,29 @@
+package com.modsen.rideservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class RideFinishedDto {
+
+  private String eventId;
+  private Long rideId;
+  private Long driverId;
+  private Long passengerId;
+  private String passengerBankCardId;
+  private BigDecimal rideCost;
+  private Double passengerRating;
+}
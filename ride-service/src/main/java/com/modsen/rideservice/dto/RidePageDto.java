@@ -1,5 +1,6 @@
 package com.modsen.rideservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -16,4 +17,7 @@ import java.util.List;
 public class RidePageDto {
 
   private List<RideDto> rideDtoList;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String nextCursor;
 }
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -18,4 +19,7 @@ import javax.validation.constraints.NotNull;
 public class RideSearchDto {
 
   @NotNull private Long rideId;
+  private Double startLatitude;
+  private Double startLongitude;
+  private LocalDateTime bookingTime;
 }
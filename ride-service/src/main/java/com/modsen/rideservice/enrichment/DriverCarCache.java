@@ -0,0 +1,60 @@
+package com.modsen.rideservice.enrichment;
+
+import com.modsen.rideservice.dto.CarDto;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+public class DriverCarCache {
+
+  private final Long2ObjectOpenHashMap<CachedCar> carsByDriverId = new Long2ObjectOpenHashMap<>();
+  private final long ttlNanos;
+  private final int maxSize;
+  private final LongSupplier nanoClock;
+
+  public DriverCarCache(Duration ttl, int maxSize, LongSupplier nanoClock) {
+    this.ttlNanos = ttl.toNanos();
+    this.maxSize = maxSize;
+    this.nanoClock = nanoClock;
+  }
+
+  public synchronized CarDto get(long driverId) {
+    CachedCar cachedCar = carsByDriverId.get(driverId);
+    if (cachedCar == null) {
+      return null;
+    }
+    if (cachedCar.isExpired(nanoClock.getAsLong())) {
+      carsByDriverId.remove(driverId);
+      return null;
+    }
+    return cachedCar.carDto;
+  }
+
+  public synchronized void put(long driverId, CarDto carDto) {
+    long now = nanoClock.getAsLong();
+    if (carsByDriverId.size() >= maxSize && !carsByDriverId.containsKey(driverId)) {
+      carsByDriverId.values().removeIf(cachedCar -> cachedCar.isExpired(now));
+      if (carsByDriverId.size() >= maxSize) {
+        carsByDriverId.clear();
+      }
+    }
+    carsByDriverId.put(driverId, new CachedCar(carDto, now + ttlNanos));
+  }
+
+  public synchronized int size() {
+    return carsByDriverId.size();
+  }
+
+  @RequiredArgsConstructor
+  private static final class CachedCar {
+
+    private final CarDto carDto;
+    private final long expiresAtNanos;
+
+    private boolean isExpired(long now) {
+      return now - expiresAtNanos >= 0;
+    }
+  }
+}
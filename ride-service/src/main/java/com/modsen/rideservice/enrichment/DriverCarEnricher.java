@@ -0,0 +1,70 @@
+package com.modsen.rideservice.enrichment;
+
+import com.modsen.rideservice.dto.CarDto;
+import com.modsen.rideservice.dto.DriverPageDto;
+import com.modsen.rideservice.dto.DriverRideDto;
+import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.exception.DriverServiceException;
+import com.modsen.rideservice.service.impl.DriverServiceWebClient;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class DriverCarEnricher {
+
+  private final DriverServiceWebClient driverServiceWebClient;
+  private final DriverCarCache driverCarCache;
+
+  public void setCarDtoToRides(List<RideDto> rideDtoList) {
+    Long2ObjectOpenHashMap<CarDto> carsByDriverId = new Long2ObjectOpenHashMap<>();
+    LongLinkedOpenHashSet notCachedDriverIds = new LongLinkedOpenHashSet();
+    for (RideDto rideDto : rideDtoList) {
+      Long driverId = rideDto.getDriverId();
+      if (driverId == null || carsByDriverId.containsKey(driverId.longValue())) {
+        continue;
+      }
+      CarDto cachedCarDto = driverCarCache.get(driverId);
+      if (cachedCarDto != null) {
+        carsByDriverId.put(driverId.longValue(), cachedCarDto);
+      } else {
+        notCachedDriverIds.add(driverId.longValue());
+      }
+    }
+
+    if (!notCachedDriverIds.isEmpty()) {
+      for (DriverRideDto driverWithCar : getDriversWithCars(notCachedDriverIds)) {
+        CarDto carDto = driverWithCar.getCarDto();
+        if (carDto != null) {
+          carsByDriverId.put(driverWithCar.getId(), carDto);
+          driverCarCache.put(driverWithCar.getId(), carDto);
+        }
+      }
+    }
+
+    for (RideDto rideDto : rideDtoList) {
+      if (rideDto.getDriverId() != null) {
+        CarDto carDto = carsByDriverId.get(rideDto.getDriverId().longValue());
+        if (carDto != null) {
+          rideDto.setCarDto(carDto);
+        }
+      }
+    }
+  }
+
+  private List<DriverRideDto> getDriversWithCars(LongLinkedOpenHashSet driverIds) {
+    ResponseEntity<DriverPageDto> driverPageWithCars =
+        driverServiceWebClient.getDriverPageDtoByListIdsDriver(new ArrayList<>(driverIds));
+    DriverPageDto driverPageDto = driverPageWithCars == null ? null : driverPageWithCars.getBody();
+    if (driverPageDto == null || driverPageDto.getDriverDtoList() == null) {
+      throw new DriverServiceException("Exception while get drivers with cars from driver service");
+    }
+    return driverPageDto.getDriverDtoList();
+  }
+}
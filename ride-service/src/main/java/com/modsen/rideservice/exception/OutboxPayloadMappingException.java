@@ -0,0 +1,8 @@
+package com.modsen.rideservice.exception;
+
+public class OutboxPayloadMappingException extends RuntimeException {
+
+  public OutboxPayloadMappingException(String message) {
+    super(message);
+  }
+}
@@ -5,6 +5,7 @@ import com.modsen.rideservice.exception.AlreadyGetRatingException;
 import com.modsen.rideservice.exception.BadRequestException;
 import com.modsen.rideservice.exception.DriverServiceException;
 import com.modsen.rideservice.exception.FinishDateEarlyThanStartDateException;
+import com.modsen.rideservice.exception.InvalidCursorException;
 import com.modsen.rideservice.exception.PassengerBankCardNotEnoughMoneyException;
 import com.modsen.rideservice.exception.PassengerBankCardNullException;
 import com.modsen.rideservice.exception.RideStatusException;
@@ -68,7 +69,8 @@ public class GlobalExceptionHandler {
     PassengerBankCardNullException.class,
     PassengerBankCardNotEnoughMoneyException.class,
     RideStatusException.class,
-    AlreadyGetRatingException.class
+    AlreadyGetRatingException.class,
+    InvalidCursorException.class
   })
   public ResponseEntity<Object> handleCustomException(Exception ex) {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
@@ -0,0 +1,83 @@
+package com.modsen.rideservice.fare;
+
+import com.modsen.rideservice.config.fare.FareProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@Component
+public class FareEngine {
+
+  public static final int MONEY_SCALE = 2;
+  public static final long METERS_IN_KM = 1_000;
+  public static final long SECONDS_IN_MINUTE = 60;
+  public static final long FULL_PRICE_BASIS_POINTS = 10_000;
+
+  private final Map<String, Tariff> tariffsByName;
+  private final Tariff defaultTariff;
+
+  public FareEngine(FareProperties fareProperties) {
+    Map<String, Tariff> tariffs = new HashMap<>();
+    fareProperties
+        .getTariffs()
+        .forEach(
+            (name, tariffProperties) ->
+                tariffs.put(
+                    name,
+                    new Tariff(
+                        name,
+                        tariffProperties.getBaseFareCents(),
+                        tariffProperties.getPerKmCents(),
+                        tariffProperties.getPerMinuteCents(),
+                        tariffProperties.getMinimumFareCents())));
+    this.tariffsByName = Map.copyOf(tariffs);
+    this.defaultTariff = tariffsByName.get(fareProperties.getDefaultTariff());
+    if (defaultTariff == null) {
+      throw new IllegalStateException(
+          "Default tariff is not configured: " + fareProperties.getDefaultTariff());
+    }
+  }
+
+  public Tariff getTariff(String name) {
+    if (name == null) {
+      return defaultTariff;
+    }
+    Tariff tariff = tariffsByName.get(name);
+    if (tariff == null) {
+      throw new NoSuchElementException("Tariff was not found by name = " + name);
+    }
+    return tariff;
+  }
+
+  public static long fareCents(Tariff tariff, long distanceMeters, long durationSeconds) {
+    long fareCents =
+        tariff.getBaseFareCents()
+            + divideRoundingHalfUp(
+                Math.multiplyExact(tariff.getPerKmCents(), distanceMeters), METERS_IN_KM)
+            + divideRoundingHalfUp(
+                Math.multiplyExact(tariff.getPerMinuteCents(), durationSeconds),
+                SECONDS_IN_MINUTE);
+    return Math.max(fareCents, tariff.getMinimumFareCents());
+  }
+
+  public static long applyDiscount(long fareCents, long priceBasisPoints) {
+    return divideRoundingHalfUp(
+        Math.multiplyExact(fareCents, priceBasisPoints), FULL_PRICE_BASIS_POINTS);
+  }
+
+  public static long toBasisPoints(BigDecimal priceMultiplier) {
+    return priceMultiplier.movePointRight(4).setScale(0, RoundingMode.HALF_UP).longValueExact();
+  }
+
+  public static BigDecimal toMoney(long cents) {
+    return BigDecimal.valueOf(cents, MONEY_SCALE);
+  }
+
+  private static long divideRoundingHalfUp(long dividend, long divisor) {
+    return (dividend + divisor / 2) / divisor;
+  }
+}
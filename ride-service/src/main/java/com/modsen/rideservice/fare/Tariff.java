@@ -0,0 +1,15 @@
+package com.modsen.rideservice.fare;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public final class Tariff {
+
+  private final String name;
+  private final long baseFareCents;
+  private final long perKmCents;
+  private final long perMinuteCents;
+  private final long minimumFareCents;
+}
@@ -0,0 +1,25 @@
+package com.modsen.rideservice.job;
+
+import com.modsen.rideservice.service.RatingAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rating.aggregate.backfill-on-startup", havingValue = "true")
+public class RatingAggregateBackfillJob {
+
+  private final RatingAggregateService ratingAggregateService;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    long start = System.currentTimeMillis();
+    ratingAggregateService.rebuildFromRides();
+    log.info("Rating aggregates rebuilt from rides in {} ms", System.currentTimeMillis() - start);
+  }
+}
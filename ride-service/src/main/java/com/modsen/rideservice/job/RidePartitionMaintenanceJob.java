@@ -0,0 +1,57 @@
+package com.modsen.rideservice.job;
+
+import com.modsen.rideservice.config.partition.RidePartitionProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "ride.partition.maintenance-enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class RidePartitionMaintenanceJob {
+
+  public static final String CREATE_PARTITIONS_AHEAD_QUERY =
+      "SELECT create_rides_partitions_ahead(?)";
+  public static final String ARCHIVE_PARTITIONS_QUERY = "SELECT archive_rides_partitions(?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final RidePartitionProperties ridePartitionProperties;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${ride.partition.maintenance-cron}")
+  public void maintain() {
+    createPartitionsAhead();
+    archivePartitionsBefore(
+        LocalDate.now()
+            .withDayOfMonth(1)
+            .minusMonths(ridePartitionProperties.getRetentionMonths()));
+  }
+
+  public void createPartitionsAhead() {
+    jdbcTemplate.queryForObject(
+        CREATE_PARTITIONS_AHEAD_QUERY, Object.class, ridePartitionProperties.getMonthsAhead());
+  }
+
+  public List<String> archivePartitionsBefore(LocalDate archiveBefore) {
+    List<String> archivedPartitions =
+        jdbcTemplate.queryForList(
+            ARCHIVE_PARTITIONS_QUERY, String.class, Date.valueOf(archiveBefore));
+    if (!archivedPartitions.isEmpty()) {
+      log.info("Ride partitions moved to archive: {}", archivedPartitions);
+    }
+    return archivedPartitions;
+  }
+}
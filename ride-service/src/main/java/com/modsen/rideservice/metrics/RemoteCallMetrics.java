@@ -0,0 +1,63 @@
+package com.modsen.rideservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class RemoteCallMetrics {
+
+  public static final String REMOTE_CALL_TIMER_NAME = "ride.remote.call";
+  public static final String SUCCESS = "success";
+  public static final String ERROR = "error";
+  public static final String CANCELLED = "cancelled";
+
+  private final MeterRegistry meterRegistry;
+
+  public <T> Mono<T> timed(String client, String method, Mono<T> call) {
+    return Mono.defer(
+        () -> {
+          Timer.Sample sample = Timer.start(meterRegistry);
+          return call.doFinally(
+              signalType -> sample.stop(timer(client, method, outcome(signalType))));
+        });
+  }
+
+  public <T> T timed(String client, String method, Supplier<T> call) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = ERROR;
+    try {
+      T result = call.get();
+      outcome = SUCCESS;
+      return result;
+    } finally {
+      sample.stop(timer(client, method, outcome));
+    }
+  }
+
+  private String outcome(SignalType signalType) {
+    switch (signalType) {
+      case ON_COMPLETE:
+        return SUCCESS;
+      case CANCEL:
+        return CANCELLED;
+      default:
+        return ERROR;
+    }
+  }
+
+  private Timer timer(String client, String method, String outcome) {
+    return Timer.builder(REMOTE_CALL_TIMER_NAME)
+        .description("Duration of calls to other services")
+        .tag("client", client)
+        .tag("method", method)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
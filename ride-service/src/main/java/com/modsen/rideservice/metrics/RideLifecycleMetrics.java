@@ -0,0 +1,168 @@
+package com.modsen.rideservice.metrics;
+
+import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.model.Status;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class RideLifecycleMetrics {
+
+  public static final String ORDER_TO_MATCH_TIMER_NAME = "ride.order.to.match";
+  public static final String STATUS_DURATION_TIMER_NAME = "ride.status.duration";
+  public static final String LIFETIME_TIMER_NAME = "ride.lifetime";
+  public static final String KAFKA_HOP_TIMER_NAME = "ride.kafka.hop";
+  public static final String KAFKA_HANDLE_TIMER_NAME = "ride.kafka.handle";
+  public static final String KAFKA_BATCH_HANDLE_TIMER_NAME = "ride.kafka.handle.batch";
+  public static final String KAFKA_BATCH_RECORDS_SUMMARY_NAME = "ride.kafka.batch.records";
+  public static final String BATCH_ITEMS_SUMMARY_NAME = "ride.order.batch.items";
+  public static final String MATCHED = "matched";
+  public static final String NO_DRIVERS = "no-drivers";
+  public static final String CREATED = "created";
+  public static final String REJECTED = "rejected";
+  public static final String SUCCESS = "success";
+  public static final String ERROR = "error";
+  public static final String UNKNOWN_TOPIC = "unknown";
+
+  private final MeterRegistry meterRegistry;
+
+  public void recordMatched(Ride ride) {
+    recordMatched(ride.getBookingTime(), ride.getApprovedTime());
+  }
+
+  public void recordMatched(LocalDateTime bookingTime, LocalDateTime approvedTime) {
+    record(orderToMatchTimer(MATCHED), bookingTime, approvedTime);
+    record(statusDurationTimer(Status.PENDING, Status.ACTIVE), bookingTime, approvedTime);
+  }
+
+  public void recordNoDrivers(Ride ride, LocalDateTime notFoundTime) {
+    recordNoDrivers(ride.getBookingTime(), notFoundTime);
+  }
+
+  public void recordNoDrivers(LocalDateTime bookingTime, LocalDateTime notFoundTime) {
+    record(orderToMatchTimer(NO_DRIVERS), bookingTime, notFoundTime);
+    record(statusDurationTimer(Status.PENDING, Status.NO_DRIVERS), bookingTime, notFoundTime);
+  }
+
+  public void recordFinished(Ride ride) {
+    record(
+        statusDurationTimer(Status.ACTIVE, Status.FINISHED),
+        ride.getStartTime(),
+        ride.getFinishTime());
+    record(lifetimeTimer(Status.FINISHED), ride.getBookingTime(), ride.getFinishTime());
+  }
+
+  public void recordCanceled(Ride ride) {
+    record(lifetimeTimer(Status.CANCELED), ride.getBookingTime(), ride.getFinishTime());
+  }
+
+  public void recordBatch(int created, int rejected) {
+    batchItemsSummary(CREATED).record(created);
+    batchItemsSummary(REJECTED).record(rejected);
+  }
+
+  public void recordConsumed(MessageHeaders headers, Runnable handler) {
+    String topic = headers.get(KafkaHeaders.RECEIVED_TOPIC, String.class);
+    if (topic == null) {
+      topic = UNKNOWN_TOPIC;
+    }
+    Long producedTimestamp = headers.get(KafkaHeaders.RECEIVED_TIMESTAMP, Long.class);
+    if (producedTimestamp != null) {
+      recordKafkaHop(topic, producedTimestamp);
+    }
+    recordHandling(
+        KAFKA_HANDLE_TIMER_NAME, "Duration of handling a consumed record", topic, handler);
+  }
+
+  /**
+   * Records a batch delivered by a batch listener, where the topic and timestamp headers hold one
+   * value per record.
+   */
+  public void recordConsumedBatch(MessageHeaders headers, Runnable handler) {
+    List<?> topics = headers.get(KafkaHeaders.RECEIVED_TOPIC, List.class);
+    String topic = topics == null || topics.isEmpty() ? UNKNOWN_TOPIC : (String) topics.get(0);
+    List<?> producedTimestamps = headers.get(KafkaHeaders.RECEIVED_TIMESTAMP, List.class);
+    if (producedTimestamps != null) {
+      producedTimestamps.forEach(
+          producedTimestamp -> recordKafkaHop(topic, (Long) producedTimestamp));
+      DistributionSummary.builder(KAFKA_BATCH_RECORDS_SUMMARY_NAME)
+          .description("Records per consumed batch")
+          .tag("topic", topic)
+          .register(meterRegistry)
+          .record(producedTimestamps.size());
+    }
+    recordHandling(
+        KAFKA_BATCH_HANDLE_TIMER_NAME, "Duration of handling a consumed batch", topic, handler);
+  }
+
+  private void recordKafkaHop(String topic, long producedTimestamp) {
+    long hopMillis = System.currentTimeMillis() - producedTimestamp;
+    Timer.builder(KAFKA_HOP_TIMER_NAME)
+        .description("Time from producing a record to consuming it in ride-service")
+        .tag("topic", topic)
+        .register(meterRegistry)
+        .record(Duration.ofMillis(Math.max(hopMillis, 0)));
+  }
+
+  private void recordHandling(
+      String timerName, String description, String topic, Runnable handler) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = ERROR;
+    try {
+      handler.run();
+      outcome = SUCCESS;
+    } finally {
+      sample.stop(
+          Timer.builder(timerName)
+              .description(description)
+              .tag("topic", topic)
+              .tag("outcome", outcome)
+              .register(meterRegistry));
+    }
+  }
+
+  private void record(Timer timer, LocalDateTime from, LocalDateTime to) {
+    if (from != null && to != null && !to.isBefore(from)) {
+      timer.record(Duration.between(from, to));
+    }
+  }
+
+  private Timer orderToMatchTimer(String outcome) {
+    return Timer.builder(ORDER_TO_MATCH_TIMER_NAME)
+        .description("Time from booking a ride to the matching outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private Timer statusDurationTimer(Status status, Status outcome) {
+    return Timer.builder(STATUS_DURATION_TIMER_NAME)
+        .description("Time a ride spent in a status before leaving it")
+        .tag("status", status.name())
+        .tag("outcome", outcome.name())
+        .register(meterRegistry);
+  }
+
+  private Timer lifetimeTimer(Status outcome) {
+    return Timer.builder(LIFETIME_TIMER_NAME)
+        .description("Time from booking a ride to its terminal status")
+        .tag("outcome", outcome.name())
+        .register(meterRegistry);
+  }
+
+  private DistributionSummary batchItemsSummary(String outcome) {
+    return DistributionSummary.builder(BATCH_ITEMS_SUMMARY_NAME)
+        .description("Rides per bulk order request")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,53 @@
+package com.modsen.rideservice.metrics;
+
+import com.modsen.rideservice.model.Status;
+import com.modsen.rideservice.repository.RideRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+public class RideStatusGauges implements MeterBinder {
+
+  public static final String STATUS_COUNT_GAUGE_NAME = "ride.status.count";
+
+  private final RideRepository rideRepository;
+  private final Map<Status, AtomicLong> ridesByStatus = newStatusCounters();
+
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    for (Status status : Status.values()) {
+      Gauge.builder(STATUS_COUNT_GAUGE_NAME, ridesByStatus.get(status), AtomicLong::get)
+          .description("Rides currently in a status")
+          .tag("status", status.name())
+          .register(meterRegistry);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${ride.metrics.status-count-refresh-ms}")
+  public void refresh() {
+    Map<Status, Long> counts = new EnumMap<>(Status.class);
+    for (Object[] statusCount : rideRepository.countGroupByStatus()) {
+      counts.put((Status) statusCount[0], (Long) statusCount[1]);
+    }
+    for (Status status : Status.values()) {
+      ridesByStatus.get(status).set(counts.getOrDefault(status, 0L));
+    }
+  }
+
+  private static Map<Status, AtomicLong> newStatusCounters() {
+    Map<Status, AtomicLong> statusCounters = new EnumMap<>(Status.class);
+    for (Status status : Status.values()) {
+      statusCounters.put(status, new AtomicLong());
+    }
+    return statusCounters;
+  }
+}
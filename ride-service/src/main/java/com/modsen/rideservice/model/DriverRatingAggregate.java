@@ -0,0 +1,51 @@
+package com.modsen.rideservice.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "driver_rating_aggregates")
+public class DriverRatingAggregate implements Serializable {
+
+  private static final long serialVersionUID = -2417093876012298861L;
+
+  @Id
+  @Column(name = "driver_id")
+  private Long driverId;
+
+  @Column(name = "rating_sum", nullable = false)
+  private Long ratingSum;
+
+  @Column(name = "rating_count", nullable = false)
+  private Long ratingCount;
+
+  public Double getAverageRating() {
+    return ratingCount == 0 ? null : ratingSum.doubleValue() / ratingCount;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    DriverRatingAggregate driverRatingAggregate = (DriverRatingAggregate) o;
+    return Objects.equals(driverId, driverRatingAggregate.driverId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(driverId);
+  }
+}
@@ -0,0 +1,17 @@
+package com.modsen.rideservice.model;
+
+import com.modsen.rideservice.dto.DriverReleaseDto;
+import com.modsen.rideservice.dto.RideFinishedDto;
+import com.modsen.rideservice.dto.RideSearchDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OutboxEventType {
+  RIDE_SEARCH(RideSearchDto.class),
+  RIDE_FINISHED(RideFinishedDto.class),
+  DRIVER_RELEASE(DriverReleaseDto.class);
+
+  private final Class<?> payloadClass;
+}
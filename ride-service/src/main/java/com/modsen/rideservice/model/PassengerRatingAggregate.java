@@ -0,0 +1,51 @@
+package com.modsen.rideservice.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "passenger_rating_aggregates")
+public class PassengerRatingAggregate implements Serializable {
+
+  private static final long serialVersionUID = 6148332058736401573L;
+
+  @Id
+  @Column(name = "passenger_id")
+  private Long passengerId;
+
+  @Column(name = "rating_sum", nullable = false)
+  private Long ratingSum;
+
+  @Column(name = "rating_count", nullable = false)
+  private Long ratingCount;
+
+  public Double getAverageRating() {
+    return ratingCount == 0 ? null : ratingSum.doubleValue() / ratingCount;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PassengerRatingAggregate passengerRatingAggregate = (PassengerRatingAggregate) o;
+    return Objects.equals(passengerId, passengerRatingAggregate.passengerId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(passengerId);
+  }
+}
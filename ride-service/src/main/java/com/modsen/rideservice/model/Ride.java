@@ -37,6 +37,12 @@ public class Ride implements Serializable {
   @Column(name = "start_location")
   private String startLocation;
 
+  @Column(name = "start_latitude")
+  private Double startLatitude;
+
+  @Column(name = "start_longitude")
+  private Double startLongitude;
+
   @Column(name = "end_location")
   private String endLocation;
 
@@ -0,0 +1,6 @@
+package com.modsen.rideservice.model;
+
+public enum RideBatchItemStatus {
+  CREATED,
+  REJECTED
+}
@@ -0,0 +1,37 @@
+package com.modsen.rideservice.model;
+
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Getter
+public enum RideTransition {
+  MATCH_DRIVER(
+      EnumSet.of(Status.PENDING), Status.ACTIVE, "Driver could be assigned only to pending ride"),
+  NOT_FOUND_DRIVER(
+      EnumSet.of(Status.PENDING), Status.NO_DRIVERS, "Only pending ride could have no drivers"),
+  CANCEL_BY_PASSENGER(
+      EnumSet.of(Status.PENDING, Status.NO_DRIVERS),
+      Status.CANCELED,
+      "You could cancel ride only if it has status 'pending' or 'no drivers'"),
+  FINISH_BY_DRIVER(EnumSet.of(Status.ACTIVE), Status.FINISHED, "You could finish only active ride");
+
+  private final Set<Status> fromStatuses;
+  private final Status toStatus;
+  private final String rejectionMessage;
+  private final List<String> fromStatusNames;
+
+  RideTransition(Set<Status> fromStatuses, Status toStatus, String rejectionMessage) {
+    this.fromStatuses = fromStatuses;
+    this.toStatus = toStatus;
+    this.rejectionMessage = rejectionMessage;
+    this.fromStatusNames = fromStatuses.stream().map(Status::name).collect(Collectors.toList());
+  }
+
+  public String getToStatusName() {
+    return toStatus.name();
+  }
+}
@@ -0,0 +1,105 @@
+package com.modsen.rideservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.rideservice.config.outbox.OutboxProperties;
+import com.modsen.rideservice.exception.OutboxPayloadMappingException;
+import com.modsen.rideservice.model.OutboxEvent;
+import com.modsen.rideservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final ObjectMapper objectMapper;
+  private final OutboxProperties outboxProperties;
+  private final TransactionTemplate transactionTemplate;
+
+  @Scheduled(fixedDelayString = "${outbox.poll-interval-ms}")
+  public void relay() {
+    Integer relayedCount;
+    do {
+      relayedCount = transactionTemplate.execute(status -> relayBatch());
+    } while (relayedCount != null && relayedCount == outboxProperties.getBatchSize());
+  }
+
+  private int relayBatch() {
+    List<OutboxEvent> outboxEvents =
+        outboxEventRepository.findBatchForUpdate(outboxProperties.getBatchSize());
+    if (outboxEvents.isEmpty() || isLingering(outboxEvents)) {
+      return 0;
+    }
+
+    List<ListenableFuture<SendResult<String, Object>>> sendResults =
+        new ArrayList<>(outboxEvents.size());
+    for (OutboxEvent outboxEvent : outboxEvents) {
+      sendResults.add(
+          kafkaTemplate.send(
+              outboxEvent.getTopic(), outboxEvent.getMessageKey(), readPayload(outboxEvent)));
+    }
+    kafkaTemplate.flush();
+
+    List<Long> relayedIds = awaitRelayed(outboxEvents, sendResults);
+    if (!relayedIds.isEmpty()) {
+      outboxEventRepository.deleteByIdIn(relayedIds);
+    }
+    return relayedIds.size();
+  }
+
+  private boolean isLingering(List<OutboxEvent> outboxEvents) {
+    return outboxEvents.size() < outboxProperties.getBatchSize()
+        && outboxEvents
+            .get(0)
+            .getCreatedAt()
+            .isAfter(LocalDateTime.now().minus(outboxProperties.getLinger()));
+  }
+
+  private List<Long> awaitRelayed(
+      List<OutboxEvent> outboxEvents,
+      List<ListenableFuture<SendResult<String, Object>>> sendResults) {
+    List<Long> relayedIds = new ArrayList<>(outboxEvents.size());
+    for (int i = 0; i < sendResults.size(); i++) {
+      try {
+        sendResults
+            .get(i)
+            .get(outboxProperties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        relayedIds.add(outboxEvents.get(i).getId());
+      } catch (ExecutionException | TimeoutException e) {
+        log.warn("Outbox event {} was not relayed, will retry", outboxEvents.get(i).getId(), e);
+        break;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    return relayedIds;
+  }
+
+  private Object readPayload(OutboxEvent outboxEvent) {
+    try {
+      return objectMapper.readValue(
+          outboxEvent.getPayload(), outboxEvent.getPayloadType().getPayloadClass());
+    } catch (JsonProcessingException e) {
+      throw new OutboxPayloadMappingException(
+          "Exception occurred while converting outbox event " + outboxEvent.getId() + " from Json");
+    }
+  }
+}
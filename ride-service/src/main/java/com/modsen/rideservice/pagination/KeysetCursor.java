@@ -0,0 +1,35 @@
+package com.modsen.rideservice.pagination;
+
+import com.modsen.rideservice.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+public final class KeysetCursor {
+
+  public static final long FIRST_PAGE_AFTER_ID = 0L;
+  public static final String INVALID_CURSOR_EXCEPTION_MESSAGE = "Invalid page cursor: ";
+
+  private KeysetCursor() {}
+
+  public static String encode(long lastId) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+  }
+
+  public static long decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return FIRST_PAGE_AFTER_ID;
+    }
+    try {
+      byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+      if (bytes.length != Long.BYTES) {
+        throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE + cursor);
+      }
+      return ByteBuffer.wrap(bytes).getLong();
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE + cursor);
+    }
+  }
+}
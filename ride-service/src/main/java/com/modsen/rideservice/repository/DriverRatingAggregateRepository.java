@@ -0,0 +1,49 @@
+package com.modsen.rideservice.repository;
+
+import com.modsen.rideservice.model.DriverRatingAggregate;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface DriverRatingAggregateRepository
+    extends CrudRepository<DriverRatingAggregate, Long> {
+
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO driver_rating_aggregates AS a (driver_id, rating_sum, rating_count) "
+              + "VALUES (:driverId, :rating, 1) "
+              + "ON CONFLICT (driver_id) DO UPDATE "
+              + "SET rating_sum = a.rating_sum + EXCLUDED.rating_sum, "
+              + "rating_count = a.rating_count + 1 "
+              + "RETURNING CAST(a.rating_sum AS DOUBLE PRECISION) / a.rating_count",
+      nativeQuery = true)
+  Double addRating(@Param("driverId") Long driverId, @Param("rating") Integer rating);
+
+  @Modifying
+  @Query(
+      "UPDATE DriverRatingAggregate "
+          + "SET ratingSum = ratingSum - :rating, ratingCount = ratingCount - 1 "
+          + "WHERE driverId = :driverId")
+  void removeRating(@Param("driverId") Long driverId, @Param("rating") long rating);
+
+  @Modifying
+  @Query(value = "LOCK TABLE driver_rating_aggregates IN EXCLUSIVE MODE", nativeQuery = true)
+  void lockForRebuild();
+
+  @Modifying
+  @Query("DELETE FROM DriverRatingAggregate")
+  void deleteAllAggregates();
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO driver_rating_aggregates (driver_id, rating_sum, rating_count) "
+              + "SELECT driver_id, SUM(driver_rating), COUNT(driver_rating) FROM rides "
+              + "WHERE driver_id IS NOT NULL AND driver_rating IS NOT NULL "
+              + "GROUP BY driver_id",
+      nativeQuery = true)
+  int rebuildFromRides();
+}
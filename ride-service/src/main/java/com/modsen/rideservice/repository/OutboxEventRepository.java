@@ -0,0 +1,22 @@
+package com.modsen.rideservice.repository;
+
+import com.modsen.rideservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends PagingAndSortingRepository<OutboxEvent, Long> {
+
+  @Query(
+      value = "SELECT * FROM outbox_events ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<OutboxEvent> findBatchForUpdate(@Param("batchSize") int batchSize);
+
+  @Modifying
+  @Query("DELETE FROM OutboxEvent WHERE id IN :ids")
+  int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
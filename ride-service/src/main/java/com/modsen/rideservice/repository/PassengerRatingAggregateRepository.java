@@ -0,0 +1,49 @@
+package com.modsen.rideservice.repository;
+
+import com.modsen.rideservice.model.PassengerRatingAggregate;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PassengerRatingAggregateRepository
+    extends CrudRepository<PassengerRatingAggregate, Long> {
+
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO passenger_rating_aggregates AS a (passenger_id, rating_sum, rating_count) "
+              + "VALUES (:passengerId, :rating, 1) "
+              + "ON CONFLICT (passenger_id) DO UPDATE "
+              + "SET rating_sum = a.rating_sum + EXCLUDED.rating_sum, "
+              + "rating_count = a.rating_count + 1 "
+              + "RETURNING CAST(a.rating_sum AS DOUBLE PRECISION) / a.rating_count",
+      nativeQuery = true)
+  Double addRating(@Param("passengerId") Long passengerId, @Param("rating") Integer rating);
+
+  @Modifying
+  @Query(
+      "UPDATE PassengerRatingAggregate "
+          + "SET ratingSum = ratingSum - :rating, ratingCount = ratingCount - 1 "
+          + "WHERE passengerId = :passengerId")
+  void removeRating(@Param("passengerId") Long passengerId, @Param("rating") long rating);
+
+  @Modifying
+  @Query(value = "LOCK TABLE passenger_rating_aggregates IN EXCLUSIVE MODE", nativeQuery = true)
+  void lockForRebuild();
+
+  @Modifying
+  @Query("DELETE FROM PassengerRatingAggregate")
+  void deleteAllAggregates();
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO passenger_rating_aggregates (passenger_id, rating_sum, rating_count) "
+              + "SELECT passenger_id, SUM(passenger_rating), COUNT(passenger_rating) FROM rides "
+              + "WHERE passenger_id IS NOT NULL AND passenger_rating IS NOT NULL "
+              + "GROUP BY passenger_id",
+      nativeQuery = true)
+  int rebuildFromRides();
+}
@@ -1,11 +1,18 @@
 package com.modsen.rideservice.repository;
 
 import com.modsen.rideservice.model.PromoCode;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PromoCodeRepository extends PagingAndSortingRepository<PromoCode, Long> {
 
     Optional<PromoCode> findByName(String name);
+
+    @Query("SELECT p FROM PromoCode p WHERE p.id > :afterId ORDER BY p.id")
+    List<PromoCode> findAllAfter(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -0,0 +1,168 @@
+package com.modsen.rideservice.repository;
+
+import com.modsen.rideservice.dto.DriverRideDto;
+import com.modsen.rideservice.model.Ride;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class RideBatchRepository {
+
+  public static final String RESERVE_IDS_QUERY =
+      "SELECT nextval('rides_id_seq') FROM generate_series(1, ?)";
+  public static final String INSERT_QUERY =
+      "INSERT INTO rides (id, start_location, start_latitude, start_longitude, end_location, "
+          + "passenger_id, booking_time, passenger_bank_card_id, promo_code_id, cost, status) "
+          + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  public static final String FIND_BOOKING_TIMES_QUERY =
+      "SELECT id, booking_time FROM rides WHERE id IN (%s)";
+  public static final String UPDATE_STATUS_AND_ASSIGN_DRIVER_QUERY =
+      "UPDATE rides SET status = ?, driver_id = ?, approved_time = ?, start_time = ? "
+          + "WHERE id = ? AND booking_time = ? AND status IN (%s)";
+  public static final String UPDATE_STATUS_QUERY =
+      "UPDATE rides SET status = ? WHERE id = ? AND booking_time = ? AND status IN (%s)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public void insertAll(List<Ride> rides) {
+    if (rides.isEmpty()) {
+      return;
+    }
+    Iterator<Long> ids =
+        jdbcTemplate.queryForList(RESERVE_IDS_QUERY, Long.class, rides.size()).iterator();
+    rides.forEach(ride -> ride.setId(ids.next()));
+    jdbcTemplate.batchUpdate(
+        INSERT_QUERY,
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement preparedStatement, int i) throws SQLException {
+            Ride ride = rides.get(i);
+            preparedStatement.setLong(1, ride.getId());
+            preparedStatement.setString(2, ride.getStartLocation());
+            preparedStatement.setObject(3, ride.getStartLatitude(), Types.DOUBLE);
+            preparedStatement.setObject(4, ride.getStartLongitude(), Types.DOUBLE);
+            preparedStatement.setString(5, ride.getEndLocation());
+            preparedStatement.setLong(6, ride.getPassengerId());
+            preparedStatement.setTimestamp(7, Timestamp.valueOf(ride.getBookingTime()));
+            preparedStatement.setString(8, ride.getPassengerBankCardId());
+            preparedStatement.setObject(
+                9, ride.getPromoCode() == null ? null : ride.getPromoCode().getId(), Types.BIGINT);
+            preparedStatement.setBigDecimal(10, ride.getCost());
+            preparedStatement.setString(11, ride.getStatus().name());
+          }
+
+          @Override
+          public int getBatchSize() {
+            return rides.size();
+          }
+        });
+  }
+
+  public Map<Long, LocalDateTime> findBookingTimesByIdIn(Collection<Long> ids) {
+    Map<Long, LocalDateTime> bookingTimes = new HashMap<>();
+    if (ids.isEmpty()) {
+      return bookingTimes;
+    }
+    jdbcTemplate.query(
+        String.format(FIND_BOOKING_TIMES_QUERY, placeholders(ids.size())),
+        (RowCallbackHandler)
+            resultSet ->
+                bookingTimes.put(
+                    resultSet.getLong("id"),
+                    resultSet.getTimestamp("booking_time").toLocalDateTime()),
+        ids.toArray());
+    return bookingTimes;
+  }
+
+  /**
+   * Applies the matches in the given order as one JDBC batch, so a later match of the same ride
+   * sees the status left by an earlier one. Returns the updated row count for every match.
+   *
+   * <p>Rides are looked up by id and booking time, so every update only touches the monthly
+   * partition of its ride. A ride without a booking time is not updated.
+   */
+  public int[] updateStatusAndAssignDrivers(
+      List<DriverRideDto> driverRideDtos,
+      Map<Long, LocalDateTime> bookingTimes,
+      LocalDateTime now,
+      Collection<String> fromStatuses,
+      String toStatus) {
+    return jdbcTemplate.batchUpdate(
+        String.format(UPDATE_STATUS_AND_ASSIGN_DRIVER_QUERY, placeholders(fromStatuses.size())),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement preparedStatement, int i) throws SQLException {
+            DriverRideDto driverRideDto = driverRideDtos.get(i);
+            preparedStatement.setString(1, toStatus);
+            preparedStatement.setLong(2, driverRideDto.getId());
+            preparedStatement.setTimestamp(3, Timestamp.valueOf(now));
+            preparedStatement.setTimestamp(4, Timestamp.valueOf(now));
+            preparedStatement.setLong(5, driverRideDto.getRideId());
+            preparedStatement.setTimestamp(
+                6, toTimestamp(bookingTimes.get(driverRideDto.getRideId())));
+            setStatuses(preparedStatement, 7, fromStatuses);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return driverRideDtos.size();
+          }
+        });
+  }
+
+  public int[] updateStatuses(
+      List<Long> ids,
+      Map<Long, LocalDateTime> bookingTimes,
+      Collection<String> fromStatuses,
+      String toStatus) {
+    return jdbcTemplate.batchUpdate(
+        String.format(UPDATE_STATUS_QUERY, placeholders(fromStatuses.size())),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement preparedStatement, int i) throws SQLException {
+            preparedStatement.setString(1, toStatus);
+            preparedStatement.setLong(2, ids.get(i));
+            preparedStatement.setTimestamp(3, toTimestamp(bookingTimes.get(ids.get(i))));
+            setStatuses(preparedStatement, 4, fromStatuses);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return ids.size();
+          }
+        });
+  }
+
+  private void setStatuses(
+      PreparedStatement preparedStatement, int firstIndex, Collection<String> statuses)
+      throws SQLException {
+    int index = firstIndex;
+    for (String status : statuses) {
+      preparedStatement.setString(index++, status);
+    }
+  }
+
+  private Timestamp toTimestamp(LocalDateTime localDateTime) {
+    return localDateTime == null ? null : Timestamp.valueOf(localDateTime);
+  }
+
+  private String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+}
@@ -1,11 +1,16 @@
 package com.modsen.rideservice.repository;
 
 import com.modsen.rideservice.model.Ride;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RideRepository extends PagingAndSortingRepository<Ride, Long> {
 
@@ -17,4 +22,77 @@ public interface RideRepository extends PagingAndSortingRepository<Ride, Long> {
 
   @Query("SELECT AVG(driverRating) FROM Ride WHERE driverId=:driverId")
   Double findAverageDriverRatingByDriverId(@Param("driverId") Long driverId);
+
+  @Query("SELECT r.status, COUNT(r) FROM Ride r GROUP BY r.status")
+  List<Object[]> countGroupByStatus();
+
+  @Query("SELECT r FROM Ride r LEFT JOIN FETCH r.promoCode")
+  List<Ride> findAllWithPromoCode(Pageable pageable);
+
+  @Query("SELECT r FROM Ride r LEFT JOIN FETCH r.promoCode WHERE r.id > :afterId ORDER BY r.id")
+  List<Ride> findAllWithPromoCodeAfter(@Param("afterId") long afterId, Pageable pageable);
+
+  @Transactional
+  @Query(
+      value =
+          "UPDATE rides SET status = :toStatus, driver_id = :driverId, approved_time = :now, "
+              + "start_time = :now WHERE id = :id AND booking_time = :bookingTime "
+              + "AND status IN (:fromStatuses) RETURNING *",
+      nativeQuery = true)
+  Optional<Ride> updateStatusAndAssignDriver(
+      @Param("id") long id,
+      @Param("bookingTime") LocalDateTime bookingTime,
+      @Param("driverId") long driverId,
+      @Param("now") LocalDateTime now,
+      @Param("fromStatuses") Collection<String> fromStatuses,
+      @Param("toStatus") String toStatus);
+
+  @Transactional
+  @Query(
+      value =
+          "UPDATE rides SET status = :toStatus WHERE id = :id "
+              + "AND booking_time = :bookingTime AND status IN (:fromStatuses) RETURNING *",
+      nativeQuery = true)
+  Optional<Ride> updateStatus(
+      @Param("id") long id,
+      @Param("bookingTime") LocalDateTime bookingTime,
+      @Param("fromStatuses") Collection<String> fromStatuses,
+      @Param("toStatus") String toStatus);
+
+  @Transactional
+  @Query(
+      value =
+          "UPDATE rides SET status = :toStatus, finish_time = :finishTime "
+              + "WHERE id = :id AND status IN (:fromStatuses) RETURNING *",
+      nativeQuery = true)
+  Optional<Ride> updateStatusAndFinishTime(
+      @Param("id") long id,
+      @Param("finishTime") LocalDateTime finishTime,
+      @Param("fromStatuses") Collection<String> fromStatuses,
+      @Param("toStatus") String toStatus);
+
+  @Transactional
+  @Query(
+      value =
+          "UPDATE rides SET status = :toStatus, finish_time = :finishTime, "
+              + "passenger_rating = :passengerRating "
+              + "WHERE id = :id AND status IN (:fromStatuses) RETURNING *",
+      nativeQuery = true)
+  Optional<Ride> updateStatusAndFinishWithPassengerRating(
+      @Param("id") long id,
+      @Param("finishTime") LocalDateTime finishTime,
+      @Param("passengerRating") Integer passengerRating,
+      @Param("fromStatuses") Collection<String> fromStatuses,
+      @Param("toStatus") String toStatus);
+
+  @Transactional
+  @Query(
+      value =
+          "UPDATE rides SET driver_rating = :driverRating "
+              + "WHERE id = :id AND driver_rating IS NULL AND status IN (:statuses) RETURNING *",
+      nativeQuery = true)
+  Optional<Ride> updateDriverRatingIfAbsent(
+      @Param("id") long id,
+      @Param("driverRating") Integer driverRating,
+      @Param("statuses") Collection<String> statuses);
 }
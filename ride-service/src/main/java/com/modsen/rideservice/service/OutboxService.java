@@ -0,0 +1,12 @@
+package com.modsen.rideservice.service;
+
+import com.modsen.rideservice.model.OutboxEventType;
+
+import java.util.Map;
+
+public interface OutboxService {
+
+  void save(String topic, String messageKey, OutboxEventType payloadType, Object payload);
+
+  void saveAll(String topic, OutboxEventType payloadType, Map<String, ?> payloadsByMessageKey);
+}
@@ -1,6 +1,7 @@
 package com.modsen.rideservice.service;
 
 import com.modsen.rideservice.dto.PromoCodeDto;
+import com.modsen.rideservice.dto.PromoCodePageDto;
 import com.modsen.rideservice.model.PromoCode;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +13,8 @@ public interface PromoCodeService {
 
   List<PromoCodeDto> getAll(Pageable pageable);
 
+  PromoCodePageDto getAllAfter(long afterId, int limit);
+
   PromoCodeDto save(PromoCodeDto promoCodeDto);
 
   void deleteById(long id);
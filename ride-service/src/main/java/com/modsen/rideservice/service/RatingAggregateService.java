@@ -0,0 +1,16 @@
+package com.modsen.rideservice.service;
+
+public interface RatingAggregateService {
+
+  Double addDriverRating(Long driverId, Integer rating);
+
+  Double addPassengerRating(Long passengerId, Integer rating);
+
+  void replaceDriverRating(
+      Long oldDriverId, Integer oldRating, Long newDriverId, Integer newRating);
+
+  void replacePassengerRating(
+      Long oldPassengerId, Integer oldRating, Long newPassengerId, Integer newRating);
+
+  void rebuildFromRides();
+}
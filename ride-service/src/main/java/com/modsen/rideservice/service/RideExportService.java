@@ -0,0 +1,10 @@
+package com.modsen.rideservice.service;
+
+import com.modsen.rideservice.dto.RideExportFilterDto;
+
+import java.io.OutputStream;
+
+public interface RideExportService {
+
+  void export(RideExportFilterDto rideExportFilterDto, OutputStream outputStream);
+}
@@ -1,7 +1,11 @@
 package com.modsen.rideservice.service;
 
+import com.modsen.rideservice.dto.DriverRideDto;
 import com.modsen.rideservice.dto.PassengerRatingFinishDto;
+import com.modsen.rideservice.dto.RideBatchDto;
+import com.modsen.rideservice.dto.RideBatchResultDto;
 import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.dto.RidePageDto;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -10,12 +14,16 @@ public interface RideService {
 
   RideDto order(RideDto rideDto);
 
+  RideBatchResultDto orderBatch(RideBatchDto rideBatchDto);
+
   void finishByDriver(Long rideId, PassengerRatingFinishDto passengerRatingFinishDto);
 
   RideDto getById(long id);
 
   List<RideDto> getAll(Pageable pageable);
 
+  RidePageDto getAllAfter(long afterId, int limit);
+
   void deleteById(long id);
 
   void update(long id, RideDto rideDto);
@@ -23,5 +31,13 @@ public interface RideService {
   RideDto cancelByPassenger(Long rideId);
 
   void updateDriverRatingAfterRide(Long rideId, Integer driverRating);
+
+  void getAvailableDriver(DriverRideDto driverRideDto);
+
+  void getNotFoundDriver(DriverRideDto driverRideDto);
+
+  void getAvailableDrivers(List<DriverRideDto> driverRideDtos);
+
+  void getNotFoundDrivers(List<DriverRideDto> driverRideDtos);
 }
 
@@ -5,6 +5,7 @@ import com.modsen.rideservice.dto.DriverRatingDto;
 import com.modsen.rideservice.dto.DriverWithCarDto;
 import com.modsen.rideservice.dto.IdPageDto;
 import com.modsen.rideservice.exception.ServerUnavailableException;
+import com.modsen.rideservice.metrics.RemoteCallMetrics;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
@@ -25,14 +26,18 @@ public class DriverServiceWebClient {
 
   public static final String SERVER_UNAVAILABLE_EXCEPTION_MESSAGE =
       "Driver service is not responding";
+  public static final String CLIENT = "driver-service";
 
   private final WebClient webClient;
+  private final RemoteCallMetrics remoteCallMetrics;
 
   @Value("${webclient.timeout.duration}")
   private long timeOutDuration;
 
-  public DriverServiceWebClient(@Qualifier("driverWebClient") WebClient webClient) {
+  public DriverServiceWebClient(
+      @Qualifier("driverWebClient") WebClient webClient, RemoteCallMetrics remoteCallMetrics) {
     this.webClient = webClient;
+    this.remoteCallMetrics = remoteCallMetrics;
   }
 
   public ResponseEntity<DriverPageDto> getDriverPageDtoByListIdsDriver(List<Long> driversIdList) {
@@ -56,13 +61,14 @@ public class DriverServiceWebClient {
             error -> error(new ServerUnavailableException(SERVER_UNAVAILABLE_EXCEPTION_MESSAGE)))
         .toEntity(DriverPageDto.class)
         .timeout(Duration.ofMinutes(timeOutDuration))
+        .transform(call -> remoteCallMetrics.timed(CLIENT, "getDriverPageDtoByListIdsDriver", call))
         .block();
   }
 
-  public void updateDriverAvailabilityToTrueAfterRide(Long driverId) {
+  public void updateDriverAvailabilityToTrueAfterRide(Long driverId, Long rideId) {
     webClient
         .put()
-        .uri("/" + driverId + "/available-true")
+        .uri("/" + driverId + "/available-true?rideId=" + rideId)
         .retrieve()
         .onStatus(
             HttpStatus::is4xxClientError,
@@ -75,6 +81,9 @@ public class DriverServiceWebClient {
             error -> error(new ServerUnavailableException(SERVER_UNAVAILABLE_EXCEPTION_MESSAGE)))
         .toEntity(Void.class)
         .timeout(Duration.ofMinutes(timeOutDuration))
+        .transform(
+            call ->
+                remoteCallMetrics.timed(CLIENT, "updateDriverAvailabilityToTrueAfterRide", call))
         .block();
   }
 
@@ -95,6 +104,7 @@ public class DriverServiceWebClient {
             error -> error(new ServerUnavailableException(SERVER_UNAVAILABLE_EXCEPTION_MESSAGE)))
         .toEntity(Void.class)
         .timeout(Duration.ofMinutes(timeOutDuration))
+        .transform(call -> remoteCallMetrics.timed(CLIENT, "updateDriverRatingAfterRide", call))
         .block();
   }
 
@@ -114,6 +124,7 @@ public class DriverServiceWebClient {
             error -> error(new ServerUnavailableException(SERVER_UNAVAILABLE_EXCEPTION_MESSAGE)))
         .toEntity(DriverWithCarDto.class)
         .timeout(Duration.ofMinutes(timeOutDuration))
+        .transform(call -> remoteCallMetrics.timed(CLIENT, "getDriverById", call))
         .block();
   }
 }
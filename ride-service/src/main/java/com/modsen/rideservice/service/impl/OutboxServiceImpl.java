@@ -0,0 +1,69 @@
+package com.modsen.rideservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.rideservice.exception.OutboxPayloadMappingException;
+import com.modsen.rideservice.model.OutboxEvent;
+import com.modsen.rideservice.model.OutboxEventType;
+import com.modsen.rideservice.repository.OutboxEventRepository;
+import com.modsen.rideservice.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+  public static final String INSERT_QUERY =
+      "INSERT INTO outbox_events (topic, message_key, payload_type, payload, created_at) "
+          + "VALUES (?, ?, ?, ?, ?)";
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final ObjectMapper objectMapper;
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void save(String topic, String messageKey, OutboxEventType payloadType, Object payload) {
+    OutboxEvent outboxEvent = new OutboxEvent();
+    outboxEvent.setTopic(topic);
+    outboxEvent.setMessageKey(messageKey);
+    outboxEvent.setPayloadType(payloadType);
+    outboxEvent.setPayload(writePayload(payload));
+    outboxEvent.setCreatedAt(LocalDateTime.now());
+    outboxEventRepository.save(outboxEvent);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void saveAll(
+      String topic, OutboxEventType payloadType, Map<String, ?> payloadsByMessageKey) {
+    Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> outboxEvents = new ArrayList<>(payloadsByMessageKey.size());
+    payloadsByMessageKey.forEach(
+        (messageKey, payload) ->
+            outboxEvents.add(
+                new Object[] {
+                  topic, messageKey, payloadType.name(), writePayload(payload), createdAt
+                }));
+    jdbcTemplate.batchUpdate(INSERT_QUERY, outboxEvents);
+  }
+
+  private String writePayload(Object payload) {
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new OutboxPayloadMappingException(
+          "Exception occurred while converting outbox payload to Json");
+    }
+  }
+}
@@ -1,17 +1,15 @@
 package com.modsen.rideservice.service.impl;
 
-import com.modsen.rideservice.dto.PassengerAfterRideDto;
 import com.modsen.rideservice.dto.PassengerDto;
 import com.modsen.rideservice.exception.ServerUnavailableException;
-import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.metrics.RemoteCallMetrics;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.NoSuchElementException;
@@ -21,16 +19,21 @@ import static reactor.core.publisher.Mono.error;
 @Component
 public class PassengerServiceWebClient {
 
+  public static final String CLIENT = "passenger-service";
+
   private final WebClient webClient;
+  private final RemoteCallMetrics remoteCallMetrics;
 
   @Value("${webclient.timeout.duration}")
   private long timeOutDuration;
 
-  public PassengerServiceWebClient(@Qualifier("passengerWebClient") WebClient webClient) {
+  public PassengerServiceWebClient(
+      @Qualifier("passengerWebClient") WebClient webClient, RemoteCallMetrics remoteCallMetrics) {
     this.webClient = webClient;
+    this.remoteCallMetrics = remoteCallMetrics;
   }
 
-  public ResponseEntity<PassengerDto> getPassengerDtoById(Long passengerId) {
+  public Mono<ResponseEntity<PassengerDto>> getPassengerDtoById(Long passengerId) {
     return webClient
         .get()
         .uri("/" + passengerId)
@@ -46,34 +49,6 @@ public class PassengerServiceWebClient {
             error -> error(new ServerUnavailableException("Passenger service is not responding")))
         .toEntity(PassengerDto.class)
         .timeout(Duration.ofMinutes(timeOutDuration))
-        .block();
-  }
-
-  public void updatePassengerAfterRide(Ride ride, Double averagePassengerRatingByPassengerId) {
-    PassengerAfterRideDto passengerAfterRideDto =
-        PassengerAfterRideDto.builder()
-            .passengerRating(averagePassengerRatingByPassengerId)
-            .rideCost(ride.getCost())
-            .passengerBankCardId(ride.getPassengerBankCardId())
-            .build();
-
-    webClient
-        .put()
-        .uri("/after-ride/" + ride.getPassengerId())
-        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-        .bodyValue(passengerAfterRideDto)
-        .retrieve()
-        .onStatus(
-            HttpStatus::is4xxClientError,
-            response ->
-                response
-                    .bodyToMono(String.class)
-                    .flatMap(error -> error(new NoSuchElementException(error))))
-        .onStatus(
-            HttpStatus::is5xxServerError,
-            error -> error(new ServerUnavailableException("Passenger service is not responding")))
-        .toEntity(Void.class)
-        .timeout(Duration.ofMinutes(timeOutDuration))
-        .block();
+        .transform(call -> remoteCallMetrics.timed(CLIENT, "getPassengerDtoById", call));
   }
 }
@@ -1,12 +1,15 @@
 package com.modsen.rideservice.service.impl;
 
 import com.modsen.rideservice.dto.PromoCodeDto;
+import com.modsen.rideservice.dto.PromoCodePageDto;
 import com.modsen.rideservice.exception.FinishDateEarlyThanStartDateException;
 import com.modsen.rideservice.mapper.PromoCodeMapper;
 import com.modsen.rideservice.model.PromoCode;
+import com.modsen.rideservice.pagination.KeysetCursor;
 import com.modsen.rideservice.repository.PromoCodeRepository;
 import com.modsen.rideservice.service.PromoCodeService;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
@@ -51,6 +55,24 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     return promoCodeDtoList;
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public PromoCodePageDto getAllAfter(long afterId, int limit) {
+    List<PromoCode> promoCodes =
+        promoCodeRepository.findAllAfter(afterId, PageRequest.of(0, limit + 1));
+    String nextCursor = null;
+    if (promoCodes.size() > limit) {
+      promoCodes = promoCodes.subList(0, limit);
+      nextCursor = KeysetCursor.encode(promoCodes.get(limit - 1).getId());
+    }
+    List<PromoCodeDto> promoCodeDtoList =
+        promoCodes.stream().map(promoCodeMapper::toDto).collect(Collectors.toList());
+    return PromoCodePageDto.builder()
+        .promoCodeDtoList(promoCodeDtoList)
+        .nextCursor(nextCursor)
+        .build();
+  }
+
   @Override
   @Transactional
   public PromoCodeDto save(PromoCodeDto promoCodeDto) {
@@ -0,0 +1,85 @@
+package com.modsen.rideservice.service.impl;
+
+import com.modsen.rideservice.model.DriverRatingAggregate;
+import com.modsen.rideservice.model.PassengerRatingAggregate;
+import com.modsen.rideservice.repository.DriverRatingAggregateRepository;
+import com.modsen.rideservice.repository.PassengerRatingAggregateRepository;
+import com.modsen.rideservice.service.RatingAggregateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class RatingAggregateServiceImpl implements RatingAggregateService {
+
+  private final DriverRatingAggregateRepository driverRatingAggregateRepository;
+  private final PassengerRatingAggregateRepository passengerRatingAggregateRepository;
+
+  @Override
+  @Transactional
+  public Double addDriverRating(Long driverId, Integer rating) {
+    if (rating == null) {
+      return driverRatingAggregateRepository
+          .findById(driverId)
+          .map(DriverRatingAggregate::getAverageRating)
+          .orElse(null);
+    }
+    return driverRatingAggregateRepository.addRating(driverId, rating);
+  }
+
+  @Override
+  @Transactional
+  public Double addPassengerRating(Long passengerId, Integer rating) {
+    if (rating == null) {
+      return passengerRatingAggregateRepository
+          .findById(passengerId)
+          .map(PassengerRatingAggregate::getAverageRating)
+          .orElse(null);
+    }
+    return passengerRatingAggregateRepository.addRating(passengerId, rating);
+  }
+
+  @Override
+  @Transactional
+  public void replaceDriverRating(
+      Long oldDriverId, Integer oldRating, Long newDriverId, Integer newRating) {
+    if (Objects.equals(oldDriverId, newDriverId) && Objects.equals(oldRating, newRating)) {
+      return;
+    }
+    if (oldDriverId != null && oldRating != null) {
+      driverRatingAggregateRepository.removeRating(oldDriverId, oldRating);
+    }
+    if (newDriverId != null && newRating != null) {
+      driverRatingAggregateRepository.addRating(newDriverId, newRating);
+    }
+  }
+
+  @Override
+  @Transactional
+  public void replacePassengerRating(
+      Long oldPassengerId, Integer oldRating, Long newPassengerId, Integer newRating) {
+    if (Objects.equals(oldPassengerId, newPassengerId) && Objects.equals(oldRating, newRating)) {
+      return;
+    }
+    if (oldPassengerId != null && oldRating != null) {
+      passengerRatingAggregateRepository.removeRating(oldPassengerId, oldRating);
+    }
+    if (newPassengerId != null && newRating != null) {
+      passengerRatingAggregateRepository.addRating(newPassengerId, newRating);
+    }
+  }
+
+  @Override
+  @Transactional
+  public void rebuildFromRides() {
+    driverRatingAggregateRepository.lockForRebuild();
+    passengerRatingAggregateRepository.lockForRebuild();
+    driverRatingAggregateRepository.deleteAllAggregates();
+    passengerRatingAggregateRepository.deleteAllAggregates();
+    driverRatingAggregateRepository.rebuildFromRides();
+    passengerRatingAggregateRepository.rebuildFromRides();
+  }
+}
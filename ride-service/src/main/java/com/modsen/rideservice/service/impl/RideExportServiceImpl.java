@@ -0,0 +1,147 @@
+package com.modsen.rideservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.rideservice.config.export.RideExportProperties;
+import com.modsen.rideservice.dto.RideExportFilterDto;
+import com.modsen.rideservice.service.RideExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class RideExportServiceImpl implements RideExportService {
+
+  public static final String EXPORT_QUERY =
+      "SELECT r.id, r.start_location, r.start_latitude, r.start_longitude, r.end_location, "
+          + "r.passenger_id, r.driver_id, r.driver_rating, r.passenger_rating, r.booking_time, "
+          + "r.approved_time, r.start_time, r.finish_time, r.passenger_bank_card_id, "
+          + "p.name AS promo_code_name, r.cost, r.status "
+          + "FROM rides r LEFT JOIN promo_codes p ON p.id = r.promo_code_id "
+          + "WHERE r.booking_time >= ? AND r.booking_time < ? ";
+  public static final String STATUS_CONDITION = "AND r.status = ? ";
+  public static final String ORDER_BY_BOOKING_TIME = "ORDER BY r.booking_time, r.id";
+  public static final char NDJSON_LINE_SEPARATOR = '\n';
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final RideExportProperties rideExportProperties;
+
+  @Override
+  @Transactional(readOnly = true)
+  public void export(RideExportFilterDto rideExportFilterDto, OutputStream outputStream) {
+    try (JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(outputStream)) {
+      jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      jsonGenerator.setRootValueSeparator(null);
+      jdbcTemplate.query(
+          connection -> {
+            PreparedStatement preparedStatement =
+                connection.prepareStatement(
+                    getExportQuery(rideExportFilterDto),
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(rideExportProperties.getFetchSize());
+            preparedStatement.setTimestamp(1, Timestamp.valueOf(rideExportFilterDto.getFrom()));
+            preparedStatement.setTimestamp(2, Timestamp.valueOf(rideExportFilterDto.getTo()));
+            if (rideExportFilterDto.getStatus() != null) {
+              preparedStatement.setString(3, rideExportFilterDto.getStatus().name());
+            }
+            return preparedStatement;
+          },
+          resultSet -> writeRide(jsonGenerator, resultSet));
+      jsonGenerator.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String getExportQuery(RideExportFilterDto rideExportFilterDto) {
+    if (rideExportFilterDto.getStatus() == null) {
+      return EXPORT_QUERY + ORDER_BY_BOOKING_TIME;
+    }
+    return EXPORT_QUERY + STATUS_CONDITION + ORDER_BY_BOOKING_TIME;
+  }
+
+  private void writeRide(JsonGenerator jsonGenerator, ResultSet resultSet) throws SQLException {
+    try {
+      jsonGenerator.writeStartObject();
+      jsonGenerator.writeNumberField("id", resultSet.getLong("id"));
+      jsonGenerator.writeStringField("startLocation", resultSet.getString("start_location"));
+      writeDouble(jsonGenerator, "startLatitude", resultSet, "start_latitude");
+      writeDouble(jsonGenerator, "startLongitude", resultSet, "start_longitude");
+      jsonGenerator.writeStringField("endLocation", resultSet.getString("end_location"));
+      writeLong(jsonGenerator, "passengerId", resultSet, "passenger_id");
+      writeLong(jsonGenerator, "driverId", resultSet, "driver_id");
+      writeInt(jsonGenerator, "driverRating", resultSet, "driver_rating");
+      writeInt(jsonGenerator, "passengerRating", resultSet, "passenger_rating");
+      writeDateTime(jsonGenerator, "bookingTime", resultSet, "booking_time");
+      writeDateTime(jsonGenerator, "approvedTime", resultSet, "approved_time");
+      writeDateTime(jsonGenerator, "startTime", resultSet, "start_time");
+      writeDateTime(jsonGenerator, "finishTime", resultSet, "finish_time");
+      jsonGenerator.writeStringField(
+          "passengerBankCardId", resultSet.getString("passenger_bank_card_id"));
+      jsonGenerator.writeStringField("promoCodeName", resultSet.getString("promo_code_name"));
+      jsonGenerator.writeNumberField("cost", resultSet.getBigDecimal("cost"));
+      jsonGenerator.writeStringField("status", resultSet.getString("status"));
+      jsonGenerator.writeEndObject();
+      jsonGenerator.writeRaw(NDJSON_LINE_SEPARATOR);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeLong(
+      JsonGenerator jsonGenerator, String fieldName, ResultSet resultSet, String column)
+      throws SQLException, IOException {
+    long value = resultSet.getLong(column);
+    if (resultSet.wasNull()) {
+      jsonGenerator.writeNullField(fieldName);
+    } else {
+      jsonGenerator.writeNumberField(fieldName, value);
+    }
+  }
+
+  private void writeInt(
+      JsonGenerator jsonGenerator, String fieldName, ResultSet resultSet, String column)
+      throws SQLException, IOException {
+    int value = resultSet.getInt(column);
+    if (resultSet.wasNull()) {
+      jsonGenerator.writeNullField(fieldName);
+    } else {
+      jsonGenerator.writeNumberField(fieldName, value);
+    }
+  }
+
+  private void writeDouble(
+      JsonGenerator jsonGenerator, String fieldName, ResultSet resultSet, String column)
+      throws SQLException, IOException {
+    double value = resultSet.getDouble(column);
+    if (resultSet.wasNull()) {
+      jsonGenerator.writeNullField(fieldName);
+    } else {
+      jsonGenerator.writeNumberField(fieldName, value);
+    }
+  }
+
+  private void writeDateTime(
+      JsonGenerator jsonGenerator, String fieldName, ResultSet resultSet, String column)
+      throws SQLException, IOException {
+    LocalDateTime value = resultSet.getObject(column, LocalDateTime.class);
+    if (value == null) {
+      jsonGenerator.writeNullField(fieldName);
+    } else {
+      jsonGenerator.writeStringField(fieldName, value.toString());
+    }
+  }
+}
@@ -2,145 +2,478 @@ package com.modsen.rideservice.service.impl;
 
 import com.modsen.rideservice.dto.BankCardDto;
 import com.modsen.rideservice.dto.CarDto;
-import com.modsen.rideservice.dto.DriverPageDto;
 import com.modsen.rideservice.dto.DriverRatingDto;
+import com.modsen.rideservice.dto.DriverReleaseDto;
 import com.modsen.rideservice.dto.DriverRideDto;
 import com.modsen.rideservice.dto.PassengerDto;
 import com.modsen.rideservice.dto.PassengerRatingFinishDto;
+import com.modsen.rideservice.dto.RideBatchDto;
+import com.modsen.rideservice.dto.RideBatchItemDto;
+import com.modsen.rideservice.dto.RideBatchResultDto;
 import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.dto.RideFinishedDto;
+import com.modsen.rideservice.dto.RidePageDto;
 import com.modsen.rideservice.dto.RideSearchDto;
+import com.modsen.rideservice.enrichment.DriverCarEnricher;
 import com.modsen.rideservice.exception.AlreadyGetRatingException;
 import com.modsen.rideservice.exception.DriverServiceException;
 import com.modsen.rideservice.exception.FinishDateEarlyThanStartDateException;
 import com.modsen.rideservice.exception.PassengerBankCardNotEnoughMoneyException;
 import com.modsen.rideservice.exception.RideStatusException;
 import com.modsen.rideservice.exception.UnfinishedBookingRideException;
+import com.modsen.rideservice.fare.FareEngine;
 import com.modsen.rideservice.mapper.RideMapper;
+import com.modsen.rideservice.metrics.RemoteCallMetrics;
+import com.modsen.rideservice.metrics.RideLifecycleMetrics;
+import com.modsen.rideservice.model.OutboxEventType;
 import com.modsen.rideservice.model.PromoCode;
 import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.model.RideBatchItemStatus;
+import com.modsen.rideservice.model.RideTransition;
 import com.modsen.rideservice.model.Status;
+import com.modsen.rideservice.pagination.KeysetCursor;
+import com.modsen.rideservice.repository.RideBatchRepository;
 import com.modsen.rideservice.repository.RideRepository;
 import com.modsen.rideservice.service.DriverServiceFeignClient;
+import com.modsen.rideservice.service.OutboxService;
 import com.modsen.rideservice.service.PromoCodeService;
+import com.modsen.rideservice.service.RatingAggregateService;
 import com.modsen.rideservice.service.RideService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.ResponseEntity;
-import org.springframework.integration.support.MessageBuilder;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.MessageChannel;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Exceptions;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
+import javax.validation.Validator;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
+import static com.modsen.rideservice.model.RideTransition.CANCEL_BY_PASSENGER;
+import static com.modsen.rideservice.model.RideTransition.FINISH_BY_DRIVER;
+import static com.modsen.rideservice.model.RideTransition.MATCH_DRIVER;
+import static com.modsen.rideservice.model.RideTransition.NOT_FOUND_DRIVER;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RideServiceImpl implements RideService {
 
-  public static final BigDecimal MIN_COST_FOR_RIDE = new BigDecimal("10.0");
-  public static final BigDecimal MAX_COST_FOR_RIDE = new BigDecimal("20.0");
   public static final String NO_SUCH_RIDE_EXCEPTION_MESSAGE = "Ride was not found by id = ";
+  public static final String ORDER_STAGE_TIMER_NAME = "ride.order.stage";
+  public static final String PASSENGER_STAGE = "passenger";
+  public static final String PASSENGER_WAIT_STAGE = "passenger-wait";
+  public static final String UNFINISHED_RIDE_STAGE = "unfinished-ride";
+  public static final String PROMO_CODE_STAGE = "promo-code";
+  public static final String INSERT_STAGE = "insert";
+  public static final List<String> RATEABLE_STATUS_NAMES =
+      List.of(Status.ACTIVE.name(), Status.FINISHED.name());
 
   private final RideRepository rideRepository;
   private final DriverServiceWebClient driverServiceWebClient;
   private final PassengerServiceWebClient passengerServiceWebClient;
   private final PromoCodeService promoCodeService;
   private final RideMapper rideMapper;
-  private final MessageChannel toKafkaChannel;
+  private final OutboxService outboxService;
   private final DriverServiceFeignClient driverServiceFeignClient;
-  @PersistenceContext private final EntityManager entityManager;
+  private final MeterRegistry meterRegistry;
+  private final DriverCarEnricher driverCarEnricher;
+  private final RatingAggregateService ratingAggregateService;
+  private final FareEngine fareEngine;
+  private final RideBatchRepository rideBatchRepository;
+  private final Validator validator;
+  private final RideLifecycleMetrics rideLifecycleMetrics;
+  private final RemoteCallMetrics remoteCallMetrics;
 
   @Value(value = "${spring.kafka.topic-order-new-ride}")
   private String topicOrderNewRide;
 
+  @Value(value = "${spring.kafka.topic-ride-finished}")
+  private String topicRideFinished;
+
+  @Value(value = "${spring.kafka.topic-driver-release}")
+  private String topicDriverRelease;
+
   @Override
   @Transactional
   @CircuitBreaker(name = "CircuitBreakerRideService")
   @Retry(name = "retryRideService")
   public RideDto order(RideDto rideDto) {
-    checkUnfinishedRide(rideDto);
-
-    BigDecimal randomCost = generateRandomCost();
-    rideDto.setCost(randomCost);
+    CompletableFuture<PassengerDto> passengerDtoFuture =
+        fetchPassenger(rideDto.getPassengerId());
 
-    PromoCode discountPromoCodeIfExist = getDiscountPromoCodeIfExist(rideDto, randomCost);
+    PromoCode discountPromoCodeIfExist;
+    try {
+      stageTimer(UNFINISHED_RIDE_STAGE)
+          .record(() -> checkUnfinishedRide(rideDto.getPassengerId()));
+
+      long fareCents = calculateFareCents(rideDto);
+      rideDto.setCost(FareEngine.toMoney(fareCents));
+
+      discountPromoCodeIfExist =
+          stageTimer(PROMO_CODE_STAGE)
+              .record(() -> getDiscountPromoCodeIfExist(rideDto, fareCents));
+    } catch (RuntimeException exception) {
+      passengerDtoFuture.cancel(true);
+      throw exception;
+    }
 
-    checkPassengerExistAndHaveEnoughMoneyOnPassengerBankCard(rideDto);
+    PassengerDto passengerDto =
+        stageTimer(PASSENGER_WAIT_STAGE).record(() -> join(passengerDtoFuture));
+    checkPassengerHaveEnoughMoneyOnPassengerBankCard(rideDto, passengerDto);
 
-    rideDto.setBookingTime(LocalDateTime.now());
+    rideDto.setBookingTime(bookingTime());
     rideDto.setStatus(Status.PENDING);
 
     Ride ride = rideMapper.toEntity(rideDto);
     ride.setPromoCode(discountPromoCodeIfExist);
-    Ride savedRide = rideRepository.save(ride);
+    Ride savedRide = stageTimer(INSERT_STAGE).record(() -> rideRepository.save(ride));
     RideDto savedRideDto = rideMapper.toDto(savedRide);
 
-    RideSearchDto rideSearchDto = RideSearchDto.builder().rideId(ride.getId()).build();
-
-    toKafkaChannel.send(
-        MessageBuilder.withPayload(rideSearchDto)
-            .setHeader(KafkaHeaders.TOPIC, topicOrderNewRide)
-            .build());
+    outboxService.save(
+        topicOrderNewRide,
+        String.valueOf(ride.getId()),
+        OutboxEventType.RIDE_SEARCH,
+        toRideSearchDto(ride));
 
     return savedRideDto;
   }
 
+  @Override
+  @Transactional
+  @CircuitBreaker(name = "CircuitBreakerRideService")
+  public RideBatchResultDto orderBatch(RideBatchDto rideBatchDto) {
+    List<RideDto> rideDtoList = rideBatchDto.getRideDtoList();
+    RideBatchItemDto[] items = new RideBatchItemDto[rideDtoList.size()];
+    Map<Long, CompletableFuture<PassengerDto>> passengerDtoFutures = new HashMap<>();
+    for (int i = 0; i < rideDtoList.size(); i++) {
+      String violations = getViolations(rideDtoList.get(i));
+      if (violations.isEmpty()) {
+        passengerDtoFutures.computeIfAbsent(
+            rideDtoList.get(i).getPassengerId(), this::fetchPassenger);
+      } else {
+        items[i] = rejectedItem(i, violations);
+      }
+    }
+
+    Map<Long, Boolean> unfinishedRides = new HashMap<>();
+    Map<String, PromoCode> promoCodes = new HashMap<>();
+    Map<String, BigDecimal> reservedByBankCard = new HashMap<>();
+    LocalDateTime bookingTime = bookingTime();
+    List<Ride> rides = new ArrayList<>(rideDtoList.size());
+    List<Integer> rideIndexes = new ArrayList<>(rideDtoList.size());
+    for (int i = 0; i < rideDtoList.size(); i++) {
+      if (items[i] != null) {
+        continue;
+      }
+      RideDto rideDto = rideDtoList.get(i);
+      try {
+        if (unfinishedRides.computeIfAbsent(rideDto.getPassengerId(), this::hasUnfinishedRide)) {
+          throw unfinishedRideException();
+        }
+        long fareCents = calculateFareCents(rideDto);
+        rideDto.setCost(FareEngine.toMoney(fareCents));
+        PromoCode promoCode = null;
+        if (rideDto.getPromoCodeName() != null) {
+          promoCode =
+              promoCodes.computeIfAbsent(rideDto.getPromoCodeName(), promoCodeService::getByName);
+          applyPromoCodeDiscount(rideDto, promoCode, fareCents);
+        }
+        String bankCardId = rideDto.getPassengerBankCardId();
+        BigDecimal reserved = reservedByBankCard.getOrDefault(bankCardId, BigDecimal.ZERO);
+        checkPassengerHaveEnoughMoneyOnPassengerBankCard(
+            rideDto, join(passengerDtoFutures.get(rideDto.getPassengerId())), reserved);
+
+        rideDto.setBookingTime(bookingTime);
+        rideDto.setStatus(Status.PENDING);
+        Ride ride = rideMapper.toEntity(rideDto);
+        ride.setPromoCode(promoCode);
+        rides.add(ride);
+        rideIndexes.add(i);
+        unfinishedRides.put(rideDto.getPassengerId(), true);
+        reservedByBankCard.put(bankCardId, reserved.add(rideDto.getCost()));
+      } catch (RuntimeException exception) {
+        items[i] = rejectedItem(i, exception.getMessage());
+      }
+    }
+    passengerDtoFutures.values().forEach(passengerDtoFuture -> passengerDtoFuture.cancel(true));
+
+    stageTimer(INSERT_STAGE).record(() -> rideBatchRepository.insertAll(rides));
+    Map<String, RideSearchDto> rideSearchDtoByRideId = new LinkedHashMap<>();
+    for (int i = 0; i < rides.size(); i++) {
+      Ride ride = rides.get(i);
+      int index = rideIndexes.get(i);
+      items[index] =
+          RideBatchItemDto.builder()
+              .index(index)
+              .status(RideBatchItemStatus.CREATED)
+              .rideDto(rideMapper.toDto(ride))
+              .build();
+      rideSearchDtoByRideId.put(String.valueOf(ride.getId()), toRideSearchDto(ride));
+    }
+    if (!rideSearchDtoByRideId.isEmpty()) {
+      outboxService.saveAll(topicOrderNewRide, OutboxEventType.RIDE_SEARCH, rideSearchDtoByRideId);
+    }
+
+    rideLifecycleMetrics.recordBatch(rides.size(), items.length - rides.size());
+    return RideBatchResultDto.builder()
+        .created(rides.size())
+        .rejected(items.length - rides.size())
+        .items(Arrays.asList(items))
+        .build();
+  }
+
+  private String getViolations(RideDto rideDto) {
+    return validator.validate(rideDto).stream()
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+  private RideBatchItemDto rejectedItem(int index, String error) {
+    return RideBatchItemDto.builder()
+        .index(index)
+        .status(RideBatchItemStatus.REJECTED)
+        .error(error)
+        .build();
+  }
+
+  /**
+   * Booking time is part of the rides primary key and carried through matching, so it is kept at
+   * the microsecond precision Postgres stores and still equals the stored value when it comes back.
+   */
+  private LocalDateTime bookingTime() {
+    return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+  }
+
+  private RideSearchDto toRideSearchDto(Ride ride) {
+    return RideSearchDto.builder()
+        .rideId(ride.getId())
+        .startLatitude(ride.getStartLatitude())
+        .startLongitude(ride.getStartLongitude())
+        .bookingTime(ride.getBookingTime())
+        .build();
+  }
+
+  @Override
   @Transactional
   public void getAvailableDriver(DriverRideDto driverRideDto) {
-    Ride ride = getRide(driverRideDto.getRideId());
-    if (ride.getStatus() == Status.PENDING) {
-      ride.setStatus(Status.ACTIVE);
-      ride.setDriverId(driverRideDto.getId());
-      ride.setApprovedTime(LocalDateTime.now());
-      ride.setStartTime(LocalDateTime.now());
-      rideRepository.save(ride);
-    } else {
-      updateDriverAvailabilityAfterRide(ride);
+    LocalDateTime bookingTime =
+        bookingTimes(List.of(driverRideDto)).get(driverRideDto.getRideId());
+    Optional<Ride> matchedRide =
+        bookingTime == null
+            ? Optional.empty()
+            : rideRepository.updateStatusAndAssignDriver(
+                driverRideDto.getRideId(),
+                bookingTime,
+                driverRideDto.getId(),
+                LocalDateTime.now(),
+                MATCH_DRIVER.getFromStatusNames(),
+                MATCH_DRIVER.getToStatusName());
+    if (matchedRide.isPresent()) {
+      rideLifecycleMetrics.recordMatched(matchedRide.get());
+      return;
     }
+    if (bookingTime == null) {
+      log.warn("Skipped driver match of unknown ride {}", driverRideDto.getRideId());
+    }
+    releaseDrivers(List.of(driverRideDto));
   }
 
+  @Override
   @Transactional
   public void getNotFoundDriver(DriverRideDto driverRideDto) {
-    Ride ride = getRide(driverRideDto.getRideId());
-    if (ride.getStatus() == Status.PENDING) {
-      ride.setStatus(Status.NO_DRIVERS);
+    LocalDateTime notFoundTime = LocalDateTime.now();
+    Optional<Ride> rideWithoutDriver =
+        rideRepository.updateStatus(
+            driverRideDto.getRideId(),
+            bookingTime(driverRideDto),
+            NOT_FOUND_DRIVER.getFromStatusNames(),
+            NOT_FOUND_DRIVER.getToStatusName());
+    if (rideWithoutDriver.isPresent()) {
+      rideLifecycleMetrics.recordNoDrivers(rideWithoutDriver.get(), notFoundTime);
+    } else {
+      checkRideExists(driverRideDto.getRideId());
+    }
+  }
+
+  @Override
+  @Transactional
+  public void getAvailableDrivers(List<DriverRideDto> driverRideDtos) {
+    LocalDateTime matchTime = LocalDateTime.now();
+    Map<Long, LocalDateTime> bookingTimes = bookingTimes(driverRideDtos);
+    int[] matchedCounts =
+        rideBatchRepository.updateStatusAndAssignDrivers(
+            driverRideDtos,
+            bookingTimes,
+            matchTime,
+            MATCH_DRIVER.getFromStatusNames(),
+            MATCH_DRIVER.getToStatusName());
+    List<DriverRideDto> rejectedMatches = new ArrayList<>();
+    for (int i = 0; i < driverRideDtos.size(); i++) {
+      DriverRideDto driverRideDto = driverRideDtos.get(i);
+      LocalDateTime bookingTime = bookingTimes.get(driverRideDto.getRideId());
+      if (matchedCounts[i] > 0) {
+        rideLifecycleMetrics.recordMatched(bookingTime, matchTime);
+      } else {
+        if (bookingTime == null) {
+          log.warn("Skipped driver match of unknown ride {}", driverRideDto.getRideId());
+        }
+        rejectedMatches.add(driverRideDto);
+      }
+    }
+    releaseDrivers(rejectedMatches);
+  }
+
+  /**
+   * Returns the drivers of rejected matches, including matches of unknown rides, to driver-service
+   * through the outbox. The release commits with the transaction and driver-service is never
+   * called from the consumer thread.
+   */
+  private void releaseDrivers(List<DriverRideDto> rejectedMatches) {
+    for (DriverRideDto rejectedMatch : rejectedMatches) {
+      outboxService.save(
+          topicDriverRelease,
+          String.valueOf(rejectedMatch.getId()),
+          OutboxEventType.DRIVER_RELEASE,
+          DriverReleaseDto.builder()
+              .eventId(UUID.randomUUID().toString())
+              .rideId(rejectedMatch.getRideId())
+              .driverId(rejectedMatch.getId())
+              .build());
+    }
+  }
+
+  @Override
+  @Transactional
+  public void getNotFoundDrivers(List<DriverRideDto> driverRideDtos) {
+    LocalDateTime notFoundTime = LocalDateTime.now();
+    List<Long> rideIds = rideIds(driverRideDtos);
+    Map<Long, LocalDateTime> bookingTimes = bookingTimes(driverRideDtos);
+    int[] notFoundCounts =
+        rideBatchRepository.updateStatuses(
+            rideIds,
+            bookingTimes,
+            NOT_FOUND_DRIVER.getFromStatusNames(),
+            NOT_FOUND_DRIVER.getToStatusName());
+    for (int i = 0; i < rideIds.size(); i++) {
+      LocalDateTime bookingTime = bookingTimes.get(rideIds.get(i));
+      if (notFoundCounts[i] > 0) {
+        rideLifecycleMetrics.recordNoDrivers(bookingTime, notFoundTime);
+      } else if (bookingTime == null) {
+        log.warn("Skipped not found driver of unknown ride {}", rideIds.get(i));
+      }
     }
   }
 
-  private PromoCode getDiscountPromoCodeIfExist(RideDto rideDto, BigDecimal randomCost) {
+  private LocalDateTime bookingTime(DriverRideDto driverRideDto) {
+    LocalDateTime bookingTime =
+        bookingTimes(List.of(driverRideDto)).get(driverRideDto.getRideId());
+    if (bookingTime == null) {
+      throw new NoSuchElementException(
+          NO_SUCH_RIDE_EXCEPTION_MESSAGE + driverRideDto.getRideId());
+    }
+    return bookingTime;
+  }
+
+  /**
+   * Takes booking times from the driver-service results, so updates only touch the partition of
+   * each ride, and looks up the ones missing from results published before they were carried.
+   */
+  private Map<Long, LocalDateTime> bookingTimes(List<DriverRideDto> driverRideDtos) {
+    Map<Long, LocalDateTime> bookingTimes = new HashMap<>();
+    List<Long> rideIdsWithoutBookingTime = new ArrayList<>();
+    for (DriverRideDto driverRideDto : driverRideDtos) {
+      if (driverRideDto.getRideBookingTime() == null) {
+        rideIdsWithoutBookingTime.add(driverRideDto.getRideId());
+      } else {
+        bookingTimes.put(driverRideDto.getRideId(), driverRideDto.getRideBookingTime());
+      }
+    }
+    if (!rideIdsWithoutBookingTime.isEmpty()) {
+      bookingTimes.putAll(rideBatchRepository.findBookingTimesByIdIn(rideIdsWithoutBookingTime));
+    }
+    return bookingTimes;
+  }
+
+  private List<Long> rideIds(List<DriverRideDto> driverRideDtos) {
+    return driverRideDtos.stream().map(DriverRideDto::getRideId).collect(Collectors.toList());
+  }
+
+  private PromoCode getDiscountPromoCodeIfExist(RideDto rideDto, long fareCents) {
     PromoCode promoCodeByName = null;
     if (rideDto.getPromoCodeName() != null) {
       promoCodeByName = promoCodeService.getByName(rideDto.getPromoCodeName());
-      BigDecimal discount = promoCodeByName.getDiscount();
-      rideDto.setCost(randomCost.multiply(discount));
+      applyPromoCodeDiscount(rideDto, promoCodeByName, fareCents);
     }
     return promoCodeByName;
   }
 
-  private void checkPassengerExistAndHaveEnoughMoneyOnPassengerBankCard(RideDto rideDto) {
-    ResponseEntity<PassengerDto> passengerDtoResponseEntity =
-        passengerServiceWebClient.getPassengerDtoById(rideDto.getPassengerId());
+  private void applyPromoCodeDiscount(RideDto rideDto, PromoCode promoCode, long fareCents) {
+    long discountBasisPoints = FareEngine.toBasisPoints(promoCode.getDiscount());
+    rideDto.setCost(FareEngine.toMoney(FareEngine.applyDiscount(fareCents, discountBasisPoints)));
+  }
 
-    PassengerDto passengerDto = passengerDtoResponseEntity.getBody();
-    if (passengerDto == null) {
-      throw new NoSuchElementException(
-          "Passenger was not found by such id = " + rideDto.getPassengerId());
+  private CompletableFuture<PassengerDto> fetchPassenger(Long passengerId) {
+    Timer.Sample passengerSample = Timer.start(meterRegistry);
+    return passengerServiceWebClient
+        .getPassengerDtoById(passengerId)
+        .map(
+            passengerDtoResponseEntity ->
+                Optional.ofNullable(passengerDtoResponseEntity.getBody())
+                    .orElseThrow(
+                        () ->
+                            new NoSuchElementException(
+                                "Passenger was not found by such id = " + passengerId)))
+        .doFinally(signalType -> passengerSample.stop(stageTimer(PASSENGER_STAGE)))
+        .toFuture();
+  }
+
+  private <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException exception) {
+      throw Exceptions.propagate(exception.getCause());
     }
+  }
+
+  private Timer stageTimer(String stage) {
+    return Timer.builder(ORDER_STAGE_TIMER_NAME)
+        .description("Duration of ride ordering stages")
+        .tag("stage", stage)
+        .register(meterRegistry);
+  }
+
+  private void checkPassengerHaveEnoughMoneyOnPassengerBankCard(
+      RideDto rideDto, PassengerDto passengerDto) {
+    checkPassengerHaveEnoughMoneyOnPassengerBankCard(rideDto, passengerDto, BigDecimal.ZERO);
+  }
+
+  /** Checks that the card still covers the ride after the amount already reserved on it. */
+  private void checkPassengerHaveEnoughMoneyOnPassengerBankCard(
+      RideDto rideDto, PassengerDto passengerDto, BigDecimal reserved) {
     Optional<BankCardDto> optionalBankCardDto =
         passengerDto.getBankCards().stream()
             .filter(
@@ -153,27 +486,33 @@ public class RideServiceImpl implements RideService {
           "Passenger bank card was not found by such id = " + rideDto.getPassengerBankCardId());
     } else {
       BankCardDto bankCardDto = optionalBankCardDto.get();
-      if (bankCardDto.getBalance().compareTo(rideDto.getCost()) < 1) {
+      if (bankCardDto.getBalance().compareTo(reserved.add(rideDto.getCost())) < 1) {
         throw new PassengerBankCardNotEnoughMoneyException(
             "Not enough money on your bank card. Choose another bank card to pay or pay cash");
       }
     }
   }
 
-  private void checkUnfinishedRide(RideDto rideDto) {
-    int size =
-        rideRepository.findByPassengerIdAndFinishTimeNotNull(rideDto.getPassengerId()).size();
-    if (size == 1) {
-      throw new UnfinishedBookingRideException(
-          "You have unfinished ride. You could order new ride after finished current ride");
+  private void checkUnfinishedRide(Long passengerId) {
+    if (hasUnfinishedRide(passengerId)) {
+      throw unfinishedRideException();
     }
   }
 
-  private BigDecimal generateRandomCost() {
-    BigDecimal randomFactor = BigDecimal.valueOf(ThreadLocalRandom.current().nextDouble());
-    BigDecimal range = MAX_COST_FOR_RIDE.subtract(MIN_COST_FOR_RIDE);
-    BigDecimal scaled = randomFactor.multiply(range);
-    return scaled.add(MIN_COST_FOR_RIDE).setScale(2, RoundingMode.HALF_UP);
+  private boolean hasUnfinishedRide(Long passengerId) {
+    return rideRepository.findByPassengerIdAndFinishTimeNotNull(passengerId).size() == 1;
+  }
+
+  private UnfinishedBookingRideException unfinishedRideException() {
+    return new UnfinishedBookingRideException(
+        "You have unfinished ride. You could order new ride after finished current ride");
+  }
+
+  private long calculateFareCents(RideDto rideDto) {
+    return FareEngine.fareCents(
+        fareEngine.getTariff(rideDto.getTariff()),
+        rideDto.getDistanceMeters() == null ? 0 : rideDto.getDistanceMeters(),
+        rideDto.getDurationSeconds() == null ? 0 : rideDto.getDurationSeconds());
   }
 
   @Override
@@ -185,7 +524,14 @@ public class RideServiceImpl implements RideService {
     CarDto carDto = null;
     if (ride.getDriverId() != null) {
       try {
-        carDto = driverServiceFeignClient.getById(ride.getDriverId()).getBody().getCarDto();
+        carDto =
+            remoteCallMetrics
+                .timed(
+                    DriverServiceWebClient.CLIENT,
+                    "getById",
+                    () -> driverServiceFeignClient.getById(ride.getDriverId()))
+                .getBody()
+                .getCarDto();
       } catch (NullPointerException exception) {
         throw new DriverServiceException(
             "Driver service return null body or driver without car. May be driver or his car was deleted");
@@ -204,56 +550,69 @@ public class RideServiceImpl implements RideService {
         .orElseThrow(() -> new NoSuchElementException(NO_SUCH_RIDE_EXCEPTION_MESSAGE + id));
   }
 
+  private void checkRideExists(long id) {
+    if (!rideRepository.existsById(id)) {
+      throw new NoSuchElementException(NO_SUCH_RIDE_EXCEPTION_MESSAGE + id);
+    }
+  }
+
+  private RideStatusException rejectedTransition(long id, RideTransition rideTransition) {
+    checkRideExists(id);
+    return new RideStatusException(rideTransition.getRejectionMessage());
+  }
+
   @Override
   @Transactional
-  @CircuitBreaker(name = "CircuitBreakerRideService")
-  @Retry(name = "retryRideService")
   public void finishByDriver(Long rideId, PassengerRatingFinishDto passengerRatingFinishDto) {
     Ride ride = updateRideAfterFinish(rideId, passengerRatingFinishDto);
-    updateDriverAvailabilityAfterRide(ride);
-    updatePassengerAfterRide(ride);
+    rideLifecycleMetrics.recordFinished(ride);
+    Double averagePassengerRatingByPassengerId =
+        ratingAggregateService.addPassengerRating(
+            ride.getPassengerId(), ride.getPassengerRating());
+
+    RideFinishedDto rideFinishedDto =
+        RideFinishedDto.builder()
+            .eventId(UUID.randomUUID().toString())
+            .rideId(ride.getId())
+            .driverId(ride.getDriverId())
+            .passengerId(ride.getPassengerId())
+            .passengerBankCardId(ride.getPassengerBankCardId())
+            .rideCost(ride.getCost())
+            .passengerRating(averagePassengerRatingByPassengerId)
+            .build();
+
+    outboxService.save(
+        topicRideFinished,
+        String.valueOf(ride.getId()),
+        OutboxEventType.RIDE_FINISHED,
+        rideFinishedDto);
   }
 
   @Override
   @Transactional
   public RideDto cancelByPassenger(Long rideId) {
-    Ride ride = getRide(rideId);
-    Status rideStatus = ride.getStatus();
-    if (rideStatus == Status.PENDING || rideStatus == Status.NO_DRIVERS) {
-      ride.setStatus(Status.CANCELED);
-      ride.setFinishTime(LocalDateTime.now());
-      return rideMapper.toDto(ride);
-    } else {
-      throw new RideStatusException(
-          "You could cancel ride only if it has status 'pending' or 'no drivers'");
-    }
-  }
-
-  private void updateDriverAvailabilityAfterRide(Ride ride) {
-    driverServiceWebClient.updateDriverAvailabilityToTrueAfterRide(ride.getDriverId());
-  }
-
-  private void updatePassengerAfterRide(Ride ride) {
-    Double averagePassengerRatingByPassengerId =
-        rideRepository.findAveragePassengerRatingByPassengerId(ride.getPassengerId());
-    passengerServiceWebClient.updatePassengerAfterRide(ride, averagePassengerRatingByPassengerId);
+    Ride ride =
+        rideRepository
+            .updateStatusAndFinishTime(
+                rideId,
+                LocalDateTime.now(),
+                CANCEL_BY_PASSENGER.getFromStatusNames(),
+                CANCEL_BY_PASSENGER.getToStatusName())
+            .orElseThrow(() -> rejectedTransition(rideId, CANCEL_BY_PASSENGER));
+    rideLifecycleMetrics.recordCanceled(ride);
+    return rideMapper.toDto(ride);
   }
 
   private Ride updateRideAfterFinish(
       Long rideId, PassengerRatingFinishDto passengerRatingFinishDto) {
-    Ride ride = getRide(rideId);
-
-    if (ride.getStatus() != Status.ACTIVE) {
-      throw new RideStatusException("You could finish only active ride");
-    }
-
-    ride.setFinishTime(LocalDateTime.now());
-    ride.setStatus(Status.FINISHED);
-    ride.setPassengerRating(passengerRatingFinishDto.getPassengerRating());
-
-    rideRepository.save(ride);
-    entityManager.flush();
-    return ride;
+    return rideRepository
+        .updateStatusAndFinishWithPassengerRating(
+            rideId,
+            LocalDateTime.now(),
+            passengerRatingFinishDto.getPassengerRating(),
+            FINISH_BY_DRIVER.getFromStatusNames(),
+            FINISH_BY_DRIVER.getToStatusName())
+        .orElseThrow(() -> rejectedTransition(rideId, FINISH_BY_DRIVER));
   }
 
   @Override
@@ -261,113 +620,103 @@ public class RideServiceImpl implements RideService {
   @CircuitBreaker(name = "CircuitBreakerRideService")
   @Retry(name = "retryRideService")
   public void updateDriverRatingAfterRide(Long rideId, Integer driverRating) {
-    Ride ride = getRide(rideId);
-    if (ride.getDriverRating() != null) {
-      throw new AlreadyGetRatingException("Driver already get rating for ride with id =" + rideId);
-    }
-    Status status = ride.getStatus();
-    if (!(status == Status.FINISHED || status == Status.ACTIVE)) {
-      throw new RideStatusException("You could rate driver only if ride is active or finished");
-    }
-    ride.setDriverRating(driverRating);
-    entityManager.flush();
+    Ride ride =
+        rideRepository
+            .updateDriverRatingIfAbsent(rideId, driverRating, RATEABLE_STATUS_NAMES)
+            .orElseThrow(() -> rejectedDriverRating(rideId));
     Double averageDriverRatingByDriverId =
-        rideRepository.findAverageDriverRatingByDriverId(ride.getDriverId());
+        ratingAggregateService.addDriverRating(ride.getDriverId(), driverRating);
 
     driverServiceWebClient.updateDriverRatingAfterRide(
         ride.getDriverId(),
         DriverRatingDto.builder().rating(averageDriverRatingByDriverId).build());
   }
 
+  private RuntimeException rejectedDriverRating(long rideId) {
+    if (getRide(rideId).getDriverRating() != null) {
+      return new AlreadyGetRatingException("Driver already get rating for ride with id =" + rideId);
+    }
+    return new RideStatusException("You could rate driver only if ride is active or finished");
+  }
+
   @Override
   @Transactional(readOnly = true)
   @CircuitBreaker(name = "CircuitBreakerRideService")
   @Retry(name = "retryRideService")
   public List<RideDto> getAll(Pageable pageable) {
-    List<RideDto> rideDtoListWithDriver = getAllRidesWithDriver(pageable);
-
-    List<Long> driversIdList = getListIdsFromRidesWhereExistDriverId(rideDtoListWithDriver);
-
-    ResponseEntity<DriverPageDto> driverPageWithCars =
-        getDriversFromDriverServiceByListIds(driversIdList);
-
-    setCarDtoToRides(rideDtoListWithDriver, driverPageWithCars);
+    List<RideDto> rideDtoList =
+        rideRepository.findAllWithPromoCode(withDefaultSort(pageable)).stream()
+            .map(rideMapper::toDto)
+            .collect(Collectors.toList());
 
-    List<RideDto> rideDtoListWithoutDriver = getAllRidesWithoutDriver(pageable);
+    driverCarEnricher.setCarDtoToRides(rideDtoList);
 
-    rideDtoListWithDriver.addAll(rideDtoListWithoutDriver);
-
-    return rideDtoListWithDriver;
-  }
-
-  private List<RideDto> getAllRidesWithoutDriver(Pageable pageable) {
-    return rideRepository.findAll(pageable).getContent().stream()
-        .filter(ride -> ride.getDriverId() == null)
-        .map(rideMapper::toDto)
-        .collect(Collectors.toList());
-  }
-
-  private List<RideDto> getAllRidesWithDriver(Pageable pageable) {
-    return rideRepository.findAll(pageable).getContent().stream()
-        .filter(ride -> ride.getDriverId() != null)
-        .map(rideMapper::toDto)
-        .collect(Collectors.toList());
+    return rideDtoList;
   }
 
-  private void setCarDtoToRides(
-      List<RideDto> rideDtoListWithoutCars, ResponseEntity<DriverPageDto> driverPageWithCars) {
-
-    List<DriverRideDto> driverRideDtoListWithCars;
-    try {
-      driverRideDtoListWithCars = driverPageWithCars.getBody().getDriverDtoList();
-    } catch (NullPointerException exception) {
-      throw new DriverServiceException("Exception while get drivers with cars from driver service");
+  @Override
+  @Transactional(readOnly = true)
+  @CircuitBreaker(name = "CircuitBreakerRideService")
+  @Retry(name = "retryRideService")
+  public RidePageDto getAllAfter(long afterId, int limit) {
+    List<Ride> rides =
+        rideRepository.findAllWithPromoCodeAfter(afterId, PageRequest.of(0, limit + 1));
+    String nextCursor = null;
+    if (rides.size() > limit) {
+      rides = rides.subList(0, limit);
+      nextCursor = KeysetCursor.encode(rides.get(limit - 1).getId());
     }
-    rideDtoListWithoutCars.forEach(
-        rideWithoutCar -> {
-          for (DriverRideDto driverWithCar : driverRideDtoListWithCars) {
-            if (driverWithCar.getId() == rideWithoutCar.getDriverId()) {
-              rideWithoutCar.setCarDto(driverWithCar.getCarDto());
-            }
-          }
-        });
-  }
+    List<RideDto> rideDtoList = rides.stream().map(rideMapper::toDto).collect(Collectors.toList());
 
-  private ResponseEntity<DriverPageDto> getDriversFromDriverServiceByListIds(
-      List<Long> driversIdList) {
-    return driverServiceWebClient.getDriverPageDtoByListIdsDriver(driversIdList);
+    driverCarEnricher.setCarDtoToRides(rideDtoList);
+
+    return RidePageDto.builder().rideDtoList(rideDtoList).nextCursor(nextCursor).build();
   }
 
-  private List<Long> getListIdsFromRidesWhereExistDriverId(List<RideDto> rideDtoList) {
-    return rideDtoList.stream()
-        .map(RideDto::getDriverId)
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
+  private Pageable withDefaultSort(Pageable pageable) {
+    if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+      return pageable;
+    }
+    return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"));
   }
 
   @Override
   @Transactional
   public void deleteById(long id) {
-    getRide(id);
+    Ride ride = getRide(id);
+    ratingAggregateService.replaceDriverRating(
+        ride.getDriverId(), ride.getDriverRating(), null, null);
+    ratingAggregateService.replacePassengerRating(
+        ride.getPassengerId(), ride.getPassengerRating(), null, null);
     rideRepository.deleteById(id);
   }
 
   @Override
   @Transactional
   public void update(long id, RideDto rideDto) {
-    getRide(id);
+    Ride existingRide = getRide(id);
     PromoCode promoCode = null;
     if (rideDto.getPromoCodeName() != null) {
       promoCode = promoCodeService.getByName(rideDto.getPromoCodeName());
     }
     checkDateOrder(rideDto);
+    ratingAggregateService.replaceDriverRating(
+        existingRide.getDriverId(),
+        existingRide.getDriverRating(),
+        rideDto.getDriverId(),
+        rideDto.getDriverRating());
+    ratingAggregateService.replacePassengerRating(
+        existingRide.getPassengerId(),
+        existingRide.getPassengerRating(),
+        rideDto.getPassengerId(),
+        rideDto.getPassengerRating());
     rideDto.setId(id);
     Ride ride = rideMapper.toEntity(rideDto);
     ride.setPromoCode(promoCode);
     rideRepository.save(ride);
   }
 
-  private void checkDateOrder(RideDto rideDto) {
+  public static void checkDateOrder(RideDto rideDto) {
     List<LocalDateTime> localDateTimeList = new ArrayList<>();
     if (rideDto.getBookingTime() != null) {
       localDateTimeList.add(rideDto.getBookingTime());
@@ -0,0 +1,3 @@
+ALTER TABLE rides
+    ADD COLUMN start_latitude  DOUBLE PRECISION,
+    ADD COLUMN start_longitude DOUBLE PRECISION;
\ No newline at end of file
@@ -0,0 +1,3 @@
+ALTER TABLE rides
+    DROP COLUMN start_latitude,
+    DROP COLUMN start_longitude;
\ No newline at end of file
@@ -0,0 +1,9 @@
+CREATE TABLE outbox_events
+(
+    id           BIGSERIAL PRIMARY KEY,
+    topic        VARCHAR(255) NOT NULL,
+    message_key  VARCHAR(255),
+    payload_type VARCHAR(64)  NOT NULL,
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMP    NOT NULL DEFAULT now()
+);
\ No newline at end of file
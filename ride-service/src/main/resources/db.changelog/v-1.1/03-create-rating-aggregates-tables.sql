@@ -0,0 +1,27 @@
+CREATE TABLE driver_rating_aggregates
+(
+    driver_id    BIGINT PRIMARY KEY,
+    rating_sum   BIGINT NOT NULL,
+    rating_count BIGINT NOT NULL
+);
+
+CREATE TABLE passenger_rating_aggregates
+(
+    passenger_id BIGINT PRIMARY KEY,
+    rating_sum   BIGINT NOT NULL,
+    rating_count BIGINT NOT NULL
+);
+
+INSERT INTO driver_rating_aggregates (driver_id, rating_sum, rating_count)
+SELECT driver_id, SUM(driver_rating), COUNT(driver_rating)
+FROM rides
+WHERE driver_id IS NOT NULL
+  AND driver_rating IS NOT NULL
+GROUP BY driver_id;
+
+INSERT INTO passenger_rating_aggregates (passenger_id, rating_sum, rating_count)
+SELECT passenger_id, SUM(passenger_rating), COUNT(passenger_rating)
+FROM rides
+WHERE passenger_id IS NOT NULL
+  AND passenger_rating IS NOT NULL
+GROUP BY passenger_id;
\ No newline at end of file
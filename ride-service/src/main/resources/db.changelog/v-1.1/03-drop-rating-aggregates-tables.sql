@@ -0,0 +1,2 @@
+DROP TABLE passenger_rating_aggregates;
+DROP TABLE driver_rating_aggregates;
\ No newline at end of file
@@ -0,0 +1 @@
+CREATE INDEX idx_rides_booking_time ON rides (booking_time);
\ No newline at end of file
@@ -0,0 +1 @@
+DROP INDEX idx_rides_booking_time;
\ No newline at end of file
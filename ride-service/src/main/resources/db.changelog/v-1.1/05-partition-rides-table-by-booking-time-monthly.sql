@@ -0,0 +1,103 @@
+CREATE SCHEMA IF NOT EXISTS rides_archive;
+
+ALTER TABLE rides RENAME TO rides_unpartitioned;
+ALTER TABLE rides_unpartitioned RENAME CONSTRAINT rides_pkey TO rides_unpartitioned_pkey;
+ALTER SEQUENCE rides_id_seq OWNED BY NONE;
+
+CREATE TABLE rides
+(
+    id                     BIGINT         NOT NULL DEFAULT nextval('rides_id_seq'),
+    start_location         VARCHAR(255)   NOT NULL,
+    end_location           VARCHAR(255)   NOT NULL,
+    passenger_id           BIGINT         NOT NULL,
+    driver_id              BIGINT,
+    driver_rating          INTEGER,
+    passenger_rating       INTEGER,
+    booking_time           TIMESTAMP      NOT NULL,
+    approved_time          TIMESTAMP,
+    start_time             TIMESTAMP,
+    finish_time            TIMESTAMP,
+    passenger_bank_card_id VARCHAR(255),
+    promo_code_id          BIGINT,
+    cost                   NUMERIC(10, 2) NOT NULL,
+    status                 ride_status,
+    start_latitude         DOUBLE PRECISION,
+    start_longitude        DOUBLE PRECISION,
+    CONSTRAINT rides_pkey PRIMARY KEY (id, booking_time),
+    CONSTRAINT fk_promo_code_ride FOREIGN KEY (promo_code_id) REFERENCES promo_codes (id)
+) PARTITION BY RANGE (booking_time);
+
+ALTER SEQUENCE rides_id_seq OWNED BY rides.id;
+
+CREATE TABLE rides_default PARTITION OF rides DEFAULT;
+
+CREATE OR REPLACE FUNCTION create_rides_partition(partition_month DATE) RETURNS TEXT AS
+$$
+DECLARE
+    partition_start DATE := date_trunc('month', partition_month)::DATE;
+    partition_name  TEXT := 'rides_' || to_char(partition_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF rides FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, (partition_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION create_rides_partitions_ahead(months_ahead INTEGER) RETURNS VOID AS
+$$
+BEGIN
+    FOR month_offset IN 0..months_ahead
+        LOOP
+            PERFORM create_rides_partition(
+                    (date_trunc('month', now()) + make_interval(months => month_offset))::DATE);
+        END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION archive_rides_partitions(archive_before DATE) RETURNS SETOF TEXT AS
+$$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'rides'::REGCLASS
+          AND c.relname ~ '^rides_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= archive_before
+        ORDER BY c.relname
+        LOOP
+            EXECUTE format('ALTER TABLE rides DETACH PARTITION %I', partition_name);
+            EXECUTE format('ALTER TABLE %I SET SCHEMA rides_archive', partition_name);
+            RETURN NEXT partition_name;
+        END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+DO
+$$
+DECLARE
+    partition_month DATE;
+BEGIN
+    FOR partition_month IN
+        SELECT DISTINCT date_trunc('month', booking_time)::DATE FROM rides_unpartitioned
+        LOOP
+            PERFORM create_rides_partition(partition_month);
+        END LOOP;
+    PERFORM create_rides_partitions_ahead(3);
+END;
+$$;
+
+INSERT INTO rides (id, start_location, end_location, passenger_id, driver_id, driver_rating,
+                   passenger_rating, booking_time, approved_time, start_time, finish_time,
+                   passenger_bank_card_id, promo_code_id, cost, status, start_latitude,
+                   start_longitude)
+SELECT id, start_location, end_location, passenger_id, driver_id, driver_rating,
+       passenger_rating, booking_time, approved_time, start_time, finish_time,
+       passenger_bank_card_id, promo_code_id, cost, status, start_latitude, start_longitude
+FROM rides_unpartitioned;
+
+DROP TABLE rides_unpartitioned;
+
+CREATE INDEX idx_rides_booking_time ON rides (booking_time);
\ No newline at end of file
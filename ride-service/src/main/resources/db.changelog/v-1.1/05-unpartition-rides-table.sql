@@ -0,0 +1,42 @@
+ALTER TABLE rides RENAME TO rides_partitioned;
+ALTER TABLE rides_partitioned RENAME CONSTRAINT rides_pkey TO rides_partitioned_pkey;
+ALTER SEQUENCE rides_id_seq OWNED BY NONE;
+
+CREATE TABLE rides
+(
+    id                     BIGINT         NOT NULL DEFAULT nextval('rides_id_seq') PRIMARY KEY,
+    start_location         VARCHAR(255)   NOT NULL,
+    end_location           VARCHAR(255)   NOT NULL,
+    passenger_id           BIGINT         NOT NULL,
+    driver_id              BIGINT,
+    driver_rating          INTEGER,
+    passenger_rating       INTEGER,
+    booking_time           TIMESTAMP      NOT NULL,
+    approved_time          TIMESTAMP,
+    start_time             TIMESTAMP,
+    finish_time            TIMESTAMP,
+    passenger_bank_card_id VARCHAR(255),
+    promo_code_id          BIGINT,
+    cost                   NUMERIC(10, 2) NOT NULL,
+    status                 ride_status,
+    start_latitude         DOUBLE PRECISION,
+    start_longitude        DOUBLE PRECISION,
+    CONSTRAINT fk_promo_code_ride FOREIGN KEY (promo_code_id) REFERENCES promo_codes (id)
+);
+
+ALTER SEQUENCE rides_id_seq OWNED BY rides.id;
+
+INSERT INTO rides
+SELECT id, start_location, end_location, passenger_id, driver_id, driver_rating,
+       passenger_rating, booking_time, approved_time, start_time, finish_time,
+       passenger_bank_card_id, promo_code_id, cost, status, start_latitude, start_longitude
+FROM rides_partitioned;
+
+DROP TABLE rides_partitioned;
+
+DROP FUNCTION archive_rides_partitions(DATE);
+DROP FUNCTION create_rides_partitions_ahead(INTEGER);
+DROP FUNCTION create_rides_partition(DATE);
+DROP SCHEMA rides_archive;
+
+CREATE INDEX idx_rides_booking_time ON rides (booking_time);
\ No newline at end of file
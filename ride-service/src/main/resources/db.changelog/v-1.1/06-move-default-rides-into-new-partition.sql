@@ -0,0 +1,30 @@
+CREATE OR REPLACE FUNCTION create_rides_partition(partition_month DATE) RETURNS TEXT AS
+$$
+DECLARE
+    partition_start DATE := date_trunc('month', partition_month)::DATE;
+    partition_end   DATE := (partition_start + INTERVAL '1 month')::DATE;
+    partition_name  TEXT := 'rides_' || to_char(partition_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+    LOCK TABLE rides IN ACCESS EXCLUSIVE MODE;
+    IF NOT EXISTS(SELECT 1
+                  FROM rides_default
+                  WHERE booking_time >= partition_start
+                    AND booking_time < partition_end) THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF rides FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, partition_start, partition_end);
+        RETURN partition_name;
+    END IF;
+    ALTER TABLE rides DETACH PARTITION rides_default;
+    EXECUTE format('CREATE TABLE %I PARTITION OF rides FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, partition_end);
+    EXECUTE format('WITH moved AS (DELETE FROM rides_default '
+                       || 'WHERE booking_time >= %L AND booking_time < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved',
+                   partition_start, partition_end, partition_name);
+    ALTER TABLE rides ATTACH PARTITION rides_default DEFAULT;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
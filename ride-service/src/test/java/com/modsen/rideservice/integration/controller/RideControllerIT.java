@@ -9,12 +9,17 @@ import com.modsen.rideservice.dto.DriverRideDto;
 import com.modsen.rideservice.dto.DriverWithCarDto;
 import com.modsen.rideservice.dto.PassengerDto;
 import com.modsen.rideservice.dto.PassengerRatingFinishDto;
+import com.modsen.rideservice.dto.RideBatchDto;
+import com.modsen.rideservice.dto.RideBatchItemDto;
+import com.modsen.rideservice.dto.RideBatchResultDto;
 import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.dto.RideFinishedDto;
 import com.modsen.rideservice.dto.RidePageDto;
 import com.modsen.rideservice.dto.RideSearchDto;
 import com.modsen.rideservice.integration.controller.restassured.RestAssuredRideController;
 import com.modsen.rideservice.integration.helper.AccessTokenExtractor;
 import com.modsen.rideservice.integration.testenvironment.IntegrationTestEnvironment;
+import com.modsen.rideservice.model.RideBatchItemStatus;
 import com.modsen.rideservice.model.Status;
 import com.modsen.rideservice.repository.RideRepository;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
@@ -29,13 +34,17 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.mockwebserver.MockResponse;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlMergeMode;
 import org.testcontainers.shaded.org.awaitility.Awaitility;
@@ -44,8 +53,11 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -62,6 +74,9 @@ class RideControllerIT extends IntegrationTestEnvironment {
   public static final Long EXIST_SECOND_RIDE_ID = 2L;
   public static final Long EXIST_DRIVER_ID = 1L;
   public static final int COUNT_EXISTED_ENTITY = 4;
+  public static final int COUNT_FINISHED_RIDES = 2;
+  public static final String EXPORT_FROM = "2023-01-01T00:00:00";
+  public static final String EXPORT_TO = "2023-01-02T00:00:00";
   public static final Integer RATING_AFTER_RIDE = 3;
   public static final Long PASSENGER_ID_WITH_NO_ACTIVE_RIDE = 5L;
   public static final Long BANK_CARD_ID_WITH_ENOUGH_MONEY = 3L;
@@ -78,6 +93,7 @@ class RideControllerIT extends IntegrationTestEnvironment {
   public static final String PASSENGER_HAVE_UNFINISHED_RIDE_EXCEPTION_MESSAGE =
       "You have unfinished ride. You could order new ride after finished current ride";
   public static final String KAFKA_ORDER_RIDE_TOPIC = "order-new-ride";
+  public static final String KAFKA_RIDE_FINISHED_TOPIC = "ride-finished";
 
   private final RideRepository rideRepository;
   private final Jackson2ObjectMapperBuilder builder;
@@ -208,6 +224,35 @@ class RideControllerIT extends IntegrationTestEnvironment {
     assertEquals(COUNT_EXISTED_ENTITY, actual.getRideDtoList().size());
   }
 
+  @Test
+  void exportRidesStreamsOneJsonObjectPerLineFilteredByStatus() throws JsonProcessingException {
+    Response response =
+        restAssured.exportRides(
+            adminAccessToken, EXPORT_FROM, EXPORT_TO, Status.FINISHED.name());
+
+    String[] actualLines =
+        response
+            .then()
+            .statusCode(HttpStatus.OK.value())
+            .contentType(MediaType.APPLICATION_NDJSON_VALUE)
+            .extract()
+            .asString()
+            .split("\n");
+    assertEquals(COUNT_FINISHED_RIDES, actualLines.length);
+    for (String line : actualLines) {
+      RideDto actualRide = objectMapper.readValue(line, RideDto.class);
+      assertEquals(Status.FINISHED, actualRide.getStatus());
+    }
+  }
+
+  @Test
+  void exportRidesIfFromIsAfterToThenReturnStatusBadRequest() {
+    restAssured
+        .exportRides(adminAccessToken, EXPORT_TO, EXPORT_FROM, null)
+        .then()
+        .statusCode(HttpStatus.BAD_REQUEST.value());
+  }
+
   @Test
   void deleteRideByIdIfExist() {
     Response response = restAssured.deleteRideByIdIfExist(adminAccessToken);
@@ -311,18 +356,36 @@ class RideControllerIT extends IntegrationTestEnvironment {
     PassengerRatingFinishDto passengerRatingFinishDto = new PassengerRatingFinishDto();
     passengerRatingFinishDto.setPassengerRating(RATING_AFTER_RIDE);
 
-    MockResponse responseUpdatePassengerAfterRide = new MockResponse().setResponseCode(204);
-    mockWebServer.enqueue(responseUpdatePassengerAfterRide);
-
-    MockResponse responseUpdateDriverAvailabilityToTrueAfterRide =
-        new MockResponse().setResponseCode(HttpStatus.NO_CONTENT.value());
-    mockWebServer.enqueue(responseUpdateDriverAvailabilityToTrueAfterRide);
-
     Response response =
         restAssured.finishByDriverIfRideExist(
             adminAccessToken, objectMapper, passengerRatingFinishDto);
 
     response.then().statusCode(HttpStatus.NO_CONTENT.value());
+
+    ConsumerRecords<String, Object> records;
+    try (Consumer<String, Object> rideFinishedConsumer =
+        new KafkaConsumer<>(rideFinishedConsumerConfig())) {
+      rideFinishedConsumer.subscribe(List.of(KAFKA_RIDE_FINISHED_TOPIC));
+      records = rideFinishedConsumer.poll(Duration.ofMillis(10000));
+    }
+    RideFinishedDto actualRideFinishedDto = (RideFinishedDto) records.iterator().next().value();
+
+    assertEquals(1, records.count());
+    assertEquals(EXIST_RIDE_ID, actualRideFinishedDto.getRideId());
+    assertEquals(EXIST_DRIVER_ID, actualRideFinishedDto.getDriverId());
+    assertEquals(EXIST_PASSENGER_ID, actualRideFinishedDto.getPassengerId());
+    assertEquals(RATING_AFTER_RIDE.doubleValue(), actualRideFinishedDto.getPassengerRating());
+  }
+
+  private Map<String, Object> rideFinishedConsumerConfig() {
+    Map<String, Object> props = new HashMap<>();
+    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+    props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    props.put(ConsumerConfig.GROUP_ID_CONFIG, "test-ride-finished-group-id");
+    props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+    props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+    return props;
   }
 
   @Test
@@ -380,6 +443,69 @@ class RideControllerIT extends IntegrationTestEnvironment {
     assertSame(Status.PENDING, actual);
   }
 
+  @Test
+  void orderRideBatchLooksUpPassengerOnceAndCreatesOneRidePerPassenger()
+      throws JsonProcessingException {
+    BankCardDto bankCardDtoWithEnoughMoney =
+        BankCardDto.builder()
+            .id(BANK_CARD_ID_WITH_ENOUGH_MONEY)
+            .balance(ENOUGH_MONEY_BALANCE_ON_BANK_CARD)
+            .build();
+    PassengerDto passengerDto =
+        PassengerDto.builder().bankCards(List.of(bankCardDtoWithEnoughMoney)).build();
+    mockWebServer.enqueue(
+        new MockResponse()
+            .setResponseCode(HttpStatus.OK.value())
+            .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .setBody(objectMapper.writeValueAsString(passengerDto)));
+    int requestCountBeforeBatch = mockWebServer.getRequestCount();
+
+    rideDtoCorrect.setPassengerId(PASSENGER_ID_WITH_NO_ACTIVE_RIDE);
+    RideDto secondRideDto =
+        RideDto.builder()
+            .startLocation("Minsk")
+            .endLocation("Paris")
+            .passengerId(PASSENGER_ID_WITH_NO_ACTIVE_RIDE)
+            .passengerBankCardId("3")
+            .build();
+    RideDto rideDtoWithoutStartLocation =
+        RideDto.builder()
+            .endLocation("Berlin")
+            .passengerId(PASSENGER_ID_WITH_NO_ACTIVE_RIDE)
+            .passengerBankCardId("3")
+            .build();
+    RideBatchDto rideBatchDto =
+        RideBatchDto.builder()
+            .rideDtoList(List.of(rideDtoCorrect, rideDtoWithoutStartLocation, secondRideDto))
+            .build();
+
+    Response response = restAssured.orderRideBatch(adminAccessToken, objectMapper, rideBatchDto);
+
+    RideBatchResultDto actual =
+        response
+            .then()
+            .statusCode(HttpStatus.MULTI_STATUS.value())
+            .extract()
+            .as(RideBatchResultDto.class);
+    testConsumer.subscribe(List.of(KAFKA_ORDER_RIDE_TOPIC));
+    ConsumerRecords<String, Object> records = testConsumer.poll(Duration.ofMillis(10000));
+    testConsumer.close();
+
+    assertEquals(1, actual.getCreated());
+    assertEquals(2, actual.getRejected());
+    assertEquals(
+        List.of(
+            RideBatchItemStatus.CREATED,
+            RideBatchItemStatus.REJECTED,
+            RideBatchItemStatus.REJECTED),
+        actual.getItems().stream().map(RideBatchItemDto::getStatus).collect(Collectors.toList()));
+    assertSame(Status.PENDING, actual.getItems().get(0).getRideDto().getStatus());
+    assertNotNull(actual.getItems().get(1).getError());
+    assertNotNull(actual.getItems().get(2).getError());
+    assertEquals(1, mockWebServer.getRequestCount() - requestCountBeforeBatch);
+    assertEquals(1, records.count());
+  }
+
   @Test
   void orderRideWhenPassengerNotExist() throws JsonProcessingException {
     rideDtoCorrect.setPassengerId(PASSENGER_ID_WITH_NO_ACTIVE_RIDE);
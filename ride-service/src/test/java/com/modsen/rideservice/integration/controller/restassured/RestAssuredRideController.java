@@ -3,6 +3,7 @@ package com.modsen.rideservice.integration.controller.restassured;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.modsen.rideservice.dto.PassengerRatingFinishDto;
+import com.modsen.rideservice.dto.RideBatchDto;
 import com.modsen.rideservice.dto.RideDto;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
@@ -18,6 +19,7 @@ public class RestAssuredRideController {
   public static final String DRIVER_RATING_URL = "/{driverRating}";
   public static final String CANCEL_RIDE_BY_PASSENGER_URL = "/cancel";
   public static final String FINISH_RIDE_BY_DRIVER_URL = "/finish";
+  public static final String EXPORT_URL = "/export";
   public static final Long EXIST_RIDE_ID = 1L;
   public static final Long EXIST_SECOND_RIDE_ID = 2L;
   public static final Long NOT_EXIST_ID = 30L;
@@ -45,6 +47,17 @@ public class RestAssuredRideController {
     return given().auth().oauth2(adminAccessToken).when().get(RIDE_URL);
   }
 
+  public Response exportRides(String adminAccessToken, String from, String to, String status) {
+    return given()
+        .auth()
+        .oauth2(adminAccessToken)
+        .queryParam("from", from)
+        .queryParam("to", to)
+        .queryParam("status", status)
+        .when()
+        .get(RIDE_URL + EXPORT_URL);
+  }
+
   public Response deleteRideByIdIfExist(String adminAccessToken) {
     return given()
         .auth()
@@ -179,6 +192,18 @@ public class RestAssuredRideController {
         .post(RIDE_URL);
   }
 
+  public Response orderRideBatch(
+      String adminAccessToken, ObjectMapper objectMapper, RideBatchDto rideBatchDto)
+      throws JsonProcessingException {
+    return given()
+        .auth()
+        .oauth2(adminAccessToken)
+        .contentType(ContentType.JSON)
+        .body(objectMapper.writeValueAsString(rideBatchDto))
+        .when()
+        .post(RIDE_URL + "/batch");
+  }
+
   public Response orderRideWithoutAccessToken(ObjectMapper objectMapper, RideDto rideDtoCorrect)
       throws JsonProcessingException {
     return given()
@@ -0,0 +1,112 @@
+package com.modsen.rideservice.integration.job;
+
+import com.modsen.rideservice.integration.testenvironment.IntegrationTestEnvironment;
+import com.modsen.rideservice.job.RidePartitionMaintenanceJob;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@RequiredArgsConstructor
+class RidePartitionMaintenanceJobIT extends IntegrationTestEnvironment {
+
+  public static final LocalDate ARCHIVED_MONTH = LocalDate.of(2020, 1, 1);
+  public static final String ARCHIVED_PARTITION_NAME = "rides_2020_01";
+  public static final LocalDate UNPARTITIONED_MONTH = LocalDate.of(2019, 6, 1);
+  public static final String UNPARTITIONED_MONTH_PARTITION_NAME = "rides_2019_06";
+  public static final String INSERT_RIDE_QUERY =
+      "INSERT INTO rides (start_location, end_location, passenger_id, booking_time, cost, status) "
+          + "VALUES ('Minsk', 'London', 1, ?, 10.00, 'FINISHED') RETURNING id";
+  public static final String RIDE_PARTITION_QUERY =
+      "SELECT tableoid::regclass::text FROM rides WHERE id = ?";
+
+  private final RidePartitionMaintenanceJob ridePartitionMaintenanceJob;
+  private final JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void dropCreatedPartitions() {
+    jdbcTemplate.execute("DROP TABLE IF EXISTS rides_archive." + ARCHIVED_PARTITION_NAME);
+    jdbcTemplate.execute("DROP TABLE IF EXISTS " + ARCHIVED_PARTITION_NAME);
+    jdbcTemplate.execute("DROP TABLE IF EXISTS " + UNPARTITIONED_MONTH_PARTITION_NAME);
+  }
+
+  @Test
+  void rideBookedNowIsStoredInCurrentMonthPartition() {
+    ridePartitionMaintenanceJob.createPartitionsAhead();
+    LocalDateTime now = LocalDateTime.now();
+
+    Long rideId = jdbcTemplate.queryForObject(INSERT_RIDE_QUERY, Long.class, now);
+
+    assertEquals(
+        "rides_" + now.format(DateTimeFormatter.ofPattern("yyyy_MM")),
+        jdbcTemplate.queryForObject(RIDE_PARTITION_QUERY, String.class, rideId));
+  }
+
+  @Test
+  void createPartitionMovesRidesOfItsMonthOutOfDefaultPartition() {
+    Long rideId =
+        jdbcTemplate.queryForObject(
+            INSERT_RIDE_QUERY, Long.class, UNPARTITIONED_MONTH.atStartOfDay().plusDays(14));
+    Long nextMonthRideId =
+        jdbcTemplate.queryForObject(
+            INSERT_RIDE_QUERY, Long.class, UNPARTITIONED_MONTH.plusMonths(1).atStartOfDay());
+
+    assertEquals(
+        "rides_default", jdbcTemplate.queryForObject(RIDE_PARTITION_QUERY, String.class, rideId));
+
+    assertEquals(
+        UNPARTITIONED_MONTH_PARTITION_NAME,
+        jdbcTemplate.queryForObject(
+            "SELECT create_rides_partition(?)",
+            String.class,
+            Date.valueOf(UNPARTITIONED_MONTH)));
+    assertEquals(
+        UNPARTITIONED_MONTH_PARTITION_NAME,
+        jdbcTemplate.queryForObject(RIDE_PARTITION_QUERY, String.class, rideId));
+    assertEquals(
+        "rides_default",
+        jdbcTemplate.queryForObject(RIDE_PARTITION_QUERY, String.class, nextMonthRideId));
+    assertEquals(
+        "rides_default",
+        jdbcTemplate.queryForObject(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'rides'::regclass AND pg_get_expr(c.relpartbound, c.oid) "
+                + "= 'DEFAULT'",
+            String.class));
+  }
+
+  @Test
+  void archivePartitionsBeforeMovesOldPartitionToArchiveSchema() {
+    jdbcTemplate.queryForObject(
+        "SELECT create_rides_partition(?)", Object.class, Date.valueOf(ARCHIVED_MONTH));
+    Long rideId =
+        jdbcTemplate.queryForObject(
+            INSERT_RIDE_QUERY, Long.class, ARCHIVED_MONTH.atStartOfDay().plusDays(14));
+
+    List<String> archivedPartitions =
+        ridePartitionMaintenanceJob.archivePartitionsBefore(ARCHIVED_MONTH.plusMonths(1));
+
+    assertEquals(List.of(ARCHIVED_PARTITION_NAME), archivedPartitions);
+    assertEquals(
+        0,
+        jdbcTemplate
+            .queryForObject("SELECT count(*) FROM rides WHERE id = ?", Long.class, rideId)
+            .longValue());
+    assertEquals(
+        1,
+        jdbcTemplate
+            .queryForObject(
+                "SELECT count(*) FROM rides_archive." + ARCHIVED_PARTITION_NAME + " WHERE id = ?",
+                Long.class,
+                rideId)
+            .longValue());
+  }
+}
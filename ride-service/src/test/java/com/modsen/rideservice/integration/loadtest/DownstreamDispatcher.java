@@ -0,0 +1,102 @@
+package com.modsen.rideservice.integration.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.rideservice.dto.BankCardDto;
+import com.modsen.rideservice.dto.CarDto;
+import com.modsen.rideservice.dto.DriverPageDto;
+import com.modsen.rideservice.dto.DriverRideDto;
+import com.modsen.rideservice.dto.IdPageDto;
+import com.modsen.rideservice.dto.PassengerDto;
+import lombok.RequiredArgsConstructor;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+class DownstreamDispatcher extends Dispatcher {
+
+  public static final long PASSENGER_BANK_CARD_ID = 1L;
+  public static final BigDecimal PASSENGER_BANK_CARD_BALANCE = BigDecimal.valueOf(1_000_000);
+  public static final String LIST_ID_PATH = "/list-id";
+
+  private final ObjectMapper objectMapper;
+  private final Duration latency;
+
+  @Override
+  public MockResponse dispatch(RecordedRequest request) {
+    try {
+      if ("GET".equals(request.getMethod())) {
+        return jsonResponse(passenger(Long.valueOf(request.getPath().substring(1))));
+      }
+      if ("POST".equals(request.getMethod()) && LIST_ID_PATH.equals(request.getPath())) {
+        IdPageDto idPageDto =
+            objectMapper.readValue(request.getBody().readUtf8(), IdPageDto.class);
+        return jsonResponse(driverPage(idPageDto.getListId()));
+      }
+      if ("PUT".equals(request.getMethod())) {
+        return delayed(new MockResponse().setResponseCode(HttpStatus.OK.value()));
+      }
+      return new MockResponse().setResponseCode(HttpStatus.NOT_FOUND.value());
+    } catch (JsonProcessingException | NumberFormatException exception) {
+      return new MockResponse()
+          .setResponseCode(HttpStatus.BAD_REQUEST.value())
+          .setBody(exception.getMessage());
+    }
+  }
+
+  private PassengerDto passenger(Long passengerId) {
+    return PassengerDto.builder()
+        .id(passengerId)
+        .bankCards(
+            List.of(
+                BankCardDto.builder()
+                    .id(PASSENGER_BANK_CARD_ID)
+                    .balance(PASSENGER_BANK_CARD_BALANCE)
+                    .build()))
+        .build();
+  }
+
+  private DriverPageDto driverPage(List<Long> driverIds) {
+    DriverPageDto driverPageDto = new DriverPageDto();
+    driverPageDto.setDriverDtoList(
+        driverIds.stream()
+            .map(
+                driverId ->
+                    DriverRideDto.builder()
+                        .id(driverId)
+                        .firstName("Driver")
+                        .lastName("Number" + driverId)
+                        .carDto(
+                            CarDto.builder()
+                                .driverId(driverId)
+                                .colour("green")
+                                .model("Lada vesta")
+                                .number(driverId + "-AC7")
+                                .build())
+                        .build())
+            .collect(Collectors.toList()));
+    return driverPageDto;
+  }
+
+  private MockResponse jsonResponse(Object body) throws JsonProcessingException {
+    return delayed(
+        new MockResponse()
+            .setResponseCode(HttpStatus.OK.value())
+            .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .setBody(objectMapper.writeValueAsString(body)));
+  }
+
+  private MockResponse delayed(MockResponse mockResponse) {
+    return mockResponse.setHeadersDelay(latency.toMillis(), TimeUnit.MILLISECONDS);
+  }
+}
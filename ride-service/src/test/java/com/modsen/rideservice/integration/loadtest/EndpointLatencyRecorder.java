@@ -0,0 +1,63 @@
+package com.modsen.rideservice.integration.loadtest;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+class EndpointLatencyRecorder {
+
+  private final LongArrayList latencyNanos = new LongArrayList();
+  private long errors;
+
+  synchronized void record(long latencyNanos, boolean success) {
+    this.latencyNanos.add(latencyNanos);
+    if (!success) {
+      errors++;
+    }
+  }
+
+  synchronized EndpointReport report(long elapsedNanos) {
+    long[] sortedLatencyNanos = latencyNanos.toLongArray();
+    Arrays.sort(sortedLatencyNanos);
+    int requests = sortedLatencyNanos.length;
+    return EndpointReport.builder()
+        .requests(requests)
+        .errors(errors)
+        .errorRate(requests == 0 ? 0 : (double) errors / requests)
+        .throughputPerSecond(requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos)
+        .p50Millis(toMillis(percentile(sortedLatencyNanos, 50)))
+        .p99Millis(toMillis(percentile(sortedLatencyNanos, 99)))
+        .p999Millis(toMillis(percentile(sortedLatencyNanos, 99.9)))
+        .maxMillis(toMillis(requests == 0 ? 0 : sortedLatencyNanos[requests - 1]))
+        .build();
+  }
+
+  private static long percentile(long[] sortedValues, double percentile) {
+    if (sortedValues.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile / 100 * sortedValues.length) - 1;
+    return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  @Getter
+  @Builder
+  static class EndpointReport {
+
+    private final int requests;
+    private final long errors;
+    private final double errorRate;
+    private final double throughputPerSecond;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+    private final double maxMillis;
+  }
+}
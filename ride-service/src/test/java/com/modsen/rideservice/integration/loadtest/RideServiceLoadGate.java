@@ -0,0 +1,304 @@
+package com.modsen.rideservice.integration.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.rideservice.dto.PassengerRatingFinishDto;
+import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.integration.helper.AccessTokenExtractor;
+import com.modsen.rideservice.integration.loadtest.EndpointLatencyRecorder.EndpointReport;
+import com.modsen.rideservice.integration.testenvironment.IntegrationTestEnvironment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@RequiredArgsConstructor
+class RideServiceLoadGate extends IntegrationTestEnvironment {
+
+  public static final String RIDES_PATH = "/api/v1/rides";
+  public static final long FIRST_LOAD_PASSENGER_ID = 1_000_000L;
+  public static final long SEEDED_PASSENGER_ID_OFFSET = 2_000_000L;
+  public static final int SEEDED_DRIVERS_COUNT = 1_000;
+  public static final int LIST_PAGE_LIMIT = 20;
+  public static final int PASSENGER_RATING = 5;
+  public static final int DRIVER_RATING = 4;
+  public static final double SEEDED_RIDES_MARGIN = 1.2;
+  public static final Duration ACCESS_TOKEN_REFRESH_INTERVAL = Duration.ofMinutes(4);
+  public static final Duration COMPLETION_TIMEOUT = Duration.ofMinutes(2);
+  public static final String SEED_ACTIVE_RIDES_QUERY =
+      "INSERT INTO rides (id, start_location, end_location, passenger_id, driver_id, "
+          + "booking_time, approved_time, start_time, passenger_bank_card_id, cost, status) "
+          + "SELECT nextval('rides_id_seq'), 'Minsk', 'London', ? + g, g % ? + 1, "
+          + "now(), now(), now(), '1', 18.79, 'ACTIVE' FROM generate_series(1, ?) g "
+          + "RETURNING id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Jackson2ObjectMapperBuilder builder;
+  private final AccessTokenExtractor accessTokenExtractor;
+
+  @LocalServerPort private int port;
+
+  @Value("${loadtest.rps:100}")
+  private int rps;
+
+  @Value("${loadtest.duration:60s}")
+  private Duration duration;
+
+  @Value("${loadtest.downstream-latency:20ms}")
+  private Duration downstreamLatency;
+
+  @Value("${loadtest.client-threads:64}")
+  private int clientThreads;
+
+  @Value("${loadtest.max-p99:500ms}")
+  private Duration maxP99;
+
+  @Value("${loadtest.max-error-rate:0.01}")
+  private double maxErrorRate;
+
+  @Value("${loadtest.result-file:target/load-test-result.json}")
+  private String resultFile;
+
+  private ObjectMapper objectMapper;
+  private String passengerAccessToken;
+  private String driverAccessToken;
+  private long accessTokensIssuedAt;
+  private long nextPassengerId;
+
+  @BeforeEach
+  @Override
+  protected void setUp() {
+    super.setUp();
+    objectMapper = builder.build();
+    mockWebServer.setDispatcher(new DownstreamDispatcher(objectMapper, downstreamLatency));
+    nextPassengerId = FIRST_LOAD_PASSENGER_ID;
+  }
+
+  @Test
+  void rideEndpointsStayWithinLatencyAndErrorBudgetsAtTargetRps() throws Exception {
+    int totalRequests = (int) (rps * duration.toSeconds());
+    Iterator<Long> finishRideIds =
+        seedActiveRides(expectedRequests(LoadEndpoint.FINISH, totalRequests), 0).iterator();
+    Iterator<Long> rateRideIds =
+        seedActiveRides(expectedRequests(LoadEndpoint.RATE, totalRequests), 1).iterator();
+    refreshAccessTokens();
+
+    Map<LoadEndpoint, EndpointLatencyRecorder> recorders = new EnumMap<>(LoadEndpoint.class);
+    for (LoadEndpoint endpoint : LoadEndpoint.values()) {
+      recorders.put(endpoint, new EndpointLatencyRecorder());
+    }
+    ExecutorService clientExecutor = Executors.newFixedThreadPool(clientThreads);
+    HttpClient httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clientExecutor)
+            .build();
+    List<CompletableFuture<?>> responses = new ArrayList<>(totalRequests);
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < totalRequests; i++) {
+      long intendedStart = start + i * intervalNanos;
+      long now = System.nanoTime();
+      while (now < intendedStart) {
+        LockSupport.parkNanos(intendedStart - now);
+        now = System.nanoTime();
+      }
+      if (now - accessTokensIssuedAt > ACCESS_TOKEN_REFRESH_INTERVAL.toNanos()) {
+        refreshAccessTokens();
+      }
+      LoadEndpoint endpoint = LoadEndpoint.forRequest(i);
+      EndpointLatencyRecorder recorder = recorders.get(endpoint);
+      responses.add(
+          httpClient
+              .sendAsync(
+                  request(endpoint, finishRideIds, rateRideIds),
+                  HttpResponse.BodyHandlers.discarding())
+              .whenComplete(
+                  (response, exception) ->
+                      recorder.record(
+                          System.nanoTime() - intendedStart,
+                          exception == null && response.statusCode() < 400)));
+    }
+    CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+        .exceptionally(exception -> null)
+        .get(COMPLETION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    long elapsedNanos = System.nanoTime() - start;
+    clientExecutor.shutdown();
+
+    Map<LoadEndpoint, EndpointReport> reports = new EnumMap<>(LoadEndpoint.class);
+    recorders.forEach((endpoint, recorder) -> reports.put(endpoint, recorder.report(elapsedNanos)));
+    writeResult(reports);
+
+    List<Executable> budgets = new ArrayList<>();
+    reports.forEach(
+        (endpoint, report) -> {
+          budgets.add(
+              () ->
+                  assertTrue(
+                      report.getErrorRate() <= maxErrorRate,
+                      endpoint + " error rate " + report.getErrorRate()));
+          budgets.add(
+              () ->
+                  assertTrue(
+                      report.getP99Millis() <= maxP99.toMillis(),
+                      endpoint + " p99 " + report.getP99Millis() + " ms"));
+        });
+    assertAll(budgets);
+  }
+
+  private HttpRequest request(
+      LoadEndpoint endpoint, Iterator<Long> finishRideIds, Iterator<Long> rateRideIds)
+      throws JsonProcessingException {
+    switch (endpoint) {
+      case ORDER:
+        return jsonRequest(RIDES_PATH, passengerAccessToken)
+            .POST(jsonBody(orderRideDto()))
+            .build();
+      case FINISH:
+        PassengerRatingFinishDto passengerRatingFinishDto = new PassengerRatingFinishDto();
+        passengerRatingFinishDto.setPassengerRating(PASSENGER_RATING);
+        return jsonRequest(RIDES_PATH + "/" + finishRideIds.next() + "/finish", driverAccessToken)
+            .PUT(jsonBody(passengerRatingFinishDto))
+            .build();
+      case RATE:
+        return jsonRequest(
+                RIDES_PATH + "/" + rateRideIds.next() + "/" + DRIVER_RATING, passengerAccessToken)
+            .PUT(HttpRequest.BodyPublishers.noBody())
+            .build();
+      default:
+        return jsonRequest(RIDES_PATH + "?limit=" + LIST_PAGE_LIMIT, passengerAccessToken)
+            .GET()
+            .build();
+    }
+  }
+
+  private HttpRequest.Builder jsonRequest(String path, String accessToken) {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+  }
+
+  private HttpRequest.BodyPublisher jsonBody(Object body) throws JsonProcessingException {
+    return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+  }
+
+  private RideDto orderRideDto() {
+    return RideDto.builder()
+        .startLocation("Minsk")
+        .endLocation("London")
+        .startLatitude(53.9)
+        .startLongitude(27.56)
+        .passengerId(nextPassengerId++)
+        .passengerBankCardId(String.valueOf(DownstreamDispatcher.PASSENGER_BANK_CARD_ID))
+        .distanceMeters(12_345L)
+        .durationSeconds(1_234L)
+        .build();
+  }
+
+  private List<Long> seedActiveRides(int count, int pool) {
+    return jdbcTemplate.queryForList(
+        SEED_ACTIVE_RIDES_QUERY,
+        Long.class,
+        SEEDED_PASSENGER_ID_OFFSET * (pool + 1),
+        SEEDED_DRIVERS_COUNT,
+        count);
+  }
+
+  private int expectedRequests(LoadEndpoint endpoint, int totalRequests) {
+    return (int) Math.ceil(endpoint.share() * totalRequests * SEEDED_RIDES_MARGIN) + 1;
+  }
+
+  private void refreshAccessTokens() {
+    passengerAccessToken = accessTokenExtractor.getPassengerAccessToken();
+    driverAccessToken = accessTokenExtractor.getDriverAccessToken();
+    accessTokensIssuedAt = System.nanoTime();
+  }
+
+  private void writeResult(Map<LoadEndpoint, EndpointReport> reports) throws IOException {
+    reports.forEach(
+        (endpoint, report) ->
+            log.info(
+                "{}: {} requests, {} req/s, error rate {}, p50 {} ms, p99 {} ms, p999 {} ms",
+                endpoint,
+                report.getRequests(),
+                String.format("%.1f", report.getThroughputPerSecond()),
+                String.format("%.4f", report.getErrorRate()),
+                String.format("%.2f", report.getP50Millis()),
+                String.format("%.2f", report.getP99Millis()),
+                String.format("%.2f", report.getP999Millis())));
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("targetRps", rps);
+    result.put("durationSeconds", duration.toSeconds());
+    result.put("downstreamLatencyMillis", downstreamLatency.toMillis());
+    result.put("endpoints", reports);
+    Path resultPath = Path.of(resultFile);
+    if (resultPath.getParent() != null) {
+      Files.createDirectories(resultPath.getParent());
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultPath.toFile(), result);
+  }
+
+  enum LoadEndpoint {
+    ORDER(4),
+    FINISH(2),
+    RATE(2),
+    LIST(2);
+
+    private static final int TOTAL_WEIGHT =
+        Arrays.stream(values()).mapToInt(endpoint -> endpoint.weight).sum();
+
+    private final int weight;
+
+    LoadEndpoint(int weight) {
+      this.weight = weight;
+    }
+
+    static LoadEndpoint forRequest(int requestNumber) {
+      int slot = requestNumber % TOTAL_WEIGHT;
+      for (LoadEndpoint endpoint : values()) {
+        slot -= endpoint.weight;
+        if (slot < 0) {
+          return endpoint;
+        }
+      }
+      throw new IllegalStateException("Weights do not cover slot " + requestNumber);
+    }
+
+    double share() {
+      return (double) weight / TOTAL_WEIGHT;
+    }
+  }
+}
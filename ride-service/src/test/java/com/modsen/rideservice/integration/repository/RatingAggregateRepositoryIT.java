@@ -0,0 +1,54 @@
+package com.modsen.rideservice.integration.repository;
+
+import com.modsen.rideservice.integration.testenvironment.IntegrationTestEnvironment;
+import com.modsen.rideservice.model.DriverRatingAggregate;
+import com.modsen.rideservice.model.PassengerRatingAggregate;
+import com.modsen.rideservice.repository.DriverRatingAggregateRepository;
+import com.modsen.rideservice.repository.PassengerRatingAggregateRepository;
+import com.modsen.rideservice.repository.RideRepository;
+import com.modsen.rideservice.service.RatingAggregateService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@RequiredArgsConstructor
+class RatingAggregateRepositoryIT extends IntegrationTestEnvironment {
+
+  public static final Long EXIST_DRIVER_ID = 3L;
+  public static final Long EXIST_PASSENGER_ID = 3L;
+  public static final Long NEW_DRIVER_ID = 100L;
+
+  private final RatingAggregateService ratingAggregateService;
+  private final DriverRatingAggregateRepository driverRatingAggregateRepository;
+  private final PassengerRatingAggregateRepository passengerRatingAggregateRepository;
+  private final RideRepository rideRepository;
+
+  @Test
+  void rebuildFromRidesMatchesAverageOverRides() {
+    ratingAggregateService.rebuildFromRides();
+
+    DriverRatingAggregate driverRatingAggregate =
+        driverRatingAggregateRepository.findById(EXIST_DRIVER_ID).orElseThrow();
+    PassengerRatingAggregate passengerRatingAggregate =
+        passengerRatingAggregateRepository.findById(EXIST_PASSENGER_ID).orElseThrow();
+
+    assertEquals(
+        rideRepository.findAverageDriverRatingByDriverId(EXIST_DRIVER_ID),
+        driverRatingAggregate.getAverageRating());
+    assertEquals(
+        rideRepository.findAveragePassengerRatingByPassengerId(EXIST_PASSENGER_ID),
+        passengerRatingAggregate.getAverageRating());
+  }
+
+  @Test
+  void addRatingCreatesAggregateAndUpdatesAverage() {
+    assertEquals(4.0, driverRatingAggregateRepository.addRating(NEW_DRIVER_ID, 4));
+    assertEquals(4.5, driverRatingAggregateRepository.addRating(NEW_DRIVER_ID, 5));
+
+    DriverRatingAggregate driverRatingAggregate =
+        driverRatingAggregateRepository.findById(NEW_DRIVER_ID).orElseThrow();
+    assertEquals(9L, driverRatingAggregate.getRatingSum());
+    assertEquals(2L, driverRatingAggregate.getRatingCount());
+  }
+}
@@ -0,0 +1,70 @@
+package com.modsen.rideservice.integration.repository;
+
+import com.modsen.rideservice.integration.testenvironment.IntegrationTestEnvironment;
+import com.modsen.rideservice.job.RidePartitionMaintenanceJob;
+import com.modsen.rideservice.model.Status;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.modsen.rideservice.model.RideTransition.MATCH_DRIVER;
+import static com.modsen.rideservice.model.RideTransition.NOT_FOUND_DRIVER;
+import static com.modsen.rideservice.repository.RideBatchRepository.UPDATE_STATUS_AND_ASSIGN_DRIVER_QUERY;
+import static com.modsen.rideservice.repository.RideBatchRepository.UPDATE_STATUS_QUERY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@RequiredArgsConstructor
+class RideBatchRepositoryIT extends IntegrationTestEnvironment {
+
+  public static final Long EXIST_RIDE_ID = 1L;
+  public static final Long EXIST_DRIVER_ID = 3L;
+  public static final Pattern SCANNED_PARTITION = Pattern.compile("\\bon (rides_\\w+)");
+
+  private final RidePartitionMaintenanceJob ridePartitionMaintenanceJob;
+  private final JdbcTemplate jdbcTemplate;
+
+  @Test
+  void updatesOfMatchingResultsOnlyTouchPartitionOfRideBookingTime() {
+    ridePartitionMaintenanceJob.createPartitionsAhead();
+    LocalDateTime now = LocalDateTime.now();
+    Timestamp bookingTime = Timestamp.valueOf(now);
+    Set<String> bookingTimePartition =
+        Set.of("rides_" + now.format(DateTimeFormatter.ofPattern("yyyy_MM")));
+
+    assertEquals(
+        bookingTimePartition,
+        scannedPartitions(
+            String.format(UPDATE_STATUS_AND_ASSIGN_DRIVER_QUERY, "?"),
+            MATCH_DRIVER.getToStatusName(),
+            EXIST_DRIVER_ID,
+            Timestamp.valueOf(now),
+            Timestamp.valueOf(now),
+            EXIST_RIDE_ID,
+            bookingTime,
+            Status.PENDING.name()));
+    assertEquals(
+        bookingTimePartition,
+        scannedPartitions(
+            String.format(UPDATE_STATUS_QUERY, "?"),
+            NOT_FOUND_DRIVER.getToStatusName(),
+            EXIST_RIDE_ID,
+            bookingTime,
+            Status.PENDING.name()));
+  }
+
+  private Set<String> scannedPartitions(String query, Object... args) {
+    return jdbcTemplate.queryForList("EXPLAIN " + query, String.class, args).stream()
+        .map(SCANNED_PARTITION::matcher)
+        .filter(Matcher::find)
+        .map(matcher -> matcher.group(1))
+        .collect(Collectors.toSet());
+  }
+}
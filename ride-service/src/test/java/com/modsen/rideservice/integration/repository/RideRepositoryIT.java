@@ -2,13 +2,35 @@ package com.modsen.rideservice.integration.repository;
 
 import com.modsen.rideservice.integration.testenvironment.IntegrationTestEnvironment;
 import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.model.Status;
 import com.modsen.rideservice.repository.RideRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import static com.modsen.rideservice.model.RideTransition.CANCEL_BY_PASSENGER;
+import static com.modsen.rideservice.model.RideTransition.MATCH_DRIVER;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.RATEABLE_STATUS_NAMES;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @RequiredArgsConstructor
 class RideRepositoryIT extends IntegrationTestEnvironment {
@@ -20,8 +42,12 @@ class RideRepositoryIT extends IntegrationTestEnvironment {
   public static final Double EXPECTED_DRIVER_RATING = 2.0;
   public static final Double EXPECTED_PASSENGER_RATING = 4.0;
   public static final int RIDE_INDEX_WITH_NULL_FINISH_TIME = 0;
+  public static final String EXIST_PROMO_CODE_NAME = "SUPER50";
+  public static final int CONTENDED_RIDES_COUNT = 100;
+  public static final int CONTENDERS_COUNT = 8;
 
   private final RideRepository rideRepository;
+  private final EntityManagerFactory entityManagerFactory;
 
   @Test
   void findAverageDriverRatingByDriverId() {
@@ -48,4 +74,146 @@ class RideRepositoryIT extends IntegrationTestEnvironment {
 
     assertEquals(expected, actual);
   }
+
+  @Test
+  void findAllWithPromoCodeLoadsOrderedPageWithPromoCodesInOneStatement() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+
+    List<Ride> actualRides =
+        rideRepository.findAllWithPromoCode(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id")));
+    List<String> actualPromoCodeNames =
+        actualRides.stream()
+            .map(ride -> ride.getPromoCode().getName())
+            .collect(Collectors.toList());
+
+    assertEquals(
+        List.of(4L, 3L, 2L), actualRides.stream().map(Ride::getId).collect(Collectors.toList()));
+    assertEquals(
+        List.of(EXIST_PROMO_CODE_NAME, EXIST_PROMO_CODE_NAME, EXIST_PROMO_CODE_NAME),
+        actualPromoCodeNames);
+    assertEquals(1, statistics.getPrepareStatementCount());
+    statistics.setStatisticsEnabled(false);
+  }
+
+  @Test
+  void findAllWithPromoCodeAfterReturnsRidesWithGreaterIdsWithoutCountQuery() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+
+    List<Ride> actualRides = rideRepository.findAllWithPromoCodeAfter(1L, PageRequest.of(0, 2));
+
+    assertEquals(
+        List.of(2L, 3L), actualRides.stream().map(Ride::getId).collect(Collectors.toList()));
+    assertEquals(EXIST_PROMO_CODE_NAME, actualRides.get(0).getPromoCode().getName());
+    assertEquals(1, statistics.getPrepareStatementCount());
+    statistics.setStatisticsEnabled(false);
+  }
+
+  @Test
+  void concurrentCancelAndMatchLeaveEachRideInExactlyOneTerminalState()
+      throws InterruptedException {
+    List<Ride> pendingRides = savePendingRides();
+    AtomicInteger canceledRides = new AtomicInteger();
+    AtomicInteger matchedRides = new AtomicInteger();
+    ExecutorService executorService = Executors.newFixedThreadPool(CONTENDERS_COUNT);
+    CountDownLatch start = new CountDownLatch(1);
+    for (Ride pendingRide : pendingRides) {
+      executorService.execute(
+          awaitStart(
+              start,
+              () ->
+                  rideRepository
+                      .updateStatusAndFinishTime(
+                          pendingRide.getId(),
+                          LocalDateTime.now(),
+                          CANCEL_BY_PASSENGER.getFromStatusNames(),
+                          CANCEL_BY_PASSENGER.getToStatusName())
+                      .ifPresent(ride -> canceledRides.incrementAndGet())));
+      executorService.execute(
+          awaitStart(
+              start,
+              () ->
+                  rideRepository
+                      .updateStatusAndAssignDriver(
+                          pendingRide.getId(),
+                          pendingRide.getBookingTime(),
+                          EXIST_DRIVER_ID,
+                          LocalDateTime.now(),
+                          MATCH_DRIVER.getFromStatusNames(),
+                          MATCH_DRIVER.getToStatusName())
+                      .ifPresent(ride -> matchedRides.incrementAndGet())));
+    }
+    start.countDown();
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertEquals(CONTENDED_RIDES_COUNT, canceledRides.get() + matchedRides.get());
+    for (Ride pendingRide : pendingRides) {
+      Ride actualRide = rideRepository.findById(pendingRide.getId()).get();
+      if (actualRide.getStatus() == Status.CANCELED) {
+        assertNull(actualRide.getDriverId());
+        assertNotNull(actualRide.getFinishTime());
+      } else {
+        assertEquals(Status.ACTIVE, actualRide.getStatus());
+        assertEquals(EXIST_DRIVER_ID, actualRide.getDriverId());
+        assertNull(actualRide.getFinishTime());
+      }
+    }
+  }
+
+  @Test
+  void concurrentDriverRatingsRateRideExactlyOnce() throws InterruptedException {
+    Ride activeRide = savePendingRides().get(0);
+    activeRide.setStatus(Status.ACTIVE);
+    rideRepository.save(activeRide);
+    AtomicInteger ratedRides = new AtomicInteger();
+    ExecutorService executorService = Executors.newFixedThreadPool(CONTENDERS_COUNT);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int i = 0; i < CONTENDERS_COUNT; i++) {
+      int driverRating = i % 5 + 1;
+      executorService.execute(
+          awaitStart(
+              start,
+              () ->
+                  rideRepository
+                      .updateDriverRatingIfAbsent(
+                          activeRide.getId(), driverRating, RATEABLE_STATUS_NAMES)
+                      .ifPresent(ride -> ratedRides.incrementAndGet())));
+    }
+    start.countDown();
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertEquals(1, ratedRides.get());
+    assertNotNull(rideRepository.findById(activeRide.getId()).get().getDriverRating());
+  }
+
+  private Runnable awaitStart(CountDownLatch start, Runnable transition) {
+    return () -> {
+      try {
+        start.await();
+        transition.run();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  private List<Ride> savePendingRides() {
+    List<Ride> rides = new ArrayList<>();
+    for (int i = 0; i < CONTENDED_RIDES_COUNT; i++) {
+      Ride ride = new Ride();
+      ride.setStartLocation("Start location " + i);
+      ride.setEndLocation("End location " + i);
+      ride.setPassengerId(EXIST_PASSENGER_ID);
+      ride.setBookingTime(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+      ride.setCost(BigDecimal.TEN);
+      ride.setStatus(Status.PENDING);
+      rides.add(ride);
+    }
+    return rideRepository.saveAll(rides);
+  }
 }
@@ -41,7 +41,9 @@ import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TE
 public abstract class IntegrationTestEnvironment {
 
   public static final PostgreSQLContainer<?> container =
-      new PostgreSQLContainer<>("postgres:13.1-alpine").withUrlParam("stringtype", "unspecified");
+      new PostgreSQLContainer<>("postgres:13.1-alpine")
+          .withUrlParam("stringtype", "unspecified")
+          .withUrlParam("reWriteBatchedInserts", "true");
   public static final KafkaContainer kafka =
       new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.3.3"));
   public static final KeycloakContainer KEYCLOAK =
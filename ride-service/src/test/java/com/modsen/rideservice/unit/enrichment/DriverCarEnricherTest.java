@@ -0,0 +1,134 @@
+package com.modsen.rideservice.unit.enrichment;
+
+import com.modsen.rideservice.dto.CarDto;
+import com.modsen.rideservice.dto.DriverPageDto;
+import com.modsen.rideservice.dto.DriverRideDto;
+import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.enrichment.DriverCarCache;
+import com.modsen.rideservice.enrichment.DriverCarEnricher;
+import com.modsen.rideservice.exception.DriverServiceException;
+import com.modsen.rideservice.service.impl.DriverServiceWebClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DriverCarEnricherTest {
+
+  public static final Long FIRST_DRIVER_ID = 1000L;
+  public static final Long SECOND_DRIVER_ID = 2000L;
+  public static final Duration CAR_CACHE_TTL = Duration.ofSeconds(30);
+  public static final int CAR_CACHE_MAX_SIZE = 2;
+
+  @Mock private DriverServiceWebClient driverServiceWebClient;
+
+  private final AtomicLong nanoClock = new AtomicLong();
+  private DriverCarCache driverCarCache;
+  private DriverCarEnricher driverCarEnricher;
+  private CarDto firstCarDto;
+  private CarDto secondCarDto;
+
+  @BeforeEach
+  void setUp() {
+    driverCarCache = new DriverCarCache(CAR_CACHE_TTL, CAR_CACHE_MAX_SIZE, nanoClock::get);
+    driverCarEnricher = new DriverCarEnricher(driverServiceWebClient, driverCarCache);
+    firstCarDto = CarDto.builder().driverId(FIRST_DRIVER_ID).model("Lada vesta").build();
+    secondCarDto = CarDto.builder().driverId(SECOND_DRIVER_ID).model("Geely coolray").build();
+  }
+
+  @Test
+  void setCarDtoToRidesRequestsEveryDriverOnceAndMatchesIdsAbove127() {
+    List<RideDto> rides =
+        List.of(
+            rideWithDriver(FIRST_DRIVER_ID),
+            rideWithDriver(SECOND_DRIVER_ID),
+            rideWithDriver(null),
+            rideWithDriver(FIRST_DRIVER_ID));
+    when(driverServiceWebClient.getDriverPageDtoByListIdsDriver(
+            List.of(FIRST_DRIVER_ID, SECOND_DRIVER_ID)))
+        .thenReturn(
+            driverPage(
+                driverWithCar(FIRST_DRIVER_ID, firstCarDto),
+                driverWithCar(SECOND_DRIVER_ID, secondCarDto)));
+
+    driverCarEnricher.setCarDtoToRides(rides);
+
+    assertEquals(firstCarDto, rides.get(0).getCarDto());
+    assertEquals(secondCarDto, rides.get(1).getCarDto());
+    assertNull(rides.get(2).getCarDto());
+    assertEquals(firstCarDto, rides.get(3).getCarDto());
+  }
+
+  @Test
+  void setCarDtoToRidesServesRepeatDriversFromCacheUntilTtlExpires() {
+    when(driverServiceWebClient.getDriverPageDtoByListIdsDriver(List.of(FIRST_DRIVER_ID)))
+        .thenReturn(driverPage(driverWithCar(FIRST_DRIVER_ID, firstCarDto)));
+
+    driverCarEnricher.setCarDtoToRides(List.of(rideWithDriver(FIRST_DRIVER_ID)));
+    RideDto cachedRide = rideWithDriver(FIRST_DRIVER_ID);
+    driverCarEnricher.setCarDtoToRides(List.of(cachedRide));
+    nanoClock.addAndGet(CAR_CACHE_TTL.toNanos());
+    driverCarEnricher.setCarDtoToRides(List.of(rideWithDriver(FIRST_DRIVER_ID)));
+
+    assertEquals(firstCarDto, cachedRide.getCarDto());
+    verify(driverServiceWebClient, times(2)).getDriverPageDtoByListIdsDriver(any());
+  }
+
+  @Test
+  void setCarDtoToRidesWhenPageHasNoDriversThanDriverServiceNotCalled() {
+    driverCarEnricher.setCarDtoToRides(List.of(rideWithDriver(null)));
+
+    verify(driverServiceWebClient, never()).getDriverPageDtoByListIdsDriver(any());
+  }
+
+  @Test
+  void setCarDtoToRidesWhenDriverServiceReturnEmptyBodyThanThrowDriverServiceException() {
+    List<RideDto> rides = List.of(rideWithDriver(FIRST_DRIVER_ID));
+    when(driverServiceWebClient.getDriverPageDtoByListIdsDriver(List.of(FIRST_DRIVER_ID)))
+        .thenReturn(ResponseEntity.ok().build());
+
+    assertThrows(DriverServiceException.class, () -> driverCarEnricher.setCarDtoToRides(rides));
+  }
+
+  @Test
+  void carCacheWhenFullThanDropExpiredCarsFirst() {
+    driverCarCache.put(FIRST_DRIVER_ID, firstCarDto);
+    nanoClock.addAndGet(CAR_CACHE_TTL.toNanos());
+    driverCarCache.put(SECOND_DRIVER_ID, secondCarDto);
+    driverCarCache.put(3L, firstCarDto);
+
+    assertEquals(CAR_CACHE_MAX_SIZE, driverCarCache.size());
+    assertNull(driverCarCache.get(FIRST_DRIVER_ID));
+    assertEquals(secondCarDto, driverCarCache.get(SECOND_DRIVER_ID));
+  }
+
+  private RideDto rideWithDriver(Long driverId) {
+    return RideDto.builder().driverId(driverId).build();
+  }
+
+  private DriverRideDto driverWithCar(Long driverId, CarDto carDto) {
+    return DriverRideDto.builder().id(driverId).carDto(carDto).build();
+  }
+
+  private ResponseEntity<DriverPageDto> driverPage(DriverRideDto... drivers) {
+    DriverPageDto driverPageDto = new DriverPageDto();
+    driverPageDto.setDriverDtoList(List.of(drivers));
+    return ResponseEntity.ok(driverPageDto);
+  }
+}
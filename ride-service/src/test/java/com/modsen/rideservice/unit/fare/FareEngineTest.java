@@ -0,0 +1,93 @@
+package com.modsen.rideservice.unit.fare;
+
+import com.modsen.rideservice.config.fare.FareProperties;
+import com.modsen.rideservice.fare.FareEngine;
+import com.modsen.rideservice.fare.Tariff;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FareEngineTest {
+
+  public static final String ECONOMY_TARIFF = "economy";
+  public static final String COMFORT_TARIFF = "comfort";
+
+  private FareProperties fareProperties;
+  private FareEngine fareEngine;
+
+  @BeforeEach
+  void setUp() {
+    fareProperties = new FareProperties();
+    fareProperties.setDefaultTariff(ECONOMY_TARIFF);
+    fareProperties.getTariffs().put(ECONOMY_TARIFF, tariffProperties(250, 90, 20, 1000));
+    fareProperties.getTariffs().put(COMFORT_TARIFF, tariffProperties(400, 130, 30, 1500));
+    fareEngine = new FareEngine(fareProperties);
+  }
+
+  @Test
+  void fareCentsSumsBaseDistanceAndDurationRates() {
+    Tariff economy = fareEngine.getTariff(ECONOMY_TARIFF);
+
+    assertEquals(250 + 900 + 300, FareEngine.fareCents(economy, 10_000, 900));
+  }
+
+  @Test
+  void fareCentsRoundsPartialKilometersAndMinutesHalfUp() {
+    Tariff comfort = fareEngine.getTariff(COMFORT_TARIFF);
+
+    assertEquals(400 + 1302 + 1550, FareEngine.fareCents(comfort, 10_015, 3_100));
+  }
+
+  @Test
+  void fareCentsIfShortRideThanReturnMinimumFare() {
+    Tariff economy = fareEngine.getTariff(ECONOMY_TARIFF);
+
+    assertEquals(1000, FareEngine.fareCents(economy, 0, 0));
+  }
+
+  @Test
+  void applyDiscountMultipliesByPromoCodeDiscount() {
+    long priceBasisPoints = FareEngine.toBasisPoints(new BigDecimal("0.3"));
+
+    assertEquals(3000, priceBasisPoints);
+    assertEquals(435, FareEngine.applyDiscount(1450, priceBasisPoints));
+    assertEquals(333, FareEngine.applyDiscount(1111, priceBasisPoints));
+  }
+
+  @Test
+  void toMoneyKeepsTwoDecimalPlaces() {
+    assertEquals(new BigDecimal("14.50"), FareEngine.toMoney(1450));
+  }
+
+  @Test
+  void getTariffIfNameIsAbsentThanReturnDefaultTariff() {
+    assertEquals(ECONOMY_TARIFF, fareEngine.getTariff(null).getName());
+  }
+
+  @Test
+  void getTariffIfNameIsUnknownThanThrowNoSuchElementException() {
+    assertThrows(NoSuchElementException.class, () -> fareEngine.getTariff("business"));
+  }
+
+  @Test
+  void createIfDefaultTariffIsNotConfiguredThanThrowIllegalStateException() {
+    fareProperties.setDefaultTariff("business");
+
+    assertThrows(IllegalStateException.class, () -> new FareEngine(fareProperties));
+  }
+
+  private FareProperties.TariffProperties tariffProperties(
+      long baseFareCents, long perKmCents, long perMinuteCents, long minimumFareCents) {
+    FareProperties.TariffProperties tariffProperties = new FareProperties.TariffProperties();
+    tariffProperties.setBaseFareCents(baseFareCents);
+    tariffProperties.setPerKmCents(perKmCents);
+    tariffProperties.setPerMinuteCents(perMinuteCents);
+    tariffProperties.setMinimumFareCents(minimumFareCents);
+    return tariffProperties;
+  }
+}
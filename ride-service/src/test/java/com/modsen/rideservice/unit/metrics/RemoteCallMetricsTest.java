@@ -0,0 +1,47 @@
+package com.modsen.rideservice.unit.metrics;
+
+import com.modsen.rideservice.metrics.RemoteCallMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static com.modsen.rideservice.metrics.RemoteCallMetrics.REMOTE_CALL_TIMER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RemoteCallMetricsTest {
+
+  public static final String CLIENT = "driver-service";
+  public static final String METHOD = "getById";
+
+  private SimpleMeterRegistry meterRegistry;
+  private RemoteCallMetrics remoteCallMetrics;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    remoteCallMetrics = new RemoteCallMetrics(meterRegistry);
+  }
+
+  @Test
+  void timedRecordsCallsByClientMethodAndOutcome() {
+    assertNull(
+        remoteCallMetrics
+            .timed(CLIENT, METHOD, Mono.<String>error(new IllegalStateException()))
+            .onErrorResume(exception -> Mono.empty())
+            .block());
+    remoteCallMetrics.timed(CLIENT, METHOD, () -> "car");
+
+    assertEquals(1, timerCount(RemoteCallMetrics.ERROR));
+    assertEquals(1, timerCount(RemoteCallMetrics.SUCCESS));
+  }
+
+  private long timerCount(String outcome) {
+    return meterRegistry
+        .get(REMOTE_CALL_TIMER_NAME)
+        .tags("client", CLIENT, "method", METHOD, "outcome", outcome)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,140 @@
+package com.modsen.rideservice.unit.metrics;
+
+import com.modsen.rideservice.metrics.RideLifecycleMetrics;
+import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.model.Status;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.modsen.rideservice.metrics.RideLifecycleMetrics.KAFKA_BATCH_HANDLE_TIMER_NAME;
+import static com.modsen.rideservice.metrics.RideLifecycleMetrics.KAFKA_BATCH_RECORDS_SUMMARY_NAME;
+import static com.modsen.rideservice.metrics.RideLifecycleMetrics.KAFKA_HANDLE_TIMER_NAME;
+import static com.modsen.rideservice.metrics.RideLifecycleMetrics.KAFKA_HOP_TIMER_NAME;
+import static com.modsen.rideservice.metrics.RideLifecycleMetrics.ORDER_TO_MATCH_TIMER_NAME;
+import static com.modsen.rideservice.metrics.RideLifecycleMetrics.STATUS_DURATION_TIMER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RideLifecycleMetricsTest {
+
+  public static final String AVAILABLE_DRIVER_TOPIC = "available-driver";
+  public static final LocalDateTime BOOKING_TIME = LocalDateTime.of(2024, 1, 1, 10, 0);
+  public static final long SECONDS_TO_MATCH = 90;
+  public static final long KAFKA_HOP_MILLIS = 250;
+
+  private SimpleMeterRegistry meterRegistry;
+  private RideLifecycleMetrics rideLifecycleMetrics;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    rideLifecycleMetrics = new RideLifecycleMetrics(meterRegistry);
+  }
+
+  @Test
+  void recordMatchedTimesOrderToMatchAndPendingStatus() {
+    Ride ride = new Ride();
+    ride.setBookingTime(BOOKING_TIME);
+    ride.setApprovedTime(BOOKING_TIME.plusSeconds(SECONDS_TO_MATCH));
+
+    rideLifecycleMetrics.recordMatched(ride);
+
+    Timer orderToMatch =
+        meterRegistry
+            .get(ORDER_TO_MATCH_TIMER_NAME)
+            .tag("outcome", RideLifecycleMetrics.MATCHED)
+            .timer();
+    Timer pendingDuration =
+        meterRegistry
+            .get(STATUS_DURATION_TIMER_NAME)
+            .tags("status", Status.PENDING.name(), "outcome", Status.ACTIVE.name())
+            .timer();
+    assertEquals(SECONDS_TO_MATCH, orderToMatch.totalTime(TimeUnit.SECONDS));
+    assertEquals(SECONDS_TO_MATCH, pendingDuration.totalTime(TimeUnit.SECONDS));
+  }
+
+  @Test
+  void recordMatchedIfApprovedTimeIsAbsentThanSkipTimers() {
+    Ride ride = new Ride();
+    ride.setBookingTime(BOOKING_TIME);
+
+    rideLifecycleMetrics.recordMatched(ride);
+
+    assertEquals(0, meterRegistry.get(ORDER_TO_MATCH_TIMER_NAME).timer().count());
+  }
+
+  @Test
+  void recordConsumedTimesKafkaHopFromRecordTimestampAndHandlingByOutcome() {
+    MessageHeaders headers =
+        new MessageHeaders(
+            Map.of(
+                KafkaHeaders.RECEIVED_TOPIC,
+                AVAILABLE_DRIVER_TOPIC,
+                KafkaHeaders.RECEIVED_TIMESTAMP,
+                System.currentTimeMillis() - KAFKA_HOP_MILLIS));
+
+    rideLifecycleMetrics.recordConsumed(headers, () -> {});
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            rideLifecycleMetrics.recordConsumed(
+                headers,
+                () -> {
+                  throw new IllegalStateException();
+                }));
+
+    Timer kafkaHop =
+        meterRegistry.get(KAFKA_HOP_TIMER_NAME).tag("topic", AVAILABLE_DRIVER_TOPIC).timer();
+    assertEquals(2, kafkaHop.count());
+    assertTrue(kafkaHop.max(TimeUnit.MILLISECONDS) >= KAFKA_HOP_MILLIS);
+    assertEquals(
+        1,
+        meterRegistry
+            .get(KAFKA_HANDLE_TIMER_NAME)
+            .tags("topic", AVAILABLE_DRIVER_TOPIC, "outcome", RideLifecycleMetrics.ERROR)
+            .timer()
+            .count());
+  }
+
+  @Test
+  void recordConsumedBatchTimesKafkaHopPerRecordAndHandlingPerBatch() {
+    long producedTimestamp = System.currentTimeMillis() - KAFKA_HOP_MILLIS;
+    MessageHeaders headers =
+        new MessageHeaders(
+            Map.of(
+                KafkaHeaders.RECEIVED_TOPIC,
+                List.of(AVAILABLE_DRIVER_TOPIC, AVAILABLE_DRIVER_TOPIC, AVAILABLE_DRIVER_TOPIC),
+                KafkaHeaders.RECEIVED_TIMESTAMP,
+                List.of(producedTimestamp, producedTimestamp, producedTimestamp)));
+
+    rideLifecycleMetrics.recordConsumedBatch(headers, () -> {});
+
+    Timer kafkaHop =
+        meterRegistry.get(KAFKA_HOP_TIMER_NAME).tag("topic", AVAILABLE_DRIVER_TOPIC).timer();
+    assertEquals(3, kafkaHop.count());
+    assertEquals(
+        3,
+        meterRegistry
+            .get(KAFKA_BATCH_RECORDS_SUMMARY_NAME)
+            .tag("topic", AVAILABLE_DRIVER_TOPIC)
+            .summary()
+            .totalAmount());
+    assertEquals(
+        1,
+        meterRegistry
+            .get(KAFKA_BATCH_HANDLE_TIMER_NAME)
+            .tags("topic", AVAILABLE_DRIVER_TOPIC, "outcome", RideLifecycleMetrics.SUCCESS)
+            .timer()
+            .count());
+  }
+}
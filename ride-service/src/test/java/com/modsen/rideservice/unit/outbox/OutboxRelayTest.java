@@ -0,0 +1,139 @@
+package com.modsen.rideservice.unit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.rideservice.config.outbox.OutboxProperties;
+import com.modsen.rideservice.dto.RideSearchDto;
+import com.modsen.rideservice.model.OutboxEvent;
+import com.modsen.rideservice.model.OutboxEventType;
+import com.modsen.rideservice.outbox.OutboxRelay;
+import com.modsen.rideservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+  public static final String TOPIC_ORDER_NEW_RIDE = "order-new-ride";
+  public static final int BATCH_SIZE = 2;
+
+  @Mock private OutboxEventRepository outboxEventRepository;
+  @Mock private KafkaTemplate<String, Object> kafkaTemplate;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  private OutboxRelay outboxRelay;
+  private OutboxEvent firstOutboxEvent;
+  private OutboxEvent secondOutboxEvent;
+
+  @BeforeEach
+  void setUp() {
+    OutboxProperties outboxProperties = new OutboxProperties();
+    outboxProperties.setBatchSize(BATCH_SIZE);
+    outboxProperties.setLinger(Duration.ofMinutes(1));
+    outboxProperties.setSendTimeout(Duration.ofSeconds(1));
+    outboxRelay =
+        new OutboxRelay(
+            outboxEventRepository,
+            kafkaTemplate,
+            new ObjectMapper(),
+            outboxProperties,
+            transactionTemplate);
+
+    firstOutboxEvent = outboxEvent(1L);
+    secondOutboxEvent = outboxEvent(2L);
+
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+  }
+
+  @Test
+  void relayWhenBatchIsFullThanSendAllAndDeleteRelayedEvents() {
+    when(outboxEventRepository.findBatchForUpdate(BATCH_SIZE))
+        .thenReturn(List.of(firstOutboxEvent, secondOutboxEvent), List.of());
+    when(kafkaTemplate.send(anyString(), anyString(), any(RideSearchDto.class)))
+        .thenReturn(sentFuture());
+
+    outboxRelay.relay();
+
+    verify(kafkaTemplate).send(TOPIC_ORDER_NEW_RIDE, "1", new RideSearchDto(1L, null, null));
+    verify(kafkaTemplate).send(TOPIC_ORDER_NEW_RIDE, "2", new RideSearchDto(2L, null, null));
+    verify(kafkaTemplate).flush();
+    verify(outboxEventRepository).deleteByIdIn(List.of(1L, 2L));
+  }
+
+  @Test
+  void relayWhenBatchIsNotFullAndLingerNotExpiredThanWait() {
+    when(outboxEventRepository.findBatchForUpdate(BATCH_SIZE))
+        .thenReturn(List.of(firstOutboxEvent));
+
+    outboxRelay.relay();
+
+    verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    verify(outboxEventRepository, never()).deleteByIdIn(any());
+  }
+
+  @Test
+  void relayWhenBatchIsNotFullAndLingerExpiredThanSend() {
+    firstOutboxEvent.setCreatedAt(LocalDateTime.now().minusMinutes(2));
+    when(outboxEventRepository.findBatchForUpdate(BATCH_SIZE))
+        .thenReturn(List.of(firstOutboxEvent));
+    when(kafkaTemplate.send(anyString(), anyString(), any(RideSearchDto.class)))
+        .thenReturn(sentFuture());
+
+    outboxRelay.relay();
+
+    verify(outboxEventRepository).deleteByIdIn(List.of(1L));
+  }
+
+  @Test
+  void relayWhenSendFailedThanKeepFailedAndFollowingEvents() {
+    SettableListenableFuture<SendResult<String, Object>> failedFuture =
+        new SettableListenableFuture<>();
+    failedFuture.setException(new IllegalStateException("broker is not available"));
+    when(outboxEventRepository.findBatchForUpdate(BATCH_SIZE))
+        .thenReturn(List.of(firstOutboxEvent, secondOutboxEvent));
+    when(kafkaTemplate.send(anyString(), anyString(), any(RideSearchDto.class)))
+        .thenReturn(failedFuture, sentFuture());
+
+    outboxRelay.relay();
+
+    verify(outboxEventRepository, never()).deleteByIdIn(any());
+  }
+
+  private OutboxEvent outboxEvent(Long rideId) {
+    OutboxEvent outboxEvent = new OutboxEvent();
+    outboxEvent.setId(rideId);
+    outboxEvent.setTopic(TOPIC_ORDER_NEW_RIDE);
+    outboxEvent.setMessageKey(String.valueOf(rideId));
+    outboxEvent.setPayloadType(OutboxEventType.RIDE_SEARCH);
+    outboxEvent.setPayload("{\"rideId\":" + rideId + "}");
+    outboxEvent.setCreatedAt(LocalDateTime.now());
+    return outboxEvent;
+  }
+
+  private SettableListenableFuture<SendResult<String, Object>> sentFuture() {
+    SettableListenableFuture<SendResult<String, Object>> sentFuture =
+        new SettableListenableFuture<>();
+    sentFuture.set(null);
+    return sentFuture;
+  }
+}
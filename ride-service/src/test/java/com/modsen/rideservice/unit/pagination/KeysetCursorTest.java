@@ -0,0 +1,31 @@
+package com.modsen.rideservice.unit.pagination;
+
+import com.modsen.rideservice.exception.InvalidCursorException;
+import com.modsen.rideservice.pagination.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import static com.modsen.rideservice.pagination.KeysetCursor.FIRST_PAGE_AFTER_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+  public static final long LAST_ID = 1_234_567L;
+
+  @Test
+  void decodeReturnsEncodedId() {
+    assertEquals(LAST_ID, KeysetCursor.decode(KeysetCursor.encode(LAST_ID)));
+  }
+
+  @Test
+  void decodeIfCursorIsAbsentThanReturnFirstPageAfterId() {
+    assertEquals(FIRST_PAGE_AFTER_ID, KeysetCursor.decode(null));
+    assertEquals(FIRST_PAGE_AFTER_ID, KeysetCursor.decode(""));
+  }
+
+  @Test
+  void decodeIfCursorIsMalformedThanThrowInvalidCursorException() {
+    assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor"));
+    assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("AAAA"));
+  }
+}
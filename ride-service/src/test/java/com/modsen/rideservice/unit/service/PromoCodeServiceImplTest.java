@@ -1,6 +1,7 @@
 package com.modsen.rideservice.unit.service;
 
 import com.modsen.rideservice.dto.PromoCodeDto;
+import com.modsen.rideservice.dto.PromoCodePageDto;
 import com.modsen.rideservice.exception.FinishDateEarlyThanStartDateException;
 import com.modsen.rideservice.mapper.PromoCodeMapper;
 import com.modsen.rideservice.model.PromoCode;
@@ -24,6 +25,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -96,6 +98,18 @@ class PromoCodeServiceImplTest {
     verify(promoCodeMapper).toDto(promoCode);
   }
 
+  @Test
+  void getAllAfterIfLastPageThanReturnNullNextCursor() {
+    when(promoCodeRepository.findAllAfter(0L, PageRequest.of(0, 11)))
+        .thenReturn(List.of(promoCode));
+    when(promoCodeMapper.toDto(promoCode)).thenReturn(promoCodeDto);
+
+    PromoCodePageDto actual = promoCodeService.getAllAfter(0L, 10);
+
+    assertEquals(List.of(promoCodeDto), actual.getPromoCodeDtoList());
+    assertNull(actual.getNextCursor());
+  }
+
   @Test
   void save() {
     when(promoCodeMapper.toEntity(promoCodeDto)).thenReturn(promoCode);
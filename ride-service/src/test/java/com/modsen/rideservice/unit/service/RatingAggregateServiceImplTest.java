@@ -0,0 +1,88 @@
+package com.modsen.rideservice.unit.service;
+
+import com.modsen.rideservice.model.DriverRatingAggregate;
+import com.modsen.rideservice.repository.DriverRatingAggregateRepository;
+import com.modsen.rideservice.repository.PassengerRatingAggregateRepository;
+import com.modsen.rideservice.service.impl.RatingAggregateServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RatingAggregateServiceImplTest {
+
+  public static final Long EXIST_DRIVER_ID = 1L;
+  public static final Long EXIST_PASSENGER_ID = 1L;
+  public static final Long OTHER_DRIVER_ID = 2L;
+  public static final Integer RATING = 4;
+  public static final Integer NEW_RATING = 5;
+
+  @Mock private DriverRatingAggregateRepository driverRatingAggregateRepository;
+  @Mock private PassengerRatingAggregateRepository passengerRatingAggregateRepository;
+  @InjectMocks private RatingAggregateServiceImpl ratingAggregateService;
+
+  @Test
+  void addDriverRatingReturnsAverageFromAggregate() {
+    when(driverRatingAggregateRepository.addRating(EXIST_DRIVER_ID, RATING)).thenReturn(4.5);
+
+    Double actualAverage = ratingAggregateService.addDriverRating(EXIST_DRIVER_ID, RATING);
+
+    assertEquals(4.5, actualAverage);
+  }
+
+  @Test
+  void addDriverRatingIfRatingNullThanReturnCurrentAverage() {
+    DriverRatingAggregate driverRatingAggregate = new DriverRatingAggregate();
+    driverRatingAggregate.setDriverId(EXIST_DRIVER_ID);
+    driverRatingAggregate.setRatingSum(9L);
+    driverRatingAggregate.setRatingCount(2L);
+    when(driverRatingAggregateRepository.findById(EXIST_DRIVER_ID))
+        .thenReturn(Optional.of(driverRatingAggregate));
+
+    Double actualAverage = ratingAggregateService.addDriverRating(EXIST_DRIVER_ID, null);
+
+    assertEquals(4.5, actualAverage);
+    verify(driverRatingAggregateRepository, never()).addRating(anyLong(), any());
+  }
+
+  @Test
+  void replaceDriverRatingMovesRatingBetweenDrivers() {
+    ratingAggregateService.replaceDriverRating(
+        EXIST_DRIVER_ID, RATING, OTHER_DRIVER_ID, NEW_RATING);
+
+    verify(driverRatingAggregateRepository).removeRating(EXIST_DRIVER_ID, RATING);
+    verify(driverRatingAggregateRepository).addRating(OTHER_DRIVER_ID, NEW_RATING);
+  }
+
+  @Test
+  void replacePassengerRatingIfNothingChangedThanAggregateNotTouched() {
+    ratingAggregateService.replacePassengerRating(
+        EXIST_PASSENGER_ID, RATING, EXIST_PASSENGER_ID, RATING);
+
+    verify(passengerRatingAggregateRepository, never()).removeRating(anyLong(), anyLong());
+    verify(passengerRatingAggregateRepository, never()).addRating(anyLong(), any());
+  }
+
+  @Test
+  void rebuildFromRidesLocksAggregatesBeforeRebuild() {
+    ratingAggregateService.rebuildFromRides();
+
+    InOrder inOrder = inOrder(driverRatingAggregateRepository);
+    inOrder.verify(driverRatingAggregateRepository).lockForRebuild();
+    inOrder.verify(driverRatingAggregateRepository).deleteAllAggregates();
+    inOrder.verify(driverRatingAggregateRepository).rebuildFromRides();
+  }
+}
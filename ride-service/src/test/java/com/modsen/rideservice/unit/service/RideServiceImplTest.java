@@ -1,49 +1,84 @@
 package com.modsen.rideservice.unit.service;
 
+import com.modsen.rideservice.config.fare.FareProperties;
 import com.modsen.rideservice.dto.BankCardDto;
 import com.modsen.rideservice.dto.CarDto;
-import com.modsen.rideservice.dto.DriverPageDto;
 import com.modsen.rideservice.dto.DriverRatingDto;
+import com.modsen.rideservice.dto.DriverReleaseDto;
 import com.modsen.rideservice.dto.DriverRideDto;
 import com.modsen.rideservice.dto.DriverWithCarDto;
 import com.modsen.rideservice.dto.PassengerDto;
 import com.modsen.rideservice.dto.PassengerRatingFinishDto;
+import com.modsen.rideservice.dto.RideBatchDto;
+import com.modsen.rideservice.dto.RideBatchItemDto;
+import com.modsen.rideservice.dto.RideBatchResultDto;
 import com.modsen.rideservice.dto.RideDto;
+import com.modsen.rideservice.dto.RideFinishedDto;
+import com.modsen.rideservice.dto.RidePageDto;
+import com.modsen.rideservice.dto.RideSearchDto;
+import com.modsen.rideservice.enrichment.DriverCarEnricher;
 import com.modsen.rideservice.exception.AlreadyGetRatingException;
 import com.modsen.rideservice.exception.FinishDateEarlyThanStartDateException;
 import com.modsen.rideservice.exception.PassengerBankCardNotEnoughMoneyException;
 import com.modsen.rideservice.exception.RideStatusException;
+import com.modsen.rideservice.exception.ServerUnavailableException;
 import com.modsen.rideservice.exception.UnfinishedBookingRideException;
+import com.modsen.rideservice.fare.FareEngine;
 import com.modsen.rideservice.mapper.RideMapper;
+import com.modsen.rideservice.metrics.RemoteCallMetrics;
+import com.modsen.rideservice.metrics.RideLifecycleMetrics;
+import com.modsen.rideservice.model.OutboxEventType;
 import com.modsen.rideservice.model.PromoCode;
 import com.modsen.rideservice.model.Ride;
+import com.modsen.rideservice.model.RideBatchItemStatus;
 import com.modsen.rideservice.model.Status;
+import com.modsen.rideservice.pagination.KeysetCursor;
+import com.modsen.rideservice.repository.RideBatchRepository;
 import com.modsen.rideservice.repository.RideRepository;
+import com.modsen.rideservice.service.OutboxService;
 import com.modsen.rideservice.service.PromoCodeService;
+import com.modsen.rideservice.service.RatingAggregateService;
 import com.modsen.rideservice.service.impl.DriverServiceWebClient;
 import com.modsen.rideservice.service.impl.PassengerServiceWebClient;
 import com.modsen.rideservice.service.impl.RideServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
+import reactor.core.publisher.Mono;
 
-import javax.persistence.EntityManager;
+import javax.validation.Validator;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-
+import java.util.stream.Collectors;
+
+import static com.modsen.rideservice.model.RideTransition.CANCEL_BY_PASSENGER;
+import static com.modsen.rideservice.model.RideTransition.FINISH_BY_DRIVER;
+import static com.modsen.rideservice.model.RideTransition.MATCH_DRIVER;
+import static com.modsen.rideservice.model.RideTransition.NOT_FOUND_DRIVER;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.INSERT_STAGE;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.ORDER_STAGE_TIMER_NAME;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.PASSENGER_STAGE;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.PASSENGER_WAIT_STAGE;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.PROMO_CODE_STAGE;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.RATEABLE_STATUS_NAMES;
+import static com.modsen.rideservice.service.impl.RideServiceImpl.UNFINISHED_RIDE_STAGE;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -51,6 +86,7 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -61,27 +97,41 @@ import static org.mockito.Mockito.when;
 class RideServiceImplTest {
 
   public static final Long EXIST_PASSENGER_ID = 1L;
+  public static final Long SECOND_PASSENGER_ID = 2L;
+  public static final Long SECOND_BANK_CARD_ID = 2L;
   public static final Long EXIST_BANK_CARD_ID = 1L;
   public static final Long EXIST_RIDE_ID = 1L;
   public static final Long EXIST_DRIVER_ID = 1L;
+  public static final Long SECOND_DRIVER_ID = 2L;
+  public static final Long THIRD_DRIVER_ID = 3L;
   public static final Long NOT_EXIST_ID = 30L;
   public static final Integer RATING_AFTER_RIDE = 3;
   public static final BigDecimal ENOUGH_MONEY_BALANCE_ON_BANK_CARD = BigDecimal.valueOf(1000);
   public static final String EXIST_PROMO_CODE_NAME = "SUPER20";
+  public static final String PASSENGER_SERVICE_UNAVAILABLE = "Passenger service is not responding";
+  public static final String DEFAULT_TARIFF = "economy";
 
   @Mock private RideRepository rideRepository;
   @Mock private DriverServiceWebClient driverServiceWebClient;
   @Mock private PassengerServiceWebClient passengerServiceWebClient;
   @Mock private PromoCodeService promoCodeService;
   @Mock private RideMapper rideMapper;
-  @Mock private MessageChannel toKafkaChannel;
-  @Mock private EntityManager entityManager;
+  @Mock private OutboxService outboxService;
+  @Mock private DriverCarEnricher driverCarEnricher;
+  @Mock private RatingAggregateService ratingAggregateService;
+  @Mock private RideBatchRepository rideBatchRepository;
+  @Mock private Validator validator;
+  @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  @Spy private RideLifecycleMetrics rideLifecycleMetrics =
+      new RideLifecycleMetrics(new SimpleMeterRegistry());
+  @Spy private RemoteCallMetrics remoteCallMetrics =
+      new RemoteCallMetrics(new SimpleMeterRegistry());
+  @Spy private FareEngine fareEngine = new FareEngine(fareProperties());
   @InjectMocks private RideServiceImpl rideService;
 
   private RideDto rideDto;
   private Ride ride;
   private DriverWithCarDto driverWithCarDto;
-  private DriverPageDto driverPageDto;
   private PromoCode promoCode;
   private DriverRideDto driverRideDto;
   private PassengerDto passengerDto;
@@ -127,11 +177,9 @@ class RideServiceImplTest {
             .firstName("Ivan")
             .lastName("Ivanou")
             .carDto(carDto)
+            .rideBookingTime(ride.getBookingTime())
             .build();
 
-    driverPageDto = new DriverPageDto();
-    driverPageDto.setDriverDtoList(List.of(driverRideDto));
-
     driverWithCarDto = DriverWithCarDto.builder().carDto(carDto).build();
 
     promoCode = new PromoCode();
@@ -175,17 +223,56 @@ class RideServiceImplTest {
 
   @Test
   void getAll() {
-    when(rideRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(ride)));
+    when(rideRepository.findAllWithPromoCode(PageRequest.of(0, 10, Sort.by("id"))))
+        .thenReturn(List.of(ride));
     when(rideMapper.toDto(ride)).thenReturn(rideDto);
-    when(driverServiceWebClient.getDriverPageDtoByListIdsDriver(List.of(EXIST_DRIVER_ID)))
-        .thenReturn(ResponseEntity.ok(driverPageDto));
 
     List<RideDto> actual = rideService.getAll(PageRequest.of(0, 10));
 
     assertNotNull(actual);
     assertSame(1, actual.size());
-    verify(rideRepository, times(2)).findAll(any(Pageable.class));
+    verify(rideRepository).findAllWithPromoCode(any(Pageable.class));
     verify(rideMapper).toDto(ride);
+    verify(driverCarEnricher).setCarDtoToRides(actual);
+  }
+
+  @Test
+  void getAllIfPageIsSortedThanKeepRequestedSort() {
+    Pageable pageable = PageRequest.of(0, 10, Sort.by("bookingTime"));
+    when(rideRepository.findAllWithPromoCode(pageable)).thenReturn(List.of(ride));
+    when(rideMapper.toDto(ride)).thenReturn(rideDto);
+
+    List<RideDto> actual = rideService.getAll(pageable);
+
+    assertEquals(List.of(rideDto), actual);
+    verify(rideRepository).findAllWithPromoCode(pageable);
+  }
+
+  @Test
+  void getAllAfterIfMoreRidesExistThanReturnNextCursor() {
+    Ride nextRide = new Ride();
+    nextRide.setId(EXIST_RIDE_ID + 1);
+    when(rideRepository.findAllWithPromoCodeAfter(0L, PageRequest.of(0, 2)))
+        .thenReturn(List.of(ride, nextRide));
+    when(rideMapper.toDto(ride)).thenReturn(rideDto);
+
+    RidePageDto actual = rideService.getAllAfter(0L, 1);
+
+    assertEquals(List.of(rideDto), actual.getRideDtoList());
+    assertEquals(EXIST_RIDE_ID.longValue(), KeysetCursor.decode(actual.getNextCursor()));
+    verify(driverCarEnricher).setCarDtoToRides(actual.getRideDtoList());
+  }
+
+  @Test
+  void getAllAfterIfLastPageThanReturnNullNextCursor() {
+    when(rideRepository.findAllWithPromoCodeAfter(0L, PageRequest.of(0, 11)))
+        .thenReturn(List.of(ride));
+    when(rideMapper.toDto(ride)).thenReturn(rideDto);
+
+    RidePageDto actual = rideService.getAllAfter(0L, 10);
+
+    assertEquals(List.of(rideDto), actual.getRideDtoList());
+    assertNull(actual.getNextCursor());
   }
 
   @Test
@@ -194,6 +281,10 @@ class RideServiceImplTest {
 
     rideService.deleteById(EXIST_RIDE_ID);
 
+    verify(ratingAggregateService)
+        .replaceDriverRating(ride.getDriverId(), ride.getDriverRating(), null, null);
+    verify(ratingAggregateService)
+        .replacePassengerRating(ride.getPassengerId(), ride.getPassengerRating(), null, null);
     verify(rideRepository).deleteById(EXIST_RIDE_ID);
   }
 
@@ -258,19 +349,17 @@ class RideServiceImplTest {
   @Test
   void updateDriverRatingAfterRideIfRideExistAndStatusFinishedAndDriverNotTakeRatingYet() {
     DriverRatingDto driverRatingDto = DriverRatingDto.builder().rating(3.0).build();
-    ride.setStatus(Status.FINISHED);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
-    doNothing().when(entityManager).flush();
-    when(rideRepository.findAverageDriverRatingByDriverId(EXIST_DRIVER_ID)).thenReturn(3.0);
+    when(rideRepository.updateDriverRatingIfAbsent(EXIST_RIDE_ID, 3, RATEABLE_STATUS_NAMES))
+        .thenReturn(Optional.of(ride));
+    when(ratingAggregateService.addDriverRating(EXIST_DRIVER_ID, 3)).thenReturn(3.0);
     doNothing()
         .when(driverServiceWebClient)
         .updateDriverRatingAfterRide(ride.getDriverId(), driverRatingDto);
 
     rideService.updateDriverRatingAfterRide(EXIST_RIDE_ID, 3);
 
-    verify(entityManager).flush();
-    verify(rideRepository).findAverageDriverRatingByDriverId(ride.getDriverId());
-    verify(rideRepository).findById(EXIST_RIDE_ID);
+    verify(ratingAggregateService).addDriverRating(ride.getDriverId(), 3);
+    verify(rideRepository, never()).findById(EXIST_RIDE_ID);
     verify(driverServiceWebClient).updateDriverRatingAfterRide(ride.getDriverId(), driverRatingDto);
   }
 
@@ -279,11 +368,14 @@ class RideServiceImplTest {
     DriverRatingDto driverRatingDto = DriverRatingDto.builder().rating(3.0).build();
     ride.setStatus(Status.FINISHED);
     ride.setDriverRating(3);
+    when(rideRepository.updateDriverRatingIfAbsent(EXIST_RIDE_ID, 3, RATEABLE_STATUS_NAMES))
+        .thenReturn(Optional.empty());
     when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
 
     assertThrows(
         AlreadyGetRatingException.class,
         () -> rideService.updateDriverRatingAfterRide(EXIST_RIDE_ID, 3));
+    verify(ratingAggregateService, never()).addDriverRating(any(), any());
     verify(driverServiceWebClient, never())
         .updateDriverRatingAfterRide(ride.getDriverId(), driverRatingDto);
   }
@@ -292,10 +384,13 @@ class RideServiceImplTest {
   void updateDriverRatingAfterRideIfRideExistAndStatusNotFinishedOrActive() {
     DriverRatingDto driverRatingDto = DriverRatingDto.builder().rating(3.0).build();
     ride.setStatus(Status.PENDING);
+    when(rideRepository.updateDriverRatingIfAbsent(EXIST_RIDE_ID, 3, RATEABLE_STATUS_NAMES))
+        .thenReturn(Optional.empty());
     when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
 
     assertThrows(
         RideStatusException.class, () -> rideService.updateDriverRatingAfterRide(EXIST_RIDE_ID, 3));
+    verify(ratingAggregateService, never()).addDriverRating(any(), any());
     verify(driverServiceWebClient, never())
         .updateDriverRatingAfterRide(ride.getDriverId(), driverRatingDto);
   }
@@ -303,6 +398,8 @@ class RideServiceImplTest {
   @Test
   void updateDriverRatingAfterRideIfRideNotExist() {
     DriverRatingDto driverRatingDto = DriverRatingDto.builder().rating(3.0).build();
+    when(rideRepository.updateDriverRatingIfAbsent(NOT_EXIST_ID, 3, RATEABLE_STATUS_NAMES))
+        .thenReturn(Optional.empty());
     when(rideRepository.findById(NOT_EXIST_ID)).thenReturn(Optional.empty());
 
     assertThrows(
@@ -314,10 +411,15 @@ class RideServiceImplTest {
 
   @Test
   void cancelByPassengerIfRideExistAndStatusPending() {
-    ride.setStatus(Status.PENDING);
+    ride.setStatus(Status.CANCELED);
     rideDto.setStatus(Status.CANCELED);
     rideDto.setFinishTime(LocalDateTime.now());
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
+    when(rideRepository.updateStatusAndFinishTime(
+            eq(EXIST_RIDE_ID),
+            any(LocalDateTime.class),
+            eq(CANCEL_BY_PASSENGER.getFromStatusNames()),
+            eq(CANCEL_BY_PASSENGER.getToStatusName())))
+        .thenReturn(Optional.of(ride));
     when(rideMapper.toDto(ride)).thenReturn(rideDto);
 
     RideDto actualCanceledRide = rideService.cancelByPassenger(EXIST_RIDE_ID);
@@ -325,21 +427,28 @@ class RideServiceImplTest {
 
     assertSame(Status.CANCELED, actualStatus);
     assertNotNull(actualCanceledRide.getFinishTime());
-    verify(rideRepository).findById(EXIST_RIDE_ID);
+    verify(rideRepository, never()).findById(EXIST_RIDE_ID);
     verify(rideMapper).toDto(ride);
   }
 
   @Test
   void cancelByPassengerIfRideExistAndStatusActive() {
-    ride.setStatus(Status.ACTIVE);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
+    when(rideRepository.updateStatusAndFinishTime(
+            eq(EXIST_RIDE_ID), any(LocalDateTime.class), any(), any()))
+        .thenReturn(Optional.empty());
+    when(rideRepository.existsById(EXIST_RIDE_ID)).thenReturn(true);
 
-    assertThrows(RideStatusException.class, () -> rideService.cancelByPassenger(EXIST_RIDE_ID));
+    RideStatusException exception =
+        assertThrows(RideStatusException.class, () -> rideService.cancelByPassenger(EXIST_RIDE_ID));
+    assertEquals(CANCEL_BY_PASSENGER.getRejectionMessage(), exception.getMessage());
   }
 
   @Test
   void cancelByPassengerIfRideNotExist() {
-    when(rideRepository.findById(NOT_EXIST_ID)).thenReturn(Optional.empty());
+    when(rideRepository.updateStatusAndFinishTime(
+            eq(NOT_EXIST_ID), any(LocalDateTime.class), any(), any()))
+        .thenReturn(Optional.empty());
+    when(rideRepository.existsById(NOT_EXIST_ID)).thenReturn(false);
 
     assertThrows(NoSuchElementException.class, () -> rideService.cancelByPassenger(NOT_EXIST_ID));
   }
@@ -348,48 +457,64 @@ class RideServiceImplTest {
   void finishByDriverIfRideExistAndStatusActive() {
     PassengerRatingFinishDto passengerRatingFinishDto = new PassengerRatingFinishDto();
     passengerRatingFinishDto.setPassengerRating(RATING_AFTER_RIDE);
-    ride.setStatus(Status.ACTIVE);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
-    when(rideRepository.save(ride)).thenReturn(ride);
-    doNothing().when(entityManager).flush();
-    doNothing().when(driverServiceWebClient).updateDriverAvailabilityToTrueAfterRide(EXIST_RIDE_ID);
-    when(rideRepository.findAveragePassengerRatingByPassengerId(EXIST_PASSENGER_ID))
+    ride.setStatus(Status.FINISHED);
+    ride.setPassengerRating(RATING_AFTER_RIDE);
+    when(rideRepository.updateStatusAndFinishWithPassengerRating(
+            eq(EXIST_RIDE_ID),
+            any(LocalDateTime.class),
+            eq(RATING_AFTER_RIDE),
+            eq(FINISH_BY_DRIVER.getFromStatusNames()),
+            eq(FINISH_BY_DRIVER.getToStatusName())))
+        .thenReturn(Optional.of(ride));
+    when(ratingAggregateService.addPassengerRating(EXIST_PASSENGER_ID, RATING_AFTER_RIDE))
         .thenReturn(RATING_AFTER_RIDE.doubleValue());
-    doNothing()
-        .when(passengerServiceWebClient)
-        .updatePassengerAfterRide(ride, RATING_AFTER_RIDE.doubleValue());
 
     rideService.finishByDriver(EXIST_RIDE_ID, passengerRatingFinishDto);
 
-    verify(rideRepository).findById(EXIST_RIDE_ID);
-    verify(rideRepository).save(ride);
-    verify(entityManager).flush();
-    verify(driverServiceWebClient).updateDriverAvailabilityToTrueAfterRide(EXIST_DRIVER_ID);
-    verify(rideRepository).findAveragePassengerRatingByPassengerId(EXIST_PASSENGER_ID);
-    verify(passengerServiceWebClient)
-        .updatePassengerAfterRide(ride, RATING_AFTER_RIDE.doubleValue());
+    ArgumentCaptor<RideFinishedDto> rideFinishedDtoCaptor =
+        ArgumentCaptor.forClass(RideFinishedDto.class);
+    verify(rideRepository, never()).findById(EXIST_RIDE_ID);
+    verify(rideRepository, never()).save(ride);
+    verify(ratingAggregateService).addPassengerRating(EXIST_PASSENGER_ID, RATING_AFTER_RIDE);
+    verify(outboxService)
+        .save(
+            any(),
+            eq(String.valueOf(EXIST_RIDE_ID)),
+            eq(OutboxEventType.RIDE_FINISHED),
+            rideFinishedDtoCaptor.capture());
+    verify(driverServiceWebClient, never()).updateDriverAvailabilityToTrueAfterRide(any(), any());
+    RideFinishedDto actualRideFinishedDto = rideFinishedDtoCaptor.getValue();
+    assertNotNull(actualRideFinishedDto.getEventId());
+    assertEquals(EXIST_DRIVER_ID, actualRideFinishedDto.getDriverId());
+    assertEquals(ride.getCost(), actualRideFinishedDto.getRideCost());
+    assertEquals(RATING_AFTER_RIDE.doubleValue(), actualRideFinishedDto.getPassengerRating());
   }
 
   @Test
   void finishByDriverIfRideExistAndStatusNotActive() {
     PassengerRatingFinishDto passengerRatingFinishDto = new PassengerRatingFinishDto();
     passengerRatingFinishDto.setPassengerRating(RATING_AFTER_RIDE);
-    ride.setStatus(Status.PENDING);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
+    when(rideRepository.updateStatusAndFinishWithPassengerRating(
+            eq(EXIST_RIDE_ID), any(LocalDateTime.class), eq(RATING_AFTER_RIDE), any(), any()))
+        .thenReturn(Optional.empty());
+    when(rideRepository.existsById(EXIST_RIDE_ID)).thenReturn(true);
 
     assertThrows(
         RideStatusException.class,
         () -> rideService.finishByDriver(EXIST_RIDE_ID, passengerRatingFinishDto));
 
-    verify(rideRepository).findById(EXIST_RIDE_ID);
-    verify(rideRepository, never()).save(ride);
+    verify(ratingAggregateService, never()).addPassengerRating(any(), any());
+    verify(outboxService, never()).save(any(), any(), any(), any());
   }
 
   @Test
   void finishByDriverIfRideNotExist() {
     PassengerRatingFinishDto passengerRatingFinishDto = new PassengerRatingFinishDto();
     passengerRatingFinishDto.setPassengerRating(RATING_AFTER_RIDE);
-    when(rideRepository.findById(NOT_EXIST_ID)).thenReturn(Optional.empty());
+    when(rideRepository.updateStatusAndFinishWithPassengerRating(
+            eq(NOT_EXIST_ID), any(LocalDateTime.class), eq(RATING_AFTER_RIDE), any(), any()))
+        .thenReturn(Optional.empty());
+    when(rideRepository.existsById(NOT_EXIST_ID)).thenReturn(false);
 
     assertThrows(
         NoSuchElementException.class,
@@ -398,75 +523,216 @@ class RideServiceImplTest {
 
   @Test
   void getAvailableDriverIfRideExistAndStatusPending() {
-    ride.setStatus(Status.PENDING);
-    ride.setDriverId(null);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
-    when(rideRepository.save(ride)).thenReturn(ride);
+    when(rideRepository.updateStatusAndAssignDriver(
+            eq(EXIST_RIDE_ID),
+            eq(ride.getBookingTime()),
+            eq(EXIST_DRIVER_ID),
+            any(LocalDateTime.class),
+            eq(MATCH_DRIVER.getFromStatusNames()),
+            eq(MATCH_DRIVER.getToStatusName())))
+        .thenReturn(Optional.of(ride));
 
     rideService.getAvailableDriver(driverRideDto);
 
-    assertSame(Status.ACTIVE, ride.getStatus());
-    assertNotNull(ride.getDriverId());
-    assertNotNull(ride.getApprovedTime());
-    assertNotNull(ride.getStartTime());
-    verify(rideRepository).findById(EXIST_RIDE_ID);
-    verify(rideRepository).save(ride);
+    verify(rideLifecycleMetrics).recordMatched(ride);
+    verify(rideBatchRepository, never()).findBookingTimesByIdIn(any());
+    verify(rideRepository, never()).findById(EXIST_RIDE_ID);
+    verify(outboxService, never()).save(any(), any(), any(), any());
   }
 
   @Test
   void getAvailableDriverIfRideExistAndStatusNotPending() {
-    ride.setStatus(Status.ACTIVE);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
-    doNothing()
-        .when(driverServiceWebClient)
-        .updateDriverAvailabilityToTrueAfterRide(EXIST_DRIVER_ID);
+    when(rideRepository.updateStatusAndAssignDriver(
+            eq(EXIST_RIDE_ID),
+            eq(ride.getBookingTime()),
+            eq(EXIST_DRIVER_ID),
+            any(LocalDateTime.class),
+            any(),
+            any()))
+        .thenReturn(Optional.empty());
 
     rideService.getAvailableDriver(driverRideDto);
 
-    assertSame(Status.ACTIVE, ride.getStatus());
-    assertNull(ride.getApprovedTime());
-    assertNull(ride.getStartTime());
-    verify(rideRepository).findById(EXIST_RIDE_ID);
+    verifyDriverReleased(EXIST_DRIVER_ID, EXIST_RIDE_ID);
+    verify(driverServiceWebClient, never()).updateDriverAvailabilityToTrueAfterRide(any(), any());
   }
 
   @Test
-  void getAvailableDriverIfRideNotExist() {
+  void getAvailableDriverIfRideNotExistThanReleasesDriver() {
     driverRideDto.setRideId(NOT_EXIST_ID);
-    when(rideRepository.findById(NOT_EXIST_ID)).thenReturn(Optional.empty());
+    when(rideRepository.updateStatusAndAssignDriver(
+            eq(NOT_EXIST_ID),
+            eq(ride.getBookingTime()),
+            eq(EXIST_DRIVER_ID),
+            any(LocalDateTime.class),
+            any(),
+            any()))
+        .thenReturn(Optional.empty());
+
+    assertDoesNotThrow(() -> rideService.getAvailableDriver(driverRideDto));
+    verifyDriverReleased(EXIST_DRIVER_ID, NOT_EXIST_ID);
+  }
+
+  @Test
+  void getAvailableDriverIfMatchHasNoBookingTimeThanLooksItUp() {
+    driverRideDto.setRideBookingTime(null);
+    when(rideBatchRepository.findBookingTimesByIdIn(List.of(EXIST_RIDE_ID)))
+        .thenReturn(Map.of(EXIST_RIDE_ID, ride.getBookingTime()));
+    when(rideRepository.updateStatusAndAssignDriver(
+            eq(EXIST_RIDE_ID),
+            eq(ride.getBookingTime()),
+            eq(EXIST_DRIVER_ID),
+            any(LocalDateTime.class),
+            any(),
+            any()))
+        .thenReturn(Optional.of(ride));
+
+    rideService.getAvailableDriver(driverRideDto);
+
+    verify(rideLifecycleMetrics).recordMatched(ride);
+  }
+
+  @Test
+  void getAvailableDriverIfMatchHasNoBookingTimeAndRideNotExistThanReleasesDriver() {
+    driverRideDto.setRideId(NOT_EXIST_ID);
+    driverRideDto.setRideBookingTime(null);
+    when(rideBatchRepository.findBookingTimesByIdIn(List.of(NOT_EXIST_ID))).thenReturn(Map.of());
 
-    assertThrows(NoSuchElementException.class, () -> rideService.getAvailableDriver(driverRideDto));
+    assertDoesNotThrow(() -> rideService.getAvailableDriver(driverRideDto));
+    verify(rideRepository, never())
+        .updateStatusAndAssignDriver(anyLong(), any(), anyLong(), any(), any(), any());
+    verifyDriverReleased(EXIST_DRIVER_ID, NOT_EXIST_ID);
   }
 
   @Test
   void getNotFoundDriverIfStatusPending() {
-    ride.setStatus(Status.PENDING);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
+    when(rideRepository.updateStatus(
+            EXIST_RIDE_ID,
+            ride.getBookingTime(),
+            NOT_FOUND_DRIVER.getFromStatusNames(),
+            NOT_FOUND_DRIVER.getToStatusName()))
+        .thenReturn(Optional.of(ride));
 
     rideService.getNotFoundDriver(driverRideDto);
 
-    assertEquals(Status.NO_DRIVERS, ride.getStatus());
-    verify(rideRepository).findById(EXIST_RIDE_ID);
+    verify(rideLifecycleMetrics).recordNoDrivers(eq(ride), any(LocalDateTime.class));
+    verify(rideRepository, never()).existsById(EXIST_RIDE_ID);
   }
 
   @Test
   void getNotFoundDriverIfStatusNotPending() {
-    ride.setStatus(Status.PENDING);
-    when(rideRepository.findById(EXIST_RIDE_ID)).thenReturn(Optional.of(ride));
+    when(rideRepository.updateStatus(
+            EXIST_RIDE_ID,
+            ride.getBookingTime(),
+            NOT_FOUND_DRIVER.getFromStatusNames(),
+            NOT_FOUND_DRIVER.getToStatusName()))
+        .thenReturn(Optional.empty());
+    when(rideRepository.existsById(EXIST_RIDE_ID)).thenReturn(true);
 
     rideService.getNotFoundDriver(driverRideDto);
 
-    assertEquals(Status.NO_DRIVERS, ride.getStatus());
-    verify(rideRepository).findById(EXIST_RIDE_ID);
+    verify(rideRepository).existsById(EXIST_RIDE_ID);
   }
 
   @Test
   void getNotFoundDriverIfRideNotExist() {
     driverRideDto.setRideId(NOT_EXIST_ID);
-    when(rideRepository.findById(NOT_EXIST_ID)).thenReturn(Optional.empty());
+    when(rideRepository.updateStatus(
+            NOT_EXIST_ID,
+            ride.getBookingTime(),
+            NOT_FOUND_DRIVER.getFromStatusNames(),
+            NOT_FOUND_DRIVER.getToStatusName()))
+        .thenReturn(Optional.empty());
+    when(rideRepository.existsById(NOT_EXIST_ID)).thenReturn(false);
 
     assertThrows(NoSuchElementException.class, () -> rideService.getNotFoundDriver(driverRideDto));
   }
 
+  @Test
+  void getAvailableDriversAppliesBatchInOrderAndReleasesDriversOfRejectedAndUnknownMatches() {
+    DriverRideDto repeatedMatch =
+        DriverRideDto.builder().id(SECOND_DRIVER_ID).rideId(EXIST_RIDE_ID).build();
+    DriverRideDto unknownRideMatch =
+        DriverRideDto.builder().id(THIRD_DRIVER_ID).rideId(NOT_EXIST_ID).build();
+    List<DriverRideDto> driverRideDtos = List.of(driverRideDto, repeatedMatch, unknownRideMatch);
+    when(rideBatchRepository.findBookingTimesByIdIn(
+            List.of(EXIST_RIDE_ID, EXIST_RIDE_ID, NOT_EXIST_ID)))
+        .thenReturn(Map.of(EXIST_RIDE_ID, ride.getBookingTime()));
+    when(rideBatchRepository.updateStatusAndAssignDrivers(
+            eq(driverRideDtos),
+            eq(Map.of(EXIST_RIDE_ID, ride.getBookingTime())),
+            any(LocalDateTime.class),
+            eq(MATCH_DRIVER.getFromStatusNames()),
+            eq(MATCH_DRIVER.getToStatusName())))
+        .thenReturn(new int[] {1, 0, 0});
+
+    rideService.getAvailableDrivers(driverRideDtos);
+
+    verify(rideLifecycleMetrics).recordMatched(eq(ride.getBookingTime()), any(LocalDateTime.class));
+    verifyDriverReleased(SECOND_DRIVER_ID, EXIST_RIDE_ID);
+    verifyDriverReleased(THIRD_DRIVER_ID, NOT_EXIST_ID);
+    verify(outboxService, times(2)).save(any(), any(), eq(OutboxEventType.DRIVER_RELEASE), any());
+    verify(rideRepository, never())
+        .updateStatusAndAssignDriver(anyLong(), any(), anyLong(), any(), any(), any());
+  }
+
+  @Test
+  void getAvailableDriversWithoutRejectedMatchesReleasesNoDrivers() {
+    List<DriverRideDto> driverRideDtos = List.of(driverRideDto);
+    when(rideBatchRepository.updateStatusAndAssignDrivers(
+            eq(driverRideDtos), any(), any(LocalDateTime.class), any(), any()))
+        .thenReturn(new int[] {1});
+
+    rideService.getAvailableDrivers(driverRideDtos);
+
+    verify(outboxService, never()).save(any(), any(), any(), any());
+    verify(driverServiceWebClient, never()).updateDriverAvailabilityToTrueAfterRide(any(), any());
+  }
+
+  @Test
+  void getNotFoundDriversUpdatesBatchAndSkipsUnknownRides() {
+    List<DriverRideDto> driverRideDtos =
+        List.of(
+            DriverRideDto.builder().rideId(EXIST_RIDE_ID).build(),
+            DriverRideDto.builder().rideId(NOT_EXIST_ID).build());
+    when(rideBatchRepository.findBookingTimesByIdIn(List.of(EXIST_RIDE_ID, NOT_EXIST_ID)))
+        .thenReturn(Map.of(EXIST_RIDE_ID, ride.getBookingTime()));
+    when(rideBatchRepository.updateStatuses(
+            List.of(EXIST_RIDE_ID, NOT_EXIST_ID),
+            Map.of(EXIST_RIDE_ID, ride.getBookingTime()),
+            NOT_FOUND_DRIVER.getFromStatusNames(),
+            NOT_FOUND_DRIVER.getToStatusName()))
+        .thenReturn(new int[] {1, 0});
+
+    rideService.getNotFoundDrivers(driverRideDtos);
+
+    verify(rideLifecycleMetrics)
+        .recordNoDrivers(eq(ride.getBookingTime()), any(LocalDateTime.class));
+    verify(rideRepository, never()).existsById(anyLong());
+  }
+
+  @Test
+  void getNotFoundDriversWithBookingTimesUpdatesBatchWithoutLookingThemUp() {
+    List<DriverRideDto> driverRideDtos =
+        List.of(
+            DriverRideDto.builder()
+                .rideId(EXIST_RIDE_ID)
+                .rideBookingTime(ride.getBookingTime())
+                .build());
+    when(rideBatchRepository.updateStatuses(
+            List.of(EXIST_RIDE_ID),
+            Map.of(EXIST_RIDE_ID, ride.getBookingTime()),
+            NOT_FOUND_DRIVER.getFromStatusNames(),
+            NOT_FOUND_DRIVER.getToStatusName()))
+        .thenReturn(new int[] {1});
+
+    rideService.getNotFoundDrivers(driverRideDtos);
+
+    verify(rideLifecycleMetrics)
+        .recordNoDrivers(eq(ride.getBookingTime()), any(LocalDateTime.class));
+    verify(rideBatchRepository, never()).findBookingTimesByIdIn(any());
+  }
+
   @Test
   void orderRideIfPassengerPayBankCardAndHaveEnoughMoneyWithValidPromoCode() {
     rideDto.setBookingTime(null);
@@ -474,11 +740,10 @@ class RideServiceImplTest {
         .thenReturn(Collections.emptyList());
     when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
     when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
-        .thenReturn(ResponseEntity.ok(passengerDto));
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
     when(rideMapper.toEntity(rideDto)).thenReturn(ride);
     when(rideRepository.save(ride)).thenReturn(ride);
     when(rideMapper.toDto(ride)).thenReturn(rideDto);
-    when(toKafkaChannel.send(any(Message.class))).thenReturn(true);
 
     rideService.order(rideDto);
 
@@ -490,11 +755,190 @@ class RideServiceImplTest {
     verify(rideMapper).toEntity(rideDto);
     verify(rideRepository).save(ride);
     verify(rideMapper).toDto(ride);
-    verify(toKafkaChannel).send(any(Message.class));
+    verify(outboxService)
+        .save(
+            any(),
+            eq(String.valueOf(ride.getId())),
+            eq(OutboxEventType.RIDE_SEARCH),
+            any(RideSearchDto.class));
+  }
+
+  @Test
+  void orderRideCostIsCalculatedByTariffAndDiscountedByPromoCode() {
+    rideDto.setDistanceMeters(10_000L);
+    rideDto.setDurationSeconds(900L);
+    when(rideRepository.findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID))
+        .thenReturn(Collections.emptyList());
+    when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
+    when(rideMapper.toEntity(rideDto)).thenReturn(ride);
+    when(rideRepository.save(ride)).thenReturn(ride);
+    when(rideMapper.toDto(ride)).thenReturn(rideDto);
+
+    rideService.order(rideDto);
+
+    assertEquals(new BigDecimal("2.90"), rideDto.getCost());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void orderBatchLooksUpEachDistinctPassengerAndPromoCodeOnceAndReportsResultPerRide() {
+    RideDto unknownTariffRideDto =
+        RideDto.builder()
+            .startLocation("Minsk")
+            .endLocation("Berlin")
+            .passengerId(SECOND_PASSENGER_ID)
+            .passengerBankCardId("2")
+            .tariff("business")
+            .build();
+    RideDto secondRideDto =
+        RideDto.builder()
+            .startLocation("Minsk")
+            .endLocation("Paris")
+            .passengerId(SECOND_PASSENGER_ID)
+            .passengerBankCardId("2")
+            .promoCodeName(EXIST_PROMO_CODE_NAME)
+            .build();
+    PassengerDto secondPassengerDto =
+        PassengerDto.builder()
+            .id(SECOND_PASSENGER_ID)
+            .bankCards(
+                List.of(
+                    BankCardDto.builder()
+                        .id(SECOND_BANK_CARD_ID)
+                        .balance(ENOUGH_MONEY_BALANCE_ON_BANK_CARD)
+                        .build()))
+            .build();
+    Ride secondRide = new Ride();
+    secondRide.setId(2L);
+    when(rideRepository.findByPassengerIdAndFinishTimeNotNull(anyLong()))
+        .thenReturn(Collections.emptyList());
+    when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
+    when(passengerServiceWebClient.getPassengerDtoById(SECOND_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(secondPassengerDto)));
+    when(rideMapper.toEntity(rideDto)).thenReturn(ride);
+    when(rideMapper.toEntity(secondRideDto)).thenReturn(secondRide);
+    when(rideMapper.toDto(any(Ride.class))).thenReturn(rideDto);
+
+    RideBatchResultDto actual =
+        rideService.orderBatch(
+            RideBatchDto.builder()
+                .rideDtoList(List.of(rideDto, unknownTariffRideDto, secondRideDto))
+                .build());
+
+    ArgumentCaptor<List<Ride>> ridesCaptor = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<Map<String, RideSearchDto>> rideSearchDtosCaptor =
+        ArgumentCaptor.forClass(Map.class);
+    assertEquals(2, actual.getCreated());
+    assertEquals(1, actual.getRejected());
+    assertEquals(
+        List.of(
+            RideBatchItemStatus.CREATED, RideBatchItemStatus.REJECTED, RideBatchItemStatus.CREATED),
+        actual.getItems().stream().map(RideBatchItemDto::getStatus).collect(Collectors.toList()));
+    assertNotNull(actual.getItems().get(1).getError());
+    assertEquals(Status.PENDING, secondRideDto.getStatus());
+    verify(passengerServiceWebClient, times(1)).getPassengerDtoById(EXIST_PASSENGER_ID);
+    verify(passengerServiceWebClient, times(1)).getPassengerDtoById(SECOND_PASSENGER_ID);
+    verify(rideRepository, times(1)).findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID);
+    verify(rideRepository, times(1)).findByPassengerIdAndFinishTimeNotNull(SECOND_PASSENGER_ID);
+    verify(promoCodeService, times(1)).getByName(EXIST_PROMO_CODE_NAME);
+    verify(rideBatchRepository).insertAll(ridesCaptor.capture());
+    verify(rideRepository, never()).save(any(Ride.class));
+    verify(outboxService)
+        .saveAll(any(), eq(OutboxEventType.RIDE_SEARCH), rideSearchDtosCaptor.capture());
+    assertEquals(List.of(ride, secondRide), ridesCaptor.getValue());
+    assertEquals(List.of("1", "2"), List.copyOf(rideSearchDtosCaptor.getValue().keySet()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void orderBatchIfPassengerOrdersSeveralRidesThanCreatesOnlyFirst() {
+    RideDto secondRideDto =
+        RideDto.builder()
+            .startLocation("Minsk")
+            .endLocation("Paris")
+            .passengerId(EXIST_PASSENGER_ID)
+            .passengerBankCardId("1")
+            .build();
+    when(rideRepository.findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID))
+        .thenReturn(Collections.emptyList());
+    when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
+    when(rideMapper.toEntity(rideDto)).thenReturn(ride);
+    when(rideMapper.toDto(ride)).thenReturn(rideDto);
+
+    RideBatchResultDto actual =
+        rideService.orderBatch(
+            RideBatchDto.builder().rideDtoList(List.of(rideDto, secondRideDto)).build());
+
+    ArgumentCaptor<List<Ride>> ridesCaptor = ArgumentCaptor.forClass(List.class);
+    assertEquals(1, actual.getCreated());
+    assertEquals(RideBatchItemStatus.REJECTED, actual.getItems().get(1).getStatus());
+    assertEquals(
+        "You have unfinished ride. You could order new ride after finished current ride",
+        actual.getItems().get(1).getError());
+    verify(rideRepository, times(1)).findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID);
+    verify(rideBatchRepository).insertAll(ridesCaptor.capture());
+    assertEquals(List.of(ride), ridesCaptor.getValue());
+  }
+
+  @Test
+  void orderRideIfTariffNotFound() {
+    rideDto.setTariff("business");
+    when(rideRepository.findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID))
+        .thenReturn(Collections.emptyList());
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
+
+    assertThrows(NoSuchElementException.class, () -> rideService.order(rideDto));
+    verify(rideRepository, never()).save(any(Ride.class));
+  }
+
+  @Test
+  void orderRideRecordsDurationOfEveryStage() {
+    when(rideRepository.findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID))
+        .thenReturn(Collections.emptyList());
+    when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
+    when(rideMapper.toEntity(rideDto)).thenReturn(ride);
+    when(rideRepository.save(ride)).thenReturn(ride);
+    when(rideMapper.toDto(ride)).thenReturn(rideDto);
+
+    rideService.order(rideDto);
+
+    for (String stage :
+        List.of(
+            PASSENGER_STAGE,
+            PASSENGER_WAIT_STAGE,
+            UNFINISHED_RIDE_STAGE,
+            PROMO_CODE_STAGE,
+            INSERT_STAGE)) {
+      assertEquals(
+          1, meterRegistry.get(ORDER_STAGE_TIMER_NAME).tag("stage", stage).timer().count());
+    }
+  }
+
+  @Test
+  void orderRideIfPassengerServiceFailedThanPropagateException() {
+    when(rideRepository.findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID))
+        .thenReturn(Collections.emptyList());
+    when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.error(new ServerUnavailableException(PASSENGER_SERVICE_UNAVAILABLE)));
+
+    assertThrows(ServerUnavailableException.class, () -> rideService.order(rideDto));
+    verify(rideRepository, never()).save(any(Ride.class));
   }
 
   @Test
   void orderRideIfPassengerHasUnfinishedRide() {
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
     when(rideRepository.findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID))
         .thenReturn(List.of(ride));
 
@@ -506,6 +950,8 @@ class RideServiceImplTest {
     when(rideRepository.findByPassengerIdAndFinishTimeNotNull(EXIST_PASSENGER_ID))
         .thenReturn(Collections.emptyList());
     when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenThrow(NoSuchElementException.class);
+    when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
 
     assertThrows(NoSuchElementException.class, () -> rideService.order(rideDto));
   }
@@ -516,7 +962,7 @@ class RideServiceImplTest {
         .thenReturn(Collections.emptyList());
     when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
     when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
-        .thenReturn(ResponseEntity.badRequest().body(null));
+        .thenReturn(Mono.just(ResponseEntity.badRequest().body(null)));
 
     assertThrows(NoSuchElementException.class, () -> rideService.order(rideDto));
   }
@@ -528,7 +974,7 @@ class RideServiceImplTest {
         .thenReturn(Collections.emptyList());
     when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
     when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
-        .thenReturn(ResponseEntity.ok(passengerDto));
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
 
     assertThrows(NoSuchElementException.class, () -> rideService.order(rideDto));
   }
@@ -540,8 +986,35 @@ class RideServiceImplTest {
         .thenReturn(Collections.emptyList());
     when(promoCodeService.getByName(EXIST_PROMO_CODE_NAME)).thenReturn(promoCode);
     when(passengerServiceWebClient.getPassengerDtoById(EXIST_PASSENGER_ID))
-        .thenReturn(ResponseEntity.ok(passengerDto));
+        .thenReturn(Mono.just(ResponseEntity.ok(passengerDto)));
 
     assertThrows(PassengerBankCardNotEnoughMoneyException.class, () -> rideService.order(rideDto));
   }
+
+  private static FareProperties fareProperties() {
+    FareProperties.TariffProperties economy = new FareProperties.TariffProperties();
+    economy.setBaseFareCents(250);
+    economy.setPerKmCents(90);
+    economy.setPerMinuteCents(20);
+    economy.setMinimumFareCents(1000);
+    FareProperties fareProperties = new FareProperties();
+    fareProperties.setDefaultTariff(DEFAULT_TARIFF);
+    fareProperties.getTariffs().put(DEFAULT_TARIFF, economy);
+    return fareProperties;
+  }
+
+  private void verifyDriverReleased(Long driverId, Long rideId) {
+    ArgumentCaptor<DriverReleaseDto> driverReleaseDtoCaptor =
+        ArgumentCaptor.forClass(DriverReleaseDto.class);
+    verify(outboxService)
+        .save(
+            any(),
+            eq(String.valueOf(driverId)),
+            eq(OutboxEventType.DRIVER_RELEASE),
+            driverReleaseDtoCaptor.capture());
+    DriverReleaseDto actualDriverReleaseDto = driverReleaseDtoCaptor.getValue();
+    assertNotNull(actualDriverReleaseDto.getEventId());
+    assertEquals(rideId, actualDriverReleaseDto.getRideId());
+    assertEquals(driverId, actualDriverReleaseDto.getDriverId());
+  }
 }
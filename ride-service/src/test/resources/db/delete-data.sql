@@ -1,2 +1,5 @@
+DELETE FROM outbox_events;
+DELETE FROM driver_rating_aggregates;
+DELETE FROM passenger_rating_aggregates;
 DELETE FROM rides;
 DELETE FROM promo_codes;
\ No newline at end of file